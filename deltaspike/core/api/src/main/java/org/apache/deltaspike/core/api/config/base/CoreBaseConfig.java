@@ -61,6 +61,96 @@ public interface CoreBaseConfig extends DeltaSpikeBaseConfig
                             .withCurrentProjectStage(true)
                             .withDefault(1024)
                             .getValue();
+
+            /**
+             * Windows which haven't been used for the given time get destroyed, 0 keeps idle windows
+             * until the session ends.
+             */
+            Integer MAX_IDLE_TIME_IN_SECONDS =
+                    ConfigResolver.resolve("deltaspike.scope.window.max-idle-time_in_seconds")
+                            .as(Integer.class)
+                            .withCurrentProjectStage(true)
+                            .withDefault(0)
+                            .getValue();
+        }
+
+        interface ConversationRestriction
+        {
+            String MAX_IDLE_TIME_IN_SECONDS_KEY = "deltaspike.scope.conversation.max-idle-time_in_seconds";
+
+            /**
+             * Conversations which haven't been used for the given time get closed, 0 keeps idle conversations
+             * until their window or the session ends. Can be overruled per conversation-group via
+             * {@link #MAX_IDLE_TIME_IN_SECONDS_KEY} + "." + the fully qualified name of the group.
+             */
+            Integer MAX_IDLE_TIME_IN_SECONDS =
+                    ConfigResolver.resolve(MAX_IDLE_TIME_IN_SECONDS_KEY)
+                            .as(Integer.class)
+                            .withCurrentProjectStage(true)
+                            .withDefault(0)
+                            .getValue();
+        }
+
+        interface Statistics
+        {
+            /**
+             * Whether the storages of the window-, view-access- and conversation-scopes are tracked
+             * for the ScopeStatistics MBean.
+             */
+            Boolean ENABLED =
+                    ConfigResolver.resolve("deltaspike.scope.statistics.enabled")
+                            .as(Boolean.class)
+                            .withCurrentProjectStage(true)
+                            .withDefault(Boolean.FALSE)
+                            .getValue();
+        }
+
+        interface Storage
+        {
+            /**
+             * Whether the beans of the window-, view-access- and conversation-scopes are stored in
+             * slot-indexed storages. Their arrays are sized for the beans of all three scopes, so it's an opt-in
+             * for applications with many beans per storage.
+             */
+            Boolean INDEXED =
+                    ConfigResolver.resolve("deltaspike.scope.storage.indexed")
+                            .as(Boolean.class)
+                            .withCurrentProjectStage(true)
+                            .withDefault(Boolean.FALSE)
+                            .getValue();
+
+            /**
+             * Storages of windows and conversations which haven't been used for the given time get written
+             * to the {@link org.apache.deltaspike.core.spi.scope.storage.ContextualStorageStore},
+             * 0 keeps all storages on the heap.
+             */
+            Integer SPILL_IDLE_TIME_IN_SECONDS =
+                    ConfigResolver.resolve("deltaspike.scope.storage.spill-idle-time_in_seconds")
+                            .as(Integer.class)
+                            .withCurrentProjectStage(true)
+                            .withDefault(0)
+                            .getValue();
+
+            /**
+             * Whether the bean holders of the window-, view-access- and conversation-scopes track the changed
+             * storages and beans for a delta replication, see
+             * {@link org.apache.deltaspike.core.spi.scope.storage.DeltaReplicable}.
+             */
+            Boolean DELTA_TRACKING =
+                    ConfigResolver.resolve("deltaspike.scope.storage.delta-tracking")
+                            .as(Boolean.class)
+                            .withCurrentProjectStage(true)
+                            .withDefault(Boolean.FALSE)
+                            .getValue();
+
+            /**
+             * Parent directory of the directory of the default store, the temporary directory is used if
+             * it isn't set. Every store creates its own sub-directory.
+             */
+            String SPILL_DIRECTORY =
+                    ConfigResolver.resolve("deltaspike.scope.storage.spill-directory")
+                            .withCurrentProjectStage(true)
+                            .getValue();
         }
     }
 
@@ -74,6 +164,20 @@ public interface CoreBaseConfig extends DeltaSpikeBaseConfig
                         .getValue();
     }
 
+    interface FutureableCustomization
+    {
+        /**
+         * Whether {@link org.apache.deltaspike.core.api.future.Futureable} methods run with the state
+         * captured by {@link org.apache.deltaspike.core.api.future.ContextPropagation}.
+         */
+        Boolean CONTEXT_PROPAGATION_ENABLED =
+                ConfigResolver.resolve("deltaspike.futureable.context-propagation.enabled")
+                        .as(Boolean.class)
+                        .withCurrentProjectStage(true)
+                        .withDefault(Boolean.TRUE)
+                        .getValue();
+    }
+
     interface ParentExtensionCustomization
     {
         Boolean PARENT_EXTENSION_ENABLED =
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.api.future;
+
+import org.apache.deltaspike.core.spi.future.ContextSnapshot;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * <p>Moves the thread-bound state of the current request to tasks running on other threads, e.g. the
+ * current window (and therefore the window-, view-access- and conversation-scoped beans of it).
+ * Tasks also get an own request context if their thread doesn't have one and, with the JPA module,
+ * they don't join the transaction of the submitting thread. {@link Futureable} methods use it
+ * automatically.</p>
+ *
+ * <pre>
+ * &#064;Inject
+ * private ContextPropagation contextPropagation;
+ *
+ * ExecutorService executorService = contextPropagation.wrap(pool);
+ * </pre>
+ */
+public interface ContextPropagation
+{
+    /**
+     * @return snapshot of the state of the current thread, which can be restored by any thread
+     */
+    ContextSnapshot capture();
+
+    /**
+     * @return task which runs with the state of the current thread
+     */
+    Runnable wrap(Runnable task);
+
+    /**
+     * @return task which runs with the state of the current thread
+     */
+    <T> Callable<T> wrap(Callable<T> task);
+
+    /**
+     * @param executor executor to delegate to
+     * @return executor which captures the state whenever a task gets submitted
+     */
+    Executor wrap(Executor executor);
+
+    /**
+     * @param executorService executor-service to delegate to, it gets shut down with the returned one
+     * @return executor-service which captures the state whenever a task gets submitted
+     */
+    ExecutorService wrap(ExecutorService executorService);
+}
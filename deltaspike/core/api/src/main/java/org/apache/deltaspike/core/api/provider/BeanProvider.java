@@ -31,6 +31,7 @@ import jakarta.enterprise.inject.spi.BeanManager;
 import jakarta.enterprise.inject.spi.InjectionTarget;
 
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -59,6 +60,22 @@ public final class BeanProvider
     private static final Logger LOG = Logger.getLogger(BeanProvider.class.getName());
 
     private static final boolean LOG_DEPENDENT_WARNINGS;
+
+    /**
+     * The {@link InjectionTarget} used by {@link #injectFields(Object)} per class. The {@link ClassValue} doesn't
+     * prevent the classes from being unloaded. Only the target of the last used {@link BeanManager} is kept, which is
+     * the only one for all classes loaded by the classloader of an application. The BeanManager is only
+     * referenced weakly for the comparison with the current one.
+     */
+    private static final ClassValue<CachedInjectionTarget> INJECTION_TARGETS = new ClassValue<CachedInjectionTarget>()
+    {
+        @Override
+        protected CachedInjectionTarget computeValue(Class<?> type)
+        {
+            return new CachedInjectionTarget();
+        }
+    };
+
     static
     {
         LOG_DEPENDENT_WARNINGS =
@@ -468,13 +485,44 @@ public final class BeanProvider
 
         CreationalContext<T> creationalContext = beanManager.createCreationalContext(null);
 
-        AnnotatedType<T> annotatedType = beanManager.createAnnotatedType((Class<T>) instance.getClass());
-        InjectionTarget<T> injectionTarget = beanManager.getInjectionTargetFactory(annotatedType)
-            .createInjectionTarget(null);
+        InjectionTarget<T> injectionTarget = getInjectionTarget(beanManager, (Class<T>) instance.getClass());
         injectionTarget.inject(instance, creationalContext);
         return instance;
     }
 
+    /**
+     * Performs dependency injection on many instances of the same class, see {@link #injectFields(Object)}.
+     * The {@link BeanManager} and the injection-target get resolved just once.
+     *
+     * @param instanceClass class of the instances, instances of other classes (e.g. subclasses)
+     *                      get injected via {@link #injectFields(Object)}
+     * @param instances     current instances (null entries are ignored)
+     * @param <T>           current type
+     */
+    public static <T> void injectFields(Class<T> instanceClass, Iterable<? extends T> instances)
+    {
+        BeanManager beanManager = getBeanManager();
+
+        InjectionTarget<T> injectionTarget = getInjectionTarget(beanManager, instanceClass);
+
+        for (T instance : instances)
+        {
+            if (instance == null)
+            {
+                continue;
+            }
+
+            if (instance.getClass() != instanceClass)
+            {
+                injectFields(instance);
+                continue;
+            }
+
+            CreationalContext<T> creationalContext = beanManager.createCreationalContext(null);
+            injectionTarget.inject(instance, creationalContext);
+        }
+    }
+
     private static Set<Bean<?>> filterDefaultScopedBeans(Set<Bean<?>> beans)
     {
         Set<Bean<?>> result = new HashSet<Bean<?>>(beans.size());
@@ -533,4 +581,58 @@ public final class BeanProvider
     {
         return BeanManagerProvider.getInstance().getBeanManager();
     }
+
+    /**
+     * Internal method to resolve the (cached) {@link InjectionTarget} of the given class.
+     *
+     * @param beanManager current BeanManager
+     * @param type class of the instance to inject
+     * @return injection target created by the given BeanManager
+     */
+    @SuppressWarnings("unchecked")
+    static <T> InjectionTarget<T> getInjectionTarget(BeanManager beanManager, Class<T> type)
+    {
+        CachedInjectionTarget cachedInjectionTarget = INJECTION_TARGETS.get(type);
+
+        InjectionTarget<?> injectionTarget = cachedInjectionTarget.get(beanManager);
+        if (injectionTarget == null)
+        {
+            AnnotatedType<T> annotatedType = beanManager.createAnnotatedType(type);
+            injectionTarget = beanManager.getInjectionTargetFactory(annotatedType).createInjectionTarget(null);
+            cachedInjectionTarget.set(beanManager, injectionTarget);
+        }
+        return (InjectionTarget<T>) injectionTarget;
+    }
+
+    private static class CachedInjectionTarget
+    {
+        private volatile Entry entry;
+
+        InjectionTarget<?> get(BeanManager beanManager)
+        {
+            Entry currentEntry = entry;
+            if (currentEntry != null && currentEntry.beanManager.get() == beanManager)
+            {
+                return currentEntry.injectionTarget;
+            }
+            return null;
+        }
+
+        void set(BeanManager beanManager, InjectionTarget<?> injectionTarget)
+        {
+            entry = new Entry(beanManager, injectionTarget);
+        }
+
+        private static class Entry
+        {
+            private final WeakReference<BeanManager> beanManager;
+            private final InjectionTarget<?> injectionTarget;
+
+            private Entry(BeanManager beanManager, InjectionTarget<?> injectionTarget)
+            {
+                this.beanManager = new WeakReference<BeanManager>(beanManager);
+                this.injectionTarget = injectionTarget;
+            }
+        }
+    }
 }
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.spi.scope.storage;
+
+import org.apache.deltaspike.core.spi.activation.Deactivatable;
+import org.apache.deltaspike.core.util.context.ContextualStorage;
+
+import java.io.Serializable;
+
+/**
+ * Keeps the storages of idle windows and conversations outside of the heap.
+ * A storage gets written once it hasn't been used for the configured idle time
+ * and gets read again on the next access.
+ */
+public interface ContextualStorageStore extends Deactivatable, Serializable
+{
+    /**
+     * @param storage storage of a passivation capable scope
+     * @return handle which is needed to read the storage again
+     */
+    String write(ContextualStorage storage);
+
+    /**
+     * Reads a storage and removes it from the store.
+     *
+     * @param handle handle returned by {@link #write(ContextualStorage)}
+     * @return the storage or null if there is no storage for the given handle
+     */
+    ContextualStorage read(String handle);
+
+    /**
+     * @param handle handle returned by {@link #write(ContextualStorage)}
+     */
+    void remove(String handle);
+}
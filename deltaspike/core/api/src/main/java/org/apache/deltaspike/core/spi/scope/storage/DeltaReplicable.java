@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.spi.scope.storage;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Implemented by the session- and window-scoped bean holders of DeltaSpike, so that containers which support
+ * delta replication only have to replicate the storages and beans which were changed since the last delta.
+ * The holders can be looked up like any other bean, e.g. via {@code @Inject @Any Instance<DeltaReplicable>}.
+ * Changes are only tracked if {@code deltaspike.scope.storage.delta-tracking} is enabled.
+ * Accessed beans count as changed.
+ */
+public interface DeltaReplicable
+{
+    /**
+     * @return whether there are changes since the last call of {@link #writeDelta(ObjectOutput)}
+     */
+    boolean hasDelta();
+
+    /**
+     * Writes the changes since the last delta and resets them.
+     *
+     * @param output target of the delta
+     * @throws IOException if the delta can't be written
+     */
+    void writeDelta(ObjectOutput output) throws IOException;
+
+    /**
+     * Applies a delta written by {@link #writeDelta(ObjectOutput)} to the replica.
+     * The beans of removed storages don't get destroyed.
+     *
+     * @param input source of the delta
+     * @throws IOException if the delta can't be read
+     * @throws ClassNotFoundException if a class of a replicated bean can't be found
+     */
+    void readDelta(ObjectInput input) throws IOException, ClassNotFoundException;
+}
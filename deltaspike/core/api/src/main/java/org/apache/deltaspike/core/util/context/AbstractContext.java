@@ -82,12 +82,14 @@ public abstract class AbstractContext implements Context
         }
 
         Map<Object, ContextualInstanceInfo<?>> contextMap = storage.getStorage();
-        ContextualInstanceInfo<?> contextualInstanceInfo = contextMap.get(storage.getBeanKey(bean));
+        Object beanKey = storage.getBeanKey(bean);
+        ContextualInstanceInfo<?> contextualInstanceInfo = contextMap.get(beanKey);
         if (contextualInstanceInfo == null)
         {
             return null;
         }
 
+        storage.markDirty(beanKey);
         return (T) contextualInstanceInfo.getContextualInstance();
     }
 
@@ -113,7 +115,8 @@ public abstract class AbstractContext implements Context
         ContextualStorage storage = getContextualStorage(bean, true);
 
         Map<Object, ContextualInstanceInfo<?>> contextMap = storage.getStorage();
-        ContextualInstanceInfo<?> contextualInstanceInfo = contextMap.get(storage.getBeanKey(bean));
+        Object beanKey = storage.getBeanKey(bean);
+        ContextualInstanceInfo<?> contextualInstanceInfo = contextMap.get(beanKey);
 
         if (contextualInstanceInfo != null)
         {
@@ -122,11 +125,30 @@ public abstract class AbstractContext implements Context
 
             if (instance != null)
             {
+                storage.markDirty(beanKey);
                 return instance;
             }
         }
 
-        return storage.createContextualInstance(bean, creationalContext);
+        return createContextualInstance(storage, bean, beanKey, creationalContext);
+    }
+
+    /**
+     * Creates the instance of a bean which isn't in the given storage yet.
+     * Parallel calls for the same bean might return the instance created by another call.
+     *
+     * @param storage storage of the bean
+     * @param bean bean to create the instance for
+     * @param beanKey key of the bean, as resolved via {@link ContextualStorage#getBeanKey(Contextual)}
+     * @param creationalContext context for creating the instance
+     * @return the instance stored for the bean
+     */
+    protected <T> T createContextualInstance(ContextualStorage storage,
+                                             Contextual<T> bean,
+                                             Object beanKey,
+                                             CreationalContext<T> creationalContext)
+    {
+        return storage.createContextualInstance(bean, beanKey, creationalContext);
     }
 
     /**
@@ -142,13 +164,16 @@ public abstract class AbstractContext implements Context
             return false;
         }
 
-        ContextualInstanceInfo<?> contextualInstanceInfo = storage.getStorage().remove(storage.getBeanKey(bean));
+        Object beanKey = storage.getBeanKey(bean);
+        ContextualInstanceInfo<?> contextualInstanceInfo = storage.getStorage().remove(beanKey);
 
         if (contextualInstanceInfo == null)
         {
             return false;
         }
 
+        storage.markDirty(beanKey);
+
         destroyBean(bean, contextualInstanceInfo);
 
         return true;
@@ -189,6 +214,7 @@ public abstract class AbstractContext implements Context
 
         for (Map.Entry<Object, ContextualInstanceInfo<?>> entry : contextMap.entrySet())
         {
+            storage.markDirty(entry.getKey());
             Contextual bean = storage.getBean(entry.getKey());
 
             ContextualInstanceInfo<?> contextualInstanceInfo = entry.getValue();
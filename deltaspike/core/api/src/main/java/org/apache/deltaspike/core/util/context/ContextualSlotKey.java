@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.util.context;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+
+/**
+ * Key of a bean in an {@link IndexedContextualStorage}, which carries the resolved slot of its passivation id.
+ * It gets serialized as the plain id, since the slots are only valid within the current JVM.
+ */
+final class ContextualSlotKey implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    private final String id;
+    private final transient int slot;
+
+    ContextualSlotKey(String id, int slot)
+    {
+        this.id = id;
+        this.slot = slot;
+    }
+
+    static Object idOf(Object key)
+    {
+        return key instanceof ContextualSlotKey ? ((ContextualSlotKey) key).id : key;
+    }
+
+    int getSlot()
+    {
+        return slot;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        return this == other || other instanceof ContextualSlotKey && id.equals(((ContextualSlotKey) other).id);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return id.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return id;
+    }
+
+    private Object writeReplace() throws ObjectStreamException
+    {
+        return id;
+    }
+}
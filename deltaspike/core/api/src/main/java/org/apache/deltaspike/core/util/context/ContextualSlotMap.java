@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.util.context;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link ConcurrentMap} view of the slots of an {@link IndexedContextualStorage}, keyed by the passivation ids.
+ * A {@link ContextualSlotKey} addresses its slot directly, a plain id gets looked up without registering it.
+ * Beans without a slot or with a slot assigned after the storage was created are kept in an overflow map.
+ */
+class ContextualSlotMap extends AbstractMap<Object, ContextualInstanceInfo<?>>
+        implements ConcurrentMap<Object, ContextualInstanceInfo<?>>
+{
+    private final AtomicReferenceArray<ContextualInstanceInfo<?>> slots;
+    private final ConcurrentMap<Object, ContextualInstanceInfo<?>> overflow =
+            new ConcurrentHashMap<Object, ContextualInstanceInfo<?>>();
+
+    ContextualSlotMap(int capacity)
+    {
+        slots = new AtomicReferenceArray<ContextualInstanceInfo<?>>(capacity);
+    }
+
+    @Override
+    public ContextualInstanceInfo<?> get(Object key)
+    {
+        int slot = slot(key);
+        return slot >= 0 ? slots.get(slot) : overflow.get(ContextualSlotKey.idOf(key));
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return get(key) != null;
+    }
+
+    @Override
+    public ContextualInstanceInfo<?> put(Object key, ContextualInstanceInfo<?> value)
+    {
+        if (value == null)
+        {
+            throw new NullPointerException("value");
+        }
+        int slot = slot(key);
+        return slot >= 0 ? slots.getAndSet(slot, value) : overflow.put(ContextualSlotKey.idOf(key), value);
+    }
+
+    @Override
+    public ContextualInstanceInfo<?> putIfAbsent(Object key, ContextualInstanceInfo<?> value)
+    {
+        int slot = slot(key);
+        if (slot < 0)
+        {
+            return overflow.putIfAbsent(ContextualSlotKey.idOf(key), value);
+        }
+        while (true)
+        {
+            if (slots.compareAndSet(slot, null, value))
+            {
+                return null;
+            }
+            ContextualInstanceInfo<?> current = slots.get(slot);
+            if (current != null)
+            {
+                return current;
+            }
+        }
+    }
+
+    @Override
+    public ContextualInstanceInfo<?> remove(Object key)
+    {
+        int slot = slot(key);
+        return slot >= 0 ? slots.getAndSet(slot, null) : overflow.remove(ContextualSlotKey.idOf(key));
+    }
+
+    @Override
+    public boolean remove(Object key, Object value)
+    {
+        int slot = slot(key);
+        if (slot < 0)
+        {
+            return overflow.remove(ContextualSlotKey.idOf(key), value);
+        }
+        return value != null && slots.compareAndSet(slot, (ContextualInstanceInfo<?>) value, null);
+    }
+
+    @Override
+    public boolean replace(Object key, ContextualInstanceInfo<?> oldValue, ContextualInstanceInfo<?> newValue)
+    {
+        int slot = slot(key);
+        if (slot < 0)
+        {
+            return overflow.replace(ContextualSlotKey.idOf(key), oldValue, newValue);
+        }
+        return oldValue != null && newValue != null && slots.compareAndSet(slot, oldValue, newValue);
+    }
+
+    @Override
+    public ContextualInstanceInfo<?> replace(Object key, ContextualInstanceInfo<?> value)
+    {
+        int slot = slot(key);
+        if (slot < 0)
+        {
+            return overflow.replace(ContextualSlotKey.idOf(key), value);
+        }
+        while (true)
+        {
+            ContextualInstanceInfo<?> current = slots.get(slot);
+            if (current == null || slots.compareAndSet(slot, current, value))
+            {
+                return current;
+            }
+        }
+    }
+
+    @Override
+    public void clear()
+    {
+        for (int i = 0; i < slots.length(); i++)
+        {
+            slots.set(i, null);
+        }
+        overflow.clear();
+    }
+
+    @Override
+    public int size()
+    {
+        int size = overflow.size();
+        for (int i = 0; i < slots.length(); i++)
+        {
+            if (slots.get(i) != null)
+            {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        for (int i = 0; i < slots.length(); i++)
+        {
+            if (slots.get(i) != null)
+            {
+                return false;
+            }
+        }
+        return overflow.isEmpty();
+    }
+
+    @Override
+    public Set<Entry<Object, ContextualInstanceInfo<?>>> entrySet()
+    {
+        return new AbstractSet<Entry<Object, ContextualInstanceInfo<?>>>()
+        {
+            @Override
+            public Iterator<Entry<Object, ContextualInstanceInfo<?>>> iterator()
+            {
+                return new SlotIterator();
+            }
+
+            @Override
+            public int size()
+            {
+                return ContextualSlotMap.this.size();
+            }
+        };
+    }
+
+    private int slot(Object key)
+    {
+        int slot;
+        if (key instanceof ContextualSlotKey)
+        {
+            slot = ((ContextualSlotKey) key).getSlot();
+        }
+        else if (key instanceof String)
+        {
+            slot = ContextualSlots.lookup((String) key);
+        }
+        else
+        {
+            return -1;
+        }
+        return slot < slots.length() ? slot : -1;
+    }
+
+    /**
+     * Weakly consistent like the iterators of {@link ConcurrentHashMap}.
+     */
+    private class SlotIterator implements Iterator<Entry<Object, ContextualInstanceInfo<?>>>
+    {
+        private final Iterator<Entry<Object, ContextualInstanceInfo<?>>> overflowIterator =
+                overflow.entrySet().iterator();
+
+        private int scan;
+
+        private int nextSlot;
+        private Entry<Object, ContextualInstanceInfo<?>> next;
+
+        private int lastSlot;
+        private Entry<Object, ContextualInstanceInfo<?>> last;
+
+        SlotIterator()
+        {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return next != null;
+        }
+
+        @Override
+        public Entry<Object, ContextualInstanceInfo<?>> next()
+        {
+            if (next == null)
+            {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            lastSlot = nextSlot;
+            advance();
+            return last;
+        }
+
+        @Override
+        public void remove()
+        {
+            if (last == null)
+            {
+                throw new IllegalStateException();
+            }
+            if (lastSlot >= 0)
+            {
+                slots.compareAndSet(lastSlot, last.getValue(), null);
+            }
+            else
+            {
+                overflow.remove(last.getKey(), last.getValue());
+            }
+            last = null;
+        }
+
+        private void advance()
+        {
+            while (scan < slots.length())
+            {
+                int slot = scan++;
+                ContextualInstanceInfo<?> value = slots.get(slot);
+                if (value != null)
+                {
+                    nextSlot = slot;
+                    next = new SimpleImmutableEntry<Object, ContextualInstanceInfo<?>>(
+                            ContextualSlots.getId(slot), value);
+                    return;
+                }
+            }
+
+            if (overflowIterator.hasNext())
+            {
+                Map.Entry<Object, ContextualInstanceInfo<?>> entry = overflowIterator.next();
+                nextSlot = -1;
+                next = new SimpleImmutableEntry<Object, ContextualInstanceInfo<?>>(entry.getKey(), entry.getValue());
+            }
+            else
+            {
+                next = null;
+            }
+        }
+    }
+}
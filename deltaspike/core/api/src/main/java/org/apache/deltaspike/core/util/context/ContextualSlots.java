@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.util.context;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import jakarta.enterprise.inject.Vetoed;
+
+/**
+ * Assigns a dense slot to the passivation id of every bean stored in an {@link IndexedContextualStorage}.
+ * Slots of beans known at bootstrap get registered upfront. Lookups via {@link #lookup(String)} don't
+ * register ids, beans without a slot are kept in the overflow map of the storage.
+ * Only the ids are kept, so the registry doesn't hold any bean or class.
+ */
+@Vetoed
+public abstract class ContextualSlots
+{
+    private static final ConcurrentMap<String, Integer> SLOTS = new ConcurrentHashMap<String, Integer>();
+
+    private static volatile String[] ids = new String[0];
+
+    private ContextualSlots()
+    {
+        // prevent instantiation
+    }
+
+    /**
+     * @return the slot of the given passivation id, a new one gets assigned if needed
+     */
+    public static int slotOf(String id)
+    {
+        Integer slot = SLOTS.get(id);
+        if (slot != null)
+        {
+            return slot;
+        }
+        return register(id);
+    }
+
+    /**
+     * In contrast to {@link #slotOf(String)} an unknown id doesn't get registered.
+     *
+     * @return the slot of the given passivation id, <code>-1</code> if it isn't assigned
+     */
+    public static int lookup(String id)
+    {
+        Integer slot = SLOTS.get(id);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Assigns a slot to the given passivation id, if it doesn't have one yet.
+     * @return the slot of the id
+     */
+    public static synchronized int register(String id)
+    {
+        Integer slot = SLOTS.get(id);
+        if (slot == null)
+        {
+            String[] current = ids;
+            String[] extended = Arrays.copyOf(current, current.length + 1);
+            extended[current.length] = id;
+
+            // publish the id before the slot, a visible slot always resolves to its id
+            ids = extended;
+            slot = current.length;
+            SLOTS.put(id, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * @return the passivation id of the given slot, <code>null</code> if it isn't assigned
+     */
+    public static String getId(int slot)
+    {
+        String[] current = ids;
+        return slot < current.length ? current[slot] : null;
+    }
+
+    /**
+     * @return the number of assigned slots
+     */
+    public static int size()
+    {
+        return ids.length;
+    }
+}
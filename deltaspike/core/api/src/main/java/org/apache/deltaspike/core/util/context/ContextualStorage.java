@@ -24,9 +24,12 @@ import jakarta.enterprise.context.spi.Contextual;
 import jakarta.enterprise.context.spi.CreationalContext;
 import jakarta.enterprise.inject.spi.BeanManager;
 import jakarta.enterprise.inject.spi.PassivationCapable;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -48,6 +51,16 @@ public class ContextualStorage implements Serializable
 
     private final boolean passivationCapable;
 
+    /**
+     * Set on the serialized form of an {@link IndexedContextualStorage}.
+     */
+    private boolean restoreIndexed;
+
+    /**
+     * Keys of the beans which were accessed or changed since the last reset, null if changes aren't tracked.
+     */
+    private transient volatile Set<Object> dirtyBeanKeys;
+
     /**
      * @param beanManager is needed for serialisation
      * @param concurrent whether the ContextualStorage might get accessed concurrently by different threads
@@ -68,6 +81,18 @@ public class ContextualStorage implements Serializable
         }
     }
 
+    /**
+     * @param storage the underlying storage map, has to be a {@link ConcurrentMap} for concurrent storages
+     */
+    protected ContextualStorage(BeanManager beanManager, boolean concurrent, boolean passivationCapable,
+                                Map<Object, ContextualInstanceInfo<?>> storage)
+    {
+        this.beanManager = beanManager;
+        this.concurrent = concurrent;
+        this.passivationCapable = passivationCapable;
+        this.contextualInstances = storage;
+    }
+
     /**
      * @return the underlying storage map.
      */
@@ -76,6 +101,60 @@ public class ContextualStorage implements Serializable
         return contextualInstances;
     }
 
+    protected BeanManager getBeanManager()
+    {
+        return beanManager;
+    }
+
+    /**
+     * Starts tracking the beans which get accessed or changed, e.g. for a delta replication of the storage.
+     */
+    public void enableChangeTracking()
+    {
+        if (dirtyBeanKeys == null)
+        {
+            dirtyBeanKeys = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+        }
+    }
+
+    /**
+     * Marks a bean as changed. Accessed beans count as changed, since their state might have been changed.
+     * Has no effect if changes aren't tracked.
+     *
+     * @param beanKey key of the bean, also for removed beans
+     */
+    public void markDirty(Object beanKey)
+    {
+        Set<Object> currentDirtyBeanKeys = dirtyBeanKeys;
+        if (currentDirtyBeanKeys != null)
+        {
+            currentDirtyBeanKeys.add(beanKey);
+        }
+    }
+
+    /**
+     * @return whether beans were accessed or changed since the last reset
+     */
+    public boolean isDirty()
+    {
+        Set<Object> currentDirtyBeanKeys = dirtyBeanKeys;
+        return currentDirtyBeanKeys != null && !currentDirtyBeanKeys.isEmpty();
+    }
+
+    /**
+     * @return the keys of the changed beans, keys which get removed from the returned set count as reset.
+     *         Empty if changes aren't tracked.
+     */
+    public Set<Object> getDirtyBeanKeys()
+    {
+        Set<Object> currentDirtyBeanKeys = dirtyBeanKeys;
+        if (currentDirtyBeanKeys == null)
+        {
+            return Collections.emptySet();
+        }
+        return currentDirtyBeanKeys;
+    }
+
     /**
      * @return whether the ContextualStorage might get accessed concurrently by different threads.
      */
@@ -93,14 +172,25 @@ public class ContextualStorage implements Serializable
      */
     public <T> T createContextualInstance(Contextual<T> bean, CreationalContext<T> creationalContext)
     {
-        Object beanKey = getBeanKey(bean);
+        return createContextualInstance(bean, getBeanKey(bean), creationalContext);
+    }
+
+    /**
+     * @param bean bean to create the instance for
+     * @param beanKey key of the bean, as resolved via {@link #getBeanKey(Contextual)}
+     * @param creationalContext context for creating the instance
+     * @return the new instance or the one which got created in parallel
+     */
+    public <T> T createContextualInstance(Contextual<T> bean, Object beanKey, CreationalContext<T> creationalContext)
+    {
+        markDirty(beanKey);
         if (isConcurrent())
         {
             // locked approach
             ContextualInstanceInfo<T> instanceInfo = new ContextualInstanceInfo<T>();
 
             ConcurrentMap<Object, ContextualInstanceInfo<?>> concurrentMap
-                = (ConcurrentHashMap<Object, ContextualInstanceInfo<?>>) contextualInstances;
+                = (ConcurrentMap<Object, ContextualInstanceInfo<?>>) contextualInstances;
 
             ContextualInstanceInfo<T> oldInstanceInfo
                 = (ContextualInstanceInfo<T>) concurrentMap.putIfAbsent(beanKey, instanceInfo);
@@ -168,4 +258,23 @@ public class ContextualStorage implements Serializable
             return (Contextual<?>) beanKey;
         }
     }
+
+    void restoreIndexed()
+    {
+        restoreIndexed = true;
+    }
+
+    /**
+     * The serialized form of an {@link IndexedContextualStorage} gets deserialized as such again.
+     */
+    private Object readResolve() throws ObjectStreamException
+    {
+        if (restoreIndexed)
+        {
+            ContextualStorage storage = new IndexedContextualStorage(beanManager);
+            storage.getStorage().putAll(contextualInstances);
+            return storage;
+        }
+        return this;
+    }
 }
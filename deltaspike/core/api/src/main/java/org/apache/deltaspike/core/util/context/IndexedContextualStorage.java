@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.util.context;
+
+import java.io.ObjectStreamException;
+
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.inject.spi.BeanManager;
+import jakarta.enterprise.inject.spi.PassivationCapable;
+
+/**
+ * A concurrent and passivation capable {@link ContextualStorage}, which keeps the instances in an array
+ * indexed by the {@link ContextualSlots} of the beans instead of hashing their passivation ids.
+ * Lookups are lock-free, the creation of an instance only locks the slot of its bean.
+ * The slot gets resolved once per lookup via {@link #getBeanKey(Contextual)}, ids without a slot
+ * are kept in a map.
+ * <p>
+ * The storage gets serialized as a plain {@link ContextualStorage} keyed by the passivation ids,
+ * which is turned into an indexed storage again during deserialization. Nodes which don't know
+ * indexed storages are able to read it as well.
+ */
+public class IndexedContextualStorage extends ContextualStorage
+{
+    private static final long serialVersionUID = 1L;
+
+    // room for beans which get a slot after the storage has been created
+    private static final int SPARE_SLOTS = 16;
+
+    public IndexedContextualStorage(BeanManager beanManager)
+    {
+        super(beanManager, true, true, new ContextualSlotMap(ContextualSlots.size() + SPARE_SLOTS));
+    }
+
+    /**
+     * @return a key which carries the slot of the bean, it's equal to the passivation id for all other purposes
+     */
+    @Override
+    public <T> Object getBeanKey(Contextual<T> bean)
+    {
+        String id = ((PassivationCapable) bean).getId();
+        int slot = ContextualSlots.lookup(id);
+        return slot >= 0 ? new ContextualSlotKey(id, slot) : id;
+    }
+
+    @Override
+    public Contextual<?> getBean(Object beanKey)
+    {
+        return super.getBean(ContextualSlotKey.idOf(beanKey));
+    }
+
+    @Override
+    public void markDirty(Object beanKey)
+    {
+        // the tracked keys get serialized, e.g. for a delta replication
+        super.markDirty(ContextualSlotKey.idOf(beanKey));
+    }
+
+    private Object writeReplace() throws ObjectStreamException
+    {
+        ContextualStorage storage = new ContextualStorage(getBeanManager(), true, true);
+        storage.getStorage().putAll(getStorage());
+        storage.restoreIndexed();
+        return storage;
+    }
+}
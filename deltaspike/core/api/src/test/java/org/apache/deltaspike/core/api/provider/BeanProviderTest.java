@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.api.provider;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import jakarta.enterprise.inject.spi.BeanManager;
+import jakarta.enterprise.inject.spi.InjectionTarget;
+import jakarta.enterprise.inject.spi.InjectionTargetFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BeanProviderTest
+{
+    @Test
+    public void injectionTargetIsReusedAfterGc()
+    {
+        BeanManager beanManager = createBeanManager();
+
+        InjectionTarget<InjectedBean> injectionTarget =
+                BeanProvider.getInjectionTarget(beanManager, InjectedBean.class);
+        System.gc();
+
+        Assert.assertSame(injectionTarget, BeanProvider.getInjectionTarget(beanManager, InjectedBean.class));
+        Assert.assertNotSame(injectionTarget, BeanProvider.getInjectionTarget(createBeanManager(), InjectedBean.class));
+    }
+
+    private static BeanManager createBeanManager()
+    {
+        return (BeanManager) createProxy(BeanManager.class, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args)
+            {
+                if ("getInjectionTargetFactory".equals(method.getName()))
+                {
+                    return createProxy(InjectionTargetFactory.class, new InvocationHandler()
+                    {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args)
+                        {
+                            //every call creates a new target
+                            return createProxy(InjectionTarget.class, this);
+                        }
+                    });
+                }
+                return null;
+            }
+        });
+    }
+
+    private static Object createProxy(Class<?> type, InvocationHandler invocationHandler)
+    {
+        return Proxy.newProxyInstance(BeanProviderTest.class.getClassLoader(), new Class<?>[] { type },
+                invocationHandler);
+    }
+
+    private static class InjectedBean
+    {
+    }
+}
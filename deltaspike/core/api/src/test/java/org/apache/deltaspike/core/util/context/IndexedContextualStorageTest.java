@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.util.context;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
+import jakarta.enterprise.inject.spi.PassivationCapable;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IndexedContextualStorageTest
+{
+    @Test
+    public void createOnlyOnce()
+    {
+        TestBean bean = new TestBean();
+        ContextualSlots.register(bean.getId());
+        IndexedContextualStorage storage = new IndexedContextualStorage(null);
+
+        String first = storage.createContextualInstance(bean, null);
+        String second = storage.createContextualInstance(bean, null);
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, bean.created);
+        Assert.assertSame(first, storage.getStorage().get(bean.getId()).getContextualInstance());
+        Assert.assertNotNull(storage.getStorage().remove(bean.getId()));
+        Assert.assertTrue(storage.getStorage().isEmpty());
+    }
+
+    @Test
+    public void lookupsDontAssignSlots()
+    {
+        TestBean bean = new TestBean();
+        IndexedContextualStorage storage = new IndexedContextualStorage(null);
+        storage.enableChangeTracking();
+        int slotCount = ContextualSlots.size();
+
+        Assert.assertNull(storage.getStorage().get(bean.getId()));
+        storage.createContextualInstance(bean, null);
+
+        Assert.assertEquals(slotCount, ContextualSlots.size());
+        Assert.assertEquals(bean.getId(), storage.getBeanKey(bean));
+        Assert.assertNotNull(storage.getStorage().get(bean.getId()));
+    }
+
+    @Test
+    public void slotKeysAddressSlots()
+    {
+        TestBean bean = new TestBean();
+        ContextualSlots.register(bean.getId());
+        IndexedContextualStorage storage = new IndexedContextualStorage(null);
+        storage.enableChangeTracking();
+
+        Object beanKey = storage.getBeanKey(bean);
+        storage.createContextualInstance(bean, beanKey, null);
+
+        Assert.assertNotEquals(bean.getId(), beanKey);
+        Assert.assertSame(storage.getStorage().get(beanKey), storage.getStorage().get(bean.getId()));
+        // tracked by id, e.g. for the delta replication
+        Assert.assertEquals(1, storage.getDirtyBeanKeys().size());
+        Assert.assertTrue(storage.getDirtyBeanKeys().contains(bean.getId()));
+    }
+
+    @Test
+    public void iterateSlotsAndOverflow()
+    {
+        IndexedContextualStorage storage = new IndexedContextualStorage(null);
+
+        // more beans than spare slots, the latest ones end up in the overflow map
+        Set<String> ids = new HashSet<String>();
+        for (int i = 0; i < 40; i++)
+        {
+            TestBean bean = new TestBean();
+            storage.createContextualInstance(bean, null);
+            ids.add(bean.getId());
+        }
+
+        Assert.assertEquals(40, storage.getStorage().size());
+        Assert.assertEquals(ids, new HashSet<Object>(storage.getStorage().keySet()));
+
+        Iterator<Map.Entry<Object, ContextualInstanceInfo<?>>> entries = storage.getStorage().entrySet().iterator();
+        while (entries.hasNext())
+        {
+            Map.Entry<Object, ContextualInstanceInfo<?>> entry = entries.next();
+            Assert.assertEquals("instance of " + entry.getKey(), entry.getValue().getContextualInstance());
+            entries.remove();
+        }
+        Assert.assertTrue(storage.getStorage().isEmpty());
+    }
+
+    @Test
+    public void serializeByIds() throws Exception
+    {
+        TestBean bean = new TestBean();
+        ContextualSlots.register(bean.getId());
+        IndexedContextualStorage storage = new IndexedContextualStorage(null);
+        storage.createContextualInstance(bean, null);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(storage);
+        out.close();
+        Object deserialized = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        Assert.assertTrue(deserialized instanceof IndexedContextualStorage);
+        Assert.assertEquals("instance of " + bean.getId(), ((ContextualStorage) deserialized).getStorage()
+                .get(bean.getId()).getContextualInstance());
+        Assert.assertFalse(new String(bytes.toByteArray(), "ISO-8859-1")
+                .contains(IndexedContextualStorage.class.getName()));
+    }
+
+    private static class TestBean implements Contextual<String>, PassivationCapable, Serializable
+    {
+        private final String id = "TestBean#" + UUID.randomUUID();
+        private int created;
+
+        @Override
+        public String create(CreationalContext<String> creationalContext)
+        {
+            created++;
+            return "instance of " + id;
+        }
+
+        @Override
+        public void destroy(String instance, CreationalContext<String> creationalContext)
+        {
+        }
+
+        @Override
+        public String getId()
+        {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.impl.future;
+
+import org.apache.deltaspike.core.api.future.ContextPropagation;
+import org.apache.deltaspike.core.api.provider.BeanProvider;
+import org.apache.deltaspike.core.spi.future.ContextSnapshot;
+import org.apache.deltaspike.core.spi.future.ContextSnapshotProvider;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Combines the snapshots of all {@link ContextSnapshotProvider}s.
+ */
+@ApplicationScoped
+public class DefaultContextPropagation implements ContextPropagation
+{
+    private List<ContextSnapshotProvider> snapshotProviders;
+
+    @PostConstruct
+    protected void init()
+    {
+        snapshotProviders = new ArrayList<ContextSnapshotProvider>();
+        for (ContextSnapshotProvider snapshotProvider :
+                BeanProvider.getContextualReferences(ContextSnapshotProvider.class, true, false))
+        {
+            // the request context has to be active before other states get bound, they might use request-scoped beans
+            if (snapshotProvider instanceof RequestContextSnapshotProvider)
+            {
+                snapshotProviders.add(0, snapshotProvider);
+            }
+            else
+            {
+                snapshotProviders.add(snapshotProvider);
+            }
+        }
+    }
+
+    @Override
+    public ContextSnapshot capture()
+    {
+        List<ContextSnapshot> snapshots = new ArrayList<ContextSnapshot>(snapshotProviders.size());
+        for (ContextSnapshotProvider snapshotProvider : snapshotProviders)
+        {
+            ContextSnapshot snapshot = snapshotProvider.capture();
+            if (snapshot != null)
+            {
+                snapshots.add(snapshot);
+            }
+        }
+        return new CompositeContextSnapshot(snapshots);
+    }
+
+    @Override
+    public Runnable wrap(final Runnable task)
+    {
+        final ContextSnapshot snapshot = capture();
+        return new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                ContextSnapshot previous = snapshot.restore();
+                try
+                {
+                    task.run();
+                }
+                finally
+                {
+                    previous.restore();
+                }
+            }
+        };
+    }
+
+    @Override
+    public <T> Callable<T> wrap(final Callable<T> task)
+    {
+        final ContextSnapshot snapshot = capture();
+        return new Callable<T>()
+        {
+            @Override
+            public T call() throws Exception
+            {
+                ContextSnapshot previous = snapshot.restore();
+                try
+                {
+                    return task.call();
+                }
+                finally
+                {
+                    previous.restore();
+                }
+            }
+        };
+    }
+
+    @Override
+    public Executor wrap(final Executor executor)
+    {
+        return new Executor()
+        {
+            @Override
+            public void execute(Runnable task)
+            {
+                executor.execute(wrap(task));
+            }
+        };
+    }
+
+    @Override
+    public ExecutorService wrap(ExecutorService executorService)
+    {
+        return new ContextPropagatingExecutorService(this, executorService);
+    }
+
+    /**
+     * Restores the snapshots in the given order and the replaced ones in the reverse order.
+     */
+    static class CompositeContextSnapshot implements ContextSnapshot
+    {
+        private final List<ContextSnapshot> snapshots;
+
+        CompositeContextSnapshot(List<ContextSnapshot> snapshots)
+        {
+            this.snapshots = snapshots;
+        }
+
+        @Override
+        public ContextSnapshot restore()
+        {
+            List<ContextSnapshot> previousSnapshots = new ArrayList<ContextSnapshot>(snapshots.size());
+            try
+            {
+                for (ContextSnapshot snapshot : snapshots)
+                {
+                    previousSnapshots.add(snapshot.restore());
+                }
+            }
+            catch (RuntimeException e)
+            {
+                Collections.reverse(previousSnapshots);
+                new CompositeContextSnapshot(previousSnapshots).restore();
+                throw e;
+            }
+
+            Collections.reverse(previousSnapshots);
+            return new CompositeContextSnapshot(previousSnapshots);
+        }
+    }
+}
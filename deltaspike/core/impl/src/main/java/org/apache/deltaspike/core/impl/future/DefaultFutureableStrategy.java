@@ -18,6 +18,8 @@
  */
 package org.apache.deltaspike.core.impl.future;
 
+import org.apache.deltaspike.core.api.config.base.CoreBaseConfig;
+import org.apache.deltaspike.core.api.future.ContextPropagation;
 import org.apache.deltaspike.core.api.future.Futureable;
 import org.apache.deltaspike.core.impl.util.AnnotatedMethods;
 import org.apache.deltaspike.core.spi.future.FutureableStrategy;
@@ -101,6 +103,12 @@ public class DefaultFutureableStrategy implements FutureableStrategy
     @Inject
     private BeanManager beanManager;
 
+    @Inject
+    private ContextPropagation contextPropagation;
+
+    private final boolean contextPropagationEnabled =
+        CoreBaseConfig.FutureableCustomization.CONTEXT_PROPAGATION_ENABLED;
+
     private transient ConcurrentMap<Method, ExecutorService> configByMethod =
         new ConcurrentHashMap<Method, ExecutorService>();
 
@@ -157,7 +165,7 @@ public class DefaultFutureableStrategy implements FutureableStrategy
 
         // running < j8 we cant have cancellation
         //final AtomicReference<Callable<?>> cancelHook = new AtomicReference<Callable<?>>();
-        final Callable<Object> invocation = new Callable<Object>()
+        final Callable<Object> task = new Callable<Object>()
         {
             @Override
             public Object call() throws Exception
@@ -202,6 +210,8 @@ public class DefaultFutureableStrategy implements FutureableStrategy
             }
         };
 
+        final Callable<Object> invocation = contextPropagationEnabled ? contextPropagation.wrap(task) : task;
+
         final ExecutorService pool = getOrCreatePool(ic);
         
         if (void.class.isAssignableFrom(returnType))
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.impl.future;
+
+import org.apache.deltaspike.core.spi.future.ContextSnapshot;
+import org.apache.deltaspike.core.spi.future.ContextSnapshotProvider;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.RequestContextController;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+/**
+ * Request-scoped beans can't be shared with other threads,
+ * therefore tasks get an own request context if their thread doesn't have one.
+ */
+@ApplicationScoped
+public class RequestContextSnapshotProvider implements ContextSnapshotProvider
+{
+    private static final ContextSnapshot NOOP = new ContextSnapshot()
+    {
+        @Override
+        public ContextSnapshot restore()
+        {
+            return this;
+        }
+    };
+
+    @Inject
+    private Instance<RequestContextController> requestContextControllers;
+
+    private final ContextSnapshot activation = new ContextSnapshot()
+    {
+        @Override
+        public ContextSnapshot restore()
+        {
+            return activateRequestContext();
+        }
+    };
+
+    @Override
+    public ContextSnapshot capture()
+    {
+        return activation;
+    }
+
+    protected ContextSnapshot activateRequestContext()
+    {
+        final RequestContextController requestContextController = requestContextControllers.get();
+        if (!requestContextController.activate())
+        {
+            requestContextControllers.destroy(requestContextController);
+            return NOOP;
+        }
+
+        return new ContextSnapshot()
+        {
+            @Override
+            public ContextSnapshot restore()
+            {
+                try
+                {
+                    requestContextController.deactivate();
+                }
+                finally
+                {
+                    requestContextControllers.destroy(requestContextController);
+                }
+                return activation;
+            }
+        };
+    }
+}
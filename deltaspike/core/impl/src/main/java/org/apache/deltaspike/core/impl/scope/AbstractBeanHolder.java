@@ -18,22 +18,71 @@
  */
 package org.apache.deltaspike.core.impl.scope;
 
+import org.apache.deltaspike.core.api.config.base.CoreBaseConfig;
+import org.apache.deltaspike.core.spi.activation.Deactivatable;
+import org.apache.deltaspike.core.spi.scope.storage.ContextualStorageStore;
+import org.apache.deltaspike.core.api.provider.BeanProvider;
+import org.apache.deltaspike.core.spi.scope.storage.DeltaReplicable;
+import org.apache.deltaspike.core.util.ClassDeactivationUtils;
+import org.apache.deltaspike.core.util.ProxyUtils;
 import org.apache.deltaspike.core.util.context.AbstractContext;
+import org.apache.deltaspike.core.util.context.ContextualInstanceInfo;
 import org.apache.deltaspike.core.util.context.ContextualStorage;
+import org.apache.deltaspike.core.util.context.IndexedContextualStorage;
 
 import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.inject.spi.BeanManager;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
-public abstract class AbstractBeanHolder<K> implements Serializable
+public abstract class AbstractBeanHolder<K> implements DeltaReplicable, Serializable
 {
+    private static final Logger LOG = Logger.getLogger(AbstractBeanHolder.class.getName());
+
+    //idle storages are looked up at most once per interval
+    private static final long SPILL_CHECK_INTERVAL_IN_MILLISECONDS = 1000;
+
     private Map<K, ContextualStorage> storageMap = new ConcurrentHashMap<K, ContextualStorage>();
 
     private final boolean useConcurrentStorage;
     private final boolean usePassivationCapableStorage;
 
+    private ContextualStorageStore contextualStorageStore;
+    private long spillIdleTime;
+
+    //handles of the storages which are kept by the contextualStorageStore,
+    //the spilled storages themselves get serialized as part of the storage-map
+    private transient Map<K, String> spilledStorages = new ConcurrentHashMap<K, String>();
+
+    //only tracked if storages get spilled
+    private transient Map<K, Long> lastAccessTimes = new ConcurrentHashMap<K, Long>();
+
+    private volatile long nextSpillCheck;
+
+    private boolean deltaTracking;
+
+    //changes of the storage-map since the last delta
+    private Set<K> addedStorageKeys = Collections.newSetFromMap(new ConcurrentHashMap<K, Boolean>());
+    private Set<K> removedStorageKeys = Collections.newSetFromMap(new ConcurrentHashMap<K, Boolean>());
+
+    //resolved again after the deserialization, since the statistics are per application
+    private transient ScopeStatistics scopeStatistics;
+    private String scopeName;
+
     protected AbstractBeanHolder()
     {
         this(true, true);
@@ -43,17 +92,138 @@ public abstract class AbstractBeanHolder<K> implements Serializable
     {
         this.useConcurrentStorage = useConcurrentStorage;
         this.usePassivationCapableStorage = usePassivationCapableStorage;
+        this.deltaTracking = CoreBaseConfig.ScopeCustomization.Storage.DELTA_TRACKING;
+    }
+
+    /**
+     * Tracks the changed storages and beans for {@link #writeDelta(ObjectOutput)}.
+     */
+    protected synchronized void enableDeltaTracking()
+    {
+        this.deltaTracking = true;
+        for (ContextualStorage contextualStorage : storageMap.values())
+        {
+            contextualStorage.enableChangeTracking();
+        }
+    }
+
+    /**
+     * Registers the holder for the {@link ScopeStatistics}.
+     *
+     * @param scopeStatistics statistics of the scopes
+     * @param scopeName name of the scope of the storages, e.g. {@link ScopeStatistics#WINDOW_SCOPE}
+     */
+    protected void initStatistics(ScopeStatistics scopeStatistics, String scopeName)
+    {
+        if (scopeStatistics.isEnabled())
+        {
+            this.scopeStatistics = scopeStatistics;
+            this.scopeName = scopeName;
+            scopeStatistics.register(this, scopeName);
+        }
+    }
+
+    /**
+     * Looks up the {@link ScopeStatistics} for a deserialized holder which was registered before.
+     *
+     * @return the statistics of the current application or null if they aren't available
+     */
+    protected ScopeStatistics resolveScopeStatistics()
+    {
+        return BeanProvider.getContextualReference(ScopeStatistics.class, true);
+    }
+
+    /**
+     * Enables spilling of idle storages, if it's configured and the given store isn't deactivated.
+     *
+     * @param contextualStorageStore store for idle storages
+     */
+    protected void initStorageSpilling(ContextualStorageStore contextualStorageStore)
+    {
+        long configuredSpillIdleTime =
+                TimeUnit.SECONDS.toMillis(CoreBaseConfig.ScopeCustomization.Storage.SPILL_IDLE_TIME_IN_SECONDS);
+
+        if (configuredSpillIdleTime <= 0)
+        {
+            return;
+        }
+
+        Class<? extends Deactivatable> contextualStorageStoreClass =
+                ProxyUtils.getUnproxiedClass(contextualStorageStore.getClass());
+
+        if (ClassDeactivationUtils.isActivated(contextualStorageStoreClass))
+        {
+            enableStorageSpilling(contextualStorageStore, configuredSpillIdleTime);
+        }
+    }
+
+    /**
+     * Storages which haven't been used for the given time get written to the given store
+     * and get read again on the next access.
+     *
+     * @param contextualStorageStore store for idle storages
+     * @param spillIdleTime time in milliseconds, 0 keeps all storages on the heap
+     */
+    protected void enableStorageSpilling(ContextualStorageStore contextualStorageStore, long spillIdleTime)
+    {
+        if (!this.usePassivationCapableStorage)
+        {
+            throw new IllegalStateException("only storages of passivation capable scopes can be spilled");
+        }
+        this.contextualStorageStore = contextualStorageStore;
+        this.spillIdleTime = spillIdleTime;
     }
 
     public ContextualStorage getContextualStorage(BeanManager beanManager, K key, boolean createIfNotExist)
     {
-        ContextualStorage contextualStorage = storageMap.get(key);
+        if (this.spillIdleTime > 0)
+        {
+            //tracked before the lookup to keep the storage from getting spilled in parallel
+            this.lastAccessTimes.put(key, currentTimeMillis());
+        }
+
+        ContextualStorage contextualStorage = getStorage(key);
 
         if (contextualStorage == null && createIfNotExist)
         {
             contextualStorage = createContextualStorage(beanManager, key);
         }
 
+        if (this.spillIdleTime > 0)
+        {
+            if (contextualStorage == null)
+            {
+                this.lastAccessTimes.remove(key);
+            }
+            else
+            {
+                long now = currentTimeMillis();
+                if (now >= this.nextSpillCheck)
+                {
+                    this.nextSpillCheck = now + SPILL_CHECK_INTERVAL_IN_MILLISECONDS;
+                    spillIdleStorages(now);
+                }
+            }
+        }
+
+        return contextualStorage;
+    }
+
+    /**
+     * In contrast to {@link #getContextualStorage(BeanManager, Object, boolean)} the lookup
+     * doesn't count as access of the storage.
+     *
+     * @param key key of the storage
+     * @return the storage or null if there is no storage for the given key
+     */
+    public ContextualStorage getStorage(K key)
+    {
+        ContextualStorage contextualStorage = storageMap.get(key);
+
+        if (contextualStorage == null && !this.spilledStorages.isEmpty())
+        {
+            contextualStorage = restoreSpilledStorage(key);
+        }
         return contextualStorage;
     }
 
@@ -62,24 +232,310 @@ public abstract class AbstractBeanHolder<K> implements Serializable
         ContextualStorage contextualStorage = storageMap.get(key);
         if (contextualStorage == null)
         {
-            contextualStorage = new ContextualStorage(beanManager, useConcurrentStorage, usePassivationCapableStorage);
+            if (useConcurrentStorage && usePassivationCapableStorage
+                    && CoreBaseConfig.ScopeCustomization.Storage.INDEXED)
+            {
+                contextualStorage = new IndexedContextualStorage(beanManager);
+            }
+            else
+            {
+                contextualStorage =
+                        new ContextualStorage(beanManager, useConcurrentStorage, usePassivationCapableStorage);
+            }
+            if (this.deltaTracking)
+            {
+                contextualStorage.enableChangeTracking();
+                this.addedStorageKeys.add(key);
+                this.removedStorageKeys.remove(key);
+            }
             storageMap.put(key, contextualStorage);
+            onStorageAdded(key);
+
+            if (this.scopeStatistics != null)
+            {
+                this.scopeStatistics.storageCreated(this.scopeName);
+            }
         }
         return contextualStorage;
     }
 
+    /**
+     * Removes a storage without destroying its beans.
+     *
+     * @param key key of the storage
+     * @return the removed storage or null if there is no storage for the given key
+     */
+    public synchronized ContextualStorage removeStorage(K key)
+    {
+        this.lastAccessTimes.remove(key);
+
+        ContextualStorage result = storageMap.remove(key);
+        if (result == null)
+        {
+            String handle = this.spilledStorages.remove(key);
+            if (handle != null)
+            {
+                //needed to destroy the beans
+                result = this.contextualStorageStore.read(handle);
+            }
+        }
+
+        if (result != null)
+        {
+            if (this.deltaTracking)
+            {
+                this.removedStorageKeys.add(key);
+                this.addedStorageKeys.remove(key);
+            }
+            onStorageRemoved(key);
+
+            if (this.scopeStatistics != null)
+            {
+                this.scopeStatistics.storageDestroyed(this.scopeName);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes all storages which haven't been used within the spill-idle-time to the store.
+     * With delta tracking, accessed storages stay dirty until {@link #writeDelta(ObjectOutput)} got called,
+     * so they only get spilled if the deltas get consumed.
+     *
+     * @param now current time in milliseconds
+     * @return the number of spilled storages
+     */
+    public synchronized int spillIdleStorages(long now)
+    {
+        if (this.spillIdleTime <= 0)
+        {
+            return 0;
+        }
+
+        int result = 0;
+        for (Map.Entry<K, Long> storageAccess : this.lastAccessTimes.entrySet())
+        {
+            if (storageAccess.getValue() + this.spillIdleTime >= now)
+            {
+                continue;
+            }
+
+            K key = storageAccess.getKey();
+
+            //fails if the storage got accessed in the meantime
+            if (!this.lastAccessTimes.remove(key, storageAccess.getValue()))
+            {
+                continue;
+            }
+
+            ContextualStorage contextualStorage = storageMap.get(key);
+
+            if (contextualStorage == null || contextualStorage.getStorage().isEmpty())
+            {
+                continue;
+            }
+
+            //dirty storages are kept until their changes are replicated and get checked again later
+            if (contextualStorage.isDirty())
+            {
+                this.lastAccessTimes.putIfAbsent(key, storageAccess.getValue());
+                continue;
+            }
+
+            String handle;
+            try
+            {
+                handle = this.contextualStorageStore.write(contextualStorage);
+            }
+            catch (RuntimeException e)
+            {
+                //keep it on the heap
+                LOG.log(Level.WARNING, "failed to spill the contextual-storage for " + key, e);
+                continue;
+            }
+
+            //the handle is added first, so a parallel lookup which misses the storage restores it
+            this.spilledStorages.put(key, handle);
+            storageMap.remove(key);
+
+            //#getContextualStorage tracks the access before the lookup, so a lookup which might still
+            //have got the storage from the storage-map is visible here
+            if (this.lastAccessTimes.containsKey(key))
+            {
+                storageMap.put(key, contextualStorage);
+                this.spilledStorages.remove(key);
+                this.contextualStorageStore.remove(handle);
+                continue;
+            }
+            result++;
+        }
+        return result;
+    }
+
+    /**
+     * @return the current time in milliseconds, used for the last access of the storages
+     */
+    protected long currentTimeMillis()
+    {
+        return System.currentTimeMillis();
+    }
+
     public Map<K, ContextualStorage> getStorageMap()
     {
         return storageMap;
     }
 
-    public Map<K, ContextualStorage> forceNewStorage()
+    /**
+     * @return the number of storages, including the spilled ones
+     */
+    public int getStorageCount()
     {
+        return storageMap.size() + this.spilledStorages.size();
+    }
+
+    public int getSpilledStorageCount()
+    {
+        return this.spilledStorages.size();
+    }
+
+    public synchronized Map<K, ContextualStorage> forceNewStorage()
+    {
+        restoreSpilledStorages();
+
         Map<K, ContextualStorage> oldStorageMap = storageMap;
         storageMap = new ConcurrentHashMap<K, ContextualStorage>();
+        this.lastAccessTimes.clear();
+
+        if (this.deltaTracking)
+        {
+            this.removedStorageKeys.addAll(oldStorageMap.keySet());
+            this.addedStorageKeys.clear();
+        }
+
+        for (K key : oldStorageMap.keySet())
+        {
+            onStorageRemoved(key);
+        }
+
+        if (this.scopeStatistics != null)
+        {
+            for (int i = 0; i < oldStorageMap.size(); i++)
+            {
+                this.scopeStatistics.storageDestroyed(this.scopeName);
+            }
+        }
         return oldStorageMap;
     }
 
+    @Override
+    public boolean hasDelta()
+    {
+        if (!this.addedStorageKeys.isEmpty() || !this.removedStorageKeys.isEmpty())
+        {
+            return true;
+        }
+
+        for (ContextualStorage contextualStorage : storageMap.values())
+        {
+            if (contextualStorage.isDirty())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized void writeDelta(ObjectOutput output) throws IOException
+    {
+        List<K> removedKeys = new ArrayList<K>(this.removedStorageKeys);
+        this.removedStorageKeys.clear();
+
+        output.writeInt(removedKeys.size());
+        for (K key : removedKeys)
+        {
+            output.writeObject(key);
+        }
+
+        Map<K, ContextualStorage> addedStorages = new HashMap<K, ContextualStorage>();
+        for (K key : this.addedStorageKeys)
+        {
+            ContextualStorage contextualStorage = getStorage(key);
+            if (contextualStorage != null)
+            {
+                //the whole storage gets replicated
+                contextualStorage.getDirtyBeanKeys().clear();
+                addedStorages.put(key, contextualStorage);
+            }
+        }
+        this.addedStorageKeys.clear();
+
+        output.writeInt(addedStorages.size());
+        for (Map.Entry<K, ContextualStorage> addedStorage : addedStorages.entrySet())
+        {
+            output.writeObject(addedStorage.getKey());
+            output.writeObject(addedStorage.getValue());
+        }
+
+        Map<K, ContextualStorage> changedStorages = new HashMap<K, ContextualStorage>();
+        for (Map.Entry<K, ContextualStorage> storageEntry : storageMap.entrySet())
+        {
+            if (storageEntry.getValue().isDirty())
+            {
+                changedStorages.put(storageEntry.getKey(), storageEntry.getValue());
+            }
+        }
+
+        output.writeInt(changedStorages.size());
+        for (Map.Entry<K, ContextualStorage> changedStorage : changedStorages.entrySet())
+        {
+            output.writeObject(changedStorage.getKey());
+            writeChangedBeans(output, changedStorage.getValue());
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized void readDelta(ObjectInput input) throws IOException, ClassNotFoundException
+    {
+        int removedCount = input.readInt();
+        for (int i = 0; i < removedCount; i++)
+        {
+            K key = (K) input.readObject();
+            if (discardStorage(key) && this.scopeStatistics != null)
+            {
+                this.scopeStatistics.storageDestroyed(this.scopeName);
+            }
+            onStorageRemoved(key);
+        }
+
+        int addedCount = input.readInt();
+        for (int i = 0; i < addedCount; i++)
+        {
+            K key = (K) input.readObject();
+            ContextualStorage contextualStorage = (ContextualStorage) input.readObject();
+
+            //a replaced storage is still the same one for the statistics
+            if (!discardStorage(key) && this.scopeStatistics != null)
+            {
+                this.scopeStatistics.storageCreated(this.scopeName);
+            }
+            if (this.deltaTracking)
+            {
+                contextualStorage.enableChangeTracking();
+            }
+            storageMap.put(key, contextualStorage);
+            onStorageAdded(key);
+        }
+
+        int changedCount = input.readInt();
+        for (int i = 0; i < changedCount; i++)
+        {
+            K key = (K) input.readObject();
+            readChangedBeans(input, getStorage(key));
+        }
+    }
+
     @PreDestroy
     public void destroyBeans()
     {
@@ -90,4 +546,230 @@ public abstract class AbstractBeanHolder<K> implements Serializable
             AbstractContext.destroyAllActive(contextualStorage);
         }
     }
+
+    /**
+     * Callback for subclasses which keep an index of the storages.
+     *
+     * @param key key of the added storage
+     */
+    protected void onStorageAdded(K key)
+    {
+    }
+
+    /**
+     * Callback for subclasses which keep an index of the storages.
+     *
+     * @param key key of the removed storage
+     */
+    protected void onStorageRemoved(K key)
+    {
+    }
+
+    private static void writeChangedBeans(ObjectOutput output, ContextualStorage contextualStorage)
+        throws IOException
+    {
+        Set<Object> dirtyBeanKeys = contextualStorage.getDirtyBeanKeys();
+        List<Object> changedBeanKeys = new ArrayList<Object>(dirtyBeanKeys);
+        //beans which get changed in parallel stay dirty for the next delta
+        dirtyBeanKeys.removeAll(changedBeanKeys);
+
+        output.writeInt(changedBeanKeys.size());
+        for (Object beanKey : changedBeanKeys)
+        {
+            output.writeObject(beanKey);
+            //null for removed beans
+            output.writeObject(contextualStorage.getStorage().get(beanKey));
+        }
+    }
+
+    private static void readChangedBeans(ObjectInput input, ContextualStorage contextualStorage)
+        throws IOException, ClassNotFoundException
+    {
+        int changedBeanCount = input.readInt();
+        for (int i = 0; i < changedBeanCount; i++)
+        {
+            Object beanKey = input.readObject();
+            ContextualInstanceInfo<?> contextualInstanceInfo = (ContextualInstanceInfo<?>) input.readObject();
+
+            if (contextualStorage == null)
+            {
+                //the replica missed the storage, nothing to apply
+                continue;
+            }
+
+            if (contextualInstanceInfo == null)
+            {
+                contextualStorage.getStorage().remove(beanKey);
+            }
+            else
+            {
+                contextualStorage.getStorage().put(beanKey, contextualInstanceInfo);
+            }
+        }
+    }
+
+    //removes a storage of a replica without destroying its beans, returns true if there was one
+    private boolean discardStorage(K key)
+    {
+        boolean discarded = storageMap.remove(key) != null;
+        this.lastAccessTimes.remove(key);
+
+        String handle = this.spilledStorages.remove(key);
+        if (handle != null)
+        {
+            this.contextualStorageStore.remove(handle);
+            discarded = true;
+        }
+        return discarded;
+    }
+
+    private synchronized ContextualStorage restoreSpilledStorage(K key)
+    {
+        ContextualStorage contextualStorage = storageMap.get(key);
+        if (contextualStorage != null)
+        {
+            return contextualStorage;
+        }
+
+        String handle = this.spilledStorages.remove(key);
+        if (handle == null)
+        {
+            return null;
+        }
+
+        contextualStorage = this.contextualStorageStore.read(handle);
+        if (contextualStorage != null)
+        {
+            if (this.deltaTracking)
+            {
+                contextualStorage.enableChangeTracking();
+            }
+            storageMap.put(key, contextualStorage);
+        }
+        return contextualStorage;
+    }
+
+    private synchronized void restoreSpilledStorages()
+    {
+        for (K key : this.spilledStorages.keySet())
+        {
+            restoreSpilledStorage(key);
+        }
+    }
+
+    //reads a spilled storage without keeping it on the heap, the store hands out a storage just once
+    //and therefore it gets written again
+    private synchronized ContextualStorage readSpilledStorage(K key)
+    {
+        String handle = this.spilledStorages.get(key);
+        if (handle == null)
+        {
+            return null;
+        }
+
+        ContextualStorage contextualStorage = this.contextualStorageStore.read(handle);
+        if (contextualStorage == null)
+        {
+            this.spilledStorages.remove(key);
+            return null;
+        }
+
+        try
+        {
+            this.spilledStorages.put(key, this.contextualStorageStore.write(contextualStorage));
+        }
+        catch (RuntimeException e)
+        {
+            LOG.log(Level.WARNING, "failed to spill the contextual-storage for " + key + " again", e);
+
+            this.spilledStorages.remove(key);
+            if (this.deltaTracking)
+            {
+                contextualStorage.enableChangeTracking();
+            }
+            storageMap.put(key, contextualStorage);
+            this.lastAccessTimes.put(key, currentTimeMillis());
+        }
+        return contextualStorage;
+    }
+
+    /**
+     * Spilled storages are written to a local store, therefore they get serialized together with the
+     * storages on the heap, e.g. for the session replication. They stay in the local store.
+     */
+    private synchronized void writeObject(ObjectOutputStream objectOutputStream) throws IOException
+    {
+        Map<K, ContextualStorage> serializedStorageMap = storageMap;
+        if (!this.spilledStorages.isEmpty())
+        {
+            serializedStorageMap = new ConcurrentHashMap<K, ContextualStorage>(storageMap);
+            for (K key : new ArrayList<K>(this.spilledStorages.keySet()))
+            {
+                ContextualStorage contextualStorage = readSpilledStorage(key);
+                if (contextualStorage != null)
+                {
+                    serializedStorageMap.put(key, contextualStorage);
+                }
+            }
+        }
+
+        ObjectOutputStream.PutField fields = objectOutputStream.putFields();
+        fields.put("storageMap", serializedStorageMap);
+        fields.put("useConcurrentStorage", this.useConcurrentStorage);
+        fields.put("usePassivationCapableStorage", this.usePassivationCapableStorage);
+        fields.put("contextualStorageStore", this.contextualStorageStore);
+        fields.put("spillIdleTime", this.spillIdleTime);
+        fields.put("nextSpillCheck", this.nextSpillCheck);
+        fields.put("deltaTracking", this.deltaTracking);
+        fields.put("addedStorageKeys", this.addedStorageKeys);
+        fields.put("removedStorageKeys", this.removedStorageKeys);
+        fields.put("scopeName", this.scopeName);
+        objectOutputStream.writeFields();
+    }
+
+    private void readObject(ObjectInputStream objectInputStream) throws IOException, ClassNotFoundException
+    {
+        objectInputStream.defaultReadObject();
+
+        //transient or not part of holders serialized by older versions
+        this.spilledStorages = new ConcurrentHashMap<K, String>();
+        this.lastAccessTimes = new ConcurrentHashMap<K, Long>();
+        if (this.addedStorageKeys == null)
+        {
+            this.addedStorageKeys = Collections.newSetFromMap(new ConcurrentHashMap<K, Boolean>());
+        }
+        if (this.removedStorageKeys == null)
+        {
+            this.removedStorageKeys = Collections.newSetFromMap(new ConcurrentHashMap<K, Boolean>());
+        }
+
+        if (this.spillIdleTime > 0 && this.contextualStorageStore != null)
+        {
+            //the deserialized storages can get spilled again
+            long now = currentTimeMillis();
+            for (K key : storageMap.keySet())
+            {
+                this.lastAccessTimes.put(key, now);
+            }
+        }
+
+        if (this.deltaTracking)
+        {
+            //the tracked changes aren't serialized
+            for (ContextualStorage contextualStorage : storageMap.values())
+            {
+                contextualStorage.enableChangeTracking();
+            }
+        }
+
+        if (this.scopeName != null)
+        {
+            //e.g. after the passivation of the session or a failover
+            ScopeStatistics resolvedScopeStatistics = resolveScopeStatistics();
+            if (resolvedScopeStatistics != null)
+            {
+                initStatistics(resolvedScopeStatistics, this.scopeName);
+            }
+        }
+    }
 }
@@ -24,8 +24,13 @@ import jakarta.enterprise.inject.spi.AfterDeploymentValidation;
 import jakarta.enterprise.inject.spi.BeanManager;
 import jakarta.enterprise.inject.spi.BeforeBeanDiscovery;
 import jakarta.enterprise.inject.spi.Extension;
+import jakarta.enterprise.inject.spi.PassivationCapable;
+import jakarta.enterprise.inject.spi.ProcessBean;
 
 import org.apache.deltaspike.core.api.provider.BeanProvider;
+import org.apache.deltaspike.core.api.scope.GroupedConversationScoped;
+import org.apache.deltaspike.core.api.scope.ViewAccessScoped;
+import org.apache.deltaspike.core.api.scope.WindowScoped;
 import org.apache.deltaspike.core.impl.scope.conversation.ConversationBeanHolder;
 import org.apache.deltaspike.core.impl.scope.conversation.GroupedConversationContext;
 import org.apache.deltaspike.core.impl.scope.viewaccess.ViewAccessBeanAccessHistory;
@@ -37,6 +42,7 @@ import org.apache.deltaspike.core.impl.scope.window.WindowContextImpl;
 import org.apache.deltaspike.core.impl.scope.window.WindowIdHolder;
 import org.apache.deltaspike.core.spi.activation.Deactivatable;
 import org.apache.deltaspike.core.util.ClassDeactivationUtils;
+import org.apache.deltaspike.core.util.context.ContextualSlots;
 
 /**
  * Handle all DeltaSpike WindowContext and ConversationContext
@@ -55,6 +61,24 @@ public class DeltaSpikeContextExtension implements Extension, Deactivatable
         isActivated = ClassDeactivationUtils.isActivated(getClass());
     }
 
+    /**
+     * Assigns the storage slots of the beans in our scopes upfront, so that they get a dense index.
+     */
+    protected void registerContextualSlots(@Observes ProcessBean<?> processBean)
+    {
+        if (!isActivated)
+        {
+            return;
+        }
+
+        Class<?> scope = processBean.getBean().getScope();
+        if ((WindowScoped.class.equals(scope) || ViewAccessScoped.class.equals(scope)
+                || GroupedConversationScoped.class.equals(scope)) && processBean.getBean() instanceof PassivationCapable)
+        {
+            ContextualSlots.register(((PassivationCapable) processBean.getBean()).getId());
+        }
+    }
+
     public void registerDeltaSpikeContexts(@Observes AfterBeanDiscovery afterBeanDiscovery, BeanManager beanManager)
     {
         if (!isActivated)
@@ -0,0 +1,358 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.impl.scope;
+
+import org.apache.deltaspike.core.api.config.base.CoreBaseConfig;
+import org.apache.deltaspike.core.api.jmx.JmxManaged;
+import org.apache.deltaspike.core.api.jmx.JmxParameter;
+import org.apache.deltaspike.core.api.jmx.MBean;
+import org.apache.deltaspike.core.api.jmx.Table;
+import org.apache.deltaspike.core.impl.scope.viewaccess.ViewAccessContext;
+import org.apache.deltaspike.core.util.context.ContextualStorage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Population of the window-, view-access- and conversation-scopes. The bean holders are only tracked
+ * if {@link CoreBaseConfig.ScopeCustomization.Statistics#ENABLED} is set. They are referenced weakly,
+ * so the statistics don't keep expired sessions.
+ */
+@ApplicationScoped
+@MBean(name = "ScopeStatistics", description = "Population of the DeltaSpike scopes")
+public class ScopeStatistics
+{
+    public static final String WINDOW_SCOPE = "window";
+    public static final String CONVERSATION_SCOPE = "conversation";
+    public static final String VIEW_ACCESS_SCOPE = "view-access";
+
+    private static final Logger LOG = Logger.getLogger(ScopeStatistics.class.getName());
+
+    @JmxManaged(description = "storages and beans per scope")
+    private Table scopes;
+
+    @JmxManaged(description = "number of sessions with at least one window")
+    private int activeSessions;
+
+    @JmxManaged(description = "number of windows of all sessions")
+    private long activeWindows;
+
+    @JmxManaged(description = "number of conversations of all windows")
+    private long activeConversations;
+
+    @JmxManaged(description = "maximum number of windows of a session")
+    private long maxWindowsPerSession;
+
+    @JmxManaged(description = "number of created view-access scoped beans")
+    private long createdViewAccessBeans;
+
+    @JmxManaged(description = "number of destroyed view-access scoped beans")
+    private long destroyedViewAccessBeans;
+
+    @Inject
+    private DeltaSpikeContextExtension contextExtension;
+
+    private final ConcurrentMap<String, ScopePopulation> populations =
+            new ConcurrentHashMap<String, ScopePopulation>();
+
+    private boolean enabled;
+
+    @PostConstruct
+    protected void init()
+    {
+        enabled = CoreBaseConfig.ScopeCustomization.Statistics.ENABLED;
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * @param beanHolder holder of the storages of the given scope, it's referenced weakly
+     * @param scope name of the scope, e.g. {@link #WINDOW_SCOPE}
+     */
+    public void register(AbstractBeanHolder<?> beanHolder, String scope)
+    {
+        if (isEnabled())
+        {
+            getPopulation(scope).register(beanHolder);
+        }
+    }
+
+    public void storageCreated(String scope)
+    {
+        if (isEnabled())
+        {
+            getPopulation(scope).createdStorages.incrementAndGet();
+        }
+    }
+
+    public void storageDestroyed(String scope)
+    {
+        if (isEnabled())
+        {
+            getPopulation(scope).destroyedStorages.incrementAndGet();
+        }
+    }
+
+    public int getActiveSessions()
+    {
+        ScopePopulation windowPopulation = populations.get(WINDOW_SCOPE);
+        if (windowPopulation == null)
+        {
+            return 0;
+        }
+
+        int result = 0;
+        for (AbstractBeanHolder<?> beanHolder : windowPopulation.getBeanHolders())
+        {
+            if (beanHolder.getStorageCount() > 0)
+            {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    public long getActiveWindows()
+    {
+        return snapshot(WINDOW_SCOPE).storages;
+    }
+
+    public long getActiveConversations()
+    {
+        return snapshot(CONVERSATION_SCOPE).storages;
+    }
+
+    public long getMaxWindowsPerSession()
+    {
+        return snapshot(WINDOW_SCOPE).maxStoragesPerHolder;
+    }
+
+    public long getCreatedViewAccessBeans()
+    {
+        ViewAccessContext viewAccessContext = contextExtension.getViewAccessScopedContext();
+        return viewAccessContext == null ? 0 : viewAccessContext.getCreatedBeanCount();
+    }
+
+    public long getDestroyedViewAccessBeans()
+    {
+        ViewAccessContext viewAccessContext = contextExtension.getViewAccessScopedContext();
+        return viewAccessContext == null ? 0 : viewAccessContext.getDestroyedBeanCount();
+    }
+
+    public Table getScopes()
+    {
+        Table result = new Table().withColumns("scope", "holders", "storages", "spilled storages", "beans",
+                "max beans per storage", "created storages", "destroyed storages");
+
+        for (Map.Entry<String, ScopePopulation> entry : new TreeMap<String, ScopePopulation>(populations).entrySet())
+        {
+            ScopePopulation population = entry.getValue();
+            PopulationSnapshot snapshot = population.snapshot();
+            result.withLine(entry.getKey(),
+                    String.valueOf(snapshot.holders),
+                    String.valueOf(snapshot.storages),
+                    String.valueOf(snapshot.spilledStorages),
+                    String.valueOf(snapshot.beans),
+                    String.valueOf(snapshot.maxBeansPerStorage),
+                    String.valueOf(population.createdStorages.get()),
+                    String.valueOf(population.destroyedStorages.get()));
+        }
+        return result;
+    }
+
+    /**
+     * Serializes a sample of the storages in memory and extrapolates the serialized size of all of them.
+     */
+    @JmxManaged(description = "estimates the serialized size of the storages per scope based on a sample")
+    public Table estimateSerializedSize(
+            @JmxParameter(name = "sampleSize", description = "max. number of storages per scope") int sampleSize)
+    {
+        Table result = new Table().withColumns("scope", "storages", "sampled", "avg bytes", "estimated bytes");
+
+        for (Map.Entry<String, ScopePopulation> entry : new TreeMap<String, ScopePopulation>(populations).entrySet())
+        {
+            List<ContextualStorage> storages = new ArrayList<ContextualStorage>();
+            for (AbstractBeanHolder<?> beanHolder : entry.getValue().getBeanHolders())
+            {
+                storages.addAll(beanHolder.getStorageMap().values());
+            }
+
+            int step = Math.max(1, storages.size() / Math.max(1, sampleSize));
+            long sampledBytes = 0;
+            int sampled = 0;
+            for (int i = 0; i < storages.size() && sampled < sampleSize; i += step)
+            {
+                long size = serializedSize(storages.get(i));
+                if (size >= 0)
+                {
+                    sampledBytes += size;
+                    sampled++;
+                }
+            }
+
+            long average = sampled == 0 ? 0 : sampledBytes / sampled;
+            result.withLine(entry.getKey(),
+                    String.valueOf(storages.size()),
+                    String.valueOf(sampled),
+                    String.valueOf(average),
+                    String.valueOf(average * storages.size()));
+        }
+        return result;
+    }
+
+    @JmxManaged(description = "resets the created and destroyed counters")
+    public void reset()
+    {
+        for (ScopePopulation population : populations.values())
+        {
+            population.createdStorages.set(0);
+            population.destroyedStorages.set(0);
+        }
+    }
+
+    private ScopePopulation getPopulation(String scope)
+    {
+        ScopePopulation result = populations.get(scope);
+        if (result == null)
+        {
+            result = new ScopePopulation();
+            ScopePopulation existing = populations.putIfAbsent(scope, result);
+            if (existing != null)
+            {
+                result = existing;
+            }
+        }
+        return result;
+    }
+
+    private PopulationSnapshot snapshot(String scope)
+    {
+        ScopePopulation population = populations.get(scope);
+        if (population == null)
+        {
+            return new PopulationSnapshot();
+        }
+        return population.snapshot();
+    }
+
+    private static long serializedSize(ContextualStorage storage)
+    {
+        CountingOutputStream countingOutputStream = new CountingOutputStream();
+        try
+        {
+            ObjectOutputStream objectOutputStream = new ObjectOutputStream(countingOutputStream);
+            objectOutputStream.writeObject(storage);
+            objectOutputStream.close();
+            return countingOutputStream.count;
+        }
+        catch (Exception e)
+        {
+            //e.g. a bean which got changed in parallel
+            LOG.log(Level.FINE, "failed to serialize a contextual-storage for the size estimation", e);
+            return -1;
+        }
+    }
+
+    private static class ScopePopulation
+    {
+        private final Set<AbstractBeanHolder<?>> beanHolders =
+                Collections.newSetFromMap(new WeakHashMap<AbstractBeanHolder<?>, Boolean>());
+
+        private final AtomicLong createdStorages = new AtomicLong();
+        private final AtomicLong destroyedStorages = new AtomicLong();
+
+        synchronized void register(AbstractBeanHolder<?> beanHolder)
+        {
+            beanHolders.add(beanHolder);
+        }
+
+        synchronized List<AbstractBeanHolder<?>> getBeanHolders()
+        {
+            return new ArrayList<AbstractBeanHolder<?>>(beanHolders);
+        }
+
+        PopulationSnapshot snapshot()
+        {
+            PopulationSnapshot result = new PopulationSnapshot();
+            for (AbstractBeanHolder<?> beanHolder : getBeanHolders())
+            {
+                result.holders++;
+                result.spilledStorages += beanHolder.getSpilledStorageCount();
+
+                int storagesOfHolder = beanHolder.getStorageCount();
+                result.storages += storagesOfHolder;
+                result.maxStoragesPerHolder = Math.max(result.maxStoragesPerHolder, storagesOfHolder);
+
+                for (ContextualStorage storage : beanHolder.getStorageMap().values())
+                {
+                    int beansOfStorage = storage.getStorage().size();
+                    result.beans += beansOfStorage;
+                    result.maxBeansPerStorage = Math.max(result.maxBeansPerStorage, beansOfStorage);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static class PopulationSnapshot
+    {
+        private long holders;
+        private long storages;
+        private long spilledStorages;
+        private long beans;
+        private long maxStoragesPerHolder;
+        private long maxBeansPerStorage;
+    }
+
+    private static class CountingOutputStream extends OutputStream
+    {
+        private long count;
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            count += len;
+        }
+    }
+}
@@ -18,11 +18,245 @@
  */
 package org.apache.deltaspike.core.impl.scope.conversation;
 
+import org.apache.deltaspike.core.api.config.ConfigResolver;
+import org.apache.deltaspike.core.api.config.base.CoreBaseConfig;
 import org.apache.deltaspike.core.api.scope.WindowScoped;
 import org.apache.deltaspike.core.impl.scope.AbstractBeanHolder;
+import org.apache.deltaspike.core.impl.scope.ScopeStatistics;
+import org.apache.deltaspike.core.spi.scope.storage.ContextualStorageStore;
+import org.apache.deltaspike.core.util.context.AbstractContext;
+import org.apache.deltaspike.core.util.context.ContextualStorage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.enterprise.inject.spi.BeanManager;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @WindowScoped
 public class ConversationBeanHolder extends AbstractBeanHolder<ConversationKey>
 {
     private static final long serialVersionUID = 6313493410718133308L;
+
+    //idle conversations are looked up at most once per interval
+    private static final long IDLE_CHECK_INTERVAL_IN_MILLISECONDS = 1000;
+
+    private static final ClassValue<Long> MAX_IDLE_TIMES = new ClassValue<Long>()
+    {
+        @Override
+        protected Long computeValue(Class<?> conversationGroup)
+        {
+            Integer maxIdleTimeInSeconds = ConfigResolver.resolve(
+                    CoreBaseConfig.ScopeCustomization.ConversationRestriction.MAX_IDLE_TIME_IN_SECONDS_KEY + "." +
+                            conversationGroup.getName())
+                    .as(Integer.class)
+                    .withCurrentProjectStage(true)
+                    .withDefault(CoreBaseConfig.ScopeCustomization.ConversationRestriction.MAX_IDLE_TIME_IN_SECONDS)
+                    .getValue();
+            return TimeUnit.SECONDS.toMillis(maxIdleTimeInSeconds);
+        }
+    };
+
+    @Inject
+    private ConversationExpiryCache conversationExpiryCache;
+
+    @Inject
+    private ContextualStorageStore contextualStorageStore;
+
+    @Inject
+    private ScopeStatistics scopeStatistics;
+
+    //keys of the active conversations per group, to close a group without scanning all conversations
+    private Map<Class<?>, Set<ConversationKey>> groupIndex =
+            new ConcurrentHashMap<Class<?>, Set<ConversationKey>>();
+
+    //last access of the conversations with an idle timeout
+    private Map<ConversationKey, Long> lastAccessTimes = new ConcurrentHashMap<ConversationKey, Long>();
+
+    private volatile long nextIdleCheck;
+
+    @PostConstruct
+    protected void init()
+    {
+        initStorageSpilling(this.contextualStorageStore);
+        initStatistics(this.scopeStatistics, ScopeStatistics.CONVERSATION_SCOPE);
+    }
+
+    @Override
+    public ContextualStorage getContextualStorage(BeanManager beanManager,
+                                                  ConversationKey key,
+                                                  boolean createIfNotExist)
+    {
+        ContextualStorage result = super.getContextualStorage(beanManager, key, createIfNotExist);
+
+        if (result != null && getMaxIdleTime(key.getConversationGroup()) > 0)
+        {
+            long now = currentTimeMillis();
+            this.lastAccessTimes.put(key, now);
+
+            if (now >= this.nextIdleCheck)
+            {
+                this.nextIdleCheck = now + IDLE_CHECK_INTERVAL_IN_MILLISECONDS;
+                scheduleDestruction(removeIdleStorages(now));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param conversationGroup group of the conversations
+     * @return keys of the active conversations of the given group
+     */
+    public Set<ConversationKey> getConversationKeys(Class<?> conversationGroup)
+    {
+        Set<ConversationKey> keysOfGroup = this.groupIndex.get(conversationGroup);
+        if (keysOfGroup == null)
+        {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(keysOfGroup);
+    }
+
+    /**
+     * Removes all conversations which weren't used within the idle time of their group.
+     * The beans of the removed storages aren't destroyed.
+     *
+     * @param now current time in milliseconds
+     * @return the removed storages
+     */
+    public List<ContextualStorage> removeIdleStorages(long now)
+    {
+        List<ContextualStorage> result = null;
+
+        for (Map.Entry<ConversationKey, Long> conversation : this.lastAccessTimes.entrySet())
+        {
+            ConversationKey key = conversation.getKey();
+
+            if (conversation.getValue() + getMaxIdleTime(key.getConversationGroup()) < now)
+            {
+                this.lastAccessTimes.remove(key);
+                ContextualStorage removedStorage = removeStorage(key);
+
+                if (removedStorage != null)
+                {
+                    if (result == null)
+                    {
+                        result = new ArrayList<ContextualStorage>();
+                    }
+                    result.add(removedStorage);
+                }
+            }
+        }
+
+        if (result == null)
+        {
+            return Collections.emptyList();
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized Map<ConversationKey, ContextualStorage> forceNewStorage()
+    {
+        this.groupIndex.clear();
+        this.lastAccessTimes.clear();
+        return super.forceNewStorage();
+    }
+
+    @Override
+    protected void onStorageAdded(ConversationKey key)
+    {
+        //also called for storages of a replica, which haven't been accessed locally yet
+        if (getMaxIdleTime(key.getConversationGroup()) > 0)
+        {
+            this.lastAccessTimes.putIfAbsent(key, currentTimeMillis());
+        }
+
+        Set<ConversationKey> keysOfGroup = this.groupIndex.get(key.getConversationGroup());
+        if (keysOfGroup == null)
+        {
+            keysOfGroup = Collections.newSetFromMap(new ConcurrentHashMap<ConversationKey, Boolean>());
+            this.groupIndex.put(key.getConversationGroup(), keysOfGroup);
+        }
+        keysOfGroup.add(key);
+    }
+
+    @Override
+    protected void onStorageRemoved(ConversationKey key)
+    {
+        this.lastAccessTimes.remove(key);
+
+        Set<ConversationKey> keysOfGroup = this.groupIndex.get(key.getConversationGroup());
+        if (keysOfGroup != null)
+        {
+            keysOfGroup.remove(key);
+            if (keysOfGroup.isEmpty())
+            {
+                this.groupIndex.remove(key.getConversationGroup());
+            }
+        }
+    }
+
+    /**
+     * @param conversationGroup group of the conversation
+     * @return time in milliseconds after which an unused conversation of the given group gets closed,
+     *         0 to keep idle conversations
+     */
+    protected long getMaxIdleTime(Class<?> conversationGroup)
+    {
+        return MAX_IDLE_TIMES.get(conversationGroup);
+    }
+
+    private void scheduleDestruction(List<ContextualStorage> idleStorages)
+    {
+        if (idleStorages.isEmpty())
+        {
+            return;
+        }
+
+        if (this.conversationExpiryCache != null)
+        {
+            try
+            {
+                //destroy them lazily at the end of the request to avoid an overhead during the request
+                //which might be caused by pre-destroy logic of the beans
+                this.conversationExpiryCache.addStoragesToDestroy(idleStorages);
+                return;
+            }
+            catch (ContextNotActiveException e)
+            {
+                //no request -> destroy them immediately
+            }
+        }
+
+        for (ContextualStorage idleStorage : idleStorages)
+        {
+            AbstractContext.destroyAllActive(idleStorage);
+        }
+    }
+
+    private void readObject(ObjectInputStream objectInputStream) throws IOException, ClassNotFoundException
+    {
+        objectInputStream.defaultReadObject();
+
+        //not part of holders serialized by older versions
+        if (this.groupIndex == null || this.lastAccessTimes == null)
+        {
+            this.groupIndex = new ConcurrentHashMap<Class<?>, Set<ConversationKey>>();
+            this.lastAccessTimes = new ConcurrentHashMap<ConversationKey, Long>();
+
+            for (ConversationKey key : getStorageMap().keySet())
+            {
+                onStorageAdded(key);
+            }
+        }
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.impl.scope.conversation;
+
+import org.apache.deltaspike.core.util.context.AbstractContext;
+import org.apache.deltaspike.core.util.context.ContextualStorage;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.RequestScoped;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the storages of idle conversations which get destroyed at the end of the request.
+ */
+@RequestScoped
+public class ConversationExpiryCache implements Serializable
+{
+    private static final long serialVersionUID = -3411576338587429426L;
+
+    private List<ContextualStorage> storagesToDestroy;
+
+    public void addStoragesToDestroy(List<ContextualStorage> storages)
+    {
+        if (this.storagesToDestroy == null)
+        {
+            this.storagesToDestroy = new ArrayList<ContextualStorage>(storages.size());
+        }
+        this.storagesToDestroy.addAll(storages);
+    }
+
+    @PreDestroy
+    public void cleanup()
+    {
+        if (this.storagesToDestroy != null)
+        {
+            for (ContextualStorage storage : this.storagesToDestroy)
+            {
+                AbstractContext.destroyAllActive(storage);
+            }
+        }
+    }
+}
@@ -32,7 +32,6 @@ import jakarta.enterprise.inject.Vetoed;
 import jakarta.enterprise.inject.spi.BeanManager;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +44,21 @@ public class GroupedConversationContext extends AbstractContext implements Group
 {
     private static final long serialVersionUID = -5463564406828391468L;
 
+    //null for classes without @ConversationSubGroup
+    private static final ClassValue<SubGroup> SUB_GROUPS = new ClassValue<SubGroup>()
+    {
+        @Override
+        protected SubGroup computeValue(Class<?> conversationGroup)
+        {
+            ConversationSubGroup conversationSubGroup = conversationGroup.getAnnotation(ConversationSubGroup.class);
+            if (conversationSubGroup == null)
+            {
+                return null;
+            }
+            return new SubGroup(conversationGroup, conversationSubGroup);
+        }
+    };
+
     private final BeanManager beanManager;
 
     private final WindowContextImpl windowContext;
@@ -95,7 +109,7 @@ public class GroupedConversationContext extends AbstractContext implements Group
     public ContextualStorage closeConversation(Class<?> conversationGroup, Annotation... qualifiers)
     {
         ConversationKey conversationKey = new ConversationKey(conversationGroup, qualifiers);
-        ContextualStorage contextualStorage = this.conversationBeanHolder.getStorageMap().remove(conversationKey);
+        ContextualStorage contextualStorage = this.conversationBeanHolder.removeStorage(conversationKey);
 
         if (contextualStorage != null)
         {
@@ -110,59 +124,59 @@ public class GroupedConversationContext extends AbstractContext implements Group
     {
         Set<ContextualStorage> result = new HashSet<ContextualStorage>();
 
-        ConversationSubGroup conversationSubGroup = conversationGroup.getAnnotation(ConversationSubGroup.class);
-        Set<Class<?>> subGroups = null;
-
-        if (conversationSubGroup != null)
+        SubGroup subGroup = SUB_GROUPS.get(conversationGroup);
+        if (subGroup != null)
         {
-            conversationGroup = ConversationUtils.getDeclaredConversationGroup(conversationGroup);
-
-            subGroups = new HashSet<Class<?>>(conversationSubGroup.subGroup().length);
-            Collections.addAll(subGroups, conversationSubGroup.subGroup());
+            conversationGroup = subGroup.conversationGroup;
         }
 
-        Map<ConversationKey, ContextualStorage> storageMap = this.conversationBeanHolder.getStorageMap();
-        for (Map.Entry<ConversationKey, ContextualStorage> entry : storageMap.entrySet())
+        //copy of the keys since they get removed while iterating
+        Set<ConversationKey> conversationKeys =
+            new HashSet<ConversationKey>(this.conversationBeanHolder.getConversationKeys(conversationGroup));
+
+        for (ConversationKey conversationKey : conversationKeys)
         {
-            if (entry.getKey().getConversationGroup().equals(conversationGroup))
+            if (subGroup == null)
             {
-                if (subGroups == null)
+                ContextualStorage contextualStorage = this.conversationBeanHolder.removeStorage(conversationKey);
+                if (contextualStorage != null)
                 {
-                    AbstractContext.destroyAllActive(entry.getValue());
-                    result.add(entry.getValue());
-                    storageMap.remove(entry.getKey()); //ok due to ConcurrentHashMap
+                    AbstractContext.destroyAllActive(contextualStorage);
+                    result.add(contextualStorage);
                 }
-                else
+            }
+            else
+            {
+                //not via #getContextualStorage to keep the last access of the conversation
+                ContextualStorage contextualStorage = this.conversationBeanHolder.getStorage(conversationKey);
+
+                if (contextualStorage == null)
                 {
-                    tryToDestroySubGroup(subGroups, entry);
+                    continue;
+                }
 
-                    if (entry.getValue().getStorage().isEmpty())
-                    {
-                        storageMap.remove(entry.getKey()); //ok due to ConcurrentHashMap
-                    }
+                tryToDestroySubGroup(subGroup, contextualStorage);
+
+                if (contextualStorage.getStorage().isEmpty())
+                {
+                    this.conversationBeanHolder.removeStorage(conversationKey);
                 }
             }
         }
         return result;
     }
 
-    private void tryToDestroySubGroup(Set<Class<?>> subGroups, Map.Entry<ConversationKey, ContextualStorage> entry)
+    private void tryToDestroySubGroup(SubGroup subGroup, ContextualStorage storage)
     {
-        ContextualStorage storage = entry.getValue();
-
         for (Map.Entry<Object, ContextualInstanceInfo<?>> storageEntry : storage.getStorage().entrySet())
         {
-            for (Class<?> subGroup : subGroups)
+            Class classOfEntry = storageEntry.getValue().getContextualInstance().getClass();
+            if (subGroup.contains(classOfEntry))
             {
-                Class classOfEntry = storageEntry.getValue().getContextualInstance().getClass();
-                if (subGroup.equals(classOfEntry) ||
-                    (subGroup.isInterface() && subGroup.isAssignableFrom(classOfEntry)))
-                {
-                    Contextual bean = storage.getBean(storageEntry.getKey());
-                    AbstractContext.destroyBean(bean, storageEntry.getValue());
-                    storage.getStorage().remove(storageEntry.getKey()); //ok due to ConcurrentHashMap
-                    break;
-                }
+                Contextual bean = storage.getBean(storageEntry.getKey());
+                AbstractContext.destroyBean(bean, storageEntry.getValue());
+                storage.getStorage().remove(storageEntry.getKey()); //ok due to ConcurrentHashMap
+                storage.markDirty(storageEntry.getKey());
             }
         }
     }
@@ -172,4 +186,45 @@ public class GroupedConversationContext extends AbstractContext implements Group
     {
         this.conversationBeanHolder.destroyBeans();
     }
+
+    /**
+     * The resolved {@link ConversationSubGroup} of a class.
+     */
+    private static class SubGroup
+    {
+        private final Class<?> conversationGroup;
+        private final Set<Class<?>> subGroupClasses = new HashSet<Class<?>>();
+        private final List<Class<?>> subGroupInterfaces = new ArrayList<Class<?>>();
+
+        SubGroup(Class<?> subGroupClass, ConversationSubGroup conversationSubGroup)
+        {
+            this.conversationGroup = ConversationUtils.getDeclaredConversationGroup(subGroupClass);
+
+            for (Class<?> subGroup : conversationSubGroup.subGroup())
+            {
+                this.subGroupClasses.add(subGroup);
+                if (subGroup.isInterface())
+                {
+                    this.subGroupInterfaces.add(subGroup);
+                }
+            }
+        }
+
+        boolean contains(Class<?> beanClass)
+        {
+            if (this.subGroupClasses.contains(beanClass))
+            {
+                return true;
+            }
+
+            for (Class<?> subGroupInterface : this.subGroupInterfaces)
+            {
+                if (subGroupInterface.isAssignableFrom(beanClass))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
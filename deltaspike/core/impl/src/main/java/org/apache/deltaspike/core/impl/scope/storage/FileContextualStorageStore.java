@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.impl.scope.storage;
+
+import org.apache.deltaspike.core.api.config.base.CoreBaseConfig;
+import org.apache.deltaspike.core.spi.scope.storage.ContextualStorageStore;
+import org.apache.deltaspike.core.util.ClassUtils;
+import org.apache.deltaspike.core.util.ExceptionUtils;
+import org.apache.deltaspike.core.util.context.ContextualStorage;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Default {@link ContextualStorageStore} which serializes every storage to a file of a local directory.
+ * Every instance uses its own directory, which gets deleted on shutdown.
+ */
+@ApplicationScoped
+public class FileContextualStorageStore implements ContextualStorageStore
+{
+    private static final long serialVersionUID = -2049574476305187345L;
+
+    private static final Logger LOG = Logger.getLogger(FileContextualStorageStore.class.getName());
+
+    private static final String FILE_EXTENSION = ".ser";
+
+    private static final String DIRECTORY_PREFIX = "deltaspike-storages";
+
+    private transient volatile Path directory;
+
+    @Override
+    public String write(ContextualStorage storage)
+    {
+        String handle = UUID.randomUUID().toString();
+        Path file = getDirectory().resolve(handle + FILE_EXTENSION);
+
+        try
+        {
+            OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(file));
+            try
+            {
+                ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+                objectOutputStream.writeObject(storage);
+                objectOutputStream.flush();
+            }
+            finally
+            {
+                outputStream.close();
+            }
+        }
+        catch (IOException e)
+        {
+            remove(handle);
+            throw ExceptionUtils.throwAsRuntimeException(e);
+        }
+        return handle;
+    }
+
+    @Override
+    public ContextualStorage read(String handle)
+    {
+        Path file = getDirectory().resolve(handle + FILE_EXTENSION);
+
+        try
+        {
+            InputStream inputStream = new BufferedInputStream(Files.newInputStream(file));
+            try
+            {
+                return (ContextualStorage) new ContextualStorageInputStream(inputStream).readObject();
+            }
+            finally
+            {
+                inputStream.close();
+                Files.deleteIfExists(file);
+            }
+        }
+        catch (NoSuchFileException e)
+        {
+            return null;
+        }
+        catch (Exception e)
+        {
+            throw ExceptionUtils.throwAsRuntimeException(e);
+        }
+    }
+
+    @Override
+    public void remove(String handle)
+    {
+        try
+        {
+            Files.deleteIfExists(getDirectory().resolve(handle + FILE_EXTENSION));
+        }
+        catch (IOException e)
+        {
+            LOG.log(Level.WARNING, "failed to delete the stored contextual-storage " + handle, e);
+        }
+    }
+
+    @PreDestroy
+    protected void cleanup()
+    {
+        if (this.directory == null)
+        {
+            return;
+        }
+
+        try
+        {
+            DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "*" + FILE_EXTENSION);
+            try
+            {
+                for (Path file : files)
+                {
+                    Files.deleteIfExists(file);
+                }
+            }
+            finally
+            {
+                files.close();
+            }
+        }
+        catch (IOException e)
+        {
+            LOG.log(Level.WARNING, "failed to delete the stored contextual-storages in " + this.directory, e);
+        }
+
+        try
+        {
+            Files.deleteIfExists(this.directory);
+        }
+        catch (IOException e)
+        {
+            LOG.log(Level.WARNING, "failed to delete the directory " + this.directory, e);
+        }
+    }
+
+    protected Path getDirectory()
+    {
+        if (this.directory == null)
+        {
+            synchronized (this)
+            {
+                if (this.directory == null)
+                {
+                    this.directory = createDirectory();
+                }
+            }
+        }
+        return this.directory;
+    }
+
+    /**
+     * Creates a new directory, as {@link #cleanup()} deletes all files of it and the configured directory
+     * might be shared, e.g. by several applications.
+     */
+    protected Path createDirectory()
+    {
+        try
+        {
+            Path baseDirectory = getBaseDirectory();
+            if (baseDirectory == null)
+            {
+                return Files.createTempDirectory(DIRECTORY_PREFIX);
+            }
+            return Files.createTempDirectory(Files.createDirectories(baseDirectory), DIRECTORY_PREFIX);
+        }
+        catch (IOException e)
+        {
+            throw ExceptionUtils.throwAsRuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the configured parent of the directory, or <code>null</code> to use the temp-directory
+     */
+    protected Path getBaseDirectory()
+    {
+        String configuredDirectory = CoreBaseConfig.ScopeCustomization.Storage.SPILL_DIRECTORY;
+        if (configuredDirectory == null || configuredDirectory.trim().isEmpty())
+        {
+            return null;
+        }
+        return Paths.get(configuredDirectory.trim());
+    }
+
+    /**
+     * Resolves the classes of the stored beans via the classloader of the application.
+     */
+    private static class ContextualStorageInputStream extends ObjectInputStream
+    {
+        ContextualStorageInputStream(InputStream inputStream) throws IOException
+        {
+            super(inputStream);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass objectStreamClass)
+            throws IOException, ClassNotFoundException
+        {
+            try
+            {
+                return Class.forName(objectStreamClass.getName(), false, ClassUtils.getClassLoader(null));
+            }
+            catch (ClassNotFoundException e)
+            {
+                return super.resolveClass(objectStreamClass);
+            }
+        }
+    }
+}
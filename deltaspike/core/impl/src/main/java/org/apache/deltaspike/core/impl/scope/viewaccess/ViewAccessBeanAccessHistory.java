@@ -18,17 +18,38 @@
  */
 package org.apache.deltaspike.core.impl.scope.viewaccess;
 
-import java.util.ArrayList;
-import java.util.List;
+import org.apache.deltaspike.core.util.context.ContextualSlots;
+
+import java.util.BitSet;
 import jakarta.enterprise.context.RequestScoped;
 
+/**
+ * The view-access scoped beans used in the current request, keyed by the slot of their passivation id.
+ */
 @RequestScoped
 public class ViewAccessBeanAccessHistory
-{    
-    private final List<String> accessedBeans = new ArrayList<String>();
+{
+    private final BitSet accessedBeanSlots = new BitSet();
+
+    public void addAccessedBean(String beanId)
+    {
+        accessedBeanSlots.set(ContextualSlots.slotOf(beanId));
+    }
+
+    public boolean isAccessed(String beanId)
+    {
+        //beans without a slot haven't been accessed
+        int slot = ContextualSlots.lookup(beanId);
+        return slot >= 0 && accessedBeanSlots.get(slot);
+    }
+
+    public int getAccessedBeanCount()
+    {
+        return accessedBeanSlots.cardinality();
+    }
 
-    public List<String> getAccessedBeans()
+    public void clear()
     {
-        return accessedBeans;
+        accessedBeanSlots.clear();
     }
 }
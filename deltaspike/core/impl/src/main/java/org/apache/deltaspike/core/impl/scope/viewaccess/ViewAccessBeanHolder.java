@@ -20,9 +20,22 @@ package org.apache.deltaspike.core.impl.scope.viewaccess;
 
 import org.apache.deltaspike.core.api.scope.WindowScoped;
 import org.apache.deltaspike.core.impl.scope.AbstractBeanHolder;
+import org.apache.deltaspike.core.impl.scope.ScopeStatistics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
 
 @WindowScoped
 public class ViewAccessBeanHolder extends AbstractBeanHolder<String>
 {
     private static final long serialVersionUID = 6313403410718143908L;
+
+    @Inject
+    private ScopeStatistics scopeStatistics;
+
+    @PostConstruct
+    protected void init()
+    {
+        initStatistics(this.scopeStatistics, ScopeStatistics.VIEW_ACCESS_SCOPE);
+    }
 }
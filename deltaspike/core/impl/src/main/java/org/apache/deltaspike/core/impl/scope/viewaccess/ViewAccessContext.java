@@ -32,6 +32,7 @@ import jakarta.enterprise.inject.spi.BeanManager;
 import jakarta.enterprise.inject.spi.PassivationCapable;
 import java.lang.annotation.Annotation;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Vetoed
 public class ViewAccessContext extends AbstractContext implements ViewAccessContextManager
@@ -44,6 +45,9 @@ public class ViewAccessContext extends AbstractContext implements ViewAccessCont
     private ViewAccessBeanHolder viewAccessBeanHolder;
     private ViewAccessBeanAccessHistory viewAccessBeanAccessHistory;
     private ViewAccessViewHistory viewAccessViewHistory;
+
+    private final AtomicLong createdBeanCount = new AtomicLong();
+    private final AtomicLong destroyedBeanCount = new AtomicLong();
     
     public ViewAccessContext(BeanManager beanManager, WindowContextImpl windowContext)
     {
@@ -74,7 +78,7 @@ public class ViewAccessContext extends AbstractContext implements ViewAccessCont
             if (bean instanceof PassivationCapable)
             {
                 PassivationCapable pc = (PassivationCapable) bean;
-                viewAccessBeanAccessHistory.getAccessedBeans().add(pc.getId());
+                viewAccessBeanAccessHistory.addAccessedBean(pc.getId());
             }
         }
     }
@@ -91,11 +95,31 @@ public class ViewAccessContext extends AbstractContext implements ViewAccessCont
             if (bean instanceof PassivationCapable)
             {
                 PassivationCapable pc = (PassivationCapable) bean;
-                viewAccessBeanAccessHistory.getAccessedBeans().add(pc.getId());
+                viewAccessBeanAccessHistory.addAccessedBean(pc.getId());
             }
         }
     }
     
+    /**
+     * Only the call which created the instance stores its {@link CreationalContext}, so parallel calls
+     * for the same bean count it once.
+     */
+    @Override
+    protected <T> T createContextualInstance(ContextualStorage storage,
+                                             Contextual<T> bean,
+                                             Object beanKey,
+                                             CreationalContext<T> creationalContext)
+    {
+        T instance = super.createContextualInstance(storage, bean, beanKey, creationalContext);
+
+        ContextualInstanceInfo<?> contextualInstanceInfo = storage.getStorage().get(beanKey);
+        if (contextualInstanceInfo != null && contextualInstanceInfo.getCreationalContext() == creationalContext)
+        {
+            createdBeanCount.incrementAndGet();
+        }
+        return instance;
+    }
+
     @Override
     protected ContextualStorage getContextualStorage(Contextual<?> contextual, boolean createIfNotExist)
     {
@@ -136,26 +160,65 @@ public class ViewAccessContext extends AbstractContext implements ViewAccessCont
         }
         
         // clear history after each rendering process
-        viewAccessBeanAccessHistory.getAccessedBeans().clear();
+        viewAccessBeanAccessHistory.clear();
     }
     
     private void destroyExpiredBeans(boolean force)
     {
         ContextualStorage storage = viewAccessBeanHolder.getContextualStorage(beanManager, KEY, false);
-        if (storage != null)
+        if (storage == null || storage.getStorage().isEmpty())
         {
-            for (Map.Entry<Object, ContextualInstanceInfo<?>> storageEntry : storage.getStorage().entrySet())
+            return;
+        }
+
+        if (!force && viewAccessBeanAccessHistory.getAccessedBeanCount() == 0)
+        {
+            //nothing was accessed -> all beans expire, no need to look them up one by one
+            force = true;
+        }
+
+        //the stored beans get walked, since the storage of a window gets replaced or updated by the
+        //deserialization and the delta replication, so an index of the stored beans could miss some of them
+        for (Map.Entry<Object, ContextualInstanceInfo<?>> storageEntry : storage.getStorage().entrySet())
+        {
+            if (force || !viewAccessBeanAccessHistory.isAccessed((String) storageEntry.getKey()))
             {
-                if (force || !viewAccessBeanAccessHistory.getAccessedBeans().contains((String) storageEntry.getKey()))
-                {
-                    Contextual bean = storage.getBean(storageEntry.getKey());
-                    AbstractContext.destroyBean(bean, storageEntry.getValue());
-                    storage.getStorage().remove(storageEntry.getKey()); //ok due to ConcurrentHashMap
-                }
+                Contextual bean = storage.getBean(storageEntry.getKey());
+                AbstractContext.destroyBean(bean, storageEntry.getValue());
+                storage.getStorage().remove(storageEntry.getKey()); //ok due to ConcurrentHashMap
+                storage.markDirty(storageEntry.getKey());
+                destroyedBeanCount.incrementAndGet();
             }
         }
     }
 
+    @Override
+    public boolean destroy(Contextual bean)
+    {
+        boolean destroyed = super.destroy(bean);
+        if (destroyed)
+        {
+            destroyedBeanCount.incrementAndGet();
+        }
+        return destroyed;
+    }
+
+    /**
+     * @return the number of view-access scoped beans created since the application was started
+     */
+    public long getCreatedBeanCount()
+    {
+        return createdBeanCount.get();
+    }
+
+    /**
+     * @return the number of view-access scoped beans destroyed since the application was started
+     */
+    public long getDestroyedBeanCount()
+    {
+        return destroyedBeanCount.get();
+    }
+
     @Override
     public void close()
     {
@@ -24,7 +24,10 @@ import org.apache.deltaspike.core.spi.scope.window.WindowContextQuotaHandler;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.SessionScoped;
 import jakarta.inject.Inject;
-import java.util.Stack;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @SessionScoped
 //could be also dependent-scoped since we only inject it in one session-scoped bean, however,
@@ -33,15 +36,23 @@ public class DefaultWindowContextQuotaHandler implements WindowContextQuotaHandl
 {
     protected int maxWindowContextCount;
 
+    /**
+     * Time in milliseconds after which an unused window gets destroyed, 0 to keep idle windows.
+     */
+    protected long maxWindowIdleTime;
+
     @Inject
     private WindowContextQuotaHandlerCache quotaHandlerCache;
 
-    private Stack<String> windowIdStack = new Stack<String>();
+    //access-ordered, the least recently used window comes first
+    private final LinkedHashMap<String, Long> windowAccessTimes = new LinkedHashMap<String, Long>(16, 0.75f, true);
 
     @PostConstruct
     protected void init()
     {
         this.maxWindowContextCount = CoreBaseConfig.ScopeCustomization.WindowRestriction.MAX_COUNT;
+        this.maxWindowIdleTime = TimeUnit.SECONDS.toMillis(
+                CoreBaseConfig.ScopeCustomization.WindowRestriction.MAX_IDLE_TIME_IN_SECONDS);
     }
 
     public synchronized /*no issue due to session-scoped instance*/ void checkWindowContextQuota(String windowId)
@@ -60,24 +71,38 @@ public class DefaultWindowContextQuotaHandler implements WindowContextQuotaHandl
          * the following part gets executed only once per request, if the window-id is the same
          */
 
-        if (this.windowIdStack.contains(windowId))
+        long now = System.currentTimeMillis();
+        boolean knownWindow = this.windowAccessTimes.put(windowId, now) != null; //moves it to the end
+
+        if (!knownWindow && this.windowAccessTimes.size() > this.maxWindowContextCount)
         {
-            if (windowIdStack.size() > 1) //don't move it up if there is just one entry
-            {
-                this.windowIdStack.remove(windowId);
-                this.windowIdStack.push(windowId);
-            }
+            Iterator<String> leastRecentlyUsed = this.windowAccessTimes.keySet().iterator();
+            String windowIdToRemove = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            //destroy it lazily at the end of the request to avoid an overhead during the request
+            //which might be caused by pre-destroy logic of window-scoped beans
+            this.quotaHandlerCache.setWindowIdToDestroy(windowIdToRemove);
+        }
+
+        if (this.maxWindowIdleTime > 0)
+        {
+            removeIdleWindows(now - this.maxWindowIdleTime);
         }
-        else
+    }
+
+    private void removeIdleWindows(long lastAccessLimit)
+    {
+        Iterator<Map.Entry<String, Long>> windows = this.windowAccessTimes.entrySet().iterator();
+        while (windows.hasNext())
         {
-            this.windowIdStack.push(windowId);
-            if (this.windowIdStack.size() > this.maxWindowContextCount)
+            Map.Entry<String, Long> window = windows.next();
+            if (window.getValue() >= lastAccessLimit)
             {
-                String windowIdToRemove = this.windowIdStack.remove(0);
-                //destroy it lazily at the end of the request to avoid an overhead during the request
-                //which might be caused by pre-destroy logic of window-scoped beans
-                this.quotaHandlerCache.setWindowIdToDestroy(windowIdToRemove);
+                //all other windows were used more recently
+                return;
             }
+            windows.remove();
+            this.quotaHandlerCache.setWindowIdToDestroy(window.getKey());
         }
     }
 }
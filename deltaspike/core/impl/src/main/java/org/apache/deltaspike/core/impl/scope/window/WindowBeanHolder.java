@@ -19,7 +19,9 @@
 package org.apache.deltaspike.core.impl.scope.window;
 
 import org.apache.deltaspike.core.impl.scope.AbstractBeanHolder;
+import org.apache.deltaspike.core.impl.scope.ScopeStatistics;
 import org.apache.deltaspike.core.spi.activation.Deactivatable;
+import org.apache.deltaspike.core.spi.scope.storage.ContextualStorageStore;
 import org.apache.deltaspike.core.spi.scope.window.WindowContextQuotaHandler;
 import org.apache.deltaspike.core.util.ClassDeactivationUtils;
 import org.apache.deltaspike.core.util.ProxyUtils;
@@ -43,6 +45,12 @@ public class WindowBeanHolder extends AbstractBeanHolder<String>
     @Inject
     private WindowContextQuotaHandler windowContextQuotaHandler;
 
+    @Inject
+    private ContextualStorageStore contextualStorageStore;
+
+    @Inject
+    private ScopeStatistics scopeStatistics;
+
     private boolean windowContextQuotaHandlerEnabled;
 
     @PostConstruct
@@ -52,6 +60,9 @@ public class WindowBeanHolder extends AbstractBeanHolder<String>
             ProxyUtils.getUnproxiedClass(windowContextQuotaHandler.getClass());
 
         this.windowContextQuotaHandlerEnabled = ClassDeactivationUtils.isActivated(windowContextQuotaHandlerClass);
+
+        initStorageSpilling(this.contextualStorageStore);
+        initStatistics(this.scopeStatistics, ScopeStatistics.WINDOW_SCOPE);
     }
 
     @Override
@@ -26,6 +26,7 @@ import jakarta.enterprise.inject.spi.BeanManager;
 import java.lang.annotation.Annotation;
 
 import org.apache.deltaspike.core.api.scope.WindowScoped;
+import org.apache.deltaspike.core.spi.future.ContextSnapshot;
 import org.apache.deltaspike.core.spi.scope.window.WindowContext;
 import org.apache.deltaspike.core.util.context.AbstractContext;
 import org.apache.deltaspike.core.util.context.ContextualStorage;
@@ -53,6 +54,12 @@ public class WindowContextImpl extends AbstractContext implements WindowContext
      */
     private BeanManager beanManager;
 
+    /**
+     * Window which got propagated to the current Thread, e.g. for a &#064;Futureable method.
+     * It has precedence over the windowId of the request.
+     */
+    private final ThreadLocal<WindowSnapshot> propagatedWindow = new ThreadLocal<WindowSnapshot>();
+
 
     public WindowContextImpl(BeanManager beanManager)
     {
@@ -82,6 +89,12 @@ public class WindowContextImpl extends AbstractContext implements WindowContext
     @Override
     public String getCurrentWindowId()
     {
+        WindowSnapshot window = propagatedWindow.get();
+        if (window != null)
+        {
+            return window.getWindowId();
+        }
+
         if (windowIdHolder == null)
         {
             return null;
@@ -98,7 +111,7 @@ public class WindowContextImpl extends AbstractContext implements WindowContext
             return false;
         }
 
-        ContextualStorage windowStorage = windowBeanHolder.getStorageMap().remove(windowId);
+        ContextualStorage windowStorage = windowBeanHolder.removeStorage(windowId);
 
         if (windowStorage != null)
         {
@@ -115,6 +128,12 @@ public class WindowContextImpl extends AbstractContext implements WindowContext
     @Override
     protected ContextualStorage getContextualStorage(Contextual<?> contextual, boolean createIfNotExist)
     {
+        WindowSnapshot window = propagatedWindow.get();
+        if (window != null)
+        {
+            return window.getStorage();
+        }
+
         String windowId = getCurrentWindowId();
         if (windowId == null)
         {
@@ -141,4 +160,56 @@ public class WindowContextImpl extends AbstractContext implements WindowContext
         return windowId != null;
     }
 
+    /**
+     * Captures the current window together with its storage, which allows to use the window from
+     * other threads even if the session and request of the current thread aren't available there.
+     *
+     * @return snapshot of the current window or of 'no window' if the context isn't active
+     */
+    public ContextSnapshot captureWindow()
+    {
+        WindowSnapshot window = propagatedWindow.get();
+        if (window != null)
+        {
+            return window;
+        }
+
+        String windowId;
+        try
+        {
+            windowId = getCurrentWindowId();
+        }
+        catch (ContextNotActiveException e)
+        {
+            windowId = null;
+        }
+
+        if (windowId == null)
+        {
+            return new WindowSnapshot(this, null, null);
+        }
+        return new WindowSnapshot(this, windowId,
+                windowBeanHolder.getContextualStorage(beanManager, windowId, true));
+    }
+
+    WindowSnapshot bindWindow(WindowSnapshot window)
+    {
+        WindowSnapshot previous = propagatedWindow.get();
+
+        if (window.getWindowId() == null)
+        {
+            propagatedWindow.remove();
+        }
+        else
+        {
+            propagatedWindow.set(window);
+        }
+
+        if (previous == null)
+        {
+            return new WindowSnapshot(this, null, null);
+        }
+        return previous;
+    }
+
 }
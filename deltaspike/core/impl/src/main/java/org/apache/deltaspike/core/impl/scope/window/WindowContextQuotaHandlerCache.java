@@ -24,12 +24,14 @@ import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 @RequestScoped
 public class WindowContextQuotaHandlerCache implements Serializable
 {
     private String checkedWindowId;
-    private String windowIdToRemove;
+    private List<String> windowIdsToRemove;
 
     @Inject
     private WindowContext windowContext;
@@ -45,17 +47,28 @@ public class WindowContextQuotaHandlerCache implements Serializable
         return result;
     }
 
+    /**
+     * @param windowIdToRemove window-id which gets destroyed at the end of the request,
+     *                         in addition to the ones set before
+     */
     public void setWindowIdToDestroy(String windowIdToRemove)
     {
-        this.windowIdToRemove = windowIdToRemove;
+        if (this.windowIdsToRemove == null)
+        {
+            this.windowIdsToRemove = new ArrayList<String>(1);
+        }
+        this.windowIdsToRemove.add(windowIdToRemove);
     }
 
     @PreDestroy
     public void cleanup()
     {
-        if (this.windowIdToRemove != null)
+        if (this.windowIdsToRemove != null)
         {
-            this.windowContext.closeWindow(this.windowIdToRemove);
+            for (String windowIdToRemove : this.windowIdsToRemove)
+            {
+                this.windowContext.closeWindow(windowIdToRemove);
+            }
         }
     }
 }
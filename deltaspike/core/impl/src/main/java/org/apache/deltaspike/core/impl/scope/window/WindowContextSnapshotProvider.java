@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.impl.scope.window;
+
+import org.apache.deltaspike.core.impl.scope.DeltaSpikeContextExtension;
+import org.apache.deltaspike.core.spi.future.ContextSnapshot;
+import org.apache.deltaspike.core.spi.future.ContextSnapshotProvider;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Propagates the current window and therefore also the window-scoped beans which back
+ * the grouped conversations and the view-access scope.
+ */
+@ApplicationScoped
+public class WindowContextSnapshotProvider implements ContextSnapshotProvider
+{
+    @Inject
+    private DeltaSpikeContextExtension deltaSpikeContextExtension;
+
+    @Override
+    public ContextSnapshot capture()
+    {
+        WindowContextImpl windowContext = deltaSpikeContextExtension.getWindowContext();
+        if (windowContext == null)
+        {
+            return null;
+        }
+        return windowContext.captureWindow();
+    }
+}
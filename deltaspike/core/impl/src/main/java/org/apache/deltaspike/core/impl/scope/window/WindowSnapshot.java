@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.impl.scope.window;
+
+import org.apache.deltaspike.core.spi.future.ContextSnapshot;
+import org.apache.deltaspike.core.util.context.ContextualStorage;
+
+/**
+ * A window which can be bound to other threads. A snapshot without windowId represents 'no window'.
+ */
+class WindowSnapshot implements ContextSnapshot
+{
+    private final WindowContextImpl windowContext;
+    private final String windowId;
+    private final ContextualStorage storage;
+
+    WindowSnapshot(WindowContextImpl windowContext, String windowId, ContextualStorage storage)
+    {
+        this.windowContext = windowContext;
+        this.windowId = windowId;
+        this.storage = storage;
+    }
+
+    @Override
+    public ContextSnapshot restore()
+    {
+        return windowContext.bindWindow(this);
+    }
+
+    String getWindowId()
+    {
+        return windowId;
+    }
+
+    ContextualStorage getStorage()
+    {
+        return storage;
+    }
+}
@@ -32,6 +32,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -199,6 +200,24 @@ public class BeanProviderTest
         testBean.setI(4711); // reset the value if this test is executed first
     }
 
+    /*
+     * inject dependencies into several manual instances of the same class
+     */
+    @Test
+    public void injectBeansInNonManagedInstances() throws Exception
+    {
+        List<ManualBean> manualBeans = Arrays.asList(new ManualBean(), null, new ManualBean());
+
+        BeanProvider.injectFields(ManualBean.class, manualBeans);
+
+        Assert.assertNotNull(manualBeans.get(0).getTestBean());
+        Assert.assertNotNull(manualBeans.get(2).getTestBean());
+
+        ManualBean manualBean = BeanProvider.injectFields(new ManualBean());
+
+        Assert.assertNotNull(manualBean.getTestBean());
+    }
+
     @Test
     public void testDependentBeanResolving() throws Exception
     {
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.core.impl.future;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.deltaspike.core.impl.future.DefaultContextPropagation;
+import org.apache.deltaspike.core.spi.future.ContextSnapshot;
+import org.apache.deltaspike.core.spi.future.ContextSnapshotProvider;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ContextPropagationTest
+{
+    private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+
+    @Test
+    public void snapshotsGetRestoredInReverseOrder() throws Exception
+    {
+        DefaultContextPropagation contextPropagation = createContextPropagation(
+                new RecordingSnapshotProvider("a"), new RecordingSnapshotProvider("b"));
+
+        ContextSnapshot previous = contextPropagation.capture().restore();
+        previous.restore();
+
+        Assert.assertEquals(Arrays.asList("restore a", "restore b", "reset b", "reset a"), events);
+    }
+
+    @Test
+    public void providersWithoutStateGetSkipped() throws Exception
+    {
+        DefaultContextPropagation contextPropagation = createContextPropagation(
+                new RecordingSnapshotProvider("a"), new ContextSnapshotProvider()
+                {
+                    @Override
+                    public ContextSnapshot capture()
+                    {
+                        return null;
+                    }
+                });
+
+        contextPropagation.capture().restore().restore();
+
+        Assert.assertEquals(Arrays.asList("restore a", "reset a"), events);
+    }
+
+    @Test
+    public void executorServiceCapturesStateOfSubmittingThread() throws Exception
+    {
+        final ThreadLocal<String> state = new ThreadLocal<String>();
+        DefaultContextPropagation contextPropagation = createContextPropagation(new ThreadLocalSnapshotProvider(state));
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        ExecutorService executorService = contextPropagation.wrap(pool);
+
+        try
+        {
+            state.set("caller");
+            Callable<String> readState = new Callable<String>()
+            {
+                @Override
+                public String call()
+                {
+                    return state.get();
+                }
+            };
+
+            Assert.assertEquals("caller", executorService.submit(readState).get());
+            Assert.assertNull(pool.submit(readState).get());
+        }
+        finally
+        {
+            state.remove();
+            executorService.shutdown();
+        }
+
+        Assert.assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    private DefaultContextPropagation createContextPropagation(ContextSnapshotProvider... snapshotProviders)
+        throws Exception
+    {
+        DefaultContextPropagation contextPropagation = new DefaultContextPropagation();
+        Field field = DefaultContextPropagation.class.getDeclaredField("snapshotProviders");
+        field.setAccessible(true);
+        field.set(contextPropagation, new ArrayList<ContextSnapshotProvider>(Arrays.asList(snapshotProviders)));
+        return contextPropagation;
+    }
+
+    private class RecordingSnapshotProvider implements ContextSnapshotProvider
+    {
+        private final String name;
+
+        private RecordingSnapshotProvider(String name)
+        {
+            this.name = name;
+        }
+
+        @Override
+        public ContextSnapshot capture()
+        {
+            return new ContextSnapshot()
+            {
+                @Override
+                public ContextSnapshot restore()
+                {
+                    events.add("restore " + name);
+                    return new ContextSnapshot()
+                    {
+                        @Override
+                        public ContextSnapshot restore()
+                        {
+                            events.add("reset " + name);
+                            return this;
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    private static class ThreadLocalSnapshotProvider implements ContextSnapshotProvider
+    {
+        private final ThreadLocal<String> state;
+
+        private ThreadLocalSnapshotProvider(ThreadLocal<String> state)
+        {
+            this.state = state;
+        }
+
+        @Override
+        public ContextSnapshot capture()
+        {
+            return bind(state.get());
+        }
+
+        private ContextSnapshot bind(final String value)
+        {
+            return new ContextSnapshot()
+            {
+                @Override
+                public ContextSnapshot restore()
+                {
+                    ContextSnapshot previous = bind(state.get());
+                    state.set(value);
+                    return previous;
+                }
+            };
+        }
+    }
+}
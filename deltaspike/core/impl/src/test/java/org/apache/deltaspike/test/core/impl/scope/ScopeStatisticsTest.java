@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.core.impl.scope;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.deltaspike.core.api.jmx.Table;
+import org.apache.deltaspike.core.impl.scope.ScopeStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.apache.deltaspike.test.core.impl.scope.TestBeanHolder.addInstance;
+import static org.apache.deltaspike.test.core.impl.scope.TestBeanHolder.copy;
+import static org.apache.deltaspike.test.core.impl.scope.TestBeanHolder.replicate;
+
+public class ScopeStatisticsTest
+{
+    @Test
+    public void windowsOfAllSessionsAreCounted()
+    {
+        ScopeStatistics statistics = new EnabledScopeStatistics();
+        TestBeanHolder session1 = new TestBeanHolder(statistics);
+        TestBeanHolder session2 = new TestBeanHolder(statistics);
+        new TestBeanHolder(statistics); //session without windows
+
+        addInstance(session1.getContextualStorage(null, "w1", true), "bean1", "bean1-instance");
+        addInstance(session1.getContextualStorage(null, "w1", true), "bean2", "bean2-instance");
+        session1.getContextualStorage(null, "w2", true);
+        session2.getContextualStorage(null, "w3", true);
+        session2.removeStorage("w3");
+
+        Assert.assertEquals(1, statistics.getActiveSessions());
+        Assert.assertEquals(2, statistics.getActiveWindows());
+        Assert.assertEquals(2, statistics.getMaxWindowsPerSession());
+
+        List<String> windowLine = getLine(statistics.getScopes(), ScopeStatistics.WINDOW_SCOPE);
+        //scope, holders, storages, spilled storages, beans, max beans per storage, created, destroyed
+        Assert.assertEquals("3", windowLine.get(1));
+        Assert.assertEquals("2", windowLine.get(2));
+        Assert.assertEquals("2", windowLine.get(4));
+        Assert.assertEquals("2", windowLine.get(5));
+        Assert.assertEquals("3", windowLine.get(6));
+        Assert.assertEquals("1", windowLine.get(7));
+    }
+
+    @Test
+    public void serializedSizeIsEstimated()
+    {
+        ScopeStatistics statistics = new EnabledScopeStatistics();
+        TestBeanHolder beanHolder = new TestBeanHolder(statistics);
+
+        addInstance(beanHolder.getContextualStorage(null, "w1", true), "bean1", "bean1-instance");
+        addInstance(beanHolder.getContextualStorage(null, "w2", true), "bean2", "bean2-instance");
+
+        List<String> windowLine = getLine(statistics.estimateSerializedSize(1), ScopeStatistics.WINDOW_SCOPE);
+        //scope, storages, sampled, avg bytes, estimated bytes
+        Assert.assertEquals("2", windowLine.get(1));
+        Assert.assertEquals("1", windowLine.get(2));
+        Assert.assertTrue(Long.parseLong(windowLine.get(3)) > 0);
+        Assert.assertEquals(Long.parseLong(windowLine.get(3)) * 2, Long.parseLong(windowLine.get(4)));
+    }
+
+    @Test
+    public void disabledStatisticsDontTrackHolders()
+    {
+        ScopeStatistics statistics = new ScopeStatistics();
+        TestBeanHolder beanHolder = new TestBeanHolder(statistics);
+        beanHolder.getContextualStorage(null, "w1", true);
+
+        Assert.assertEquals(0, statistics.getActiveWindows());
+        Assert.assertTrue(statistics.getScopes().getLines().isEmpty());
+    }
+
+    @Test
+    public void replicatedStoragesAreCounted() throws Exception
+    {
+        TestBeanHolder primary = new TestBeanHolder(new EnabledScopeStatistics());
+        primary.trackDeltas();
+        ScopeStatistics replicaStatistics = new EnabledScopeStatistics();
+        TestBeanHolder replica = new TestBeanHolder(replicaStatistics);
+        replica.trackDeltas();
+
+        primary.getContextualStorage(null, "w1", true);
+        primary.getContextualStorage(null, "w2", true);
+        replicate(primary, replica);
+        //replaces the storage of the replica
+        primary.removeStorage("w1");
+        primary.getContextualStorage(null, "w1", true);
+        replicate(primary, replica);
+        primary.removeStorage("w2");
+        replicate(primary, replica);
+
+        List<String> windowLine = getLine(replicaStatistics.getScopes(), ScopeStatistics.WINDOW_SCOPE);
+        Assert.assertEquals("1", windowLine.get(2));
+        Assert.assertEquals("2", windowLine.get(6));
+        Assert.assertEquals("1", windowLine.get(7));
+    }
+
+    @Test
+    public void deserializedHoldersAreRegisteredAgain() throws Exception
+    {
+        ScopeStatistics statistics = new EnabledScopeStatistics();
+        TestBeanHolder beanHolder = new TestBeanHolder(statistics);
+        addInstance(beanHolder.getContextualStorage(null, "w1", true), "bean1", "bean1-instance");
+
+        ScopeStatistics resolvedStatistics = new EnabledScopeStatistics();
+        TestBeanHolder.setResolvedScopeStatistics(resolvedStatistics);
+        try
+        {
+            TestBeanHolder deserialized = copy(beanHolder);
+            deserialized.getContextualStorage(null, "w2", true);
+
+            Assert.assertEquals(2, resolvedStatistics.getActiveWindows());
+            Assert.assertEquals("1", getLine(resolvedStatistics.getScopes(), ScopeStatistics.WINDOW_SCOPE).get(6));
+        }
+        finally
+        {
+            TestBeanHolder.setResolvedScopeStatistics(null);
+        }
+    }
+
+    private static List<String> getLine(Table table, String scope)
+    {
+        for (Collection<String> line : table.getLines())
+        {
+            List<String> values = new ArrayList<String>(line);
+            if (scope.equals(values.get(0)))
+            {
+                return values;
+            }
+        }
+        throw new AssertionError("no line for " + scope);
+    }
+
+    private static class EnabledScopeStatistics extends ScopeStatistics
+    {
+        @Override
+        public boolean isEnabled()
+        {
+            return true;
+        }
+    }
+}
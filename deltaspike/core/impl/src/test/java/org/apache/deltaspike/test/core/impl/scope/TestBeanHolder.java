@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.core.impl.scope;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.apache.deltaspike.core.impl.scope.AbstractBeanHolder;
+import org.apache.deltaspike.core.impl.scope.ScopeStatistics;
+import org.apache.deltaspike.core.spi.scope.storage.ContextualStorageStore;
+import org.apache.deltaspike.core.util.context.ContextualInstanceInfo;
+import org.apache.deltaspike.core.util.context.ContextualStorage;
+
+/**
+ * Bean-holder with storages keyed by a window-id and a manual clock, shared by the tests of the scopes.
+ */
+public class TestBeanHolder extends AbstractBeanHolder<String>
+{
+    private static final long serialVersionUID = 1L;
+
+    //returned after the deserialization of a holder
+    private static ScopeStatistics resolvedScopeStatistics;
+
+    private long now = 1000;
+
+    public TestBeanHolder()
+    {
+    }
+
+    public TestBeanHolder(ScopeStatistics scopeStatistics)
+    {
+        initStatistics(scopeStatistics, ScopeStatistics.WINDOW_SCOPE);
+    }
+
+    public void trackDeltas()
+    {
+        enableDeltaTracking();
+    }
+
+    public void spillStorages(ContextualStorageStore contextualStorageStore, long spillIdleTime)
+    {
+        enableStorageSpilling(contextualStorageStore, spillIdleTime);
+    }
+
+    public void advanceTime(long milliseconds)
+    {
+        now += milliseconds;
+    }
+
+    @Override
+    public long currentTimeMillis()
+    {
+        return now;
+    }
+
+    @Override
+    protected ScopeStatistics resolveScopeStatistics()
+    {
+        return resolvedScopeStatistics;
+    }
+
+    public static void setResolvedScopeStatistics(ScopeStatistics scopeStatistics)
+    {
+        resolvedScopeStatistics = scopeStatistics;
+    }
+
+    public static void addInstance(ContextualStorage storage, String beanKey, Object instance)
+    {
+        ContextualInstanceInfo<Object> instanceInfo = new ContextualInstanceInfo<Object>();
+        instanceInfo.setContextualInstance(instance);
+        storage.getStorage().put(beanKey, instanceInfo);
+        storage.markDirty(beanKey);
+    }
+
+    public static void replicate(TestBeanHolder primary, TestBeanHolder replica)
+        throws IOException, ClassNotFoundException
+    {
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        ObjectOutputStream output = new ObjectOutputStream(delta);
+        primary.writeDelta(output);
+        output.close();
+
+        replica.readDelta(new ObjectInputStream(new ByteArrayInputStream(delta.toByteArray())));
+    }
+
+    public static TestBeanHolder copy(TestBeanHolder beanHolder) throws IOException, ClassNotFoundException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream output = new ObjectOutputStream(bytes);
+        output.writeObject(beanHolder);
+        output.close();
+
+        ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        try
+        {
+            return (TestBeanHolder) input.readObject();
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.core.impl.scope.conversation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.util.List;
+
+import org.apache.deltaspike.core.impl.scope.conversation.ConversationBeanHolder;
+import org.apache.deltaspike.core.impl.scope.conversation.ConversationKey;
+import org.apache.deltaspike.core.util.context.ContextualStorage;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConversationBeanHolderTest
+{
+    @Test
+    public void conversationsAreIndexedByGroup()
+    {
+        ConversationBeanHolder beanHolder = new TestConversationBeanHolder(0);
+        ConversationKey key1 = new ConversationKey(Group1.class);
+        ConversationKey key2 = new ConversationKey(Group2.class);
+
+        beanHolder.getContextualStorage(null, key1, true);
+        beanHolder.getContextualStorage(null, key2, true);
+
+        Assert.assertEquals(1, beanHolder.getConversationKeys(Group1.class).size());
+        Assert.assertTrue(beanHolder.getConversationKeys(Group1.class).contains(key1));
+
+        Assert.assertNotNull(beanHolder.removeStorage(key1));
+        Assert.assertTrue(beanHolder.getConversationKeys(Group1.class).isEmpty());
+        Assert.assertFalse(beanHolder.getStorageMap().containsKey(key1));
+        Assert.assertTrue(beanHolder.getStorageMap().containsKey(key2));
+
+        beanHolder.destroyBeans();
+        Assert.assertTrue(beanHolder.getConversationKeys(Group2.class).isEmpty());
+    }
+
+    @Test
+    public void idleConversationsGetRemoved()
+    {
+        TestConversationBeanHolder beanHolder = new TestConversationBeanHolder(100);
+        ConversationKey idleKey = new ConversationKey(Group1.class);
+        ConversationKey usedKey = new ConversationKey(Group2.class);
+
+        ContextualStorage idleStorage = beanHolder.getContextualStorage(null, idleKey, true);
+        beanHolder.getContextualStorage(null, usedKey, true);
+        beanHolder.now += 250;
+        beanHolder.getContextualStorage(null, usedKey, false);
+
+        List<ContextualStorage> removed = beanHolder.removeIdleStorages(beanHolder.now);
+
+        Assert.assertEquals(1, removed.size());
+        Assert.assertSame(idleStorage, removed.get(0));
+        Assert.assertFalse(beanHolder.getStorageMap().containsKey(idleKey));
+        Assert.assertTrue(beanHolder.getStorageMap().containsKey(usedKey));
+        Assert.assertTrue(beanHolder.getConversationKeys(Group1.class).isEmpty());
+    }
+
+    @Test
+    public void idleConversationsGetClosedOnAccess()
+    {
+        TestConversationBeanHolder beanHolder = new TestConversationBeanHolder(100);
+        ConversationKey idleKey = new ConversationKey(Group1.class);
+        ConversationKey usedKey = new ConversationKey(Group2.class);
+
+        beanHolder.getContextualStorage(null, idleKey, true);
+        beanHolder.getContextualStorage(null, usedKey, true);
+        //the idle check of the first access is due again after one second
+        beanHolder.now += 1000;
+        beanHolder.getContextualStorage(null, usedKey, false);
+
+        Assert.assertFalse(beanHolder.getStorageMap().containsKey(idleKey));
+        Assert.assertTrue(beanHolder.getStorageMap().containsKey(usedKey));
+    }
+
+    @Test
+    public void conversationsWithoutIdleTimeAreKept()
+    {
+        TestConversationBeanHolder beanHolder = new TestConversationBeanHolder(0);
+        ConversationKey key = new ConversationKey(Group1.class);
+
+        beanHolder.getContextualStorage(null, key, true);
+
+        Assert.assertTrue(beanHolder.removeIdleStorages(beanHolder.now + 60000).isEmpty());
+        Assert.assertTrue(beanHolder.getStorageMap().containsKey(key));
+    }
+
+    @Test
+    public void replicatedConversationsGetRemovedWhenIdle() throws Exception
+    {
+        TestConversationBeanHolder primary = new TestConversationBeanHolder(100);
+        TestConversationBeanHolder replica = new TestConversationBeanHolder(100);
+        ConversationKey key = new ConversationKey(Group1.class);
+
+        primary.getContextualStorage(null, key, true);
+
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        ObjectOutputStream output = new ObjectOutputStream(delta);
+        primary.writeDelta(output);
+        output.close();
+        replica.readDelta(new ObjectInputStream(new ByteArrayInputStream(delta.toByteArray())));
+
+        Assert.assertTrue(replica.getStorageMap().containsKey(key));
+        replica.now += 250;
+
+        Assert.assertEquals(1, replica.removeIdleStorages(replica.now).size());
+        Assert.assertTrue(replica.getConversationKeys(Group1.class).isEmpty());
+    }
+
+    @Test
+    public void groupIndexIsRebuiltForHoldersOfOlderVersions() throws Exception
+    {
+        TestConversationBeanHolder beanHolder = new TestConversationBeanHolder(0);
+        ConversationKey key1 = new ConversationKey(Group1.class);
+        ConversationKey key2 = new ConversationKey(Group2.class);
+
+        beanHolder.getContextualStorage(null, key1, true);
+        beanHolder.getContextualStorage(null, key2, true);
+
+        //the maps didn't exist in older versions
+        for (String fieldName : new String[] {"groupIndex", "lastAccessTimes"})
+        {
+            Field field = ConversationBeanHolder.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(beanHolder, null);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream output = new ObjectOutputStream(bytes);
+        output.writeObject(beanHolder);
+        output.close();
+        ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        ConversationBeanHolder deserializedBeanHolder = (ConversationBeanHolder) input.readObject();
+        input.close();
+
+        Assert.assertEquals(1, deserializedBeanHolder.getConversationKeys(Group1.class).size());
+        Assert.assertTrue(deserializedBeanHolder.getConversationKeys(Group2.class).contains(key2));
+
+        Assert.assertNotNull(deserializedBeanHolder.removeStorage(key1));
+        Assert.assertTrue(deserializedBeanHolder.getConversationKeys(Group1.class).isEmpty());
+    }
+
+    private static class TestConversationBeanHolder extends ConversationBeanHolder
+    {
+        private final long maxIdleTime;
+
+        private long now = 1000;
+
+        TestConversationBeanHolder(long maxIdleTime)
+        {
+            this.maxIdleTime = maxIdleTime;
+            enableDeltaTracking();
+        }
+
+        @Override
+        protected long currentTimeMillis()
+        {
+            return now;
+        }
+
+        @Override
+        protected long getMaxIdleTime(Class<?> conversationGroup)
+        {
+            return maxIdleTime;
+        }
+    }
+
+    private static class Group1
+    {
+    }
+
+    private static class Group2
+    {
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.core.impl.scope.storage;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.deltaspike.core.impl.scope.storage.FileContextualStorageStore;
+import org.apache.deltaspike.core.util.context.ContextualStorage;
+import org.apache.deltaspike.test.core.impl.scope.TestBeanHolder;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.apache.deltaspike.test.core.impl.scope.TestBeanHolder.addInstance;
+import static org.apache.deltaspike.test.core.impl.scope.TestBeanHolder.replicate;
+
+public class DeltaReplicationTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void addedStoragesAreReplicated() throws Exception
+    {
+        TestBeanHolder primary = createBeanHolder();
+        TestBeanHolder replica = createBeanHolder();
+
+        addInstance(primary.getContextualStorage(null, "w1", true), "bean1", valuesOf("value1"));
+        addInstance(primary.getContextualStorage(null, "w2", true), "bean2", valuesOf("value2"));
+
+        Assert.assertTrue(primary.hasDelta());
+        replicate(primary, replica);
+        Assert.assertFalse(primary.hasDelta());
+
+        Assert.assertEquals(valuesOf("value1"), getInstance(replica, "w1", "bean1"));
+        Assert.assertEquals(valuesOf("value2"), getInstance(replica, "w2", "bean2"));
+    }
+
+    @Test
+    public void onlyChangedBeansAndRemovedStoragesAreReplicated() throws Exception
+    {
+        TestBeanHolder primary = createBeanHolder();
+        TestBeanHolder replica = createBeanHolder();
+
+        ContextualStorage storage1 = primary.getContextualStorage(null, "w1", true);
+        addInstance(storage1, "bean1", valuesOf("value1"));
+        addInstance(storage1, "bean2", valuesOf("value2"));
+        addInstance(primary.getContextualStorage(null, "w2", true), "bean3", valuesOf("value3"));
+        replicate(primary, replica);
+
+        //changed on the replica only, to detect whether the bean gets replicated again
+        getInstance(replica, "w1", "bean2").add("replica");
+
+        getInstance(primary, "w1", "bean1").add("changed");
+        storage1.markDirty("bean1");
+        primary.removeStorage("w2");
+
+        Assert.assertTrue(primary.hasDelta());
+        replicate(primary, replica);
+
+        Assert.assertEquals(valuesOf("value1", "changed"), getInstance(replica, "w1", "bean1"));
+        Assert.assertEquals(valuesOf("value2", "replica"), getInstance(replica, "w1", "bean2"));
+        Assert.assertNull(replica.getContextualStorage(null, "w2", false));
+    }
+
+    @Test
+    public void removedBeansAreReplicated() throws Exception
+    {
+        TestBeanHolder primary = createBeanHolder();
+        TestBeanHolder replica = createBeanHolder();
+
+        ContextualStorage storage = primary.getContextualStorage(null, "w1", true);
+        addInstance(storage, "bean1", valuesOf("value1"));
+        replicate(primary, replica);
+
+        storage.getStorage().remove("bean1");
+        storage.markDirty("bean1");
+        replicate(primary, replica);
+
+        Assert.assertTrue(replica.getContextualStorage(null, "w1", false).getStorage().isEmpty());
+    }
+
+    @Test
+    public void dirtyStoragesGetSpilledOnceReplicated() throws Exception
+    {
+        TestBeanHolder primary = createBeanHolder();
+        primary.spillStorages(new FileContextualStorageStore()
+        {
+            @Override
+            protected Path getBaseDirectory()
+            {
+                return temporaryFolder.getRoot().toPath();
+            }
+        }, 100);
+        TestBeanHolder replica = createBeanHolder();
+
+        addInstance(primary.getContextualStorage(null, "w1", true), "bean1", valuesOf("value1"));
+        primary.advanceTime(250);
+
+        Assert.assertEquals(0, primary.spillIdleStorages(primary.currentTimeMillis()));
+
+        replicate(primary, replica);
+
+        Assert.assertEquals(1, primary.spillIdleStorages(primary.currentTimeMillis()));
+        Assert.assertEquals(1, primary.getSpilledStorageCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> getInstance(TestBeanHolder beanHolder, String storageKey, String beanKey)
+    {
+        ContextualStorage storage = beanHolder.getContextualStorage(null, storageKey, false);
+        return (List<String>) storage.getStorage().get(beanKey).getContextualInstance();
+    }
+
+    private static TestBeanHolder createBeanHolder()
+    {
+        TestBeanHolder result = new TestBeanHolder();
+        result.trackDeltas();
+        return result;
+    }
+
+    private static List<String> valuesOf(String... values)
+    {
+        List<String> result = new ArrayList<String>();
+        for (String value : values)
+        {
+            result.add(value);
+        }
+        return result;
+    }
+}
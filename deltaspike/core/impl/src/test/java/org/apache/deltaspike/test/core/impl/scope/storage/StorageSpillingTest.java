@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.core.impl.scope.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.apache.deltaspike.core.impl.scope.storage.FileContextualStorageStore;
+import org.apache.deltaspike.core.spi.scope.storage.ContextualStorageStore;
+import org.apache.deltaspike.core.util.context.ContextualStorage;
+import org.apache.deltaspike.test.core.impl.scope.TestBeanHolder;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.apache.deltaspike.test.core.impl.scope.TestBeanHolder.addInstance;
+import static org.apache.deltaspike.test.core.impl.scope.TestBeanHolder.copy;
+
+public class StorageSpillingTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void idleStorageGetsSpilledAndRestored() throws Exception
+    {
+        TestBeanHolder beanHolder = createBeanHolder(createStore());
+
+        addInstance(beanHolder.getContextualStorage(null, "w1", true), "bean1", "value1");
+        addInstance(beanHolder.getContextualStorage(null, "w2", true), "bean2", "value2");
+        beanHolder.advanceTime(250);
+        beanHolder.getContextualStorage(null, "w2", false);
+
+        Assert.assertEquals(1, beanHolder.spillIdleStorages(beanHolder.currentTimeMillis()));
+        Assert.assertFalse(beanHolder.getStorageMap().containsKey("w1"));
+        Assert.assertTrue(beanHolder.getStorageMap().containsKey("w2"));
+        Assert.assertEquals(1, countStoredFiles());
+
+        ContextualStorage restoredStorage = beanHolder.getContextualStorage(null, "w1", false);
+
+        Assert.assertNotNull(restoredStorage);
+        Assert.assertEquals("value1", restoredStorage.getStorage().get("bean1").getContextualInstance());
+        Assert.assertTrue(beanHolder.getStorageMap().containsKey("w1"));
+        Assert.assertEquals(0, countStoredFiles());
+    }
+
+    @Test
+    public void spilledStorageCanBeRemoved() throws Exception
+    {
+        TestBeanHolder beanHolder = createBeanHolder(createStore());
+
+        addInstance(beanHolder.getContextualStorage(null, "w1", true), "bean1", "value1");
+        beanHolder.advanceTime(250);
+
+        Assert.assertEquals(1, beanHolder.spillIdleStorages(beanHolder.currentTimeMillis()));
+
+        ContextualStorage removedStorage = beanHolder.removeStorage("w1");
+
+        Assert.assertEquals("value1", removedStorage.getStorage().get("bean1").getContextualInstance());
+        Assert.assertNull(beanHolder.getContextualStorage(null, "w1", false));
+        Assert.assertEquals(0, countStoredFiles());
+    }
+
+    @Test
+    public void emptyStoragesStayOnTheHeap()
+    {
+        TestBeanHolder beanHolder = createBeanHolder(createStore());
+
+        beanHolder.getContextualStorage(null, "w1", true);
+        beanHolder.advanceTime(250);
+
+        Assert.assertEquals(0, beanHolder.spillIdleStorages(beanHolder.currentTimeMillis()));
+        Assert.assertTrue(beanHolder.getStorageMap().containsKey("w1"));
+    }
+
+    @Test
+    public void storageAccessedWhileSpillingStaysOnTheHeap() throws Exception
+    {
+        final TestBeanHolder[] beanHolder = new TestBeanHolder[1];
+        ContextualStorageStore store = new FileContextualStorageStore()
+        {
+            @Override
+            protected Path getBaseDirectory()
+            {
+                return temporaryFolder.getRoot().toPath();
+            }
+
+            @Override
+            public String write(ContextualStorage storage)
+            {
+                String handle = super.write(storage);
+                //a lookup in parallel to the spilling
+                beanHolder[0].getContextualStorage(null, "w1", false);
+                return handle;
+            }
+        };
+        beanHolder[0] = createBeanHolder(store);
+
+        ContextualStorage storage = beanHolder[0].getContextualStorage(null, "w1", true);
+        addInstance(storage, "bean1", "value1");
+        beanHolder[0].advanceTime(250);
+
+        Assert.assertEquals(0, beanHolder[0].spillIdleStorages(beanHolder[0].currentTimeMillis()));
+        Assert.assertSame(storage, beanHolder[0].getStorageMap().get("w1"));
+        Assert.assertEquals(0, beanHolder[0].getSpilledStorageCount());
+        Assert.assertEquals(0, countStoredFiles());
+    }
+
+    @Test
+    public void spilledStoragesStayInTheStoreDuringSerialization() throws Exception
+    {
+        TestBeanHolder beanHolder = createBeanHolder(createStore());
+
+        addInstance(beanHolder.getContextualStorage(null, "w1", true), "bean1", "value1");
+        addInstance(beanHolder.getContextualStorage(null, "w2", true), "bean2", "value2");
+        beanHolder.advanceTime(250);
+        beanHolder.getContextualStorage(null, "w2", false);
+
+        Assert.assertEquals(1, beanHolder.spillIdleStorages(beanHolder.currentTimeMillis()));
+
+        TestBeanHolder deserializedBeanHolder = copy(beanHolder);
+
+        Assert.assertFalse(beanHolder.getStorageMap().containsKey("w1"));
+        Assert.assertEquals(1, beanHolder.getSpilledStorageCount());
+        Assert.assertEquals(1, countStoredFiles());
+
+        Assert.assertEquals(0, deserializedBeanHolder.getSpilledStorageCount());
+        Assert.assertEquals("value1",
+            deserializedBeanHolder.getStorageMap().get("w1").getStorage().get("bean1").getContextualInstance());
+        Assert.assertEquals("value2",
+            deserializedBeanHolder.getStorageMap().get("w2").getStorage().get("bean2").getContextualInstance());
+
+        ContextualStorage restoredStorage = beanHolder.getContextualStorage(null, "w1", false);
+        Assert.assertEquals("value1", restoredStorage.getStorage().get("bean1").getContextualInstance());
+        Assert.assertEquals(0, countStoredFiles());
+    }
+
+    @Test
+    public void cleanupKeepsTheFilesOfOtherStores() throws Exception
+    {
+        TestStore store1 = createStore();
+        TestStore store2 = createStore();
+
+        ContextualStorage storage = new ContextualStorage(null, true, true);
+        addInstance(storage, "bean1", "value1");
+        store1.write(storage);
+        String handle = store2.write(storage);
+
+        store1.cleanup();
+
+        Assert.assertEquals(1, countStoredFiles());
+        Assert.assertEquals("value1", store2.read(handle).getStorage().get("bean1").getContextualInstance());
+    }
+
+    private static TestBeanHolder createBeanHolder(ContextualStorageStore contextualStorageStore)
+    {
+        TestBeanHolder result = new TestBeanHolder();
+        result.spillStorages(contextualStorageStore, 100);
+        return result;
+    }
+
+    private TestStore createStore()
+    {
+        return new TestStore(temporaryFolder.getRoot().toPath());
+    }
+
+    private long countStoredFiles() throws IOException
+    {
+        Stream<Path> files = Files.walk(temporaryFolder.getRoot().toPath());
+        try
+        {
+            return files.filter(Files::isRegularFile).count();
+        }
+        finally
+        {
+            files.close();
+        }
+    }
+
+    private static class TestStore extends FileContextualStorageStore
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Path baseDirectory;
+
+        TestStore(Path baseDirectory)
+        {
+            this.baseDirectory = baseDirectory;
+        }
+
+        @Override
+        protected Path getBaseDirectory()
+        {
+            return baseDirectory;
+        }
+
+        @Override
+        protected void cleanup()
+        {
+            super.cleanup();
+        }
+    }
+}
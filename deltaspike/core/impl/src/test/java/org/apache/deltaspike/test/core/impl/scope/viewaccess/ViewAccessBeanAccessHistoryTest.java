@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.core.impl.scope.viewaccess;
+
+import org.apache.deltaspike.core.impl.scope.viewaccess.ViewAccessBeanAccessHistory;
+import org.apache.deltaspike.core.util.context.ContextualSlots;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ViewAccessBeanAccessHistoryTest
+{
+    @Test
+    public void accessedBeansAreTracked()
+    {
+        ViewAccessBeanAccessHistory history = new ViewAccessBeanAccessHistory();
+
+        history.addAccessedBean("history-test-bean-1");
+        history.addAccessedBean("history-test-bean-2");
+        history.addAccessedBean("history-test-bean-1");
+
+        Assert.assertTrue(history.isAccessed("history-test-bean-1"));
+        Assert.assertTrue(history.isAccessed("history-test-bean-2"));
+        Assert.assertFalse(history.isAccessed("history-test-bean-3"));
+        Assert.assertEquals(2, history.getAccessedBeanCount());
+
+        history.clear();
+
+        Assert.assertFalse(history.isAccessed("history-test-bean-1"));
+        Assert.assertEquals(0, history.getAccessedBeanCount());
+    }
+
+    @Test
+    public void lookupOfUnknownBeansDoesntAssignSlots()
+    {
+        ViewAccessBeanAccessHistory history = new ViewAccessBeanAccessHistory();
+        int slotCount = ContextualSlots.size();
+
+        Assert.assertFalse(history.isAccessed("history-test-unknown-bean"));
+        Assert.assertEquals(slotCount, ContextualSlots.size());
+        Assert.assertEquals(-1, ContextualSlots.lookup("history-test-unknown-bean"));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.core.impl.scope.viewaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
+import jakarta.enterprise.inject.spi.BeanManager;
+import jakarta.enterprise.inject.spi.PassivationCapable;
+
+import org.apache.deltaspike.core.impl.scope.viewaccess.ViewAccessBeanAccessHistory;
+import org.apache.deltaspike.core.impl.scope.viewaccess.ViewAccessBeanHolder;
+import org.apache.deltaspike.core.impl.scope.viewaccess.ViewAccessContext;
+import org.apache.deltaspike.core.impl.scope.viewaccess.ViewAccessViewHistory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ViewAccessContextTest
+{
+    @Test
+    public void createdBeansAreCountedOnce()
+    {
+        ViewAccessContext context = new ViewAccessContext(createBeanManager(), null)
+        {
+            @Override
+            public boolean isActive()
+            {
+                return true;
+            }
+        };
+        context.init(new ViewAccessBeanHolder(), new ViewAccessBeanAccessHistory(), new ViewAccessViewHistory());
+        TestBean bean = new TestBean();
+
+        String first = context.get(bean, new TestCreationalContext<String>());
+        String second = context.get(bean, new TestCreationalContext<String>());
+
+        Assert.assertSame(first, second);
+        Assert.assertSame(first, context.get(bean));
+        Assert.assertEquals(1, context.getCreatedBeanCount());
+    }
+
+    private static BeanManager createBeanManager()
+    {
+        return (BeanManager) Proxy.newProxyInstance(ViewAccessContextTest.class.getClassLoader(),
+                new Class<?>[] { BeanManager.class }, new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args)
+                    {
+                        //only needed to detect the passivating scope
+                        return "isPassivatingScope".equals(method.getName()) ? Boolean.TRUE : null;
+                    }
+                });
+    }
+
+    private static class TestBean implements Contextual<String>, PassivationCapable
+    {
+        @Override
+        public String create(CreationalContext<String> creationalContext)
+        {
+            return new String("instance");
+        }
+
+        @Override
+        public void destroy(String instance, CreationalContext<String> creationalContext)
+        {
+        }
+
+        @Override
+        public String getId()
+        {
+            return "view-access-context-test-bean";
+        }
+    }
+
+    private static class TestCreationalContext<T> implements CreationalContext<T>
+    {
+        @Override
+        public void push(T incompleteInstance)
+        {
+        }
+
+        @Override
+        public void release()
+        {
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.core.impl.scope.window;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.deltaspike.core.impl.scope.window.DefaultWindowContextQuotaHandler;
+import org.apache.deltaspike.core.impl.scope.window.WindowContextQuotaHandlerCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DefaultWindowContextQuotaHandlerTest
+{
+    @Test
+    public void leastRecentlyUsedWindowGetsDestroyed() throws Exception
+    {
+        RecordingQuotaHandlerCache cache = new RecordingQuotaHandlerCache();
+        TestQuotaHandler quotaHandler = new TestQuotaHandler(cache, 2, 0);
+
+        quotaHandler.checkWindowContextQuota("w1");
+        quotaHandler.checkWindowContextQuota("w2");
+        quotaHandler.checkWindowContextQuota("w1");
+        quotaHandler.checkWindowContextQuota("w3");
+        quotaHandler.checkWindowContextQuota("w1");
+        quotaHandler.checkWindowContextQuota("w4");
+
+        Assert.assertEquals(Arrays.asList("w2", "w3"), cache.destroyed);
+    }
+
+    @Test
+    public void idleWindowsGetDestroyed() throws Exception
+    {
+        RecordingQuotaHandlerCache cache = new RecordingQuotaHandlerCache();
+        TestQuotaHandler quotaHandler = new TestQuotaHandler(cache, 10, 100);
+
+        quotaHandler.checkWindowContextQuota("w1");
+        quotaHandler.checkWindowContextQuota("w2");
+        Thread.sleep(250);
+        quotaHandler.checkWindowContextQuota("w2");
+        quotaHandler.checkWindowContextQuota("w3");
+
+        Assert.assertEquals(Arrays.asList("w1"), cache.destroyed);
+    }
+
+    private static class TestQuotaHandler extends DefaultWindowContextQuotaHandler
+    {
+        TestQuotaHandler(WindowContextQuotaHandlerCache cache, int maxCount, long maxIdleTime) throws Exception
+        {
+            Field cacheField = DefaultWindowContextQuotaHandler.class.getDeclaredField("quotaHandlerCache");
+            cacheField.setAccessible(true);
+            cacheField.set(this, cache);
+            this.maxWindowContextCount = maxCount;
+            this.maxWindowIdleTime = maxIdleTime;
+        }
+    }
+
+    private static class RecordingQuotaHandlerCache extends WindowContextQuotaHandlerCache
+    {
+        private final List<String> destroyed = new ArrayList<String>();
+
+        @Override
+        public boolean cacheWindowId(String currentWindowId)
+        {
+            // every check simulates a new request
+            return false;
+        }
+
+        @Override
+        public void setWindowIdToDestroy(String windowIdToRemove)
+        {
+            destroyed.add(windowIdToRemove);
+        }
+    }
+}
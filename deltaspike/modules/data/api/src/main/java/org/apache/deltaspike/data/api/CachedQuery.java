@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the result of a query method, keyed by the method and its parameter values.
+ * <p>
+ * The cached results of a repository are invalidated whenever a {@link Modifying} query, a {@code save},
+ * {@code remove} or a {@code delete} prefixed method runs through a repository of the same entity type.
+ * Changes which bypass the repositories (e.g. other applications or native SQL) are only picked up
+ * after the {@link #ttl()} expired.
+ * <p>
+ * Cached results are shared across callers and transactions. Entities returned from the cache are
+ * not attached to the current persistence context and must be treated as read-only.
+ * Methods returning a {@link QueryResult} or a {@link java.util.stream.Stream} can't be cached.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CachedQuery
+{
+    /**
+     * Time a result stays in the cache. A value of zero or less disables the expiration.
+     * @return time to live
+     */
+    long ttl() default 60;
+
+    /**
+     * Unit of the {@link #ttl()}.
+     * @return time unit
+     */
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+    /**
+     * Maximum number of cached results for this method. The least recently used results
+     * are evicted first.
+     * @return maximum number of entries
+     */
+    int maxEntries() default 1000;
+}
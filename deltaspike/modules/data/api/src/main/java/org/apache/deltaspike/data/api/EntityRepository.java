@@ -20,6 +20,7 @@ package org.apache.deltaspike.data.api;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import jakarta.persistence.metamodel.SingularAttribute;
@@ -50,6 +51,24 @@ public interface EntityRepository<E, PK extends Serializable> extends EntityPers
      */
     Optional<E> findOptionalBy(PK primaryKey);
 
+    /**
+     * Entity lookup by a collection of primary keys. The entities are loaded with as few
+     * queries as possible, see {@link #findAllByIdAsMap(Iterable)}.
+     * @param primaryKeys       DB primary keys.
+     * @return                  List of the found entities in the order of the given primary keys.
+     *                          Primary keys without an entity are skipped.
+     */
+    List<E> findAllById(Iterable<PK> primaryKeys);
+
+    /**
+     * Entity lookup by a collection of primary keys. The primary keys are split into chunks
+     * of {@code deltaspike.data.max-in-clause-size} and every chunk is loaded with a single query.
+     * @param primaryKeys       DB primary keys.
+     * @return                  Map of the found entities by primary key, in the order of the given primary keys.
+     *                          Primary keys without an entity are not contained.
+     */
+    Map<PK, E> findAllByIdAsMap(Iterable<PK> primaryKeys);
+
     /**
      * Lookup all existing entities of entity class {@code <E>}.
      * @return                  List of entities, empty if none found.
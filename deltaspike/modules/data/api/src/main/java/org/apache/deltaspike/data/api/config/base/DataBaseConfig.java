@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.api.config.base;
+
+import org.apache.deltaspike.core.api.config.ConfigResolver;
+import org.apache.deltaspike.core.api.config.base.DeltaSpikeBaseConfig;
+
+public interface DataBaseConfig extends DeltaSpikeBaseConfig
+{
+    interface CriteriaCustomization
+    {
+        /**
+         * Upper limit of compiled criteria templates per EntityManagerFactory.
+         * The least recently used templates get evicted.
+         */
+        Integer MAX_COMPILED_TEMPLATES =
+                ConfigResolver.resolve("deltaspike.data.criteria.max-compiled-templates")
+                        .as(Integer.class)
+                        .withCurrentProjectStage(true)
+                        .withDefault(512)
+                        .getValue();
+    }
+
+    interface QueryCustomization
+    {
+        /**
+         * Maximum number of parameters in a single IN clause,
+         * e.g. used by {@link org.apache.deltaspike.data.api.EntityRepository#findAllById(Iterable)}.
+         */
+        Integer MAX_IN_CLAUSE_SIZE =
+                ConfigResolver.resolve("deltaspike.data.max-in-clause-size")
+                        .as(Integer.class)
+                        .withCurrentProjectStage(true)
+                        .withDefault(500)
+                        .getValue();
+    }
+
+    interface AsyncCustomization
+    {
+        /**
+         * Name of the pool which executes repository methods returning a
+         * {@link java.util.concurrent.CompletionStage}. The pool is configured like the pools
+         * used by {@code @Futureable}, i.e. via {@code futureable.pool.<name>.*}.
+         */
+        String POOL_NAME =
+                ConfigResolver.resolve("deltaspike.data.async.pool")
+                        .as(String.class)
+                        .withCurrentProjectStage(true)
+                        .withDefault("deltaspike-data")
+                        .getValue();
+    }
+
+    interface ReadReplicaCustomization
+    {
+        /**
+         * Treats repository methods starting with {@code find} or {@code count} as read-only, as if they were
+         * annotated with {@link org.apache.deltaspike.data.api.ReadOnly}.
+         */
+        Boolean ROUTE_BY_METHOD_NAME =
+                ConfigResolver.resolve("deltaspike.data.read-replica.route-by-method-name")
+                        .as(Boolean.class)
+                        .withCurrentProjectStage(true)
+                        .withDefault(Boolean.TRUE)
+                        .getValue();
+    }
+}
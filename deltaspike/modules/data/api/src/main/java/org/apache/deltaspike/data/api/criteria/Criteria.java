@@ -194,6 +194,49 @@ public interface Criteria<C, R>
      */
     Criteria<C, R> distinct();
 
+    /**
+     * Execute the query from a compiled template. The query shape (predicates, joins,
+     * ordering and selections) gets built once with parameter placeholders and is cached.
+     * Later executions of a criteria with the same shape only bind their values.
+     * Custom {@link QuerySelection}s have to implement {@code equals} and {@code hashCode}
+     * to be part of the shape.
+     * @return              Fluent API: Criteria instance.
+     */
+    Criteria<C, R> compile();
+
+    /**
+     * Assign a value to an attribute in a bulk {@link #update()}.
+     * @param att           The attribute to update.
+     * @param value         The new value, might be {@code null}.
+     * @return              Fluent API: Criteria instance.
+     */
+    <P> Criteria<C, R> set(SingularAttribute<? super C, P> att, P value);
+
+    /**
+     * Execute a bulk update of all entities matching the predicates, with the values assigned by
+     * {@link #set(SingularAttribute, Object)}. Pending changes get flushed before, the persistence
+     * context gets cleared afterwards, as its entities might be outdated. Requires an active transaction.
+     * Joins, fetches, ordering and selections are not supported.
+     * @return              The number of updated entities.
+     */
+    int update();
+
+    /**
+     * Execute a bulk update of a single attribute, see {@link #update()}.
+     * @param att           The attribute to update.
+     * @param value         The new value, might be {@code null}.
+     * @return              The number of updated entities.
+     */
+    <P> int update(SingularAttribute<? super C, P> att, P value);
+
+    /**
+     * Execute a bulk delete of all entities matching the predicates, without loading them.
+     * Pending changes get flushed before, the persistence context gets cleared afterwards.
+     * Requires an active transaction. Cascades and entity listeners don't apply to bulk deletes.
+     * @return              The number of deleted entities.
+     */
+    int delete();
+
     /**
      * Equals predicate.
      * @param att           The attribute to compare with.
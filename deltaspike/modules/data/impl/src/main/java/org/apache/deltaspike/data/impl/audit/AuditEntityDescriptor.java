@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.audit;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.deltaspike.data.api.audit.CreatedBy;
+import org.apache.deltaspike.data.api.audit.CreatedOn;
+import org.apache.deltaspike.data.api.audit.ModifiedBy;
+import org.apache.deltaspike.data.api.audit.ModifiedOn;
+import org.apache.deltaspike.data.impl.property.Property;
+import org.apache.deltaspike.data.impl.property.query.AnnotatedPropertyCriteria;
+import org.apache.deltaspike.data.impl.property.query.PropertyQueries;
+
+/**
+ * The audited properties of an entity class. Gets resolved once per class,
+ * the {@link ClassValue} doesn't prevent the entity classes from being unloaded.
+ */
+class AuditEntityDescriptor
+{
+    private static final ClassValue<AuditEntityDescriptor> DESCRIPTORS = new ClassValue<AuditEntityDescriptor>()
+    {
+        @Override
+        protected AuditEntityDescriptor computeValue(Class<?> entityClass)
+        {
+            return new AuditEntityDescriptor(entityClass);
+        }
+    };
+
+    private final List<AuditedProperty> timestampsOnCreate;
+    private final List<AuditedProperty> timestampsOnUpdate;
+    private final List<AuditedProperty> principalsOnCreate;
+    private final List<AuditedProperty> principalsOnUpdate;
+
+    private AuditEntityDescriptor(Class<?> entityClass)
+    {
+        List<AuditedProperty> modifiedOn = query(entityClass, ModifiedOn.class);
+        List<AuditedProperty> modifiedBy = query(entityClass, ModifiedBy.class);
+
+        timestampsOnUpdate = immutable(modifiedOn);
+        timestampsOnCreate = onCreate(modifiedOn, query(entityClass, CreatedOn.class));
+        principalsOnUpdate = immutable(modifiedBy);
+        principalsOnCreate = onCreate(modifiedBy, query(entityClass, CreatedBy.class));
+    }
+
+    static AuditEntityDescriptor of(Class<?> entityClass)
+    {
+        return DESCRIPTORS.get(entityClass);
+    }
+
+    List<AuditedProperty> getTimestamps(boolean create)
+    {
+        return create ? timestampsOnCreate : timestampsOnUpdate;
+    }
+
+    List<AuditedProperty> getPrincipals(boolean create)
+    {
+        return create ? principalsOnCreate : principalsOnUpdate;
+    }
+
+    private static List<AuditedProperty> query(Class<?> entityClass, Class<? extends Annotation> annotation)
+    {
+        List<Property<Object>> properties = PropertyQueries.<Object>createQuery(entityClass)
+                .addCriteria(new AnnotatedPropertyCriteria(annotation))
+                .getWritableResultList();
+
+        List<AuditedProperty> result = new ArrayList<AuditedProperty>(properties.size());
+        for (Property<Object> property : properties)
+        {
+            result.add(new AuditedProperty(property));
+        }
+        return result;
+    }
+
+    private static List<AuditedProperty> onCreate(List<AuditedProperty> modified, List<AuditedProperty> created)
+    {
+        List<AuditedProperty> result = new ArrayList<AuditedProperty>(modified.size() + created.size());
+        for (AuditedProperty property : modified)
+        {
+            if (isUpdatedOnCreate(property.getProperty()))
+            {
+                result.add(property);
+            }
+        }
+        result.addAll(created);
+        return immutable(result);
+    }
+
+    private static List<AuditedProperty> immutable(List<AuditedProperty> properties)
+    {
+        if (properties.isEmpty())
+        {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(properties);
+    }
+
+    private static boolean isUpdatedOnCreate(Property<Object> property)
+    {
+        ModifiedOn modifiedOn = property.getAnnotatedElement().getAnnotation(ModifiedOn.class);
+        if (modifiedOn != null && !modifiedOn.onCreate())
+        {
+            return false;
+        }
+        ModifiedBy modifiedBy = property.getAnnotatedElement().getAnnotation(ModifiedBy.class);
+        return modifiedBy == null || modifiedBy.onCreate();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.audit;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.deltaspike.core.util.ExceptionUtils;
+import org.apache.deltaspike.data.impl.property.FieldProperty;
+import org.apache.deltaspike.data.impl.property.MethodProperty;
+import org.apache.deltaspike.data.impl.property.Property;
+
+/**
+ * An audited property with a pre-resolved setter.
+ */
+class AuditedProperty
+{
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType TIMESTAMP_FACTORY_TYPE = MethodType.methodType(Object.class, long.class);
+
+    private final Property<Object> property;
+    private final MethodHandle setter;
+
+    // only resolved for temporal properties, on first use
+    private volatile MethodHandle timestampFactory;
+
+    AuditedProperty(Property<Object> property)
+    {
+        this.property = property;
+        this.setter = createSetter(property);
+    }
+
+    Property<Object> getProperty()
+    {
+        return property;
+    }
+
+    void setValue(Object entity, Object value)
+    {
+        if (setter == null)
+        {
+            property.setValue(entity, value);
+            return;
+        }
+
+        try
+        {
+            setter.invokeExact(entity, value);
+        }
+        catch (Throwable t)
+        {
+            throw ExceptionUtils.throwAsRuntimeException(t);
+        }
+    }
+
+    /**
+     * Creates a new temporal value of the property type for the given time.
+     */
+    Object timestamp(long systime)
+    {
+        MethodHandle factory = timestampFactory;
+        if (factory == null)
+        {
+            factory = createTimestampFactory(property.getJavaClass());
+            timestampFactory = factory;
+        }
+
+        try
+        {
+            return factory.invokeExact(systime);
+        }
+        catch (Throwable t)
+        {
+            throw ExceptionUtils.throwAsRuntimeException(t);
+        }
+    }
+
+    static Calendar calendar(long systime)
+    {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(systime);
+        return cal;
+    }
+
+    private static MethodHandle createSetter(Property<Object> property)
+    {
+        try
+        {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            if (property instanceof FieldProperty)
+            {
+                Field field = ((FieldProperty<Object>) property).getAnnotatedElement();
+                field.setAccessible(true);
+                return lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            }
+            if (property instanceof MethodProperty)
+            {
+                Method setterMethod = ((MethodProperty<Object>) property).getSetterMethod();
+                if (setterMethod != null)
+                {
+                    setterMethod.setAccessible(true);
+                    return lookup.unreflect(setterMethod).asType(SETTER_TYPE);
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            AuditProvider.log.finest("Falling back to reflective setter for " + property.getName() + ": " + e);
+        }
+        return null;
+    }
+
+    private static MethodHandle createTimestampFactory(Class<?> type)
+    {
+        try
+        {
+            if (Calendar.class.isAssignableFrom(type))
+            {
+                return MethodHandles.lookup()
+                        .findStatic(AuditedProperty.class, "calendar",
+                                MethodType.methodType(Calendar.class, long.class))
+                        .asType(TIMESTAMP_FACTORY_TYPE);
+            }
+            else if (Date.class.isAssignableFrom(type))
+            {
+                return MethodHandles.publicLookup()
+                        .findConstructor(type, MethodType.methodType(void.class, long.class))
+                        .asType(TIMESTAMP_FACTORY_TYPE);
+            }
+        }
+        catch (Exception e)
+        {
+            throw new IllegalArgumentException("Annotated field has no usable constructor: " + type, e);
+        }
+        throw new IllegalArgumentException("Annotated field is not a date class: " + type);
+    }
+}
@@ -27,9 +27,7 @@ import jakarta.enterprise.inject.spi.BeanManager;
 import jakarta.inject.Inject;
 
 import org.apache.deltaspike.core.util.metadata.AnnotationInstanceProvider;
-import org.apache.deltaspike.data.api.audit.CreatedBy;
 import org.apache.deltaspike.data.api.audit.CurrentUser;
-import org.apache.deltaspike.data.api.audit.ModifiedBy;
 import org.apache.deltaspike.data.impl.property.Property;
 
 @Dependent
@@ -53,44 +51,28 @@ class PrincipalProvider extends AuditProvider
 
     private void updatePrincipal(Object entity, boolean create)
     {
-        for (Property<Object> property : getProperties(entity, CreatedBy.class, ModifiedBy.class, create))
+        for (AuditedProperty property : getDescriptor(entity).getPrincipals(create))
         {
-            setProperty(entity, property, create);
+            setProperty(entity, property);
         }
     }
 
-    private void setProperty(Object entity, Property<Object> property, boolean create)
+    private void setProperty(Object entity, AuditedProperty property)
     {
         try
         {
-            if (!isCorrectContext(property, create))
-            {
-                return;
-            }
-            Object value = resolvePrincipal(entity, property);
+            Object value = resolvePrincipal(entity, property.getProperty());
             property.setValue(entity, value);
-            log.log(Level.FINER, "Updated {0} with {1}", new Object[] { propertyName(entity, property), value });
+            log.log(Level.FINER, "Updated {0} with {1}",
+                    new Object[] { propertyName(entity, property.getProperty()), value });
         }
         catch (Exception e)
         {
             throw new AuditPropertyException("Failed to write principal to " +
-                    propertyName(entity, property), e);
+                    propertyName(entity, property.getProperty()), e);
         }
     }
 
-    private boolean isCorrectContext(Property<Object> property, boolean create)
-    {
-        if (create && property.getAnnotatedElement().isAnnotationPresent(ModifiedBy.class))
-        {
-            ModifiedBy annotation = property.getAnnotatedElement().getAnnotation(ModifiedBy.class);
-            if (!annotation.onCreate())
-            {
-                return false;
-            }
-        }
-        return true;
-    }
-
     protected Object resolvePrincipal(Object entity, Property<Object> property)
     {
         CurrentUser principal = AnnotationInstanceProvider.of(CurrentUser.class);
@@ -18,14 +18,9 @@
  */
 package org.apache.deltaspike.data.impl.audit;
 
-import java.util.Calendar;
-import java.util.Date;
 import java.util.logging.Level;
 
 import jakarta.enterprise.context.Dependent;
-import org.apache.deltaspike.data.api.audit.CreatedOn;
-import org.apache.deltaspike.data.api.audit.ModifiedOn;
-import org.apache.deltaspike.data.impl.property.Property;
 
 /**
  * Set timestamps on marked properties.
@@ -49,67 +44,27 @@ class TimestampsProvider extends AuditProvider
     private void updateTimestamps(Object entity, boolean create)
     {
         long systime = System.currentTimeMillis();
-        for (Property<Object> property : getProperties(entity, CreatedOn.class, ModifiedOn.class, create))
+        for (AuditedProperty property : getDescriptor(entity).getTimestamps(create))
         {
-            setProperty(entity, property, systime, create);
+            setProperty(entity, property, systime);
         }
     }
 
-    private void setProperty(Object entity, Property<Object> property, long systime, boolean create)
+    private void setProperty(Object entity, AuditedProperty property, long systime)
     {
         try
         {
-            if (!isCorrectContext(property, create))
-            {
-                return;
-            }
-            Object now = now(property.getJavaClass(), systime);
+            Object now = property.timestamp(systime);
             property.setValue(entity, now);
-            log.log(Level.FINER, "Updated property {0} with {1}", new Object[] { propertyName(entity, property), now });
+            log.log(Level.FINER, "Updated property {0} with {1}",
+                    new Object[] { propertyName(entity, property.getProperty()), now });
         }
         catch (Exception e)
         {
-            String message = "Failed to set property " + propertyName(entity, property) + ", is this a temporal type?";
+            String message = "Failed to set property " + propertyName(entity, property.getProperty()) +
+                    ", is this a temporal type?";
             throw new AuditPropertyException(message, e);
         }
     }
 
-    private boolean isCorrectContext(Property<Object> property, boolean create)
-    {
-        if (create && property.getAnnotatedElement().isAnnotationPresent(ModifiedOn.class))
-        {
-            ModifiedOn annotation = property.getAnnotatedElement().getAnnotation(ModifiedOn.class);
-            if (!annotation.onCreate())
-            {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    private Object now(Class<?> field, long systime) throws Exception
-    {
-        if (isCalendarClass(field))
-        {
-            Calendar cal = Calendar.getInstance();
-            cal.setTimeInMillis(systime);
-            return cal;
-        }
-        else if (isDateClass(field))
-        {
-            return field.getConstructor(Long.TYPE).newInstance(systime);
-        }
-        throw new IllegalArgumentException("Annotated field is not a date class: " + field);
-    }
-
-    private boolean isCalendarClass(Class<?> field)
-    {
-        return Calendar.class.isAssignableFrom(field);
-    }
-
-    private boolean isDateClass(Class<?> field)
-    {
-        return Date.class.isAssignableFrom(field);
-    }
-
 }
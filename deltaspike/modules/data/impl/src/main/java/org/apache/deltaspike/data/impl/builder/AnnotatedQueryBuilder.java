@@ -20,6 +20,7 @@ package org.apache.deltaspike.data.impl.builder;
 
 import org.apache.deltaspike.data.api.Query;
 import org.apache.deltaspike.data.impl.handler.CdiQueryInvocationContext;
+import org.apache.deltaspike.data.impl.meta.RepositoryMethodMetadata;
 import org.apache.deltaspike.data.impl.param.Parameters;
 import org.apache.deltaspike.data.impl.util.jpa.QueryStringExtractorFactory;
 
@@ -29,7 +30,6 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.util.List;
 import jakarta.enterprise.context.ApplicationScoped;
-import org.apache.deltaspike.core.util.ClassUtils;
 
 import static org.apache.deltaspike.core.util.StringUtils.isNotEmpty;
 
@@ -73,7 +73,7 @@ public class AnnotatedQueryBuilder extends QueryBuilder
         else if (query.isNative())
         {
             String jpqlQuery = context.applyQueryStringPostProcessors(query.value());
-            Class<?> resultType = getQueryResultType(context.getMethod());
+            Class<?> resultType = getQueryResultType(context.getRepositoryMethodMetadata());
             if (isEntityType(resultType))
             {
                 result = params.applyTo(entityManager.createNativeQuery(jpqlQuery, resultType));
@@ -97,14 +97,15 @@ public class AnnotatedQueryBuilder extends QueryBuilder
         return cls.getAnnotation(Entity.class) != null;
     }
 
-    private Class<?> getQueryResultType(Method method)
+    private Class<?> getQueryResultType(RepositoryMethodMetadata methodMetadata)
     {
-        if (ClassUtils.returns(method, List.class) && !ClassUtils.returns(method, Object.class))
+        Class<?> resultType = methodMetadata.getResultType();
+        if (resultType.isAssignableFrom(List.class) && !resultType.isAssignableFrom(Object.class))
         {
-            ParameterizedType pt = (ParameterizedType) method.getGenericReturnType();
+            ParameterizedType pt = (ParameterizedType) methodMetadata.getGenericResultType();
             return (Class<?>) pt.getActualTypeArguments()[0];
         }
 
-        return method.getReturnType();
+        return resultType;
     }
 }
@@ -21,6 +21,7 @@ package org.apache.deltaspike.data.impl.builder;
 import org.apache.deltaspike.data.api.QueryResult;
 import org.apache.deltaspike.data.api.mapping.QueryInOutMapper;
 import org.apache.deltaspike.data.impl.handler.CdiQueryInvocationContext;
+import org.apache.deltaspike.data.impl.projection.Projection;
 
 import jakarta.persistence.Query;
 import java.text.MessageFormat;
@@ -32,6 +33,7 @@ import java.util.List;
 public abstract class QueryBuilder
 {
     public static final String QUERY_SELECT = "select e from {0} e";
+    public static final String QUERY_SELECT_PROJECTION = "select {1} from {0} e";
     public static final String QUERY_COUNT = "select count(e) from {0} e";
     public static final String QUERY_DELETE = "delete from {0} e";
     public static final String ENTITY_NAME = "e";
@@ -41,6 +43,11 @@ public abstract class QueryBuilder
         return MessageFormat.format(QUERY_SELECT, entityName);
     }
 
+    public static String selectQuery(String entityName, String selection)
+    {
+        return MessageFormat.format(QUERY_SELECT_PROJECTION, entityName, selection);
+    }
+
     public static String deleteQuery(String entityName)
     {
         return MessageFormat.format(QUERY_DELETE, entityName);
@@ -65,6 +72,11 @@ public abstract class QueryBuilder
             }
             return mapper.mapResult(result);
         }
+        Projection projection = context.getRepositoryMethodMetadata().getProjection();
+        if (projection != null)
+        {
+            return projection.mapResult(result);
+        }
         return result;
     }
 
@@ -60,7 +60,7 @@ public class QueryBuilderFactory
     {
         QueryBuilder builder = getQueryBuilder(context.getRepositoryMethodMetadata().getMethodType());
 
-        if (QueryResult.class.equals(methodMetadata.getMethod().getReturnType()))
+        if (QueryResult.class.equals(methodMetadata.getResultType()))
         {
             return new WrappedQueryBuilder(builder);
         }
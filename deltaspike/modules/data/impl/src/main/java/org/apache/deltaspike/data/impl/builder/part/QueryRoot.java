@@ -46,6 +46,8 @@ public class QueryRoot extends QueryPart
     private final String entityName;
     private final RepositoryMethodPrefix methodPrefix;
 
+    private String selection;
+
     private String jpqlQuery;
     private List<ParameterUpdate> paramUpdates;
 
@@ -56,8 +58,18 @@ public class QueryRoot extends QueryPart
     }
 
     public static QueryRoot create(String method, RepositoryMetadata repo, RepositoryMethodPrefix prefix)
+    {
+        return create(method, repo, prefix, null);
+    }
+
+    /**
+     * @param selection the select clause of a projection, <code>null</code> to select the entity
+     */
+    public static QueryRoot create(String method, RepositoryMetadata repo, RepositoryMethodPrefix prefix,
+                                   String selection)
     {
         QueryRoot root = new QueryRoot(repo.getEntityMetadata().getEntityName(), prefix);
+        root.selection = selection;
         root.build(method, method, repo);
         root.createJpql();
         return root;
@@ -111,6 +123,10 @@ public class QueryRoot extends QueryPart
         {
             ctx.append(QueryBuilder.countQuery(entityName));
         }
+        else if (selection != null)
+        {
+            ctx.append(QueryBuilder.selectQuery(entityName, selection));
+        }
         else
         {
             ctx.append(QueryBuilder.selectQuery(entityName));
@@ -26,7 +26,6 @@ import jakarta.enterprise.context.ApplicationScoped;
 
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.Query;
-import org.apache.deltaspike.core.util.ClassUtils;
 
 import org.apache.deltaspike.data.api.Modifying;
 import org.apache.deltaspike.data.api.QueryInvocationException;
@@ -56,12 +55,12 @@ public class QueryProcessorFactory
     
     public QueryProcessor build(RepositoryMethodMetadata methodMetadata)
     {
-        if (ClassUtils.returns(methodMetadata.getMethod(), QueryResult.class))
+        if (methodMetadata.getResultType().isAssignableFrom(QueryResult.class))
         {
             return noOp;
         }
         
-        if (ClassUtils.returns(methodMetadata.getMethod(), List.class))
+        if (methodMetadata.getResultType().isAssignableFrom(List.class))
         {
             return listResult;
         }
@@ -81,9 +80,10 @@ public class QueryProcessorFactory
 
     private boolean isModifying(RepositoryMethodMetadata methodMetadata)
     {
-        boolean matchesType = Void.TYPE.equals(methodMetadata.getMethod().getReturnType()) ||
-                int.class.equals(methodMetadata.getMethod().getReturnType()) ||
-                Integer.class.equals(methodMetadata.getMethod().getReturnType());
+        Class<?> resultType = methodMetadata.getResultType();
+        boolean matchesType = Void.TYPE.equals(resultType) ||
+                int.class.equals(resultType) ||
+                Integer.class.equals(resultType);
         return (methodMetadata.getMethod().isAnnotationPresent(Modifying.class) && matchesType)
                 || methodMetadata.getMethodPrefix().isDelete();
     }
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.cache;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+
+import org.apache.deltaspike.jpa.api.transaction.TransactionScoped;
+
+/**
+ * Entity types modified within the current transaction. The bean gets destroyed once the transaction
+ * got committed or rolled back, which invalidates the cached results of these entity types.
+ */
+@TransactionScoped
+public class PendingCacheInvalidations
+{
+    private final Set<Class<?>> entityClasses =
+            Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
+
+    @Inject
+    private QueryResultCache queryResultCache;
+
+    public void add(Class<?> entityClass)
+    {
+        entityClasses.add(entityClass);
+    }
+
+    public boolean contains(Class<?> entityClass)
+    {
+        return entityClasses.contains(entityClass);
+    }
+
+    @PreDestroy
+    protected void invalidate()
+    {
+        for (Class<?> entityClass : entityClasses)
+        {
+            queryResultCache.invalidate(entityClass);
+        }
+    }
+}
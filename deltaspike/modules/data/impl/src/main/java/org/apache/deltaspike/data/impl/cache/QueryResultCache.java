@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.cache;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.enterprise.inject.spi.BeanManager;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+import org.apache.deltaspike.core.impl.util.JndiUtils;
+import org.apache.deltaspike.data.api.CachedQuery;
+import org.apache.deltaspike.jpa.api.transaction.TransactionScoped;
+
+/**
+ * Results of {@link CachedQuery} repository methods, grouped by the entity type of the repository.
+ * <p>
+ * Every entity type has a generation which gets incremented on invalidation. A result is only
+ * stored if no invalidation happened while the query was running, otherwise a query which started
+ * before a modification could put an outdated result back into the cache.
+ * <p>
+ * Modifications within a transaction invalidate the results once the transaction completed, as
+ * concurrent queries would otherwise cache the previous state again before the commit.
+ */
+@ApplicationScoped
+public class QueryResultCache
+{
+    private static final String TRANSACTION_SYNC_REGISTRY_JNDI_NAME = "java:comp/TransactionSynchronizationRegistry";
+
+    private static final Object PENDING_INVALIDATIONS_KEY = new Object();
+
+    private final ConcurrentMap<Class<?>, EntityRegions> entityRegions =
+            new ConcurrentHashMap<Class<?>, EntityRegions>();
+
+    @Inject
+    private BeanManager beanManager;
+
+    @Inject
+    private PendingCacheInvalidations pendingCacheInvalidations;
+
+    private volatile TransactionSynchronizationRegistry transactionRegistry;
+
+    private volatile boolean transactionRegistryResolved;
+
+    /**
+     * Looks up a cached result.
+     *
+     * @return the cached result, or {@code null} if there is none
+     */
+    public CachedResult lookup(Class<?> entityClass, Method method, CachedQuery cachedQuery, Object[] args)
+    {
+        QueryResultRegion.CachedEntry entry = regions(entityClass).region(method, cachedQuery).get(args);
+        return entry == null ? null : new CachedResult(entry.getResult());
+    }
+
+    /**
+     * The current generation of the entity type, to be passed to {@link #store}
+     * once the query has been executed.
+     */
+    public long generation(Class<?> entityClass)
+    {
+        return regions(entityClass).generation.get();
+    }
+
+    public void store(Class<?> entityClass, Method method, CachedQuery cachedQuery, Object[] args,
+            Object result, long generation)
+    {
+        EntityRegions regions = regions(entityClass);
+        QueryResultRegion region = regions.region(method, cachedQuery);
+        region.put(args, result);
+
+        // invalidated concurrently, the result might already be outdated
+        if (regions.generation.get() != generation)
+        {
+            region.remove(args);
+        }
+    }
+
+    public void invalidate(Class<?> entityClass)
+    {
+        EntityRegions regions = entityRegions.get(entityClass);
+        if (regions != null)
+        {
+            regions.generation.incrementAndGet();
+            for (QueryResultRegion region : regions.methods.values())
+            {
+                region.clear();
+            }
+        }
+    }
+
+    /**
+     * Invalidates the results of the entity type once the current transaction completed,
+     * or immediately if there is no active transaction.
+     */
+    public void invalidateOnCompletion(Class<?> entityClass)
+    {
+        if (isTransactionScopeActive())
+        {
+            // destroyed after the commit or rollback
+            pendingCacheInvalidations.add(entityClass);
+            return;
+        }
+
+        TransactionSynchronizationRegistry registry = resolveActiveTransactionRegistry();
+        if (registry == null)
+        {
+            invalidate(entityClass);
+            return;
+        }
+
+        Set<Class<?>> pending = (Set<Class<?>>) registry.getResource(PENDING_INVALIDATIONS_KEY);
+        if (pending == null)
+        {
+            final Set<Class<?>> entityClasses =
+                    Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
+            registry.putResource(PENDING_INVALIDATIONS_KEY, entityClasses);
+            registry.registerInterposedSynchronization(new Synchronization()
+            {
+                @Override
+                public void beforeCompletion()
+                {
+                }
+
+                @Override
+                public void afterCompletion(int status)
+                {
+                    for (Class<?> entityClass : entityClasses)
+                    {
+                        invalidate(entityClass);
+                    }
+                }
+            });
+            pending = entityClasses;
+        }
+        pending.add(entityClass);
+    }
+
+    /**
+     * Whether the current transaction modified the entity type. Its results might not be committed yet,
+     * so they must neither be looked up nor stored.
+     */
+    public boolean isInvalidationPending(Class<?> entityClass)
+    {
+        if (isTransactionScopeActive())
+        {
+            return pendingCacheInvalidations.contains(entityClass);
+        }
+
+        TransactionSynchronizationRegistry registry = resolveActiveTransactionRegistry();
+        if (registry == null)
+        {
+            return false;
+        }
+        Set<Class<?>> pending = (Set<Class<?>>) registry.getResource(PENDING_INVALIDATIONS_KEY);
+        return pending != null && pending.contains(entityClass);
+    }
+
+    public void clear()
+    {
+        for (Class<?> entityClass : entityRegions.keySet())
+        {
+            invalidate(entityClass);
+        }
+    }
+
+    protected TransactionSynchronizationRegistry resolveTransactionRegistry()
+    {
+        try
+        {
+            return JndiUtils.lookup(TRANSACTION_SYNC_REGISTRY_JNDI_NAME, TransactionSynchronizationRegistry.class);
+        }
+        catch (Exception e)
+        {
+            // no JTA environment
+            return null;
+        }
+    }
+
+    private TransactionSynchronizationRegistry resolveActiveTransactionRegistry()
+    {
+        if (!transactionRegistryResolved)
+        {
+            transactionRegistry = resolveTransactionRegistry();
+            transactionRegistryResolved = true;
+        }
+
+        TransactionSynchronizationRegistry registry = transactionRegistry;
+        if (registry == null || registry.getTransactionStatus() != Status.STATUS_ACTIVE)
+        {
+            return null;
+        }
+        return registry;
+    }
+
+    private boolean isTransactionScopeActive()
+    {
+        // not the case if created outside of the container
+        if (beanManager == null)
+        {
+            return false;
+        }
+
+        try
+        {
+            return beanManager.getContext(TransactionScoped.class).isActive();
+        }
+        catch (ContextNotActiveException e)
+        {
+            return false;
+        }
+    }
+
+    private EntityRegions regions(Class<?> entityClass)
+    {
+        EntityRegions regions = entityRegions.get(entityClass);
+        if (regions == null)
+        {
+            regions = new EntityRegions();
+            EntityRegions existing = entityRegions.putIfAbsent(entityClass, regions);
+            if (existing != null)
+            {
+                regions = existing;
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * Wraps a cached result, as {@code null} is a valid query result.
+     */
+    public static class CachedResult
+    {
+        private final Object result;
+
+        CachedResult(Object result)
+        {
+            this.result = result;
+        }
+
+        public Object getResult()
+        {
+            return result;
+        }
+    }
+
+    private static class EntityRegions
+    {
+        private final AtomicLong generation = new AtomicLong();
+        private final ConcurrentMap<Method, QueryResultRegion> methods =
+                new ConcurrentHashMap<Method, QueryResultRegion>();
+
+        QueryResultRegion region(Method method, CachedQuery cachedQuery)
+        {
+            QueryResultRegion region = methods.get(method);
+            if (region == null)
+            {
+                region = new QueryResultRegion(cachedQuery);
+                QueryResultRegion existing = methods.putIfAbsent(method, region);
+                if (existing != null)
+                {
+                    region = existing;
+                }
+            }
+            return region;
+        }
+    }
+}
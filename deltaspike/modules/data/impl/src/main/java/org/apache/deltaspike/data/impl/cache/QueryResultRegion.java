@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.cache;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.deltaspike.data.api.CachedQuery;
+
+/**
+ * Cached results of a single repository method. Bounded by {@link CachedQuery#maxEntries()},
+ * the least recently used results get evicted first.
+ */
+class QueryResultRegion
+{
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, CachedEntry> entries;
+
+    QueryResultRegion(CachedQuery cachedQuery)
+    {
+        this.ttlNanos = cachedQuery.ttl() > 0 ? cachedQuery.timeUnit().toNanos(cachedQuery.ttl()) : 0;
+
+        final int maxEntries = Math.max(1, cachedQuery.maxEntries());
+        this.entries = new LinkedHashMap<Key, CachedEntry>(Math.min(maxEntries, 16) * 2, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedEntry> eldest)
+            {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    synchronized CachedEntry get(Object[] args)
+    {
+        Key key = new Key(args);
+        CachedEntry entry = entries.get(key);
+        if (entry != null && entry.isExpired(System.nanoTime()))
+        {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    synchronized void put(Object[] args, Object result)
+    {
+        long expires = ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0;
+        entries.put(new Key(args), new CachedEntry(result, expires));
+    }
+
+    synchronized void remove(Object[] args)
+    {
+        entries.remove(new Key(args));
+    }
+
+    synchronized void clear()
+    {
+        entries.clear();
+    }
+
+    synchronized int size()
+    {
+        return entries.size();
+    }
+
+    static class CachedEntry
+    {
+        private final Object result;
+        private final long expires;
+
+        CachedEntry(Object result, long expires)
+        {
+            this.result = result;
+            this.expires = expires;
+        }
+
+        Object getResult()
+        {
+            return result;
+        }
+
+        boolean isExpired(long now)
+        {
+            return expires != 0 && now - expires >= 0;
+        }
+    }
+
+    private static class Key
+    {
+        private final Object[] args;
+        private final int hashCode;
+
+        Key(Object[] args)
+        {
+            this.args = args == null ? new Object[0] : args.clone();
+            this.hashCode = Arrays.deepHashCode(this.args);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof Key))
+            {
+                return false;
+            }
+            Key other = (Key) o;
+            return hashCode == other.hashCode && Arrays.deepEquals(args, other.args);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
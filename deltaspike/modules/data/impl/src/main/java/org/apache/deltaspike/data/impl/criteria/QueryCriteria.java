@@ -21,20 +21,27 @@ package org.apache.deltaspike.data.impl.criteria;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.NoResultException;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
 import jakarta.persistence.criteria.From;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Selection;
 import jakarta.persistence.metamodel.CollectionAttribute;
 import jakarta.persistence.metamodel.ListAttribute;
@@ -46,6 +53,7 @@ import jakarta.persistence.metamodel.SingularAttribute;
 import org.apache.deltaspike.data.api.criteria.Criteria;
 import org.apache.deltaspike.data.api.criteria.QuerySelection;
 import org.apache.deltaspike.data.impl.builder.OrderDirection;
+import org.apache.deltaspike.data.impl.cache.QueryResultCache;
 import org.apache.deltaspike.data.impl.criteria.predicate.Between;
 import org.apache.deltaspike.data.impl.criteria.predicate.Eq;
 import org.apache.deltaspike.data.impl.criteria.predicate.EqIgnoreCase;
@@ -68,6 +76,9 @@ import org.apache.deltaspike.data.impl.criteria.predicate.OrBuilder;
 import org.apache.deltaspike.data.impl.criteria.predicate.PredicateBuilder;
 import org.apache.deltaspike.data.impl.criteria.processor.OrderBy;
 import org.apache.deltaspike.data.impl.criteria.processor.QueryProcessor;
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaParameters;
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaTemplate;
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaTemplateCache;
 
 public class QueryCriteria<C, R> implements Criteria<C, R>
 {
@@ -80,11 +91,16 @@ public class QueryCriteria<C, R> implements Criteria<C, R>
     private JoinType joinType;
     private final boolean ignoreNull = true;
     private boolean distinct = false;
+    private boolean compiled = false;
+    private CriteriaTemplateCache templateCache;
+    private QueryResultCache queryResultCache;
 
     private final OrderBy<C> orderByProcessor = new OrderBy<C>();
     private final List<PredicateBuilder<C>> builders = new LinkedList<PredicateBuilder<C>>();
     private final List<QueryProcessor<C>> processors = new LinkedList<QueryProcessor<C>>();
     private final List<QuerySelection<? super C, ?>> selections = new LinkedList<QuerySelection<? super C, ?>>();
+    private final Map<SingularAttribute<? super C, ?>, Object> assignments =
+            new LinkedHashMap<SingularAttribute<? super C, ?>, Object>();
 
     public QueryCriteria(Class<C> entityClass, Class<R> resultClass, EntityManager entityManager)
     {
@@ -99,6 +115,20 @@ public class QueryCriteria<C, R> implements Criteria<C, R>
         this.joinType = joinType;
     }
 
+    public QueryCriteria(Class<C> entityClass, Class<R> resultClass, EntityManager entityManager, JoinType joinType,
+            CriteriaTemplateCache templateCache)
+    {
+        this(entityClass, resultClass, entityManager, joinType);
+        this.templateCache = templateCache;
+    }
+
+    public QueryCriteria(Class<C> entityClass, Class<R> resultClass, EntityManager entityManager, JoinType joinType,
+            CriteriaTemplateCache templateCache, QueryResultCache queryResultCache)
+    {
+        this(entityClass, resultClass, entityManager, joinType, templateCache);
+        this.queryResultCache = queryResultCache;
+    }
+
     // --------------------------------------------------------------------
     // Public criteria methods
     // --------------------------------------------------------------------
@@ -140,25 +170,16 @@ public class QueryCriteria<C, R> implements Criteria<C, R>
     {
         try
         {
-            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
-            CriteriaQuery<R> query = createCriteriaQuery(builder);
-            From<C, C> root = query.from(entityClass);
-            if (selections.size() == 1)
-            {
-                Selection<?>[] selections = prepareSelections(query, builder, root);
-                query.select((Selection<? extends R>) selections[0]);
-            }
-            if (selections.size() > 1)
+            if (compiled && templateCache != null && templateCache.isEnabled())
             {
-                query.multiselect(prepareSelections(query, builder, root));
+                CriteriaParameters parameters = new CriteriaParameters();
+                collect(parameters);
+                if (parameters.isCompilable())
+                {
+                    return createCompiledQuery(parameters);
+                }
             }
-            List<Predicate> predicates = predicates(builder, root);
-            query.distinct(distinct);
-            if (!predicates.isEmpty())
-            {
-                query.where(predicates.toArray(new Predicate[predicates.size()]));
-            }
-            applyProcessors(query, builder, root);
+            CriteriaQuery<R> query = buildCriteriaQuery(entityManager.getCriteriaBuilder(), null);
             return (TypedQuery<R>) entityManager.createQuery(query);
         }
         catch (RuntimeException e)
@@ -168,6 +189,73 @@ public class QueryCriteria<C, R> implements Criteria<C, R>
         }
     }
 
+    @Override
+    public <P> Criteria<C, R> set(SingularAttribute<? super C, P> att, P value)
+    {
+        assignments.put(att, value);
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int update()
+    {
+        if (assignments.isEmpty())
+        {
+            throw new IllegalStateException("No attribute set for the bulk update of " + entityClass.getName());
+        }
+        checkBulkOperation();
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<C> update = builder.createCriteriaUpdate(entityClass);
+        Root<C> root = update.from(entityClass);
+        for (Map.Entry<SingularAttribute<? super C, ?>, Object> assignment : assignments.entrySet())
+        {
+            Path<Object> path = root.get((SingularAttribute<? super C, Object>) assignment.getKey());
+            if (assignment.getValue() == null)
+            {
+                update.<Object>set(path, builder.nullLiteral(path.getJavaType()));
+            }
+            else
+            {
+                update.set(path, assignment.getValue());
+            }
+        }
+        List<Predicate> predicates = predicates(builder, root);
+        if (!predicates.isEmpty())
+        {
+            update.where(predicates.toArray(new Predicate[predicates.size()]));
+        }
+        return executeBulkOperation(update);
+    }
+
+    @Override
+    public <P> int update(SingularAttribute<? super C, P> att, P value)
+    {
+        set(att, value);
+        return update();
+    }
+
+    @Override
+    public int delete()
+    {
+        if (!assignments.isEmpty())
+        {
+            throw new IllegalStateException("Attributes set for a bulk delete of " + entityClass.getName());
+        }
+        checkBulkOperation();
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<C> delete = builder.createCriteriaDelete(entityClass);
+        Root<C> root = delete.from(entityClass);
+        List<Predicate> predicates = predicates(builder, root);
+        if (!predicates.isEmpty())
+        {
+            delete.where(predicates.toArray(new Predicate[predicates.size()]));
+        }
+        return executeBulkOperation(delete);
+    }
+
     @Override
     public Criteria<C, R> or(Criteria<C, R>... criteria)
     {
@@ -265,12 +353,21 @@ public class QueryCriteria<C, R> implements Criteria<C, R>
         return this;
     }
 
+    @Override
+    public Criteria<C, R> compile()
+    {
+        compiled = true;
+        return this;
+    }
+
     @Override
     public <N> Criteria<C, N> select(Class<N> resultClass, QuerySelection<? super C, ?>... selection)
     {
-        QueryCriteria<C, N> result = new QueryCriteria<C, N>(entityClass, resultClass, entityManager, joinType);
+        QueryCriteria<C, N> result = new QueryCriteria<C, N>(entityClass, resultClass, entityManager, joinType,
+                templateCache, queryResultCache);
         result.builders.addAll(this.builders);
         result.distinct = this.distinct;
+        result.compiled = this.compiled;
         result.processors.addAll(this.processors);
         result.selections.addAll(Arrays.asList(selection));
         return result;
@@ -294,6 +391,64 @@ public class QueryCriteria<C, R> implements Criteria<C, R>
         return predicates;
     }
 
+    /**
+     * Creates the predicates with parameter placeholders, see {@link #collect(CriteriaParameters)}.
+     */
+    public List<Predicate> predicates(CriteriaBuilder builder, Path<C> path, CriteriaParameters parameters)
+    {
+        if (parameters == null)
+        {
+            return predicates(builder, path);
+        }
+
+        List<Predicate> predicates = new LinkedList<Predicate>();
+        for (PredicateBuilder<C> pbuilder : builders)
+        {
+            List<Predicate> p = pbuilder.build(builder, path, parameters);
+            predicates.addAll(p);
+        }
+        return predicates;
+    }
+
+    /**
+     * Adds the query shape and the values to bind for a compiled template.
+     * Two criteria with the same shape only differ in the bound values.
+     */
+    public void collect(CriteriaParameters parameters)
+    {
+        if (!processors.isEmpty())
+        {
+            parameters.notCompilable();
+        }
+        parameters.shape(getClass(), entityClass, resultClass, distinct, selections.size(), builders.size());
+        parameters.shape(selections.toArray());
+        orderByProcessor.collect(parameters);
+        for (PredicateBuilder<C> pbuilder : builders)
+        {
+            pbuilder.collect(parameters);
+        }
+    }
+
+    /**
+     * @return true if the criteria or one of its nested or-criteria contains a join or a fetch
+     */
+    @SuppressWarnings("unchecked")
+    public boolean containsJoins()
+    {
+        for (PredicateBuilder<C> pbuilder : builders)
+        {
+            if (pbuilder instanceof JoinBuilder || pbuilder instanceof FetchBuilder)
+            {
+                return true;
+            }
+            if (pbuilder instanceof OrBuilder && ((OrBuilder<C>) pbuilder).containsJoins())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // --------------------------------------------------------------------
     // Package criteria methods
     // --------------------------------------------------------------------
@@ -357,6 +512,84 @@ public class QueryCriteria<C, R> implements Criteria<C, R>
         return builder.createQuery(resultClass);
     }
 
+    private CriteriaQuery<R> buildCriteriaQuery(CriteriaBuilder builder, CriteriaParameters parameters)
+    {
+        CriteriaQuery<R> query = createCriteriaQuery(builder);
+        From<C, C> root = query.from(entityClass);
+        if (selections.size() == 1)
+        {
+            Selection<?>[] selections = prepareSelections(query, builder, root);
+            query.select((Selection<? extends R>) selections[0]);
+        }
+        if (selections.size() > 1)
+        {
+            query.multiselect(prepareSelections(query, builder, root));
+        }
+        List<Predicate> predicates = predicates(builder, root, parameters);
+        query.distinct(distinct);
+        if (!predicates.isEmpty())
+        {
+            query.where(predicates.toArray(new Predicate[predicates.size()]));
+        }
+        applyProcessors(query, builder, root);
+        return query;
+    }
+
+    private void checkBulkOperation()
+    {
+        if (distinct || !orderByProcessor.isEmpty() || !selections.isEmpty())
+        {
+            throw new IllegalStateException("Ordering, selections and distinct are not supported in bulk " +
+                    "operations on " + entityClass.getName());
+        }
+        if (containsJoins())
+        {
+            throw new IllegalStateException("Joins and fetches are not supported in bulk operations on " +
+                    entityClass.getName());
+        }
+    }
+
+    private int executeBulkOperation(Object criteria)
+    {
+        try
+        {
+            // the bulk operation bypasses the persistence context, pending changes have to be written first
+            entityManager.flush();
+            Query query = criteria instanceof CriteriaUpdate
+                    ? entityManager.createQuery((CriteriaUpdate<?>) criteria)
+                    : entityManager.createQuery((CriteriaDelete<?>) criteria);
+            int result = query.executeUpdate();
+            entityManager.clear();
+            return result;
+        }
+        catch (RuntimeException e)
+        {
+            log.log(Level.SEVERE, "Exception while executing JPA bulk operation", e);
+            throw e;
+        }
+        finally
+        {
+            if (queryResultCache != null)
+            {
+                queryResultCache.invalidateOnCompletion(entityClass);
+            }
+        }
+    }
+
+    private TypedQuery<R> createCompiledQuery(CriteriaParameters parameters)
+    {
+        EntityManagerFactory entityManagerFactory = entityManager.getEntityManagerFactory();
+        CriteriaTemplate<R> template = templateCache.lookup(entityManagerFactory, parameters.getShape());
+        if (template == null)
+        {
+            CriteriaParameters placeholders = new CriteriaParameters();
+            CriteriaQuery<R> query = buildCriteriaQuery(entityManager.getCriteriaBuilder(), placeholders);
+            template = templateCache.register(entityManagerFactory, parameters.getShape(),
+                    entityManager.createQuery(query), resultClass, placeholders.getPlaceholders().size());
+        }
+        return template.createQuery(entityManager, parameters.getValues());
+    }
+
     // --------------------------------------------------------------------
     // Predicates
     // --------------------------------------------------------------------
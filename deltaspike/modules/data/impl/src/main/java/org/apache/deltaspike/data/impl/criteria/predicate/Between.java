@@ -26,6 +26,8 @@ import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.metamodel.SingularAttribute;
 
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaParameters;
+
 public class Between<E, V extends Comparable<? super V>> extends SingleValueBuilder<E, V>
 {
 
@@ -43,4 +45,18 @@ public class Between<E, V extends Comparable<? super V>> extends SingleValueBuil
         return Arrays.asList(builder.between(path.get(getAtt()), getValue(), upper));
     }
 
+    @Override
+    public List<Predicate> build(CriteriaBuilder builder, Path<E> path, CriteriaParameters parameters)
+    {
+        return Arrays.asList(builder.between(path.get(getAtt()),
+                placeholder(builder, parameters), placeholder(builder, parameters)));
+    }
+
+    @Override
+    public void collect(CriteriaParameters parameters)
+    {
+        super.collect(parameters);
+        parameters.value(upper);
+    }
+
 }
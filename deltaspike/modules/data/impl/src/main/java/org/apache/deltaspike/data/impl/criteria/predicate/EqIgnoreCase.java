@@ -26,6 +26,8 @@ import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.metamodel.SingularAttribute;
 
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaParameters;
+
 public class EqIgnoreCase<E> extends SingleValueBuilder<E, String>
 {
 
@@ -40,4 +42,17 @@ public class EqIgnoreCase<E> extends SingleValueBuilder<E, String>
         return Arrays.asList(builder.equal(builder.upper(path.<String>get(getAtt())), getValue().toUpperCase()));
     }
 
+    @Override
+    public List<Predicate> build(CriteriaBuilder builder, Path<E> path, CriteriaParameters parameters)
+    {
+        return Arrays.asList(builder.equal(builder.upper(path.<String>get(getAtt())),
+                placeholder(builder, parameters)));
+    }
+
+    @Override
+    Object getBoundValue()
+    {
+        return getValue().toUpperCase();
+    }
+
 }
@@ -29,6 +29,8 @@ import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.metamodel.PluralAttribute;
 import jakarta.persistence.metamodel.SingularAttribute;
 
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaParameters;
+
 public class FetchBuilder<P, R, E> implements PredicateBuilder<P>
 {
 
@@ -64,6 +66,18 @@ public class FetchBuilder<P, R, E> implements PredicateBuilder<P>
         return Collections.emptyList();
     }
 
+    @Override
+    public List<Predicate> build(CriteriaBuilder builder, Path<P> path, CriteriaParameters parameters)
+    {
+        return build(builder, path);
+    }
+
+    @Override
+    public void collect(CriteriaParameters parameters)
+    {
+        parameters.shape(getClass(), joinType, singular, plural);
+    }
+
     SingularAttribute<? super P, R> getSingular()
     {
         return singular;
@@ -26,6 +26,8 @@ import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.metamodel.SingularAttribute;
 
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaParameters;
+
 public class In<P, V> implements PredicateBuilder<P>
 {
 
@@ -53,6 +55,36 @@ public class In<P, V> implements PredicateBuilder<P>
         return Arrays.asList((Predicate) in);
     }
 
+    @Override
+    public List<Predicate> build(CriteriaBuilder builder, Path<P> path, CriteriaParameters parameters)
+    {
+        Path<V> p = path.get(singular);
+        CriteriaBuilder.In<V> in = builder.in(p);
+        for (V value : values)
+        {
+            if (value != null)
+            {
+                in.value(parameters.placeholder(builder, singular.getJavaType()));
+            }
+        }
+        return Arrays.asList((Predicate) in);
+    }
+
+    @Override
+    public void collect(CriteriaParameters parameters)
+    {
+        int count = 0;
+        for (V value : values)
+        {
+            if (value != null)
+            {
+                parameters.value(value);
+                count++;
+            }
+        }
+        parameters.shape(getClass(), singular, count);
+    }
+
     SingularAttribute<? super P, V> getSingular()
     {
         return singular;
@@ -33,6 +33,8 @@ import jakarta.persistence.metamodel.SetAttribute;
 import jakarta.persistence.metamodel.SingularAttribute;
 
 import org.apache.deltaspike.data.api.criteria.Criteria;
+import org.apache.deltaspike.data.impl.criteria.QueryCriteria;
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaParameters;
 
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class JoinBuilder<P, R, E> implements PredicateBuilder<P>
@@ -85,6 +87,31 @@ public class JoinBuilder<P, R, E> implements PredicateBuilder<P>
 
     @Override
     public List<Predicate> build(CriteriaBuilder builder, Path<P> path)
+    {
+        return criteria.predicates(builder, join(path));
+    }
+
+    @Override
+    public List<Predicate> build(CriteriaBuilder builder, Path<P> path, CriteriaParameters parameters)
+    {
+        return ((QueryCriteria<R, R>) criteria).predicates(builder, join(path), parameters);
+    }
+
+    @Override
+    public void collect(CriteriaParameters parameters)
+    {
+        parameters.shape(getClass(), joinType, singular, list, collection, set, map);
+        if (criteria instanceof QueryCriteria)
+        {
+            ((QueryCriteria<R, R>) criteria).collect(parameters);
+        }
+        else
+        {
+            parameters.notCompilable();
+        }
+    }
+
+    private Join join(Path<P> path)
     {
         Join join = null;
         if (singular != null)
@@ -107,7 +134,7 @@ public class JoinBuilder<P, R, E> implements PredicateBuilder<P>
         {
             join = joinMap((From) path);
         }
-        return criteria.predicates(builder, join);
+        return join;
     }
 
     private Join joinSingular(From path)
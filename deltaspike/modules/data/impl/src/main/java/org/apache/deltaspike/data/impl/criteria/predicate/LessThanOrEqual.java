@@ -26,6 +26,8 @@ import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.metamodel.SingularAttribute;
 
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaParameters;
+
 public class LessThanOrEqual<E, V extends Comparable<? super V>> extends SingleValueBuilder<E, V>
 {
 
@@ -40,4 +42,10 @@ public class LessThanOrEqual<E, V extends Comparable<? super V>> extends SingleV
         return Arrays.asList(builder.lessThanOrEqualTo(path.get(getAtt()), getValue()));
     }
 
+    @Override
+    public List<Predicate> build(CriteriaBuilder builder, Path<E> path, CriteriaParameters parameters)
+    {
+        return Arrays.asList(builder.lessThanOrEqualTo(path.get(getAtt()), placeholder(builder, parameters)));
+    }
+
 }
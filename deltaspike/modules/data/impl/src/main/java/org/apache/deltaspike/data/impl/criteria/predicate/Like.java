@@ -26,6 +26,8 @@ import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.metamodel.SingularAttribute;
 
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaParameters;
+
 public class Like<E> extends SingleValueBuilder<E, String>
 {
 
@@ -50,4 +52,25 @@ public class Like<E> extends SingleValueBuilder<E, String>
                 caseInsensitive ? getValue().toUpperCase() : getValue()));
     }
 
+    @Override
+    public List<Predicate> build(CriteriaBuilder builder, Path<E> path, CriteriaParameters parameters)
+    {
+        return Arrays.asList(builder.like(
+                caseInsensitive ? builder.upper(path.<String>get(getAtt())) : path.get(getAtt()),
+                placeholder(builder, parameters)));
+    }
+
+    @Override
+    public void collect(CriteriaParameters parameters)
+    {
+        parameters.shape(caseInsensitive);
+        super.collect(parameters);
+    }
+
+    @Override
+    Object getBoundValue()
+    {
+        return caseInsensitive ? getValue().toUpperCase() : getValue();
+    }
+
 }
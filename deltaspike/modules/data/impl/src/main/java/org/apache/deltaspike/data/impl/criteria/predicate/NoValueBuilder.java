@@ -18,8 +18,15 @@
  */
 package org.apache.deltaspike.data.impl.criteria.predicate;
 
+import java.util.List;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.metamodel.SingularAttribute;
 
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaParameters;
+
 abstract class NoValueBuilder<E, V> implements PredicateBuilder<E>
 {
 
@@ -30,6 +37,18 @@ abstract class NoValueBuilder<E, V> implements PredicateBuilder<E>
         this.att = att;
     }
 
+    @Override
+    public List<Predicate> build(CriteriaBuilder builder, Path<E> path, CriteriaParameters parameters)
+    {
+        return build(builder, path);
+    }
+
+    @Override
+    public void collect(CriteriaParameters parameters)
+    {
+        parameters.shape(getClass(), att);
+    }
+
     SingularAttribute<? super E, V> getAtt()
     {
         return att;
@@ -27,6 +27,8 @@ import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 
 import org.apache.deltaspike.data.api.criteria.Criteria;
+import org.apache.deltaspike.data.impl.criteria.QueryCriteria;
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaParameters;
 
 public class OrBuilder<P> implements PredicateBuilder<P>
 {
@@ -50,4 +52,51 @@ public class OrBuilder<P> implements PredicateBuilder<P>
         return Arrays.asList(builder.or(and.toArray(new Predicate[0])));
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Predicate> build(CriteriaBuilder builder, Path<P> path, CriteriaParameters parameters)
+    {
+        List<Predicate> and = new ArrayList<Predicate>(criteria.length);
+        for (Criteria<P, P> c : criteria)
+        {
+            and.add(builder.and(
+                    ((QueryCriteria<P, P>) c).predicates(builder, path, parameters).toArray(new Predicate[0])));
+        }
+        return Arrays.asList(builder.or(and.toArray(new Predicate[0])));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void collect(CriteriaParameters parameters)
+    {
+        parameters.shape(getClass(), criteria.length);
+        for (Criteria<P, P> c : criteria)
+        {
+            if (c instanceof QueryCriteria)
+            {
+                ((QueryCriteria<P, P>) c).collect(parameters);
+            }
+            else
+            {
+                parameters.notCompilable();
+            }
+        }
+    }
+
+    /**
+     * @return true if one of the or-criteria contains a join or a fetch
+     */
+    @SuppressWarnings("unchecked")
+    public boolean containsJoins()
+    {
+        for (Criteria<P, P> c : criteria)
+        {
+            if (c instanceof QueryCriteria && ((QueryCriteria<P, P>) c).containsJoins())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
@@ -24,9 +24,23 @@ import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaParameters;
+
 public interface PredicateBuilder<P>
 {
 
     List<Predicate> build(CriteriaBuilder builder, Path<P> path);
 
+    /**
+     * Builds the predicates with parameter placeholders instead of the actual values.
+     * Placeholders have to be requested from {@link CriteriaParameters} in the same order
+     * as the values get added in {@link #collect(CriteriaParameters)}.
+     */
+    List<Predicate> build(CriteriaBuilder builder, Path<P> path, CriteriaParameters parameters);
+
+    /**
+     * Adds the query shape of this builder and the values to bind.
+     */
+    void collect(CriteriaParameters parameters);
+
 }
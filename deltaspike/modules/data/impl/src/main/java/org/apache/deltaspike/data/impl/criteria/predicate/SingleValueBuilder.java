@@ -18,8 +18,16 @@
  */
 package org.apache.deltaspike.data.impl.criteria.predicate;
 
+import java.util.List;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.metamodel.SingularAttribute;
 
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaParameters;
+
 abstract class SingleValueBuilder<E, V> extends NoValueBuilder<E, V>
 {
 
@@ -31,9 +39,32 @@ abstract class SingleValueBuilder<E, V> extends NoValueBuilder<E, V>
         this.value = value;
     }
 
+    @Override
+    public abstract List<Predicate> build(CriteriaBuilder builder, Path<E> path, CriteriaParameters parameters);
+
+    @Override
+    public void collect(CriteriaParameters parameters)
+    {
+        super.collect(parameters);
+        parameters.value(getBoundValue());
+    }
+
     V getValue()
     {
         return value;
     }
 
+    /**
+     * The value as it gets bound to the placeholder of a compiled query.
+     */
+    Object getBoundValue()
+    {
+        return value;
+    }
+
+    Expression<V> placeholder(CriteriaBuilder builder, CriteriaParameters parameters)
+    {
+        return parameters.placeholder(builder, getAtt().getJavaType());
+    }
+
 }
@@ -25,6 +25,7 @@ import jakarta.persistence.criteria.Path;
 import jakarta.persistence.metamodel.SingularAttribute;
 
 import org.apache.deltaspike.data.impl.builder.OrderDirection;
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaParameters;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -60,6 +61,17 @@ public class OrderBy<P> implements QueryProcessor<P>
         query.orderBy(orders);
     }
 
+    public void collect(CriteriaParameters parameters)
+    {
+        parameters.shape(getClass(), orderByDefinitions.size());
+        parameters.shape(orderByDefinitions.toArray());
+    }
+
+    public boolean isEmpty()
+    {
+        return orderByDefinitions.isEmpty();
+    }
+
     private class OrderByDefinition<V>
     {
         private final SingularAttribute<? super P, V> att;
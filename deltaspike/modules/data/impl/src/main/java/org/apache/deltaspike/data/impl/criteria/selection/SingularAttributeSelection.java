@@ -37,4 +37,26 @@ public abstract class SingularAttributeSelection<P, X> implements QuerySelection
         return attribute;
     }
 
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass())
+        {
+            return false;
+        }
+
+        SingularAttributeSelection<?, ?> that = (SingularAttributeSelection<?, ?>) o;
+        return attribute != null ? attribute.equals(that.attribute) : that.attribute == null;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * getClass().hashCode() + (attribute != null ? attribute.hashCode() : 0);
+    }
+
 }
@@ -41,4 +41,26 @@ public class Count<P> implements QuerySelection<P, Long>
     {
         return builder.count(path.get(attribute));
     }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass())
+        {
+            return false;
+        }
+
+        Count<?> that = (Count<?>) o;
+        return attribute != null ? attribute.equals(that.attribute) : that.attribute == null;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return attribute != null ? attribute.hashCode() : 0;
+    }
 }
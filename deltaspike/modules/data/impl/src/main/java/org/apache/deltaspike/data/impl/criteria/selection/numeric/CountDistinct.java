@@ -41,4 +41,26 @@ public class CountDistinct<P> implements QuerySelection<P, Long>
     {
         return builder.countDistinct(path.get(attribute));
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass())
+        {
+            return false;
+        }
+
+        CountDistinct<?> that = (CountDistinct<?>) o;
+        return attribute != null ? attribute.equals(that.attribute) : that.attribute == null;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return attribute != null ? attribute.hashCode() : 0;
+    }
+}
@@ -43,4 +43,21 @@ public class Modulo<P> extends SingularAttributeSelection<P, Integer>
         return builder.mod(path.get(attribute), modulo);
     }
 
+    @Override
+    public boolean equals(Object o)
+    {
+        if (!super.equals(o))
+        {
+            return false;
+        }
+
+        Integer otherModulo = ((Modulo<?>) o).modulo;
+        return modulo != null ? modulo.equals(otherModulo) : otherModulo == null;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * super.hashCode() + (modulo != null ? modulo.hashCode() : 0);
+    }
 }
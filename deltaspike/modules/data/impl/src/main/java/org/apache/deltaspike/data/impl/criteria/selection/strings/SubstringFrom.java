@@ -48,4 +48,15 @@ public class SubstringFrom<P> extends SingularAttributeSelection<P, String>
         return from;
     }
 
+    @Override
+    public boolean equals(Object o)
+    {
+        return super.equals(o) && from == ((SubstringFrom<?>) o).from;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * super.hashCode() + from;
+    }
 }
@@ -41,4 +41,15 @@ public class SubstringFromTo<P> extends SubstringFrom<P>
         return builder.substring(path.get(getAttribute()), getFrom(), length);
     }
 
+    @Override
+    public boolean equals(Object o)
+    {
+        return super.equals(o) && length == ((SubstringFromTo<?>) o).length;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * super.hashCode() + length;
+    }
 }
@@ -49,4 +49,16 @@ public class Trim<P> extends SingularAttributeSelection<P, String>
     {
         return builder.trim(this.trimspec, path.get(getAttribute()));
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o)
+    {
+        return super.equals(o) && trimspec == ((Trim<?>) o).trimspec;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * super.hashCode() + (trimspec != null ? trimspec.hashCode() : 0);
+    }
+}
@@ -36,4 +36,16 @@ public class CurrentDate<P> implements QuerySelection<P, Date>
         return builder.currentDate();
     }
 
+    @Override
+    public boolean equals(Object o)
+    {
+        return o != null && getClass() == o.getClass();
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return getClass().hashCode();
+    }
+
 }
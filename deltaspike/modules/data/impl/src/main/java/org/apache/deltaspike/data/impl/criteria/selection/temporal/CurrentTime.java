@@ -36,4 +36,16 @@ public class CurrentTime<P> implements QuerySelection<P, Time>
         return builder.currentTime();
     }
 
+    @Override
+    public boolean equals(Object o)
+    {
+        return o != null && getClass() == o.getClass();
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return getClass().hashCode();
+    }
+
 }
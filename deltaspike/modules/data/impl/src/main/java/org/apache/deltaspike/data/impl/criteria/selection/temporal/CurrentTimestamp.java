@@ -36,4 +36,16 @@ public class CurrentTimestamp<P> implements QuerySelection<P, Timestamp>
         return builder.currentTimestamp();
     }
 
+    @Override
+    public boolean equals(Object o)
+    {
+        return o != null && getClass() == o.getClass();
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return getClass().hashCode();
+    }
+
 }
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.criteria.template;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.ParameterExpression;
+
+/**
+ * Collects the shape and the values of a criteria query, or hands out the parameter
+ * placeholders while a {@link CriteriaTemplate} gets compiled.
+ */
+public class CriteriaParameters
+{
+    private static final Map<Class<?>, Class<?>> PRIMITIVE_WRAPPERS = new HashMap<Class<?>, Class<?>>();
+
+    static
+    {
+        PRIMITIVE_WRAPPERS.put(boolean.class, Boolean.class);
+        PRIMITIVE_WRAPPERS.put(byte.class, Byte.class);
+        PRIMITIVE_WRAPPERS.put(char.class, Character.class);
+        PRIMITIVE_WRAPPERS.put(short.class, Short.class);
+        PRIMITIVE_WRAPPERS.put(int.class, Integer.class);
+        PRIMITIVE_WRAPPERS.put(long.class, Long.class);
+        PRIMITIVE_WRAPPERS.put(float.class, Float.class);
+        PRIMITIVE_WRAPPERS.put(double.class, Double.class);
+    }
+
+    private final List<Object> shape = new ArrayList<Object>();
+    private final List<Object> values = new ArrayList<Object>();
+    private final List<ParameterExpression<?>> placeholders = new ArrayList<ParameterExpression<?>>();
+
+    private boolean compilable = true;
+
+    /**
+     * Adds tokens describing the structure of the query, e.g. builder type and attribute.
+     */
+    public void shape(Object... tokens)
+    {
+        shape.addAll(Arrays.asList(tokens));
+    }
+
+    /**
+     * Adds a value which gets bound to the next placeholder.
+     */
+    public void value(Object value)
+    {
+        values.add(value);
+    }
+
+    /**
+     * Creates the next placeholder while the template gets compiled.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> ParameterExpression<V> placeholder(CriteriaBuilder builder, Class<V> type)
+    {
+        Class<V> parameterType = type;
+        if (type.isPrimitive())
+        {
+            parameterType = (Class<V>) PRIMITIVE_WRAPPERS.get(type);
+        }
+        ParameterExpression<V> placeholder = builder.parameter(parameterType, parameterName(placeholders.size()));
+        placeholders.add(placeholder);
+        return placeholder;
+    }
+
+    /**
+     * Marks the query as not compilable, e.g. because a nested criteria is not a known implementation.
+     */
+    public void notCompilable()
+    {
+        compilable = false;
+    }
+
+    /**
+     * @return name of the placeholder with the given index
+     */
+    public static String parameterName(int index)
+    {
+        return "p" + index;
+    }
+
+    public boolean isCompilable()
+    {
+        return compilable;
+    }
+
+    public List<Object> getShape()
+    {
+        return shape;
+    }
+
+    public List<Object> getValues()
+    {
+        return values;
+    }
+
+    public List<ParameterExpression<?>> getPlaceholders()
+    {
+        return placeholders;
+    }
+}
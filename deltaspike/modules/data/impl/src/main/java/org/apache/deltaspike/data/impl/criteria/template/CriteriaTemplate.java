@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.criteria.template;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * A criteria query which has been built once with named parameter placeholders and registered
+ * as named query of the {@link jakarta.persistence.EntityManagerFactory}. Executions of a criteria with the same
+ * shape only bind their values. Criteria objects themselves aren't shared, they are neither thread-safe nor
+ * portable across EntityManagers.
+ */
+public class CriteriaTemplate<R>
+{
+    private final String queryName;
+    private final Class<R> resultClass;
+    private final int parameterCount;
+
+    public CriteriaTemplate(String queryName, Class<R> resultClass, int parameterCount)
+    {
+        this.queryName = queryName;
+        this.resultClass = resultClass;
+        this.parameterCount = parameterCount;
+    }
+
+    public TypedQuery<R> createQuery(EntityManager entityManager, List<Object> values)
+    {
+        if (values.size() != parameterCount)
+        {
+            throw new IllegalStateException("Criteria template expects " + parameterCount +
+                    " values, but got " + values.size());
+        }
+
+        TypedQuery<R> query = entityManager.createNamedQuery(queryName, resultClass);
+        for (int i = 0; i < parameterCount; i++)
+        {
+            query.setParameter(CriteriaParameters.parameterName(i), values.get(i));
+        }
+        return query;
+    }
+
+    public String getQueryName()
+    {
+        return queryName;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.criteria.template;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+
+import org.apache.deltaspike.data.api.config.base.DataBaseConfig;
+
+/**
+ * Compiled criteria templates per {@link EntityManagerFactory}, keyed by the query shape.
+ * The factories are referenced weakly and the templates of closed factories get dropped.
+ * Per factory the least recently used templates get evicted once
+ * {@link DataBaseConfig.CriteriaCustomization#MAX_COMPILED_TEMPLATES} is reached.
+ * Every shape keeps its named query, so a shape which gets compiled again after the eviction
+ * replaces its former definition.
+ */
+@ApplicationScoped
+public class CriteriaTemplateCache
+{
+    private static final String QUERY_NAME_PREFIX = "deltaspike.data.criteria-template.";
+
+    private final Map<EntityManagerFactory, FactoryTemplates> templates =
+            new WeakHashMap<EntityManagerFactory, FactoryTemplates>();
+
+    private final AtomicLong queryNameCounter = new AtomicLong();
+
+    private final int maxTemplates = DataBaseConfig.CriteriaCustomization.MAX_COMPILED_TEMPLATES;
+
+    @SuppressWarnings("unchecked")
+    public synchronized <R> CriteriaTemplate<R> lookup(EntityManagerFactory entityManagerFactory, List<Object> shape)
+    {
+        removeClosedFactories();
+
+        FactoryTemplates factoryTemplates = templates.get(entityManagerFactory);
+        return factoryTemplates == null ? null : (CriteriaTemplate<R>) factoryTemplates.templates.get(shape);
+    }
+
+    /**
+     * @return false if {@link DataBaseConfig.CriteriaCustomization#MAX_COMPILED_TEMPLATES} disables compiled
+     *         templates, compiled criteria get built like the other ones then
+     */
+    public boolean isEnabled()
+    {
+        return maxTemplates > 0;
+    }
+
+    /**
+     * Registers the given query as named query of the factory. The name only depends on the shape, so the
+     * factory keeps one definition per shape, no matter how often the template got evicted.
+     *
+     * @param query query created for the criteria with the parameter placeholders
+     */
+    public synchronized <R> CriteriaTemplate<R> register(EntityManagerFactory entityManagerFactory,
+                                                         List<Object> shape,
+                                                         Query query,
+                                                         Class<R> resultClass,
+                                                         int parameterCount)
+    {
+        FactoryTemplates factoryTemplates = templates.get(entityManagerFactory);
+        if (factoryTemplates == null)
+        {
+            factoryTemplates = new FactoryTemplates(maxTemplates);
+            templates.put(entityManagerFactory, factoryTemplates);
+        }
+
+        List<Object> shapeKey = new ArrayList<Object>(shape);
+        String queryName = factoryTemplates.queryNames.get(shapeKey);
+        if (queryName == null)
+        {
+            queryName = QUERY_NAME_PREFIX + queryNameCounter.incrementAndGet();
+            factoryTemplates.queryNames.put(shapeKey, queryName);
+        }
+        entityManagerFactory.addNamedQuery(queryName, query);
+
+        CriteriaTemplate<R> template = new CriteriaTemplate<R>(queryName, resultClass, parameterCount);
+        if (isEnabled())
+        {
+            factoryTemplates.templates.put(shapeKey, template);
+        }
+        return template;
+    }
+
+    public synchronized void clear()
+    {
+        templates.clear();
+    }
+
+    public synchronized int size()
+    {
+        int result = 0;
+        for (FactoryTemplates factoryTemplates : templates.values())
+        {
+            result += factoryTemplates.templates.size();
+        }
+        return result;
+    }
+
+    // the shapes reference the metamodel, which might keep the factory reachable
+    private void removeClosedFactories()
+    {
+        Iterator<EntityManagerFactory> factories = templates.keySet().iterator();
+        while (factories.hasNext())
+        {
+            if (!factories.next().isOpen())
+            {
+                factories.remove();
+            }
+        }
+    }
+
+    private static class FactoryTemplates
+    {
+        private final Map<List<Object>, CriteriaTemplate<?>> templates;
+
+        // the names registered at the factory, the number of shapes is limited by the code creating criteria
+        private final Map<List<Object>, String> queryNames = new HashMap<List<Object>, String>();
+
+        private FactoryTemplates(int maxTemplates)
+        {
+            this.templates = new LruTemplates(maxTemplates);
+        }
+    }
+
+    private static class LruTemplates extends LinkedHashMap<List<Object>, CriteriaTemplate<?>>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxTemplates;
+
+        private LruTemplates(int maxTemplates)
+        {
+            super(16, 0.75f, true);
+            this.maxTemplates = maxTemplates;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, CriteriaTemplate<?>> eldest)
+        {
+            return size() > maxTemplates;
+        }
+    }
+}
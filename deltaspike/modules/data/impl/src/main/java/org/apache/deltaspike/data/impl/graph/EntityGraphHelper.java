@@ -18,11 +18,6 @@
  */
 package org.apache.deltaspike.data.impl.graph;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-
 import jakarta.persistence.EntityManager;
 
 import org.apache.deltaspike.data.api.EntityGraph;
@@ -50,12 +45,7 @@ public final class EntityGraphHelper
         }
     }
 
-    private static Object createEntityGraph(EntityManager em, Class<?> entityClass)
-    {
-        return em.createEntityGraph(entityClass);
-    }
-
-    private static Object addSubgraph(Object graph, String attributeName)
+    static Object addSubgraph(Object graph, String attributeName)
     {
         if (graph instanceof jakarta.persistence.EntityGraph)
         {
@@ -69,7 +59,7 @@ public final class EntityGraphHelper
         return null;
     }
 
-    private static void addAttributeNodes(Object graph, String attributeName)
+    static void addAttributeNodes(Object graph, String attributeName)
     {
         if (graph instanceof jakarta.persistence.EntityGraph)
         {
@@ -86,32 +76,6 @@ public final class EntityGraphHelper
     private static Object buildEntityGraph(EntityManager em, Class<?> entityClass,
         String[] attributePaths)
     {
-        Object graph = createEntityGraph(em, entityClass);
-        List<String> paths = new ArrayList<>(Arrays.asList(attributePaths));
-
-        // handle longest paths first
-        Collections.sort(paths);
-        Collections.reverse(paths);
-
-        for (String path : attributePaths)
-        {
-            if (path.contains("."))
-            {
-                String[] segments = path.split("\\.");
-                Object parent = addSubgraph(graph, segments[0]);
-
-                for (int i = 1; i < segments.length - 1; i++)
-                {
-                    addSubgraph(parent, segments[i]);
-                }
-
-                addAttributeNodes(parent, segments[segments.length - 1]);
-            }
-            else
-            {
-                addAttributeNodes(graph, path);
-            }
-        }
-        return graph;
+        return new EntityGraphTemplate(entityClass, attributePaths).createEntityGraph(em);
     }
 }
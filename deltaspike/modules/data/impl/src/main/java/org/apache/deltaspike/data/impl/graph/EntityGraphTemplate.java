@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.graph;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * The attribute paths of an {@link org.apache.deltaspike.data.api.EntityGraph} without a name, parsed once
+ * into a tree. The entity graph built from it gets cached per {@link EntityManagerFactory},
+ * so a query execution only needs to set the hint.
+ */
+public class EntityGraphTemplate
+{
+    private final Class<?> entityClass;
+    private final GraphNode root = new GraphNode();
+
+    //weak keys, so the graphs of an undeployed persistence-unit don't stay in memory
+    private final Map<EntityManagerFactory, Object> graphs = new WeakHashMap<EntityManagerFactory, Object>();
+
+    public EntityGraphTemplate(Class<?> entityClass, String[] attributePaths)
+    {
+        this.entityClass = entityClass;
+
+        for (String path : attributePaths)
+        {
+            String[] segments = path.split("\\.");
+            GraphNode node = root;
+            for (int i = 0; i < segments.length - 1; i++)
+            {
+                node = node.subgraph(segments[i]);
+            }
+            node.attribute(segments[segments.length - 1]);
+        }
+    }
+
+    /**
+     * @return the cached entity graph for the factory of the given EntityManager
+     */
+    public synchronized Object getEntityGraph(EntityManager entityManager)
+    {
+        removeClosedFactories();
+
+        EntityManagerFactory entityManagerFactory = entityManager.getEntityManagerFactory();
+        Object result = graphs.get(entityManagerFactory);
+        if (result == null)
+        {
+            result = createEntityGraph(entityManager);
+            graphs.put(entityManagerFactory, result);
+        }
+        return result;
+    }
+
+    synchronized int size()
+    {
+        return graphs.size();
+    }
+
+    private void removeClosedFactories()
+    {
+        Iterator<EntityManagerFactory> factories = graphs.keySet().iterator();
+        while (factories.hasNext())
+        {
+            if (!factories.next().isOpen())
+            {
+                factories.remove();
+            }
+        }
+    }
+
+    /**
+     * @return a new entity graph
+     */
+    public Object createEntityGraph(EntityManager entityManager)
+    {
+        Object graph = entityManager.createEntityGraph(entityClass);
+        apply(graph, root);
+        return graph;
+    }
+
+    private static void apply(Object graph, GraphNode node)
+    {
+        for (String attribute : node.attributes)
+        {
+            EntityGraphHelper.addAttributeNodes(graph, attribute);
+        }
+        for (Map.Entry<String, GraphNode> subgraph : node.subgraphs.entrySet())
+        {
+            apply(EntityGraphHelper.addSubgraph(graph, subgraph.getKey()), subgraph.getValue());
+        }
+    }
+
+    private static class GraphNode
+    {
+        private final List<String> attributes = new ArrayList<String>();
+        private final Map<String, GraphNode> subgraphs = new LinkedHashMap<String, GraphNode>();
+
+        private GraphNode subgraph(String attribute)
+        {
+            // a subgraph already fetches its attribute
+            attributes.remove(attribute);
+
+            GraphNode result = subgraphs.get(attribute);
+            if (result == null)
+            {
+                result = new GraphNode();
+                subgraphs.put(attribute, result);
+            }
+            return result;
+        }
+
+        private void attribute(String attribute)
+        {
+            if (!attributes.contains(attribute) && !subgraphs.containsKey(attribute))
+            {
+                attributes.add(attribute);
+            }
+        }
+    }
+}
@@ -33,6 +33,7 @@ import org.apache.deltaspike.core.api.provider.DependentProvider;
 import org.apache.deltaspike.data.api.EntityGraph;
 import org.apache.deltaspike.data.api.mapping.QueryInOutMapper;
 import org.apache.deltaspike.data.impl.graph.EntityGraphHelper;
+import org.apache.deltaspike.data.impl.graph.EntityGraphTemplate;
 import org.apache.deltaspike.data.impl.meta.EntityMetadata;
 import org.apache.deltaspike.data.impl.meta.RepositoryMetadata;
 import org.apache.deltaspike.data.impl.meta.RepositoryMethodMetadata;
@@ -338,9 +339,18 @@ public class CdiQueryInvocationContext implements QueryInvocationContext
             return;
         }
         
-        Object graph = EntityGraphHelper.getEntityGraph(getEntityManager(),
-                repositoryMetadata.getEntityMetadata().getEntityClass(),
-                entityGraphAnn);
+        Object graph;
+        EntityGraphTemplate entityGraphTemplate = repositoryMethodMetadata.getEntityGraphTemplate();
+        if (entityGraphTemplate != null)
+        {
+            graph = entityGraphTemplate.getEntityGraph(getEntityManager());
+        }
+        else
+        {
+            graph = EntityGraphHelper.getEntityGraph(getEntityManager(),
+                    repositoryMetadata.getEntityMetadata().getEntityClass(),
+                    entityGraphAnn);
+        }
         query.setHint(entityGraphAnn.type().getHintName(), graph);
     }
 
@@ -23,6 +23,7 @@ import java.sql.Time;
 import java.sql.Timestamp;
 
 import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.metamodel.SingularAttribute;
@@ -30,6 +31,7 @@ import jakarta.persistence.metamodel.SingularAttribute;
 import org.apache.deltaspike.data.api.criteria.Criteria;
 import org.apache.deltaspike.data.api.criteria.CriteriaSupport;
 import org.apache.deltaspike.data.api.criteria.QuerySelection;
+import org.apache.deltaspike.data.impl.cache.QueryResultCache;
 import org.apache.deltaspike.data.impl.criteria.QueryCriteria;
 import org.apache.deltaspike.data.impl.criteria.selection.AttributeQuerySelection;
 import org.apache.deltaspike.data.impl.criteria.selection.numeric.Abs;
@@ -49,27 +51,35 @@ import org.apache.deltaspike.data.impl.criteria.selection.strings.Upper;
 import org.apache.deltaspike.data.impl.criteria.selection.temporal.CurrentDate;
 import org.apache.deltaspike.data.impl.criteria.selection.temporal.CurrentTime;
 import org.apache.deltaspike.data.impl.criteria.selection.temporal.CurrentTimestamp;
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaTemplateCache;
 
 @Dependent
 public class CriteriaSupportHandler<E> extends AbstractDelegateQueryHandler<E> implements CriteriaSupport<E>
 {
 
+    @Inject
+    private CriteriaTemplateCache templateCache;
+
+    @Inject
+    private QueryResultCache queryResultCache;
+
     @Override
     public Criteria<E, E> criteria()
     {
-        return new QueryCriteria<E, E>(getEntityClass(), getEntityClass(), getEntityManager());
+        return new QueryCriteria<E, E>(getEntityClass(), getEntityClass(), getEntityManager(), null, templateCache,
+                queryResultCache);
     }
 
     @Override
     public <T> Criteria<T, T> where(Class<T> clazz)
     {
-        return new QueryCriteria<T, T>(clazz, clazz, getEntityManager());
+        return new QueryCriteria<T, T>(clazz, clazz, getEntityManager(), null, templateCache, queryResultCache);
     }
 
     @Override
     public <T> Criteria<T, T> where(Class<T> clazz, JoinType joinType)
     {
-        return new QueryCriteria<T, T>(clazz, clazz, getEntityManager(), joinType);
+        return new QueryCriteria<T, T>(clazz, clazz, getEntityManager(), joinType, templateCache, queryResultCache);
     }
 
     @Override
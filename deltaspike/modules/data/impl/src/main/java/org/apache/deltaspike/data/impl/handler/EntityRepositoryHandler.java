@@ -20,6 +20,7 @@ package org.apache.deltaspike.data.impl.handler;
 
 import org.apache.deltaspike.data.api.EntityRepository;
 import org.apache.deltaspike.data.api.Query;
+import org.apache.deltaspike.data.api.config.base.DataBaseConfig;
 import org.apache.deltaspike.data.impl.builder.QueryBuilder;
 import org.apache.deltaspike.data.impl.meta.RequiresTransaction;
 import org.apache.deltaspike.data.impl.property.Property;
@@ -36,15 +37,20 @@ import jakarta.persistence.PersistenceUnitUtil;
 import jakarta.persistence.QueryHint;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.metamodel.EntityType;
 import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -137,6 +143,79 @@ public class EntityRepositoryHandler<E, PK extends Serializable>
         return Optional.ofNullable(found);
     }
 
+    @Override
+    public List<E> findAllById(Iterable<PK> primaryKeys)
+    {
+        return new ArrayList<E>(findAllByIdAsMap(primaryKeys).values());
+    }
+
+    @Override
+    public Map<PK, E> findAllByIdAsMap(Iterable<PK> primaryKeys)
+    {
+        Set<PK> keys = new LinkedHashSet<PK>();
+        for (PK primaryKey : primaryKeys)
+        {
+            if (primaryKey != null)
+            {
+                keys.add(primaryKey);
+            }
+        }
+
+        Map<PK, E> result = new LinkedHashMap<PK, E>();
+        if (keys.isEmpty())
+        {
+            return result;
+        }
+
+        String idAttribute = singleIdAttribute();
+        if (idAttribute == null)
+        {
+            // composite keys can't be used in an IN clause portably
+            for (PK primaryKey : keys)
+            {
+                E entity = entityManager().find(entityClass(), primaryKey);
+                if (entity != null)
+                {
+                    result.put(primaryKey, entity);
+                }
+            }
+            return result;
+        }
+
+        Map<Object, E> found = new HashMap<Object, E>();
+        String jpqlQuery = allQuery() + " where e." + idAttribute + " in :ids";
+        log.log(Level.FINER, "findAllById: Created query {0}", jpqlQuery);
+
+        int chunkSize = Math.max(1, DataBaseConfig.QueryCustomization.MAX_IN_CLAUSE_SIZE);
+        List<PK> chunk = new ArrayList<PK>(Math.min(chunkSize, keys.size()));
+        Iterator<PK> iterator = keys.iterator();
+        while (iterator.hasNext())
+        {
+            chunk.add(iterator.next());
+            if (chunk.size() == chunkSize || !iterator.hasNext())
+            {
+                TypedQuery<E> query = typedQuery(jpqlQuery);
+                context.applyRestrictions(query);
+                query.setParameter("ids", chunk);
+                for (E entity : query.getResultList())
+                {
+                    found.put(getPrimaryKey(entity), entity);
+                }
+                chunk = new ArrayList<PK>(chunk.size());
+            }
+        }
+
+        for (PK primaryKey : keys)
+        {
+            E entity = found.get(primaryKey);
+            if (entity != null)
+            {
+                result.put(primaryKey, entity);
+            }
+        }
+        return result;
+    }
+
     @Override
     public List<E> findBy(E example, SingularAttribute<E, ?>... attributes)
     {
@@ -283,6 +362,17 @@ public class EntityRepositoryHandler<E, PK extends Serializable>
         return QueryBuilder.selectQuery(entityName());
     }
 
+    private String singleIdAttribute()
+    {
+        EntityType<E> entityType = entityManager().getMetamodel().entity(entityClass());
+        if (!entityType.hasSingleIdAttribute()
+                || entityType.getIdType().getPersistenceType() != Type.PersistenceType.BASIC)
+        {
+            return null;
+        }
+        return entityType.getId(entityType.getIdType().getJavaType()).getName();
+    }
+
     private String countQuery()
     {
         return QueryBuilder.countQuery(entityName());
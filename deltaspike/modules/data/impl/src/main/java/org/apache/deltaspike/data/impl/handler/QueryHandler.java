@@ -19,14 +19,18 @@
 package org.apache.deltaspike.data.impl.handler;
 
 import org.apache.deltaspike.core.api.provider.BeanProvider;
+import org.apache.deltaspike.core.impl.future.ThreadPoolManager;
 import org.apache.deltaspike.core.util.ExceptionUtils;
 import org.apache.deltaspike.core.util.ProxyUtils;
 import org.apache.deltaspike.core.util.interceptor.AbstractInvocationContext;
 import org.apache.deltaspike.core.util.metadata.AnnotationInstanceProvider;
+import org.apache.deltaspike.data.api.CachedQuery;
 import org.apache.deltaspike.data.api.QueryInvocationException;
 import org.apache.deltaspike.data.api.Repository;
+import org.apache.deltaspike.data.api.config.base.DataBaseConfig;
 import org.apache.deltaspike.data.impl.builder.QueryBuilder;
 import org.apache.deltaspike.data.impl.builder.QueryBuilderFactory;
+import org.apache.deltaspike.data.impl.cache.QueryResultCache;
 import org.apache.deltaspike.data.impl.meta.RepositoryMetadataHandler;
 import org.apache.deltaspike.jpa.api.transaction.Transactional;
 import org.apache.deltaspike.jpa.impl.entitymanager.EntityManagerRef;
@@ -44,6 +48,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -83,6 +88,12 @@ public class QueryHandler implements Serializable, InvocationHandler
     @Inject
     private ActiveEntityManagerHolder activeEntityManagerHolder;
 
+    @Inject
+    private QueryResultCache queryResultCache;
+
+    @Inject
+    private ThreadPoolManager threadPoolManager;
+
     @Override
     public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable
     {
@@ -92,6 +103,11 @@ public class QueryHandler implements Serializable, InvocationHandler
         final RepositoryMethodMetadata repositoryMethodMetadata =
                 metadataHandler.lookupMethodMetadata(repositoryMetadata, method);
 
+        if (repositoryMethodMetadata.isReturnsCompletionStage())
+        {
+            return processAsync(proxy, method, args, repositoryMetadata, repositoryMethodMetadata);
+        }
+
         if (repositoryMethodMetadata.getTransactional() != null)
         {
             if (repositoryMethodMetadata.getTransactional().qualifier().length > 1)
@@ -134,11 +150,81 @@ public class QueryHandler implements Serializable, InvocationHandler
     protected Object process(Object proxy, Method method, Object[] args,
             RepositoryMetadata repositoryMetadata, RepositoryMethodMetadata repositoryMethodMetadata) throws Throwable
     {
+        return process(proxy, method, args, repositoryMetadata, repositoryMethodMetadata, null);
+    }
+
+    /**
+     * Runs the query on the pool configured by {@link DataBaseConfig.AsyncCustomization#POOL_NAME},
+     * with an {@link EntityManager} which is only used for this invocation.
+     */
+    protected Object processAsync(final Object proxy, final Method method, final Object[] args,
+            final RepositoryMetadata repositoryMetadata, final RepositoryMethodMetadata repositoryMethodMetadata)
+    {
+        final EntityManagerRef entityManagerRef = entityManagerRefLookup.lookupDedicatedReference(repositoryMetadata,
+                repositoryMethodMetadata.isReadOnly());
+        final CompletableFuture<Object> result = new CompletableFuture<Object>();
+        try
+        {
+            threadPoolManager.find(DataBaseConfig.AsyncCustomization.POOL_NAME).execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        result.complete(process(proxy, method, args,
+                                repositoryMetadata, repositoryMethodMetadata, entityManagerRef));
+                    }
+                    catch (Throwable t)
+                    {
+                        result.completeExceptionally(t);
+                    }
+                }
+            });
+        }
+        catch (RuntimeException e)
+        {
+            entityManagerRef.release();
+            throw e;
+        }
+        return result;
+    }
+
+    private Object process(Object proxy, Method method, Object[] args,
+            RepositoryMetadata repositoryMetadata, RepositoryMethodMetadata repositoryMethodMetadata,
+            EntityManagerRef dedicatedEntityManagerRef) throws Throwable
+    {
+        CachedQuery cachedQuery = repositoryMethodMetadata.getCachedQuery();
+        // results read within a transaction which modified the entity type might be uncommitted
+        if (cachedQuery != null && queryResultCache.isInvalidationPending(cacheRegion(repositoryMetadata)))
+        {
+            cachedQuery = null;
+        }
+        long cacheGeneration = 0;
+        if (cachedQuery != null)
+        {
+            QueryResultCache.CachedResult cached = queryResultCache.lookup(cacheRegion(repositoryMetadata),
+                    method, cachedQuery, args);
+            if (cached != null)
+            {
+                if (dedicatedEntityManagerRef != null)
+                {
+                    dedicatedEntityManagerRef.release();
+                }
+                return cached.getResult();
+            }
+            cacheGeneration = queryResultCache.generation(cacheRegion(repositoryMetadata));
+        }
+
         CdiQueryInvocationContext queryContext = null;
-        EntityManagerRef entityManagerRef = null;
+        EntityManagerRef entityManagerRef = dedicatedEntityManagerRef;
         try
         {
-            entityManagerRef = entityManagerRefLookup.lookupReference(repositoryMetadata);
+            if (entityManagerRef == null)
+            {
+                entityManagerRef = entityManagerRefLookup.lookupReference(repositoryMetadata,
+                        repositoryMethodMetadata.isReadOnly());
+            }
             EntityManager entityManager = entityManagerRef.getEntityManager();
             if (entityManager == null)
             {
@@ -149,6 +235,11 @@ public class QueryHandler implements Serializable, InvocationHandler
             
             QueryBuilder builder = queryBuilderFactory.build(repositoryMethodMetadata, queryContext);
             Object result = runner.executeQuery(builder, queryContext);
+            if (cachedQuery != null)
+            {
+                queryResultCache.store(cacheRegion(repositoryMetadata), method, cachedQuery, args,
+                        result, cacheGeneration);
+            }
             return result;
         }
         catch (PersistenceException e)
@@ -166,6 +257,10 @@ public class QueryHandler implements Serializable, InvocationHandler
         }
         finally
         {
+            if (repositoryMethodMetadata.isInvalidatesCachedQueries())
+            {
+                queryResultCache.invalidateOnCompletion(cacheRegion(repositoryMetadata));
+            }
             if (entityManagerRef != null)
             {
                 entityManagerRef.release();
@@ -174,6 +269,15 @@ public class QueryHandler implements Serializable, InvocationHandler
         }
     }
 
+    private Class<?> cacheRegion(RepositoryMetadata repositoryMetadata)
+    {
+        if (repositoryMetadata.getEntityMetadata() != null)
+        {
+            return repositoryMetadata.getEntityMetadata().getEntityClass();
+        }
+        return repositoryMetadata.getRepositoryClass();
+    }
+
     private CdiQueryInvocationContext createContext(Object proxy, Method method,
             Object[] args, EntityManager entityManager, RepositoryMetadata repositoryMetadata,
             RepositoryMethodMetadata repositoryMethodMetadata)
@@ -19,12 +19,16 @@
 package org.apache.deltaspike.data.impl.meta;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import org.apache.deltaspike.data.api.CachedQuery;
 import org.apache.deltaspike.data.api.Modifying;
 import org.apache.deltaspike.data.api.Query;
 import org.apache.deltaspike.data.api.SingleResultType;
 import org.apache.deltaspike.data.api.mapping.QueryInOutMapper;
 import org.apache.deltaspike.data.impl.builder.part.QueryRoot;
 import org.apache.deltaspike.data.impl.builder.result.QueryProcessor;
+import org.apache.deltaspike.data.impl.graph.EntityGraphTemplate;
+import org.apache.deltaspike.data.impl.projection.Projection;
 import org.apache.deltaspike.jpa.api.transaction.Transactional;
 
 public class RepositoryMethodMetadata
@@ -44,6 +48,10 @@ public class RepositoryMethodMetadata
     
     private boolean returnsOptional;
     private boolean returnsStream;
+    private boolean returnsCompletionStage;
+
+    private Class<?> resultType;
+    private Type genericResultType;
     
     private SingleResultType singleResultType;
     
@@ -51,6 +59,15 @@ public class RepositoryMethodMetadata
     
     private Transactional transactional;
 
+    private CachedQuery cachedQuery;
+    private boolean invalidatesCachedQueries;
+
+    private boolean readOnly;
+
+    private EntityGraphTemplate entityGraphTemplate;
+
+    private Projection projection;
+
     public RepositoryMethodMetadata()
     {
         
@@ -171,6 +188,48 @@ public class RepositoryMethodMetadata
         this.returnsStream = returnsStream;
     }
 
+    public boolean isReturnsCompletionStage()
+    {
+        return returnsCompletionStage;
+    }
+
+    public void setReturnsCompletionStage(boolean returnsCompletionStage)
+    {
+        this.returnsCompletionStage = returnsCompletionStage;
+    }
+
+    /**
+     * The type of the query result, i.e. the return type of the method
+     * or the type wrapped by the returned {@link java.util.concurrent.CompletionStage}.
+     */
+    public Class<?> getResultType()
+    {
+        if (resultType == null && method != null)
+        {
+            return method.getReturnType();
+        }
+        return resultType;
+    }
+
+    public void setResultType(Class<?> resultType)
+    {
+        this.resultType = resultType;
+    }
+
+    public Type getGenericResultType()
+    {
+        if (genericResultType == null && method != null)
+        {
+            return method.getGenericReturnType();
+        }
+        return genericResultType;
+    }
+
+    public void setGenericResultType(Type genericResultType)
+    {
+        this.genericResultType = genericResultType;
+    }
+
     public SingleResultType getSingleResultType()
     {
         return singleResultType;
@@ -200,4 +259,62 @@ public class RepositoryMethodMetadata
     {
         this.transactional = transactional;
     }
+
+    public CachedQuery getCachedQuery()
+    {
+        return cachedQuery;
+    }
+
+    public void setCachedQuery(CachedQuery cachedQuery)
+    {
+        this.cachedQuery = cachedQuery;
+    }
+
+    public boolean isInvalidatesCachedQueries()
+    {
+        return invalidatesCachedQueries;
+    }
+
+    public void setInvalidatesCachedQueries(boolean invalidatesCachedQueries)
+    {
+        this.invalidatesCachedQueries = invalidatesCachedQueries;
+    }
+
+    public boolean isReadOnly()
+    {
+        return readOnly;
+    }
+
+    public void setReadOnly(boolean readOnly)
+    {
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * @return the parsed attribute paths of an {@link org.apache.deltaspike.data.api.EntityGraph}
+     *         without a name, <code>null</code> otherwise
+     */
+    public EntityGraphTemplate getEntityGraphTemplate()
+    {
+        return entityGraphTemplate;
+    }
+
+    public void setEntityGraphTemplate(EntityGraphTemplate entityGraphTemplate)
+    {
+        this.entityGraphTemplate = entityGraphTemplate;
+    }
+
+    /**
+     * @return the interface or record projection of a method expression, <code>null</code> if the method
+     *         returns entities or scalar values
+     */
+    public Projection getProjection()
+    {
+        return projection;
+    }
+
+    public void setProjection(Projection projection)
+    {
+        this.projection = projection;
+    }
 }
@@ -23,8 +23,13 @@ import static org.apache.deltaspike.core.util.StringUtils.isNotEmpty;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Stream;
 import jakarta.enterprise.context.ApplicationScoped;
 
@@ -35,16 +40,23 @@ import jakarta.persistence.LockModeType;
 import org.apache.deltaspike.core.util.AnnotationUtils;
 import org.apache.deltaspike.core.util.ClassUtils;
 
+import org.apache.deltaspike.data.api.CachedQuery;
+import org.apache.deltaspike.data.api.EntityGraph;
 import org.apache.deltaspike.data.api.Modifying;
 import org.apache.deltaspike.data.api.Query;
+import org.apache.deltaspike.data.api.QueryResult;
+import org.apache.deltaspike.data.api.ReadOnly;
 import org.apache.deltaspike.data.api.Repository;
 import org.apache.deltaspike.data.api.SingleResultType;
+import org.apache.deltaspike.data.api.config.base.DataBaseConfig;
 import org.apache.deltaspike.data.api.mapping.MappingConfig;
 import org.apache.deltaspike.data.api.mapping.QueryInOutMapper;
 import org.apache.deltaspike.data.impl.builder.MethodExpressionException;
 import org.apache.deltaspike.data.impl.builder.part.QueryRoot;
 import org.apache.deltaspike.data.impl.builder.result.QueryProcessorFactory;
+import org.apache.deltaspike.data.impl.graph.EntityGraphTemplate;
 import org.apache.deltaspike.data.impl.handler.EntityRepositoryHandler;
+import org.apache.deltaspike.data.impl.projection.Projection;
 import org.apache.deltaspike.jpa.api.transaction.Transactional;
 
 @ApplicationScoped
@@ -59,8 +71,11 @@ public class RepositoryMethodMetadataInitializer
         
         repositoryMethodMetadata.setMethod(method);
 
-        repositoryMethodMetadata.setReturnsOptional(Optional.class.isAssignableFrom(method.getReturnType()));
-        repositoryMethodMetadata.setReturnsStream(Stream.class.isAssignableFrom(method.getReturnType()));
+        initResultType(repositoryMethodMetadata);
+        repositoryMethodMetadata.setReturnsOptional(
+                Optional.class.isAssignableFrom(repositoryMethodMetadata.getResultType()));
+        repositoryMethodMetadata.setReturnsStream(
+                Stream.class.isAssignableFrom(repositoryMethodMetadata.getResultType()));
         
         repositoryMethodMetadata.setQuery(method.isAnnotationPresent(Query.class)
                 ? method.getAnnotation(Query.class) : null);
@@ -81,16 +96,56 @@ public class RepositoryMethodMetadataInitializer
         repositoryMethodMetadata.setQueryInOutMapperClass(
                 extractMapper(method, repositoryMetadata));
 
+        initProjection(repositoryMetadata, repositoryMethodMetadata);
         initQueryRoot(repositoryMetadata, repositoryMethodMetadata);
         initQueryInOutMapperIsNormalScope(repositoryMethodMetadata, beanManager);
 
         initSingleResultType(repositoryMethodMetadata);
         initRequiresTransaction(repositoryMethodMetadata);
+        initCachedQuery(repositoryMethodMetadata);
+        initReadOnly(repositoryMetadata, repositoryMethodMetadata, beanManager);
+        initEntityGraphTemplate(repositoryMetadata, repositoryMethodMetadata);
+        validateCompletionStage(repositoryMethodMetadata);
 
-        
         return repositoryMethodMetadata;
     }
 
+    private void initResultType(RepositoryMethodMetadata repositoryMethodMetadata)
+    {
+        Method method = repositoryMethodMetadata.getMethod();
+        Class<?> returnType = method.getReturnType();
+        if (CompletionStage.class.equals(returnType) || CompletableFuture.class.equals(returnType))
+        {
+            repositoryMethodMetadata.setReturnsCompletionStage(true);
+
+            Type genericResultType = Object.class;
+            if (method.getGenericReturnType() instanceof ParameterizedType)
+            {
+                genericResultType = ((ParameterizedType) method.getGenericReturnType()).getActualTypeArguments()[0];
+            }
+            repositoryMethodMetadata.setGenericResultType(genericResultType);
+            repositoryMethodMetadata.setResultType(rawType(genericResultType));
+        }
+        else
+        {
+            repositoryMethodMetadata.setResultType(returnType);
+            repositoryMethodMetadata.setGenericResultType(method.getGenericReturnType());
+        }
+    }
+
+    private Class<?> rawType(Type type)
+    {
+        if (type instanceof Class)
+        {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType)
+        {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        return Object.class;
+    }
+
     private RepositoryMethodType extractMethodType(RepositoryMetadata repositoryMetadata,
             RepositoryMethodMetadata repositoryMethodMetadata)
     {
@@ -107,14 +162,62 @@ public class RepositoryMethodMetadataInitializer
         return RepositoryMethodType.DELEGATE;
     }
 
+    private void initProjection(RepositoryMetadata repositoryMetadata, RepositoryMethodMetadata methodMetadata)
+    {
+        RepositoryMethodPrefix prefix = methodMetadata.getMethodPrefix();
+        if (methodMetadata.getMethodType() != RepositoryMethodType.PARSE || prefix.isDelete() || prefix.isCount()
+                || methodMetadata.getQueryInOutMapperClass() != null || repositoryMetadata.getEntityMetadata() == null)
+        {
+            return;
+        }
+
+        Class<?> entityClass = repositoryMetadata.getEntityMetadata().getEntityClass();
+        Class<?> elementType = elementType(methodMetadata);
+        if (Projection.isProjection(entityClass, elementType))
+        {
+            try
+            {
+                methodMetadata.setProjection(Projection.of(entityClass, elementType));
+            }
+            catch (IllegalArgumentException e)
+            {
+                throw new IllegalStateException("Invalid result type of " + methodMetadata.getMethod() + ": " +
+                        e.getMessage(), e);
+            }
+        }
+    }
+
+    private Class<?> elementType(RepositoryMethodMetadata methodMetadata)
+    {
+        Class<?> resultType = methodMetadata.getResultType();
+        if (QueryResult.class.isAssignableFrom(resultType))
+        {
+            return null;
+        }
+        if (resultType.isAssignableFrom(List.class) || methodMetadata.isReturnsStream()
+                || methodMetadata.isReturnsOptional())
+        {
+            Type genericResultType = methodMetadata.getGenericResultType();
+            if (genericResultType instanceof ParameterizedType)
+            {
+                Type element = ((ParameterizedType) genericResultType).getActualTypeArguments()[0];
+                return element instanceof Class ? (Class<?>) element : null;
+            }
+            return null;
+        }
+        return resultType;
+    }
+
     private void initQueryRoot(RepositoryMetadata repositoryMetadata, RepositoryMethodMetadata methodMetadata)
     {
         if (methodMetadata.getMethodType() == RepositoryMethodType.PARSE)
         {
+            Projection projection = methodMetadata.getProjection();
             methodMetadata.setQueryRoot(
                     QueryRoot.create(methodMetadata.getMethod().getName(),
                             repositoryMetadata,
-                            methodMetadata.getMethodPrefix()));
+                            methodMetadata.getMethodPrefix(),
+                            projection != null ? projection.getSelection() : null));
         }
         else
         {
@@ -224,4 +327,90 @@ public class RepositoryMethodMetadataInitializer
         
         repositoryMethodMetadata.setRequiresTransaction(requiresTransaction);
     }
+
+    private void initEntityGraphTemplate(RepositoryMetadata repositoryMetadata,
+            RepositoryMethodMetadata repositoryMethodMetadata)
+    {
+        EntityGraph entityGraph = repositoryMethodMetadata.getMethod().getAnnotation(EntityGraph.class);
+        if (entityGraph != null && entityGraph.value().isEmpty() && repositoryMetadata.getEntityMetadata() != null)
+        {
+            repositoryMethodMetadata.setEntityGraphTemplate(new EntityGraphTemplate(
+                    repositoryMetadata.getEntityMetadata().getEntityClass(), entityGraph.paths()));
+        }
+    }
+
+    private void initCachedQuery(RepositoryMethodMetadata repositoryMethodMetadata)
+    {
+        Method method = repositoryMethodMetadata.getMethod();
+        CachedQuery cachedQuery = method.getAnnotation(CachedQuery.class);
+        if (cachedQuery != null)
+        {
+            if (repositoryMethodMetadata.isReturnsStream()
+                    || QueryResult.class.isAssignableFrom(repositoryMethodMetadata.getResultType()))
+            {
+                throw new IllegalStateException("@" + CachedQuery.class.getSimpleName() + " isn't supported for " +
+                        method + ", the result must not be a " + QueryResult.class.getSimpleName() +
+                        " or a stream");
+            }
+            if (repositoryMethodMetadata.getModifying() != null)
+            {
+                throw new IllegalStateException("@" + CachedQuery.class.getSimpleName() + " isn't supported for " +
+                        "the @" + Modifying.class.getSimpleName() + " method " + method);
+            }
+            repositoryMethodMetadata.setCachedQuery(cachedQuery);
+        }
+
+        String name = method.getName();
+        repositoryMethodMetadata.setInvalidatesCachedQueries(repositoryMethodMetadata.getModifying() != null
+                || repositoryMethodMetadata.getMethodPrefix().isDelete()
+                || name.startsWith("save")
+                || name.startsWith("remove")
+                || name.startsWith("delete")
+                || name.startsWith("attachAndRemove"));
+    }
+
+    private void initReadOnly(RepositoryMetadata repositoryMetadata, RepositoryMethodMetadata repositoryMethodMetadata,
+                              BeanManager beanManager)
+    {
+        Method method = repositoryMethodMetadata.getMethod();
+        Transactional transactional = repositoryMethodMetadata.getTransactional();
+        boolean writes = repositoryMethodMetadata.isRequiresTransaction()
+                || repositoryMethodMetadata.isInvalidatesCachedQueries()
+                || (transactional != null && !transactional.readOnly());
+
+        ReadOnly readOnly = AnnotationUtils.extractAnnotationFromMethodOrClass(
+                beanManager, method, repositoryMetadata.getRepositoryClass(), ReadOnly.class);
+        if (readOnly != null && method.isAnnotationPresent(ReadOnly.class) && writes)
+        {
+            throw new IllegalStateException("@" + ReadOnly.class.getSimpleName() + " isn't supported for " +
+                    method + ", the method is modifying, locking or transactional");
+        }
+
+        String name = method.getName();
+        boolean readOnlyByName = DataBaseConfig.ReadReplicaCustomization.ROUTE_BY_METHOD_NAME
+                && (name.startsWith("find") || name.startsWith("count"));
+
+        repositoryMethodMetadata.setReadOnly(!writes && (readOnly != null || readOnlyByName));
+    }
+
+    private void validateCompletionStage(RepositoryMethodMetadata repositoryMethodMetadata)
+    {
+        if (!repositoryMethodMetadata.isReturnsCompletionStage())
+        {
+            return;
+        }
+
+        Method method = repositoryMethodMetadata.getMethod();
+        if (repositoryMethodMetadata.isReturnsStream()
+                || QueryResult.class.isAssignableFrom(repositoryMethodMetadata.getResultType()))
+        {
+            throw new IllegalStateException(method + " returns a " + CompletionStage.class.getSimpleName() +
+                    ", the result must not be a " + QueryResult.class.getSimpleName() + " or a stream");
+        }
+        if (repositoryMethodMetadata.isRequiresTransaction() || repositoryMethodMetadata.getTransactional() != null)
+        {
+            throw new IllegalStateException(method + " returns a " + CompletionStage.class.getSimpleName() +
+                    ", asynchronous repository methods can't be modifying or transactional");
+        }
+    }
 }
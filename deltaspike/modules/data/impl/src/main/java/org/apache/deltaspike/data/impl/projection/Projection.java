@@ -0,0 +1,382 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.projection;
+
+import java.beans.Introspector;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.apache.deltaspike.data.impl.builder.QueryBuilder;
+import org.apache.deltaspike.data.impl.property.Property;
+import org.apache.deltaspike.data.impl.property.query.NamedPropertyCriteria;
+import org.apache.deltaspike.data.impl.property.query.PropertyQueries;
+
+/**
+ * A projection of an entity to an interface or a record type, whose accessors match entity attributes.
+ * <p>
+ * Records get selected with a constructor expression, the persistence provider creates the instances.
+ * Interfaces get selected as tuples, every row is wrapped by a proxy which shares the accessor index
+ * of the projection and only holds the selected values.
+ */
+public class Projection
+{
+    private static final Method IS_RECORD = method(Class.class, "isRecord");
+    private static final Method GET_RECORD_COMPONENTS = method(Class.class, "getRecordComponents");
+
+    private final Class<?> type;
+    private final List<String> attributes;
+    private final String selection;
+
+    // only for interface projections
+    private final Map<Method, Integer> accessorIndexes;
+    private final Map<Method, MethodHandle> defaultMethods;
+    private final Function<Object, Object> rowMapper;
+
+    private Projection(Class<?> type, List<String> attributes, String selection,
+                       Map<Method, Integer> accessorIndexes, Map<Method, MethodHandle> defaultMethods)
+    {
+        this.type = type;
+        this.attributes = Collections.unmodifiableList(attributes);
+        this.selection = selection;
+        this.accessorIndexes = accessorIndexes;
+        this.defaultMethods = defaultMethods;
+        this.rowMapper = new Function<Object, Object>()
+        {
+            @Override
+            public Object apply(Object row)
+            {
+                return mapRow(row);
+            }
+        };
+    }
+
+    /**
+     * @return <code>true</code> if the given result type of a query on the entity class is a projection,
+     *         i.e. a record or an interface which isn't implemented by the entity
+     */
+    public static boolean isProjection(Class<?> entityClass, Class<?> type)
+    {
+        if (type == null || entityClass == null || type.isAssignableFrom(entityClass))
+        {
+            return false;
+        }
+        if (isRecord(type))
+        {
+            return true;
+        }
+        return type.isInterface() && !type.isAnnotation() && !type.getName().startsWith("java.");
+    }
+
+    /**
+     * Analyzes the accessors of the projection type and maps them to the attributes of the entity class.
+     *
+     * @throws IllegalArgumentException if an accessor doesn't match an entity attribute
+     */
+    public static Projection of(Class<?> entityClass, Class<?> type)
+    {
+        if (isRecord(type))
+        {
+            return ofRecord(entityClass, type);
+        }
+        return ofInterface(entityClass, type);
+    }
+
+    public Class<?> getType()
+    {
+        return type;
+    }
+
+    /**
+     * @return the selected entity attributes, in the order of the selection
+     */
+    public List<String> getAttributes()
+    {
+        return attributes;
+    }
+
+    /**
+     * @return the select clause without the <code>select</code> keyword
+     */
+    public String getSelection()
+    {
+        return selection;
+    }
+
+    /**
+     * Maps the rows of a query result. Supports lists, streams, optionals and single rows.
+     */
+    @SuppressWarnings("unchecked")
+    public Object mapResult(Object result)
+    {
+        if (result == null || accessorIndexes == null)
+        {
+            return result;
+        }
+        if (result instanceof List)
+        {
+            List<Object> rows = (List<Object>) result;
+            List<Object> mapped = new ArrayList<Object>(rows.size());
+            for (Object row : rows)
+            {
+                mapped.add(mapRow(row));
+            }
+            return mapped;
+        }
+        if (result instanceof Stream)
+        {
+            return ((Stream<Object>) result).map(rowMapper);
+        }
+        if (result instanceof Optional)
+        {
+            return ((Optional<Object>) result).map(rowMapper);
+        }
+        return mapRow(result);
+    }
+
+    /**
+     * Wraps a tuple into a proxy of the projected interface.
+     */
+    public Object mapRow(Object row)
+    {
+        if (row == null || type.isInstance(row) || accessorIndexes == null)
+        {
+            return row;
+        }
+        Object[] values = row instanceof Object[] ? (Object[]) row : new Object[] { row };
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                new ProjectionRow(this, values));
+    }
+
+    Map<Method, Integer> getAccessorIndexes()
+    {
+        return accessorIndexes;
+    }
+
+    Map<Method, MethodHandle> getDefaultMethods()
+    {
+        return defaultMethods;
+    }
+
+    private static Projection ofRecord(Class<?> entityClass, Class<?> type)
+    {
+        Object[] components = (Object[]) invoke(GET_RECORD_COMPONENTS, type);
+        List<String> attributes = new ArrayList<String>(components.length);
+        Class<?>[] parameterTypes = new Class<?>[components.length];
+        StringBuilder selection = new StringBuilder("new ").append(type.getName()).append('(');
+        for (int i = 0; i < components.length; i++)
+        {
+            String name = (String) invoke(method(components[i].getClass(), "getName"), components[i]);
+            parameterTypes[i] = (Class<?>) invoke(method(components[i].getClass(), "getType"), components[i]);
+            checkAttribute(entityClass, type, name, parameterTypes[i]);
+
+            attributes.add(name);
+            selection.append(i == 0 ? "" : ", ").append(QueryBuilder.ENTITY_NAME).append('.').append(name);
+        }
+
+        Constructor<?> constructor;
+        try
+        {
+            constructor = type.getDeclaredConstructor(parameterTypes);
+        }
+        catch (NoSuchMethodException e)
+        {
+            throw new IllegalArgumentException("No canonical constructor found for projection " + type.getName(), e);
+        }
+        if (!Modifier.isPublic(constructor.getModifiers()) || !Modifier.isPublic(type.getModifiers()))
+        {
+            throw new IllegalArgumentException("Projection " + type.getName() +
+                    " and its canonical constructor have to be public");
+        }
+        return new Projection(type, attributes, selection.append(')').toString(), null, null);
+    }
+
+    private static Projection ofInterface(Class<?> entityClass, Class<?> type)
+    {
+        // sorted by attribute, as the order of Class#getMethods isn't defined
+        Map<String, List<Method>> accessors = new TreeMap<String, List<Method>>();
+        Map<Method, MethodHandle> defaultMethods = new HashMap<Method, MethodHandle>();
+        for (Method method : type.getMethods())
+        {
+            if (Modifier.isStatic(method.getModifiers()) || isObjectMethod(method))
+            {
+                continue;
+            }
+            if (method.isDefault())
+            {
+                defaultMethods.put(method, defaultMethod(type, method));
+                continue;
+            }
+            if (method.getParameterTypes().length > 0 || void.class.equals(method.getReturnType()))
+            {
+                throw new IllegalArgumentException("Method " + method + " of projection " + type.getName() +
+                        " is not an accessor");
+            }
+
+            String attribute = attributeName(method);
+            checkAttribute(entityClass, type, attribute, method.getReturnType());
+
+            List<Method> methods = accessors.get(attribute);
+            if (methods == null)
+            {
+                methods = new ArrayList<Method>(1);
+                accessors.put(attribute, methods);
+            }
+            methods.add(method);
+        }
+        if (accessors.isEmpty())
+        {
+            throw new IllegalArgumentException("Projection " + type.getName() + " doesn't declare any accessor");
+        }
+
+        List<String> attributes = new ArrayList<String>(accessors.size());
+        Map<Method, Integer> accessorIndexes = new LinkedHashMap<Method, Integer>();
+        StringBuilder selection = new StringBuilder();
+        for (Map.Entry<String, List<Method>> accessor : accessors.entrySet())
+        {
+            int index = attributes.size();
+            for (Method method : accessor.getValue())
+            {
+                accessorIndexes.put(method, index);
+            }
+            attributes.add(accessor.getKey());
+            selection.append(index == 0 ? "" : ", ")
+                    .append(QueryBuilder.ENTITY_NAME).append('.').append(accessor.getKey());
+        }
+        return new Projection(type, attributes, selection.toString(), accessorIndexes, defaultMethods);
+    }
+
+    private static boolean isObjectMethod(Method method)
+    {
+        try
+        {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        }
+        catch (NoSuchMethodException e)
+        {
+            return false;
+        }
+    }
+
+    private static String attributeName(Method method)
+    {
+        String name = method.getName();
+        if (name.startsWith("get") && name.length() > 3)
+        {
+            return Introspector.decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2
+                && (boolean.class.equals(method.getReturnType()) || Boolean.class.equals(method.getReturnType())))
+        {
+            return Introspector.decapitalize(name.substring(2));
+        }
+        return name;
+    }
+
+    private static void checkAttribute(Class<?> entityClass, Class<?> type, String attribute, Class<?> accessorType)
+    {
+        Property<Object> property = PropertyQueries.<Object>createQuery(entityClass)
+                .addCriteria(new NamedPropertyCriteria(attribute))
+                .getFirstResult();
+        if (property == null)
+        {
+            throw new IllegalArgumentException("Accessor '" + attribute + "' of projection " + type.getName() +
+                    " doesn't match an attribute of " + entityClass.getName());
+        }
+        if (!wrap(accessorType).isAssignableFrom(wrap(property.getJavaClass())))
+        {
+            throw new IllegalArgumentException("Accessor '" + attribute + "' of projection " + type.getName() +
+                    " returns " + accessorType.getName() + ", but the attribute is a " +
+                    property.getJavaClass().getName());
+        }
+    }
+
+    private static Class<?> wrap(Class<?> type)
+    {
+        if (!type.isPrimitive())
+        {
+            return type;
+        }
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    private static MethodHandle defaultMethod(Class<?> type, Method method)
+    {
+        try
+        {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup()).unreflectSpecial(method, type);
+        }
+        catch (IllegalAccessException e)
+        {
+            // the proxy rejects calls to this method
+            return null;
+        }
+    }
+
+    private static boolean isRecord(Class<?> type)
+    {
+        return IS_RECORD != null && Boolean.TRUE.equals(invoke(IS_RECORD, type));
+    }
+
+    private static Method method(Class<?> type, String name)
+    {
+        try
+        {
+            return type.getMethod(name);
+        }
+        catch (NoSuchMethodException e)
+        {
+            // records are available since Java 16
+            return null;
+        }
+    }
+
+    private static Object invoke(Method method, Object target)
+    {
+        try
+        {
+            return method.invoke(target);
+        }
+        catch (Exception e)
+        {
+            throw new IllegalStateException("Unable to inspect " + target, e);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Projection{type=" + type.getName() + ", selection=" + selection + "}";
+    }
+}
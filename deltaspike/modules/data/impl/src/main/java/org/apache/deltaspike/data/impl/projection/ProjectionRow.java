@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.projection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+/**
+ * A single row of an interface {@link Projection}. The accessor index is shared by all rows.
+ */
+class ProjectionRow implements InvocationHandler
+{
+    private final Projection projection;
+    private final Object[] values;
+
+    ProjectionRow(Projection projection, Object[] values)
+    {
+        this.projection = projection;
+        this.values = values;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+    {
+        Integer index = projection.getAccessorIndexes().get(method);
+        if (index != null)
+        {
+            return values[index];
+        }
+
+        if (projection.getDefaultMethods().containsKey(method))
+        {
+            MethodHandle defaultMethod = projection.getDefaultMethods().get(method);
+            if (defaultMethod == null)
+            {
+                throw new UnsupportedOperationException("Default method " + method + " isn't accessible");
+            }
+            return defaultMethod.bindTo(proxy).invokeWithArguments(args == null ? new Object[0] : args);
+        }
+
+        String name = method.getName();
+        if ("equals".equals(name) && args != null && args.length == 1)
+        {
+            return equalTo(args[0]);
+        }
+        if ("hashCode".equals(name) && args == null)
+        {
+            return Arrays.hashCode(values);
+        }
+        if ("toString".equals(name) && args == null)
+        {
+            return toString();
+        }
+        throw new UnsupportedOperationException(method.toString());
+    }
+
+    private boolean equalTo(Object other)
+    {
+        if (other == null || !Proxy.isProxyClass(other.getClass()))
+        {
+            return false;
+        }
+        InvocationHandler handler = Proxy.getInvocationHandler(other);
+        if (!(handler instanceof ProjectionRow))
+        {
+            return false;
+        }
+        ProjectionRow row = (ProjectionRow) handler;
+        return projection == row.projection && Arrays.equals(values, row.values);
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder result = new StringBuilder(projection.getType().getSimpleName()).append('{');
+        for (int i = 0; i < values.length; i++)
+        {
+            result.append(i == 0 ? "" : ", ").append(projection.getAttributes().get(i)).append('=').append(values[i]);
+        }
+        return result.append('}').toString();
+    }
+}
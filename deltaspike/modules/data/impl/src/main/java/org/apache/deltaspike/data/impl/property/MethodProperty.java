@@ -26,4 +26,9 @@ public interface MethodProperty<V> extends Property<V>
     @Override
     Method getAnnotatedElement();
 
+    /**
+     * Returns the setter method of the property, or {@code null} if the property is read only.
+     */
+    Method getSetterMethod();
+
 }
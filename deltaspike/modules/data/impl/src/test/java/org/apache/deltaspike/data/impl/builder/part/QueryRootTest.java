@@ -119,6 +119,23 @@ public class QueryRootTest
         QueryRoot.create(name, repo, prefix(name));
     }
 
+    @Test
+    public void should_create_projection_query()
+    {
+        // given
+        final String name = "findByNameOrderByIdAsc";
+        final String expected =
+                "select e.enabled, e.name from Simple e " +
+                        "where e.name = ?1 " +
+                        "order by e.id asc";
+
+        // when
+        String result = QueryRoot.create(name, repo, prefix(name), "e.enabled, e.name").getJpqlQuery().trim();
+
+        // then
+        assertEquals(expected, result);
+    }
+
     @Test
     public void should_use_alternative_prefix()
     {
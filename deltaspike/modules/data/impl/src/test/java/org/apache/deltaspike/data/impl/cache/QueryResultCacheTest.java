@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+import org.apache.deltaspike.data.api.CachedQuery;
+import org.apache.deltaspike.data.test.domain.Simple;
+import org.apache.deltaspike.data.test.domain.Simple2;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryResultCacheTest
+{
+    private QueryResultCache cache;
+    private Method method;
+    private CachedQuery cachedQuery;
+
+    @Before
+    public void setup() throws Exception
+    {
+        cache = new QueryResultCache();
+        method = CachedRepository.class.getMethod("findByName", String.class);
+        cachedQuery = method.getAnnotation(CachedQuery.class);
+    }
+
+    @Test
+    public void should_return_cached_result_for_equal_parameters()
+    {
+        cache.store(Simple.class, method, cachedQuery, new Object[] { "a" }, "result",
+                cache.generation(Simple.class));
+
+        QueryResultCache.CachedResult result = cache.lookup(Simple.class, method, cachedQuery, new Object[] { "a" });
+
+        assertNotNull(result);
+        assertEquals("result", result.getResult());
+        assertNull(cache.lookup(Simple.class, method, cachedQuery, new Object[] { "b" }));
+    }
+
+    @Test
+    public void should_cache_null_results()
+    {
+        cache.store(Simple.class, method, cachedQuery, new Object[] { "a" }, null, cache.generation(Simple.class));
+
+        QueryResultCache.CachedResult result = cache.lookup(Simple.class, method, cachedQuery, new Object[] { "a" });
+
+        assertNotNull(result);
+        assertNull(result.getResult());
+    }
+
+    @Test
+    public void should_evict_least_recently_used_result()
+    {
+        long generation = cache.generation(Simple.class);
+        cache.store(Simple.class, method, cachedQuery, new Object[] { "a" }, "a", generation);
+        cache.store(Simple.class, method, cachedQuery, new Object[] { "b" }, "b", generation);
+        cache.lookup(Simple.class, method, cachedQuery, new Object[] { "a" });
+        cache.store(Simple.class, method, cachedQuery, new Object[] { "c" }, "c", generation);
+
+        assertNotNull(cache.lookup(Simple.class, method, cachedQuery, new Object[] { "a" }));
+        assertNull(cache.lookup(Simple.class, method, cachedQuery, new Object[] { "b" }));
+        assertNotNull(cache.lookup(Simple.class, method, cachedQuery, new Object[] { "c" }));
+    }
+
+    @Test
+    public void should_invalidate_only_same_entity_type()
+    {
+        cache.store(Simple.class, method, cachedQuery, new Object[] { "a" }, "a", cache.generation(Simple.class));
+        cache.store(Simple2.class, method, cachedQuery, new Object[] { "a" }, "a", cache.generation(Simple2.class));
+
+        cache.invalidate(Simple.class);
+
+        assertNull(cache.lookup(Simple.class, method, cachedQuery, new Object[] { "a" }));
+        assertNotNull(cache.lookup(Simple2.class, method, cachedQuery, new Object[] { "a" }));
+    }
+
+    @Test
+    public void should_not_store_result_of_query_started_before_invalidation()
+    {
+        long generation = cache.generation(Simple.class);
+        cache.invalidate(Simple.class);
+
+        cache.store(Simple.class, method, cachedQuery, new Object[] { "a" }, "outdated", generation);
+
+        assertNull(cache.lookup(Simple.class, method, cachedQuery, new Object[] { "a" }));
+    }
+
+    @Test
+    public void should_invalidate_immediately_without_transaction()
+    {
+        cache.store(Simple.class, method, cachedQuery, new Object[] { "a" }, "a", cache.generation(Simple.class));
+
+        cache.invalidateOnCompletion(Simple.class);
+
+        assertNull(cache.lookup(Simple.class, method, cachedQuery, new Object[] { "a" }));
+        assertFalse(cache.isInvalidationPending(Simple.class));
+    }
+
+    @Test
+    public void should_invalidate_after_transaction_completed()
+    {
+        final FakeTransactionRegistry transaction = new FakeTransactionRegistry();
+        cache = new QueryResultCache()
+        {
+            @Override
+            protected TransactionSynchronizationRegistry resolveTransactionRegistry()
+            {
+                return transaction.registry;
+            }
+        };
+        long generation = cache.generation(Simple.class);
+
+        cache.invalidateOnCompletion(Simple.class);
+        assertTrue(cache.isInvalidationPending(Simple.class));
+        assertFalse(cache.isInvalidationPending(Simple2.class));
+
+        // a concurrent query still reads the committed state before the completion
+        cache.store(Simple.class, method, cachedQuery, new Object[] { "a" }, "outdated", generation);
+        assertNotNull(cache.lookup(Simple.class, method, cachedQuery, new Object[] { "a" }));
+
+        transaction.complete();
+
+        assertNull(cache.lookup(Simple.class, method, cachedQuery, new Object[] { "a" }));
+        assertFalse(cache.isInvalidationPending(Simple.class));
+    }
+
+    private static class FakeTransactionRegistry implements InvocationHandler
+    {
+        private final Map<Object, Object> resources = new HashMap<Object, Object>();
+        private final TransactionSynchronizationRegistry registry = (TransactionSynchronizationRegistry)
+                Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[] { TransactionSynchronizationRegistry.class }, this);
+        private Synchronization synchronization;
+        private int status = Status.STATUS_ACTIVE;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+        {
+            if ("getTransactionStatus".equals(method.getName()))
+            {
+                return status;
+            }
+            if ("getResource".equals(method.getName()))
+            {
+                return resources.get(args[0]);
+            }
+            if ("putResource".equals(method.getName()))
+            {
+                resources.put(args[0], args[1]);
+            }
+            else if ("registerInterposedSynchronization".equals(method.getName()))
+            {
+                synchronization = (Synchronization) args[0];
+            }
+            return null;
+        }
+
+        void complete()
+        {
+            status = Status.STATUS_NO_TRANSACTION;
+            resources.clear();
+            synchronization.afterCompletion(Status.STATUS_COMMITTED);
+        }
+    }
+
+    private interface CachedRepository
+    {
+        @CachedQuery(maxEntries = 2)
+        List<Simple> findByName(String name);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.criteria;
+
+import java.util.Arrays;
+
+import org.apache.deltaspike.data.api.criteria.Criteria;
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaParameters;
+import org.apache.deltaspike.data.test.domain.Simple;
+import org.apache.deltaspike.data.test.domain.Simple_;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CriteriaParametersTest
+{
+    @Test
+    public void should_collect_same_shape_for_different_values()
+    {
+        CriteriaParameters first = collect(criteria().eq(Simple_.name, "a").between(Simple_.counter, 1, 5));
+        CriteriaParameters second = collect(criteria().eq(Simple_.name, "b").between(Simple_.counter, 2, 8));
+
+        assertEquals(first.getShape(), second.getShape());
+        assertEquals(Arrays.<Object>asList("a", 1, 5), first.getValues());
+        assertEquals(Arrays.<Object>asList("b", 2, 8), second.getValues());
+        assertTrue(first.isCompilable());
+    }
+
+    @Test
+    public void should_collect_different_shape_for_different_operators()
+    {
+        CriteriaParameters eq = collect(criteria().eq(Simple_.name, "a"));
+        CriteriaParameters notEq = collect(criteria().notEq(Simple_.name, "a"));
+        CriteriaParameters like = collect(criteria().like(Simple_.name, "a"));
+        CriteriaParameters likeIgnoreCase = collect(criteria().likeIgnoreCase(Simple_.name, "a"));
+
+        assertNotEquals(eq.getShape(), notEq.getShape());
+        assertNotEquals(eq.getShape(), like.getShape());
+        assertNotEquals(like.getShape(), likeIgnoreCase.getShape());
+        assertEquals(Arrays.<Object>asList("A"), likeIgnoreCase.getValues());
+    }
+
+    @Test
+    public void should_skip_null_values_in_shape()
+    {
+        CriteriaParameters withValue = collect(criteria().eq(Simple_.name, "a").eq(Simple_.enabled, true));
+        CriteriaParameters withNull = collect(criteria().eq(Simple_.name, "a").eq(Simple_.enabled, null));
+
+        assertNotEquals(withValue.getShape(), withNull.getShape());
+        assertEquals(Arrays.<Object>asList("a"), withNull.getValues());
+    }
+
+    @Test
+    public void should_include_in_arity_and_ordering_in_shape()
+    {
+        CriteriaParameters two = collect(criteria().in(Simple_.name, "a", "b"));
+        CriteriaParameters three = collect(criteria().in(Simple_.name, "a", "b", "c"));
+        CriteriaParameters ordered = collect(criteria().in(Simple_.name, "a", "b").orderAsc(Simple_.name));
+
+        assertNotEquals(two.getShape(), three.getShape());
+        assertNotEquals(two.getShape(), ordered.getShape());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_delimit_nested_criteria()
+    {
+        CriteriaParameters first = collect(criteria().or(
+                criteria().eq(Simple_.name, "a").eq(Simple_.name, "b"),
+                criteria().eq(Simple_.name, "c")));
+        CriteriaParameters second = collect(criteria().or(
+                criteria().eq(Simple_.name, "a"),
+                criteria().eq(Simple_.name, "b").eq(Simple_.name, "c")));
+
+        assertNotEquals(first.getShape(), second.getShape());
+        assertEquals(first.getValues(), second.getValues());
+    }
+
+    private QueryCriteria<Simple, Simple> criteria()
+    {
+        return new QueryCriteria<Simple, Simple>(Simple.class, Simple.class, null);
+    }
+
+    private CriteriaParameters collect(Criteria<Simple, Simple> criteria)
+    {
+        CriteriaParameters parameters = new CriteriaParameters();
+        ((QueryCriteria<Simple, Simple>) criteria).collect(parameters);
+        return parameters;
+    }
+}
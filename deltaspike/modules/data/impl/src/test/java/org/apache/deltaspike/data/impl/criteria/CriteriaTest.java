@@ -20,6 +20,7 @@ package org.apache.deltaspike.data.impl.criteria;
 
 import jakarta.inject.Inject;
 import jakarta.persistence.NonUniqueResultException;
+import org.apache.deltaspike.data.impl.criteria.template.CriteriaTemplateCache;
 import org.apache.deltaspike.data.test.TransactionalTestCase;
 import org.apache.deltaspike.data.test.domain.OneToMany;
 import org.apache.deltaspike.data.test.domain.OneToOne;
@@ -59,6 +60,9 @@ public class CriteriaTest extends TransactionalTestCase
     @Inject
     private ParentRepository parentRepo;
 
+    @Inject
+    private CriteriaTemplateCache templateCache;
+
     @Test
     public void should_create_criteria_query()
     {
@@ -77,6 +81,51 @@ public class CriteriaTest extends TransactionalTestCase
         assertEquals(0, result3.size());
     }
 
+    @Test
+    public void should_create_compiled_criteria_query()
+    {
+        // given
+        final String name = "testCreateCompiledCriteriaQuery";
+        createSimple(name, 55);
+        createSimple(name + "-other", 75);
+
+        // when
+        List<Simple> result1 = repo.queryByCriteriaCompiled(name, Boolean.TRUE, 0, 50);
+        List<Simple> result2 = repo.queryByCriteriaCompiled(name, Boolean.TRUE, 50, 100);
+        List<Simple> result3 = repo.queryByCriteriaCompiled(name + "-other", Boolean.TRUE, 50, 100);
+        List<Simple> result4 = repo.queryByCriteriaCompiled(name, null, 50, 100);
+
+        // then
+        assertEquals(0, result1.size());
+        assertEquals(1, result2.size());
+        assertEquals(Integer.valueOf(55), result2.get(0).getCounter());
+        assertEquals(1, result3.size());
+        assertEquals(Integer.valueOf(75), result3.get(0).getCounter());
+        assertEquals(1, result4.size());
+    }
+
+    @Test
+    public void should_reuse_compiled_criteria_template()
+    {
+        // given
+        final String name = "testReuseCompiledCriteriaTemplate";
+        createSimple(name, 55);
+        templateCache.clear();
+
+        // when
+        List<Simple> result1 = repo.queryByCriteriaCompiled(name, Boolean.TRUE, 50, 100);
+        List<Simple> result2 = repo.queryByCriteriaCompiled(name, Boolean.TRUE, 0, 100);
+        int templatesOfSameShape = templateCache.size();
+        List<Simple> result3 = repo.queryByCriteriaCompiled(name, null, 50, 100);
+
+        // then
+        assertEquals(1, result1.size());
+        assertEquals(1, result2.size());
+        assertEquals(1, result3.size());
+        assertEquals(1, templatesOfSameShape);
+        assertEquals(2, templateCache.size());
+    }
+
     @Test
     public void should_query_with_ignore_case()
     {
@@ -439,6 +488,42 @@ public class CriteriaTest extends TransactionalTestCase
         assertEquals("should_apply_trim ", objects[2]);
     }
 
+    @Test
+    public void should_bulk_update()
+    {
+        // given
+        final String name = "should_bulk_update";
+        Simple inRange = createSimple(name, 10);
+        createSimple(name, 20);
+
+        // when
+        int updated = repo.disableByCounterBetween(5, 15);
+
+        // then
+        assertEquals(1, updated);
+        assertFalse(getEntityManager().contains(inRange));
+        assertEquals(Boolean.FALSE, getEntityManager().find(Simple.class, inRange.getId()).getEnabled());
+        assertEquals(1, repo.queryByCriteria(name, Boolean.TRUE, 0, 50).size());
+    }
+
+    @Test
+    public void should_bulk_delete()
+    {
+        // given
+        final String name = "should_bulk_delete";
+        createSimple(name, 10);
+        createSimple(name, 20);
+        createSimple(name + "_other", 30);
+
+        // when
+        int deleted = repo.deleteByName(name);
+
+        // then
+        assertEquals(2, deleted);
+        assertEquals(0, repo.queryByCriteria(name, Boolean.TRUE, 0, 50).size());
+        assertEquals(1, repo.queryByCriteria(name + "_other", Boolean.TRUE, 0, 50).size());
+    }
+
     private Simple createSimple(String name, Integer counter)
     {
         Simple result = new Simple(name);
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.criteria;
+
+import org.apache.deltaspike.data.impl.criteria.selection.AttributeQuerySelection;
+import org.apache.deltaspike.data.test.domain.Simple;
+import org.apache.deltaspike.data.test.domain.Simple_;
+import org.junit.Test;
+
+public class QueryCriteriaBulkTest
+{
+    @Test(expected = IllegalStateException.class)
+    public void should_require_assignments_for_update()
+    {
+        criteria().eq(Simple_.name, "a").update();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_reject_assignments_for_delete()
+    {
+        criteria().eq(Simple_.name, "a").set(Simple_.enabled, Boolean.FALSE).delete();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_reject_fetches_in_bulk_operations()
+    {
+        criteria().fetch(Simple_.embedded).delete();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    @SuppressWarnings("unchecked")
+    public void should_reject_fetches_nested_in_or_criteria()
+    {
+        criteria().or(criteria().eq(Simple_.name, "a"), criteria().fetch(Simple_.embedded)).delete();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_reject_ordering_in_bulk_operations()
+    {
+        criteria().orderAsc(Simple_.name).delete();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_reject_distinct_in_bulk_operations()
+    {
+        criteria().distinct().set(Simple_.enabled, Boolean.FALSE).update();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_reject_selections_in_bulk_operations()
+    {
+        criteria().select(new AttributeQuerySelection<Simple, String>(Simple_.name)).delete();
+    }
+
+    private QueryCriteria<Simple, Simple> criteria()
+    {
+        return new QueryCriteria<Simple, Simple>(Simple.class, Simple.class, null);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.criteria.template;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.apache.deltaspike.data.api.config.base.DataBaseConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CriteriaTemplateCacheTest
+{
+    @Test
+    public void should_register_template_as_named_query()
+    {
+        CriteriaTemplateCache cache = new CriteriaTemplateCache();
+        TestFactory factory = new TestFactory();
+
+        CriteriaTemplate<String> template = cache.register(factory.proxy, shape(1), null, String.class, 2);
+
+        Assert.assertEquals(Arrays.asList(template.getQueryName()), factory.namedQueries);
+        Assert.assertSame(template, cache.lookup(factory.proxy, shape(1)));
+        Assert.assertNull(cache.lookup(new TestFactory().proxy, shape(1)));
+    }
+
+    @Test
+    public void should_evict_least_recently_used_template()
+    {
+        CriteriaTemplateCache cache = new CriteriaTemplateCache();
+        TestFactory factory = new TestFactory();
+        int maxTemplates = DataBaseConfig.CriteriaCustomization.MAX_COMPILED_TEMPLATES;
+
+        for (int i = 0; i < maxTemplates; i++)
+        {
+            cache.register(factory.proxy, shape(i), null, String.class, 0);
+        }
+        cache.lookup(factory.proxy, shape(0));
+        cache.register(factory.proxy, shape(maxTemplates), null, String.class, 0);
+
+        Assert.assertEquals(maxTemplates, cache.size());
+        Assert.assertNotNull(cache.lookup(factory.proxy, shape(0)));
+        Assert.assertNull(cache.lookup(factory.proxy, shape(1)));
+    }
+
+    @Test
+    public void should_keep_one_named_query_per_shape()
+    {
+        CriteriaTemplateCache cache = new CriteriaTemplateCache();
+        TestFactory factory = new TestFactory();
+        int shapes = DataBaseConfig.CriteriaCustomization.MAX_COMPILED_TEMPLATES + 1;
+
+        // every round evicts the templates of the previous one
+        for (int round = 0; round < 3; round++)
+        {
+            for (int i = 0; i < shapes; i++)
+            {
+                if (cache.lookup(factory.proxy, shape(i)) == null)
+                {
+                    cache.register(factory.proxy, shape(i), null, String.class, 0);
+                }
+            }
+        }
+
+        Assert.assertTrue(factory.namedQueries.size() > shapes);
+        Assert.assertEquals(shapes, new HashSet<String>(factory.namedQueries).size());
+        Assert.assertEquals(cache.lookup(factory.proxy, shape(1)).getQueryName(),
+                cache.register(factory.proxy, shape(1), null, String.class, 0).getQueryName());
+    }
+
+    @Test
+    public void should_drop_templates_of_closed_factory()
+    {
+        CriteriaTemplateCache cache = new CriteriaTemplateCache();
+        TestFactory factory = new TestFactory();
+
+        cache.register(factory.proxy, shape(1), null, String.class, 0);
+        factory.open = false;
+
+        Assert.assertNull(cache.lookup(factory.proxy, shape(1)));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private static List<Object> shape(int index)
+    {
+        return new ArrayList<Object>(Arrays.<Object>asList(String.class, index));
+    }
+
+    private static class TestFactory implements InvocationHandler
+    {
+        private final List<String> namedQueries = new ArrayList<String>();
+        private final EntityManagerFactory proxy = (EntityManagerFactory) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class[] { EntityManagerFactory.class }, this);
+        private boolean open = true;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+        {
+            if ("addNamedQuery".equals(method.getName()))
+            {
+                namedQueries.add((String) args[0]);
+                return null;
+            }
+            if ("isOpen".equals(method.getName()))
+            {
+                return open;
+            }
+            if ("hashCode".equals(method.getName()))
+            {
+                return System.identityHashCode(proxy);
+            }
+            if ("equals".equals(method.getName()))
+            {
+                return proxy == args[0];
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.graph;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Subgraph;
+
+import org.apache.deltaspike.data.test.domain.Simple;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class EntityGraphTemplateTest
+{
+    private final List<String> operations = new ArrayList<String>();
+    private final List<String> closedFactories = new ArrayList<String>();
+
+    @Test
+    public void should_build_nested_subgraphs_once()
+    {
+        EntityGraphTemplate template = new EntityGraphTemplate(Simple.class,
+                new String[] { "a", "b.c", "b.d.e", "b", "a" });
+
+        template.createEntityGraph(entityManager(null));
+
+        assertEquals(Arrays.asList("create Simple", "/a", "/b/", "/b/c", "/b/d/", "/b/d/e"), operations);
+    }
+
+    @Test
+    public void should_cache_graph_per_entity_manager_factory()
+    {
+        EntityGraphTemplate template = new EntityGraphTemplate(Simple.class, new String[] { "a.b" });
+        EntityManagerFactory first = proxy(EntityManagerFactory.class, "first");
+
+        Object graph = template.getEntityGraph(entityManager(first));
+        assertSame(graph, template.getEntityGraph(entityManager(first)));
+        assertEquals(1, count("create Simple"));
+
+        template.getEntityGraph(entityManager(proxy(EntityManagerFactory.class, "second")));
+        assertEquals(2, count("create Simple"));
+    }
+
+    @Test
+    public void should_drop_graphs_of_closed_factories()
+    {
+        EntityGraphTemplate template = new EntityGraphTemplate(Simple.class, new String[] { "a.b" });
+        EntityManagerFactory first = proxy(EntityManagerFactory.class, "first");
+        EntityManagerFactory second = proxy(EntityManagerFactory.class, "second");
+
+        template.getEntityGraph(entityManager(first));
+        closedFactories.add("first");
+        template.getEntityGraph(entityManager(second));
+
+        assertEquals(1, template.size());
+    }
+
+    private int count(String operation)
+    {
+        int result = 0;
+        for (String current : operations)
+        {
+            if (operation.equals(current))
+            {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private EntityManager entityManager(final EntityManagerFactory entityManagerFactory)
+    {
+        return (EntityManager) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { EntityManager.class }, new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args)
+                    {
+                        if ("getEntityManagerFactory".equals(method.getName()))
+                        {
+                            return entityManagerFactory;
+                        }
+                        if ("createEntityGraph".equals(method.getName()))
+                        {
+                            operations.add("create " + ((Class<?>) args[0]).getSimpleName());
+                            return proxy(EntityGraph.class, "/");
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private <T> T proxy(Class<T> type, final String path)
+    {
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { type }, new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args)
+                    {
+                        if ("addAttributeNodes".equals(method.getName()))
+                        {
+                            operations.add(path + ((String[]) args[0])[0]);
+                            return null;
+                        }
+                        if ("addSubgraph".equals(method.getName()))
+                        {
+                            String subgraphPath = path + args[0] + "/";
+                            operations.add(subgraphPath);
+                            return proxy(Subgraph.class, subgraphPath);
+                        }
+                        if ("isOpen".equals(method.getName()))
+                        {
+                            return !closedFactories.contains(path);
+                        }
+                        if ("hashCode".equals(method.getName()))
+                        {
+                            return System.identityHashCode(proxy);
+                        }
+                        if ("equals".equals(method.getName()))
+                        {
+                            return proxy == args[0];
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                }));
+    }
+}
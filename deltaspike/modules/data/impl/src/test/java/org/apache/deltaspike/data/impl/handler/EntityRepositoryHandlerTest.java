@@ -24,7 +24,10 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.apache.deltaspike.data.test.TransactionalTestCase;
@@ -183,6 +186,26 @@ public class EntityRepositoryHandlerTest extends TransactionalTestCase
         assertEquals(simple.getName(), find.get().getName());
     }
 
+    @Test
+    public void should_find_all_by_id_in_given_order() throws Exception
+    {
+        // given
+        Simple first = testData.createSimple("testFindAllById1");
+        Simple second = testData.createSimple("testFindAllById2");
+        Simple third = testData.createSimple("testFindAllById3");
+
+        // when
+        List<Simple> find = repo.findAllById(Arrays.asList(third.getId(), -1L, first.getId(), third.getId()));
+        Map<Long, Simple> findAsMap = repo.findAllByIdAsMap(Arrays.asList(second.getId(), first.getId()));
+
+        // then
+        assertEquals(2, find.size());
+        assertEquals(third.getName(), find.get(0).getName());
+        assertEquals(first.getName(), find.get(1).getName());
+        assertEquals(Arrays.asList(second.getId(), first.getId()), new ArrayList<Long>(findAsMap.keySet()));
+        assertEquals(second.getName(), findAsMap.get(second.getId()).getName());
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void should_find_by_example() throws Exception
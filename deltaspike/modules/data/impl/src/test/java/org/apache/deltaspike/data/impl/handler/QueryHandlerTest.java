@@ -26,6 +26,8 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.inject.Inject;
 import jakarta.persistence.NonUniqueResultException;
@@ -335,6 +337,35 @@ public class QueryHandlerTest extends TransactionalTestCase
         assertEquals(1, count);
     }
 
+    @Test
+    public void should_cache_query_result_until_modified()
+    {
+        // given
+        final String name = "should_cache_query_result_until_modified";
+        Simple simple = builder.createSimple(name);
+        assertEquals(Long.valueOf(1), repo.countByNameCached(name));
+
+        // when
+        builder.createSimple(name);
+        Long cached = repo.countByNameCached(name);
+        repo.updateNameForId(name, simple.getId());
+        Long invalidated = repo.countByNameCached(name);
+
+        // then
+        assertEquals(Long.valueOf(1), cached);
+        assertEquals(Long.valueOf(2), invalidated);
+    }
+
+    @Test
+    public void should_run_query_asynchronously() throws Exception
+    {
+        // when
+        CompletableFuture<Long> result = repo.countAllAsync();
+
+        // then
+        assertNotNull(result.get(10, TimeUnit.SECONDS));
+    }
+
     @Test
     public void should_create_optinal_query_by_name()
     {
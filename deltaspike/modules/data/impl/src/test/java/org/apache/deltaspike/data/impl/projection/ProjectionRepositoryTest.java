@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.projection;
+
+import static org.apache.deltaspike.data.test.util.TestDeployments.initDeployment;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+
+import jakarta.inject.Inject;
+
+import org.apache.deltaspike.data.test.TransactionalTestCase;
+import org.apache.deltaspike.data.test.domain.Simple;
+import org.apache.deltaspike.data.test.domain.SimpleBuilder;
+import org.apache.deltaspike.data.test.service.SimpleProjectionRepository;
+import org.apache.deltaspike.data.test.service.SimpleProjectionRepository.SimpleName;
+import org.apache.deltaspike.data.test.service.SimpleProjectionRepository.SimpleSummary;
+import org.apache.deltaspike.test.category.WebProfileCategory;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(WebProfileCategory.class)
+public class ProjectionRepositoryTest extends TransactionalTestCase
+{
+    @Deployment
+    public static Archive<?> deployment()
+    {
+        return initDeployment()
+                .addClasses(SimpleProjectionRepository.class)
+                .addPackage(Simple.class.getPackage());
+    }
+
+    @Inject
+    private SimpleProjectionRepository repo;
+
+    private SimpleBuilder builder;
+
+    @Test
+    public void should_project_to_interface()
+    {
+        // given
+        builder.createSimple("testProjectToInterface1", 2);
+        builder.createSimple("testProjectToInterface2", 1);
+
+        // when
+        List<SimpleSummary> result = repo.findByEnabledOrderByCounterAsc(Boolean.TRUE);
+
+        // then
+        assertEquals(2, result.size());
+        assertEquals("testProjectToInterface2", result.get(0).getName());
+        assertEquals(Integer.valueOf(1), result.get(0).getCounter());
+        assertEquals("testProjectToInterface1 (2)", result.get(1).label());
+        assertFalse(result.get(0) instanceof Simple);
+    }
+
+    @Test
+    public void should_project_single_attribute_to_interface()
+    {
+        // given
+        final String name = "testProjectSingleAttribute";
+        builder.createSimple(name);
+
+        // when
+        Optional<SimpleName> result = repo.findOptionalByName(name);
+        Optional<SimpleName> missing = repo.findOptionalByName(name + "Missing");
+
+        // then
+        assertTrue(result.isPresent());
+        assertEquals(name, result.get().getName());
+        assertFalse(missing.isPresent());
+    }
+
+    @Before
+    public void setup()
+    {
+        builder = new SimpleBuilder(getEntityManager());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.projection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.deltaspike.data.test.domain.Simple;
+import org.junit.Test;
+
+public class ProjectionTest
+{
+    public interface SimpleSummary
+    {
+        String getName();
+
+        Boolean getEnabled();
+
+        default String label()
+        {
+            return getName() + (getEnabled() ? "" : " (disabled)");
+        }
+    }
+
+    public interface SimpleName
+    {
+        String getName();
+    }
+
+    public interface Unknown
+    {
+        String getUnknown();
+    }
+
+    public interface WrongType
+    {
+        Long getName();
+    }
+
+    @Test
+    public void should_detect_projection_types()
+    {
+        assertTrue(Projection.isProjection(Simple.class, SimpleSummary.class));
+        assertFalse(Projection.isProjection(Simple.class, Simple.class));
+        assertFalse(Projection.isProjection(Simple.class, Serializable.class));
+        assertFalse(Projection.isProjection(Simple.class, String.class));
+        assertFalse(Projection.isProjection(Simple.class, null));
+    }
+
+    @Test
+    public void should_select_accessed_attributes()
+    {
+        Projection projection = Projection.of(Simple.class, SimpleSummary.class);
+
+        assertEquals(Arrays.asList("enabled", "name"), projection.getAttributes());
+        assertEquals("e.enabled, e.name", projection.getSelection());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_map_tuples()
+    {
+        Projection projection = Projection.of(Simple.class, SimpleSummary.class);
+
+        List<SimpleSummary> result = (List<SimpleSummary>) projection.mapResult(Arrays.asList(
+                new Object[] { Boolean.TRUE, "a" }, new Object[] { Boolean.FALSE, "b" }));
+
+        assertEquals(2, result.size());
+        assertEquals("a", result.get(0).getName());
+        assertEquals("b (disabled)", result.get(1).label());
+        assertEquals(result.get(0), projection.mapRow(new Object[] { Boolean.TRUE, "a" }));
+        assertNotEquals(result.get(0), result.get(1));
+        assertEquals("SimpleSummary{enabled=true, name=a}", result.get(0).toString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_map_single_attribute()
+    {
+        Projection projection = Projection.of(Simple.class, SimpleName.class);
+
+        Optional<SimpleName> result = (Optional<SimpleName>) projection.mapResult(Optional.of("a"));
+
+        assertEquals("e.name", projection.getSelection());
+        assertEquals("a", result.get().getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_fail_on_unknown_attribute()
+    {
+        Projection.of(Simple.class, Unknown.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_fail_on_incompatible_type()
+    {
+        Projection.of(Simple.class, WrongType.class);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.projection.record;
+
+import static org.apache.deltaspike.data.test.util.TestDeployments.initDeployment;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+
+import jakarta.inject.Inject;
+
+import org.apache.deltaspike.data.test.TransactionalTestCase;
+import org.apache.deltaspike.data.test.domain.Simple;
+import org.apache.deltaspike.data.test.domain.SimpleBuilder;
+import org.apache.deltaspike.data.test.service.record.SimpleRecord;
+import org.apache.deltaspike.data.test.service.record.SimpleRecordRepository;
+import org.apache.deltaspike.test.category.WebProfileCategory;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Only compiled on Java 17 and later, see the jdk profiles of the module.
+ */
+@Category(WebProfileCategory.class)
+public class RecordProjectionRepositoryTest extends TransactionalTestCase
+{
+    @Deployment
+    public static Archive<?> deployment()
+    {
+        return initDeployment()
+                .addClasses(SimpleRecordRepository.class, SimpleRecord.class)
+                .addPackage(Simple.class.getPackage());
+    }
+
+    @Inject
+    private SimpleRecordRepository repo;
+
+    private SimpleBuilder builder;
+
+    @Test
+    public void should_project_to_record()
+    {
+        // given
+        builder.createSimple("testProjectToRecord1", 2);
+        builder.createSimple("testProjectToRecord2", 1);
+
+        // when
+        List<SimpleRecord> result = repo.findByEnabledOrderByCounterAsc(Boolean.TRUE);
+
+        // then
+        assertEquals(2, result.size());
+        assertEquals(new SimpleRecord("testProjectToRecord2", 1), result.get(0));
+        assertEquals(new SimpleRecord("testProjectToRecord1", 2), result.get(1));
+    }
+
+    @Test
+    public void should_project_optional_to_record()
+    {
+        // given
+        final String name = "testProjectOptionalToRecord";
+        builder.createSimple(name, 3);
+
+        // when
+        Optional<SimpleRecord> result = repo.findOptionalByName(name);
+        Optional<SimpleRecord> missing = repo.findOptionalByName(name + "Missing");
+
+        // then
+        assertTrue(result.isPresent());
+        assertEquals(new SimpleRecord(name, 3), result.get());
+        assertFalse(missing.isPresent());
+    }
+
+    @Before
+    public void setup()
+    {
+        builder = new SimpleBuilder(getEntityManager());
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.projection.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.deltaspike.data.impl.projection.Projection;
+import org.apache.deltaspike.data.test.domain.Simple;
+import org.apache.deltaspike.data.test.service.record.SimpleRecord;
+import org.junit.Test;
+
+/**
+ * Only compiled on Java 17 and later, see the jdk profiles of the module.
+ */
+public class RecordProjectionTest
+{
+    public record WrongType(Long name)
+    {
+    }
+
+    @Test
+    public void should_detect_record()
+    {
+        assertTrue(Projection.isProjection(Simple.class, SimpleRecord.class));
+    }
+
+    @Test
+    public void should_select_record_constructor()
+    {
+        Projection projection = Projection.of(Simple.class, SimpleRecord.class);
+
+        assertEquals(Arrays.asList("name", "counter"), projection.getAttributes());
+        assertEquals("new " + SimpleRecord.class.getName() + "(e.name, e.counter)", projection.getSelection());
+    }
+
+    @Test
+    public void should_keep_records_created_by_provider()
+    {
+        Projection projection = Projection.of(Simple.class, SimpleRecord.class);
+        List<SimpleRecord> result = Arrays.asList(new SimpleRecord("a", 1));
+
+        assertSame(result, projection.mapResult(result));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_fail_on_incompatible_component_type()
+    {
+        Projection.of(Simple.class, WrongType.class);
+    }
+}
@@ -45,6 +45,16 @@ public abstract class SimpleCriteriaRepository extends AbstractEntityRepository<
                 .getResultList();
     }
 
+    public List<Simple> queryByCriteriaCompiled(String name, Boolean enabled, Integer from, Integer to)
+    {
+        return criteria()
+                .eq(Simple_.name, name)
+                .eq(Simple_.enabled, enabled)
+                .between(Simple_.counter, from, to)
+                .compile()
+                .getResultList();
+    }
+
     public List<Simple> queryByIgnoreCase(String name, String nameLike)
     {
         return criteria()
@@ -96,6 +106,21 @@ public abstract class SimpleCriteriaRepository extends AbstractEntityRepository<
                 .getSingleResult();
     }
 
+    public int disableByCounterBetween(Integer from, Integer to)
+    {
+        return criteria()
+                .between(Simple_.counter, from, to)
+                .set(Simple_.enabled, Boolean.FALSE)
+                .update();
+    }
+
+    public int deleteByName(String name)
+    {
+        return criteria()
+                .eq(Simple_.name, name)
+                .delete();
+    }
+
     public Statistics queryWithSelect(String name)
     {
         return criteria()
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.test.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.deltaspike.data.api.EntityRepository;
+import org.apache.deltaspike.data.api.Repository;
+import org.apache.deltaspike.data.test.domain.Simple;
+
+@Repository
+public interface SimpleProjectionRepository extends EntityRepository<Simple, Long>
+{
+    interface SimpleSummary
+    {
+        String getName();
+
+        Integer getCounter();
+
+        default String label()
+        {
+            return getName() + " (" + getCounter() + ")";
+        }
+    }
+
+    interface SimpleName
+    {
+        String getName();
+    }
+
+    List<SimpleSummary> findByEnabledOrderByCounterAsc(Boolean enabled);
+
+    Optional<SimpleName> findOptionalByName(String name);
+}
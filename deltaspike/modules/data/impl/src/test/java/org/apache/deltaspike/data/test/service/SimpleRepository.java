@@ -23,10 +23,12 @@ import static org.apache.deltaspike.data.api.SingleResultType.ANY;
 import static org.apache.deltaspike.data.api.SingleResultType.OPTIONAL;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import jakarta.persistence.EntityManager;
 
 import org.apache.deltaspike.data.api.AbstractEntityRepository;
+import org.apache.deltaspike.data.api.CachedQuery;
 import org.apache.deltaspike.data.api.FirstResult;
 import org.apache.deltaspike.data.api.MaxResults;
 import org.apache.deltaspike.data.api.Modifying;
@@ -104,6 +106,13 @@ public abstract class SimpleRepository extends AbstractEntityRepository<Simple,
     @Query("update Simple as s set s.name = ?1 where s.id = ?2")
     public abstract int updateNameForId(String name, Long id);
 
+    @CachedQuery(maxEntries = 10)
+    @Query("select count(s) from Simple s where s.name = ?1")
+    public abstract Long countByNameCached(String name);
+
+    @Query("select count(s) from Simple s")
+    public abstract CompletableFuture<Long> countAllAsync();
+
     @Query(named = Simple.BY_NAME_LIKE)
     public abstract QueryResult<Simple> queryResultWithNamed(String name);
 
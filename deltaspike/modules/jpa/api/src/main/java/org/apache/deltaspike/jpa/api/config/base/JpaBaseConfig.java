@@ -35,4 +35,73 @@ public interface JpaBaseConfig extends DeltaSpikeBaseConfig
                 .withCurrentProjectStage(true)
                 .getValue();
     }
+
+    interface EntityManagerFactoryCustomization
+    {
+        /**
+         * Share one EntityManagerFactory per persistence unit and configuration between all
+         * {@link org.apache.deltaspike.jpa.api.entitymanager.PersistenceUnitName} injection points.
+         */
+        Boolean SHARED = ConfigResolver.resolve("deltaspike.jpa.entity-manager-factory.shared")
+                .as(Boolean.class)
+                .withCurrentProjectStage(true)
+                .withDefault(Boolean.TRUE)
+                .getValue();
+
+        /**
+         * Comma separated names of the persistence units which get bootstrapped in parallel
+         * during the deployment, instead of on first injection.
+         */
+        String EAGER_UNITS = ConfigResolver.resolve("deltaspike.jpa.entity-manager-factory.eager-units")
+                .withCurrentProjectStage(true)
+                .withDefault("")
+                .getValue();
+    }
+
+    interface ReadOnlyTransaction
+    {
+        /**
+         * Switches the EntityManagers of read-only transactions to {@link jakarta.persistence.FlushModeType#COMMIT}
+         * and (if supported by the provider) to read-only entities, which skips snapshots and dirty checking.
+         */
+        Boolean OPTIMIZE = ConfigResolver.resolve("deltaspike.jpa.read-only.optimize")
+                .as(Boolean.class)
+                .withCurrentProjectStage(true)
+                .withDefault(Boolean.TRUE)
+                .getValue();
+
+        /**
+         * Optional class name of a qualifier. Read-only transactions also begin on the EntityManager with this
+         * qualifier, and repositories use it instead of the {@link jakarta.enterprise.inject.Default} one,
+         * e.g. for a read replica.
+         */
+        String QUALIFIER = ConfigResolver.resolve("deltaspike.jpa.read-only.qualifier")
+                .withCurrentProjectStage(true)
+                .withDefault("")
+                .getValue();
+    }
+
+    interface TransactionMetrics
+    {
+        /**
+         * Collects the timings of transactions started by
+         * {@link org.apache.deltaspike.jpa.api.transaction.Transactional} methods, even without a slow-transaction
+         * threshold or a {@link org.apache.deltaspike.jpa.spi.transaction.TransactionListener}.
+         */
+        Boolean ENABLED = ConfigResolver.resolve("deltaspike.jpa.transaction.metrics.enabled")
+                .as(Boolean.class)
+                .withCurrentProjectStage(true)
+                .withDefault(Boolean.FALSE)
+                .getValue();
+
+        /**
+         * Transactions which take at least the given number of milliseconds get logged with their timings.
+         * 0 disables the log.
+         */
+        Long SLOW_THRESHOLD_IN_MILLISECONDS = ConfigResolver.resolve("deltaspike.jpa.transaction.slow-threshold_in_ms")
+                .as(Long.class)
+                .withCurrentProjectStage(true)
+                .withDefault(0L)
+                .getValue();
+    }
 }
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.api.transaction;
+
+import java.util.concurrent.Executor;
+
+/**
+ * <p>Moves the state of {@link Transactional} methods, i.e. the {@link TransactionScoped} context and the
+ * active EntityManager, to other threads. Both are bound to the thread which invoked the outermost
+ * {@link Transactional} method and aren't visible to tasks running on a pool.</p>
+ *
+ * <p>Ownership rules:
+ * <ul>
+ *     <li>The thread which started the transaction stays its owner. Only the owner commits or rolls back
+ *     and ends the {@link TransactionScoped} context.</li>
+ *     <li>With {@link Mode#PROPAGATE} a task joins the transaction of the owner. {@link Transactional} methods
+ *     called by the task are nested ones. The owner has to wait for such tasks before it leaves
+ *     the outermost {@link Transactional} method. EntityManagers aren't thread-safe, so tasks
+ *     sharing an EntityManager must not run concurrently.</li>
+ *     <li>With {@link Mode#ISOLATE} a task starts without any transactional state, its own
+ *     {@link Transactional} methods start and end independent transactions. That's the mode for
+ *     running independent reads in parallel.</li>
+ * </ul>
+ * </p>
+ *
+ * <pre>
+ * &#064;Inject
+ * private TransactionContextPropagation transactionContextPropagation;
+ *
+ * Executor executor = transactionContextPropagation.wrap(pool, Mode.ISOLATE);
+ * </pre>
+ */
+public interface TransactionContextPropagation
+{
+    enum Mode
+    {
+        /**
+         * The task joins the transaction of the thread which submitted it.
+         */
+        PROPAGATE,
+
+        /**
+         * The task runs without the transactional state of the thread which submitted it.
+         */
+        ISOLATE
+    }
+
+    /**
+     * Captures the transactional state of the current thread.
+     *
+     * @param mode how the state gets applied to the thread which restores the snapshot
+     * @return snapshot which can be restored by any thread
+     */
+    TransactionContextSnapshot capture(Mode mode);
+
+    /**
+     * @param executor executor to delegate to
+     * @param mode how the state of the submitting thread gets applied to the tasks
+     * @return executor which captures the state whenever a task gets submitted
+     */
+    Executor wrap(Executor executor, Mode mode);
+}
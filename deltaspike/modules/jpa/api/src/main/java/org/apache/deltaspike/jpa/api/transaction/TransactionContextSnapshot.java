@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.api.transaction;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Transactional state captured by {@link TransactionContextPropagation#capture}.
+ */
+public interface TransactionContextSnapshot
+{
+    /**
+     * Binds the captured state to the current thread.
+     * <pre>
+     * TransactionContextSnapshot previous = snapshot.restore();
+     * try
+     * {
+     *     ...
+     * }
+     * finally
+     * {
+     *     previous.restore();
+     * }
+     * </pre>
+     *
+     * @return snapshot of the replaced state, which has to be restored once the work is done
+     */
+    TransactionContextSnapshot restore();
+
+    /**
+     * @return task which runs with the captured state
+     */
+    Runnable wrap(Runnable task);
+
+    /**
+     * @return task which runs with the captured state
+     */
+    <T> Callable<T> wrap(Callable<T> task);
+}
@@ -21,6 +21,9 @@ package org.apache.deltaspike.jpa.api.transaction;
 import jakarta.enterprise.inject.Any;
 import jakarta.enterprise.util.Nonbinding;
 import jakarta.interceptor.InterceptorBinding;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
@@ -67,4 +70,23 @@ public @interface Transactional
      * @return true to trigger #rollback for the current transaction(s), false otherwise
      */
     @Nonbinding boolean readOnly() default false;
+
+    /**
+     * Only evaluated on the first/outermost transactional bean/method in the chain.
+     * Each retry starts a new transaction with a new transaction scope and cleared EntityManagers,
+     * so the intercepted method has to be safe to get invoked again.
+     * @return how often the method gets invoked again if it fails with an exception listed in {@link #retryOn()}
+     */
+    @Nonbinding int maxRetries() default 0;
+
+    /**
+     * @return milliseconds to wait before the first retry, doubled for every further retry
+     */
+    @Nonbinding long backoff() default 0;
+
+    /**
+     * @return exceptions (also as cause) which trigger a retry, by default optimistic locking failures and deadlocks
+     */
+    @Nonbinding Class<? extends Throwable>[] retryOn() default {
+        OptimisticLockException.class, PessimisticLockException.class, LockTimeoutException.class };
 }
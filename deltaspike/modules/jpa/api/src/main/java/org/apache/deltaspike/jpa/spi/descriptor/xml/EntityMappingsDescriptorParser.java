@@ -18,8 +18,10 @@
  */
 package org.apache.deltaspike.jpa.spi.descriptor.xml;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.Serializable;
+import java.net.URL;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -37,16 +39,14 @@ public class EntityMappingsDescriptorParser extends DescriptorReader
 
     public EntityMappingsDescriptor readAll(String baseUrl, String resource) throws IOException
     {
-        Document document = read(baseUrl, resource).getDocument();
-        return readFromDocument(document);
+        return createDescriptor(parseMappings(baseUrl, resource));
     }
 
     public EntityMappingsDescriptor readDefaultOrm(String baseUrl) throws IOException
     {
         try
         {
-            Descriptor desc = read(baseUrl, DEFAULT_ORM_PATH);
-            return readFromDocument(desc.getDocument());
+            return readAll(baseUrl, DEFAULT_ORM_PATH);
         }
         catch (Exception e)
         {
@@ -55,6 +55,82 @@ public class EntityMappingsDescriptorParser extends DescriptorReader
         }
     }
 
+    /**
+     * Streams the mapping file relative to the base URL or, as fallback, from the class path.
+     */
+    StreamingDescriptorParser.ParsedMappings parseMappings(String baseUrl, String resource) throws IOException
+    {
+        try
+        {
+            return StreamingDescriptorParser.parseMappings(new URL(baseUrl + resource));
+        }
+        catch (Exception e)
+        {
+            URL url = classLoader().getResource(resource);
+            if (url == null)
+            {
+                throw new FileNotFoundException(resource);
+            }
+            return StreamingDescriptorParser.parseMappings(url);
+        }
+    }
+
+    private EntityMappingsDescriptor createDescriptor(StreamingDescriptorParser.ParsedMappings mappings)
+    {
+        String packageName = mappings.getPackageName();
+
+        List<MappedSuperclassDescriptor> mappedSuperclassDescriptors = new LinkedList<MappedSuperclassDescriptor>();
+        for (StreamingDescriptorParser.ParsedEntity parsedEntity : mappings.getMappedSuperclasses())
+        {
+            MappedSuperclassDescriptor mappedSuperclassDescriptor = new MappedSuperclassDescriptor();
+            applyCommonEntityDescriptorAttributes(packageName, mappedSuperclassDescriptor, parsedEntity);
+            mappedSuperclassDescriptors.add(mappedSuperclassDescriptor);
+        }
+
+        List<EntityDescriptor> entityDescriptors = new LinkedList<EntityDescriptor>();
+        for (StreamingDescriptorParser.ParsedEntity parsedEntity : mappings.getEntities())
+        {
+            EntityDescriptor entityDescriptor = new EntityDescriptor();
+            applyCommonEntityDescriptorAttributes(packageName, entityDescriptor, parsedEntity);
+            entityDescriptor.setTableName(parsedEntity.getTableName());
+            entityDescriptors.add(entityDescriptor);
+        }
+
+        return new EntityMappingsDescriptor(mappedSuperclassDescriptors, entityDescriptors, packageName);
+    }
+
+    private void applyCommonEntityDescriptorAttributes(String packageName,
+            AbstractEntityDescriptor entityDescriptor, StreamingDescriptorParser.ParsedEntity parsedEntity)
+    {
+        entityDescriptor.setName(parsedEntity.getName());
+        entityDescriptor.setVersion(parsedEntity.getVersion());
+
+        String[] id = parsedEntity.getId();
+        if (id != null)
+        {
+            entityDescriptor.setId(id);
+        }
+        else if (parsedEntity.getEmbeddedId() != null)
+        {
+            entityDescriptor.setId(new String[] { parsedEntity.getEmbeddedId() });
+        }
+
+        if (parsedEntity.getClassName() != null)
+        {
+            entityDescriptor.setEntityClass(loadClass(parsedEntity.getClassName(), packageName));
+        }
+
+        if (parsedEntity.getIdClassName() != null)
+        {
+            entityDescriptor.setIdClass(
+                    (Class<? extends Serializable>) loadClass(parsedEntity.getIdClassName(), packageName));
+        }
+    }
+
+    /**
+     * DOM based, {@link #readAll(String, String)} streams the mapping files instead.
+     */
+    @Deprecated
     protected EntityMappingsDescriptor readFromDocument(Document doc)
     {
         String packageName =
@@ -193,28 +269,25 @@ public class EntityMappingsDescriptorParser extends DescriptorReader
         String className = extractAttribute(node, "class");
         if (className != null)
         {
-            try
-            {
-                entityDescriptor.setEntityClass(Class.forName(buildClassName(className, packageName)));
-            }
-            catch (ClassNotFoundException e)
-            {
-                throw new IllegalArgumentException("Can't get class " + buildClassName(className, packageName), e);
-            }
+            entityDescriptor.setEntityClass(loadClass(className, packageName));
         }
 
         String idClass = extractNodeAttribute((Element) node, "id-class", "class");
         if (idClass != null)
         {
-            try
-            {
-                entityDescriptor.setIdClass(
-                        (Class<? extends Serializable>) Class.forName(buildClassName(idClass, packageName)));
-            }
-            catch (ClassNotFoundException e)
-            {
-                throw new IllegalArgumentException("Can't get class " + buildClassName(className, packageName), e);
-            }
+            entityDescriptor.setIdClass((Class<? extends Serializable>) loadClass(idClass, packageName));
+        }
+    }
+
+    private Class<?> loadClass(String className, String packageName)
+    {
+        try
+        {
+            return Class.forName(buildClassName(className, packageName));
+        }
+        catch (ClassNotFoundException e)
+        {
+            throw new IllegalArgumentException("Can't get class " + buildClassName(className, packageName), e);
         }
     }
     
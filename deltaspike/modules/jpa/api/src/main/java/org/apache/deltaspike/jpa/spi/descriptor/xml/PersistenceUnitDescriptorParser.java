@@ -23,11 +23,19 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import jakarta.enterprise.inject.Vetoed;
 
 @Vetoed
@@ -35,20 +43,99 @@ public class PersistenceUnitDescriptorParser extends DescriptorReader
 {
     public static final String RESOURCE_PATH = "META-INF/persistence.xml";
 
+    private static final Logger LOG = Logger.getLogger(PersistenceUnitDescriptorParser.class.getName());
+
     private final EntityMappingsDescriptorParser entityMappingsDescriptorParser
         = new EntityMappingsDescriptorParser();
     
     public List<PersistenceUnitDescriptor> readAll() throws IOException
     {
+        List<URL> urls = Collections.list(classLoader().getResources(RESOURCE_PATH));
+
+        List<Callable<List<StreamingDescriptorParser.ParsedUnit>>> tasks =
+                new ArrayList<Callable<List<StreamingDescriptorParser.ParsedUnit>>>(urls.size());
+        for (final URL url : urls)
+        {
+            tasks.add(new Callable<List<StreamingDescriptorParser.ParsedUnit>>()
+            {
+                @Override
+                public List<StreamingDescriptorParser.ParsedUnit> call()
+                {
+                    try
+                    {
+                        return StreamingDescriptorParser.parseUnits(url);
+                    }
+                    catch (Exception e)
+                    {
+                        LOG.log(Level.WARNING, "Could not load " + RESOURCE_PATH + " from " + url, e);
+                        return Collections.emptyList();
+                    }
+                }
+            });
+        }
+        List<List<StreamingDescriptorParser.ParsedUnit>> parsedUnits = StreamingDescriptorParser.invokeAll(tasks);
+
+        preloadMappingFiles(urls, parsedUnits);
+
         List<PersistenceUnitDescriptor> result = new LinkedList<PersistenceUnitDescriptor>();
-        List<Descriptor> persistenceXmls = readAllFromClassPath(RESOURCE_PATH);
-        for (Descriptor desc : persistenceXmls)
+        for (int i = 0; i < urls.size(); i++)
         {
-            result.addAll(lookupUnits(desc));
+            String baseUrl = extractBaseUrl(urls.get(i), RESOURCE_PATH);
+            for (StreamingDescriptorParser.ParsedUnit unit : parsedUnits.get(i))
+            {
+                List<EntityDescriptor> entities = extractMappings(unit.getMappingFiles(), baseUrl, unit.getName());
+                result.add(new PersistenceUnitDescriptor(unit.getName(), entities, unit.getProperties()));
+            }
         }
         return Collections.unmodifiableList(result);
     }
 
+    /**
+     * Streams all mapping files of all persistence units in parallel. The descriptors get created
+     * afterwards from the cached results, which also reports failures.
+     */
+    private void preloadMappingFiles(List<URL> urls, List<List<StreamingDescriptorParser.ParsedUnit>> parsedUnits)
+    {
+        Set<List<String>> mappingFiles = new LinkedHashSet<List<String>>();
+        for (int i = 0; i < urls.size(); i++)
+        {
+            String baseUrl = extractBaseUrl(urls.get(i), RESOURCE_PATH);
+            for (StreamingDescriptorParser.ParsedUnit unit : parsedUnits.get(i))
+            {
+                for (String mappingFile : unit.getMappingFiles())
+                {
+                    mappingFiles.add(Arrays.asList(baseUrl, mappingFile));
+                }
+                mappingFiles.add(Arrays.asList(baseUrl, EntityMappingsDescriptorParser.DEFAULT_ORM_PATH));
+            }
+        }
+
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(mappingFiles.size());
+        for (final List<String> mappingFile : mappingFiles)
+        {
+            tasks.add(new Callable<Object>()
+            {
+                @Override
+                public Object call()
+                {
+                    try
+                    {
+                        return entityMappingsDescriptorParser.parseMappings(mappingFile.get(0), mappingFile.get(1));
+                    }
+                    catch (Exception e)
+                    {
+                        return null; // reported (if needed) while creating the descriptors
+                    }
+                }
+            });
+        }
+        StreamingDescriptorParser.invokeAll(tasks);
+    }
+
+    /**
+     * DOM based, {@link #readAll()} streams the persistence.xml files instead.
+     */
+    @Deprecated
     protected List<PersistenceUnitDescriptor> lookupUnits(Descriptor descriptor)
     {
         List<PersistenceUnitDescriptor> result = new LinkedList<PersistenceUnitDescriptor>();
@@ -68,13 +155,17 @@ public class PersistenceUnitDescriptorParser extends DescriptorReader
     }
 
     protected List<EntityDescriptor> extractMappings(Element element, String baseUrl, String unitName)
+    {
+        return extractMappings(toTextContents(element.getElementsByTagName("mapping-file")), baseUrl, unitName);
+    }
+
+    protected List<EntityDescriptor> extractMappings(List<String> mappingFiles, String baseUrl, String unitName)
     {
         try
         {
             List<EntityDescriptor> entities = new LinkedList<EntityDescriptor>();
             List<MappedSuperclassDescriptor> superClasses = new LinkedList<MappedSuperclassDescriptor>();
-            NodeList list = element.getElementsByTagName("mapping-file");
-            readMappingFiles(baseUrl, unitName, entities, superClasses, list);
+            readMappingFiles(baseUrl, unitName, entities, superClasses, mappingFiles);
             EntityMappingsDescriptor mappings = entityMappingsDescriptorParser.readDefaultOrm(baseUrl);
             entities.addAll(mappings.getEntityDescriptors());
             superClasses.addAll(mappings.getMappedSuperclassDescriptors());
@@ -91,9 +182,15 @@ public class PersistenceUnitDescriptorParser extends DescriptorReader
                                   List<EntityDescriptor> entities, List<MappedSuperclassDescriptor> superClasses,
                                   NodeList list)
     {
-        for (int i = 0; i < list.getLength(); i++)
+        readMappingFiles(baseUrl, unitName, entities, superClasses, toTextContents(list));
+    }
+
+    protected void readMappingFiles(String baseUrl, String unitName,
+                                  List<EntityDescriptor> entities, List<MappedSuperclassDescriptor> superClasses,
+                                  List<String> mappingFiles)
+    {
+        for (String resource : mappingFiles)
         {
-            String resource = list.item(i).getTextContent();
             try
             {
                 EntityMappingsDescriptor mappings = entityMappingsDescriptorParser.readAll(baseUrl, resource);
@@ -108,6 +205,16 @@ public class PersistenceUnitDescriptorParser extends DescriptorReader
         }
     }
 
+    private List<String> toTextContents(NodeList list)
+    {
+        List<String> result = new ArrayList<String>(list.getLength());
+        for (int i = 0; i < list.getLength(); i++)
+        {
+            result.add(list.item(i).getTextContent());
+        }
+        return result;
+    }
+
     protected String extractUnitName(Node node)
     {
         return node.getAttributes().getNamedItem("name").getTextContent();
@@ -0,0 +1,491 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.spi.descriptor.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.deltaspike.core.util.ClassUtils;
+import org.apache.deltaspike.core.util.ExceptionUtils;
+
+/**
+ * Streams persistence.xml and orm.xml files with StAX and only keeps what DeltaSpike needs:
+ * unit names, mapping files and properties of persistence units, as well as the classes with their
+ * id, version and table mappings of entity mappings.
+ *
+ * <p>The results only contain strings and get cached per URL as long as the class loader is alive.</p>
+ */
+final class StreamingDescriptorParser
+{
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private static final Map<ClassLoader, ParsedDescriptors> CACHE = new WeakHashMap<ClassLoader, ParsedDescriptors>();
+
+    private StreamingDescriptorParser()
+    {
+    }
+
+    static List<ParsedUnit> parseUnits(URL url) throws IOException
+    {
+        ConcurrentMap<String, List<ParsedUnit>> units = cache().units;
+        List<ParsedUnit> result = units.get(url.toString());
+        if (result == null)
+        {
+            result = readUnits(url);
+            units.putIfAbsent(url.toString(), result);
+        }
+        return result;
+    }
+
+    static ParsedMappings parseMappings(URL url) throws IOException
+    {
+        ConcurrentMap<String, ParsedMappings> mappings = cache().mappings;
+        ParsedMappings result = mappings.get(url.toString());
+        if (result == null)
+        {
+            result = readMappings(url);
+            mappings.putIfAbsent(url.toString(), result);
+        }
+        return result;
+    }
+
+    /**
+     * Executes the given tasks in parallel and waits until all of them are done.
+     */
+    static <T> List<T> invokeAll(List<Callable<T>> tasks)
+    {
+        List<T> result = new ArrayList<T>(tasks.size());
+        if (tasks.size() < 2)
+        {
+            for (Callable<T> task : tasks)
+            {
+                try
+                {
+                    result.add(task.call());
+                }
+                catch (Exception e)
+                {
+                    throw ExceptionUtils.throwAsRuntimeException(e);
+                }
+            }
+            return result;
+        }
+
+        int threads = Math.min(tasks.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(Runnable runnable)
+            {
+                Thread thread = new Thread(runnable, "deltaspike-jpa-descriptors");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        try
+        {
+            for (Future<T> future : executor.invokeAll(tasks))
+            {
+                result.add(future.get());
+            }
+            return result;
+        }
+        catch (ExecutionException e)
+        {
+            throw ExceptionUtils.throwAsRuntimeException(e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw ExceptionUtils.throwAsRuntimeException(e);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ParsedDescriptors cache()
+    {
+        ClassLoader classLoader = ClassUtils.getClassLoader(null);
+        synchronized (CACHE)
+        {
+            ParsedDescriptors result = CACHE.get(classLoader);
+            if (result == null)
+            {
+                result = new ParsedDescriptors();
+                CACHE.put(classLoader, result);
+            }
+            return result;
+        }
+    }
+
+    private static List<ParsedUnit> readUnits(URL url) throws IOException
+    {
+        InputStream stream = url.openStream();
+        try
+        {
+            XMLStreamReader reader = FACTORY.createXMLStreamReader(stream);
+            try
+            {
+                return readUnits(reader);
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        catch (XMLStreamException e)
+        {
+            throw new RuntimeException("Failed reading XML document " + url, e);
+        }
+        finally
+        {
+            stream.close();
+        }
+    }
+
+    private static List<ParsedUnit> readUnits(XMLStreamReader reader) throws XMLStreamException
+    {
+        List<ParsedUnit> result = new ArrayList<ParsedUnit>();
+
+        ParsedUnit unit = null;
+        // depth of the open elements within the current unit, the unit itself is 1
+        int depth = 0;
+        // depth of the first properties element of the current unit, 0 if not inside of it
+        int propertiesDepth = 0;
+
+        while (reader.hasNext())
+        {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT)
+            {
+                String name = reader.getLocalName();
+                if (unit == null)
+                {
+                    if ("persistence-unit".equals(name))
+                    {
+                        unit = new ParsedUnit(reader.getAttributeValue(null, "name"));
+                        depth = 1;
+                    }
+                    continue;
+                }
+
+                if ("mapping-file".equals(name))
+                {
+                    unit.mappingFiles.add(reader.getElementText());
+                    continue;
+                }
+
+                depth++;
+                if ("properties".equals(name) && !unit.propertiesFound)
+                {
+                    unit.propertiesFound = true;
+                    propertiesDepth = depth;
+                }
+                else if ("property".equals(name) && propertiesDepth > 0 && depth == propertiesDepth + 1)
+                {
+                    unit.properties.put(attribute(reader, "name"), attribute(reader, "value"));
+                }
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT && unit != null)
+            {
+                if (depth == propertiesDepth)
+                {
+                    propertiesDepth = 0;
+                }
+                depth--;
+                if (depth == 0)
+                {
+                    result.add(unit);
+                    unit = null;
+                }
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static ParsedMappings readMappings(URL url) throws IOException
+    {
+        InputStream stream = url.openStream();
+        try
+        {
+            XMLStreamReader reader = FACTORY.createXMLStreamReader(stream);
+            try
+            {
+                return readMappings(reader);
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        catch (XMLStreamException e)
+        {
+            throw new RuntimeException("Failed reading XML document " + url, e);
+        }
+        finally
+        {
+            stream.close();
+        }
+    }
+
+    private static ParsedMappings readMappings(XMLStreamReader reader) throws XMLStreamException
+    {
+        ParsedMappings result = new ParsedMappings();
+
+        ParsedEntity entity = null;
+        // depth of the open elements within the current entity, the entity itself is 1
+        int depth = 0;
+
+        while (reader.hasNext())
+        {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT)
+            {
+                String name = reader.getLocalName();
+                if ("package".equals(name))
+                {
+                    String packageName = reader.getElementText();
+                    if (!result.packageFound)
+                    {
+                        result.packageFound = true;
+                        result.packageName = packageName;
+                    }
+                    continue;
+                }
+
+                if (entity == null)
+                {
+                    if ("entity".equals(name) || "mapped-superclass".equals(name))
+                    {
+                        entity = new ParsedEntity("entity".equals(name),
+                                reader.getAttributeValue(null, "name"), reader.getAttributeValue(null, "class"));
+                        depth = 1;
+                    }
+                    continue;
+                }
+
+                depth++;
+                entity.add(name, reader);
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT && entity != null)
+            {
+                depth--;
+                if (depth == 0)
+                {
+                    if (entity.entity)
+                    {
+                        result.entities.add(entity);
+                    }
+                    else
+                    {
+                        result.mappedSuperclasses.add(entity);
+                    }
+                    entity = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String attribute(XMLStreamReader reader, String name)
+    {
+        // same as org.w3c.dom.Element#getAttribute
+        String value = reader.getAttributeValue(null, name);
+        return value == null ? "" : value;
+    }
+
+    private static XMLInputFactory createFactory()
+    {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        return factory;
+    }
+
+    private static class ParsedDescriptors
+    {
+        private final ConcurrentMap<String, List<ParsedUnit>> units =
+                new ConcurrentHashMap<String, List<ParsedUnit>>();
+        private final ConcurrentMap<String, ParsedMappings> mappings =
+                new ConcurrentHashMap<String, ParsedMappings>();
+    }
+
+    static class ParsedUnit
+    {
+        private final String name;
+        private final List<String> mappingFiles = new ArrayList<String>();
+        private final Map<String, String> properties = new HashMap<String, String>();
+        private boolean propertiesFound;
+
+        ParsedUnit(String name)
+        {
+            this.name = name;
+        }
+
+        String getName()
+        {
+            return name;
+        }
+
+        List<String> getMappingFiles()
+        {
+            return Collections.unmodifiableList(mappingFiles);
+        }
+
+        Map<String, String> getProperties()
+        {
+            return Collections.unmodifiableMap(properties);
+        }
+    }
+
+    static class ParsedMappings
+    {
+        private final List<ParsedEntity> entities = new ArrayList<ParsedEntity>();
+        private final List<ParsedEntity> mappedSuperclasses = new ArrayList<ParsedEntity>();
+        private String packageName;
+        private boolean packageFound;
+
+        String getPackageName()
+        {
+            return packageName;
+        }
+
+        List<ParsedEntity> getEntities()
+        {
+            return entities;
+        }
+
+        List<ParsedEntity> getMappedSuperclasses()
+        {
+            return mappedSuperclasses;
+        }
+    }
+
+    /**
+     * An entity or mapped superclass. Like the DOM based parser, the first matching element
+     * within the entity wins.
+     */
+    static class ParsedEntity
+    {
+        private final boolean entity;
+        private final String name;
+        private final String className;
+        private final List<String> ids = new ArrayList<String>();
+        private final Map<String, String> firstValues = new HashMap<String, String>();
+
+        ParsedEntity(boolean entity, String name, String className)
+        {
+            this.entity = entity;
+            this.name = name;
+            this.className = className;
+        }
+
+        private void add(String element, XMLStreamReader reader)
+        {
+            if ("id".equals(element))
+            {
+                ids.add(reader.getAttributeValue(null, "name"));
+            }
+            else if ("version".equals(element) || "embedded-id".equals(element) || "table".equals(element))
+            {
+                putFirst(element, reader.getAttributeValue(null, "name"));
+            }
+            else if ("id-class".equals(element))
+            {
+                putFirst(element, reader.getAttributeValue(null, "class"));
+            }
+        }
+
+        private void putFirst(String element, String value)
+        {
+            if (!firstValues.containsKey(element))
+            {
+                firstValues.put(element, value);
+            }
+        }
+
+        String getName()
+        {
+            return name;
+        }
+
+        String getClassName()
+        {
+            return className;
+        }
+
+        /**
+         * @return the names of the id elements, <code>null</code> if none of them has a name
+         */
+        String[] getId()
+        {
+            for (String id : ids)
+            {
+                if (id != null)
+                {
+                    return ids.toArray(new String[ids.size()]);
+                }
+            }
+            return null;
+        }
+
+        String getEmbeddedId()
+        {
+            return firstValues.get("embedded-id");
+        }
+
+        String getVersion()
+        {
+            return firstValues.get("version");
+        }
+
+        String getTableName()
+        {
+            return firstValues.get("table");
+        }
+
+        String getIdClassName()
+        {
+            return firstValues.get("id-class");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.spi.transaction;
+
+/**
+ * Gets notified about the timings of every transaction which got started by a
+ * {@link org.apache.deltaspike.jpa.api.transaction.Transactional} method.
+ *
+ * <p>Implementations are normal-scoped CDI beans, e.g. &#064;ApplicationScoped ones.
+ * They get invoked by the thread which completed the transaction and should return quickly.</p>
+ */
+public interface TransactionListener
+{
+    /**
+     * Gets called once per EntityManager after the outermost transactional method committed or
+     * rolled back its transaction.
+     *
+     * @param timings timings of the transaction of one EntityManager
+     */
+    void transactionCompleted(TransactionTimings timings);
+}
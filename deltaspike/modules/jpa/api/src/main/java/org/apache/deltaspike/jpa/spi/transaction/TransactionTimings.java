@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.spi.transaction;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+/**
+ * Timings of the transaction of one EntityManager, all durations are in nanoseconds.
+ */
+public interface TransactionTimings
+{
+    /**
+     * @return the outermost transactional method
+     */
+    Method getMethod();
+
+    /**
+     * @return the qualifier of the EntityManager
+     */
+    Class<? extends Annotation> getQualifier();
+
+    /**
+     * @return time spent in starting the transaction
+     */
+    long getBeginNanos();
+
+    /**
+     * @return time spent in the transactional method (the same for all EntityManagers of the transaction)
+     */
+    long getBusinessNanos();
+
+    /**
+     * @return time spent in flushing the EntityManager before the commit
+     */
+    long getFlushNanos();
+
+    /**
+     * @return time spent in committing, or in rolling back the transaction if it got rolled back
+     */
+    long getCommitNanos();
+
+    /**
+     * @return the sum of all timings
+     */
+    long getTotalNanos();
+
+    /**
+     * @return <code>true</code> if the transaction got rolled back
+     */
+    boolean isRolledBack();
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.impl.entitymanager;
+
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.spi.AfterDeploymentValidation;
+import jakarta.enterprise.inject.spi.BeanManager;
+import jakarta.enterprise.inject.spi.BeforeBeanDiscovery;
+import jakarta.enterprise.inject.spi.Extension;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.deltaspike.core.api.provider.BeanProvider;
+import org.apache.deltaspike.core.spi.activation.Deactivatable;
+import org.apache.deltaspike.core.util.ClassDeactivationUtils;
+import org.apache.deltaspike.jpa.api.config.base.JpaBaseConfig;
+
+/**
+ * Bootstraps the persistence units listed in {@code deltaspike.jpa.entity-manager-factory.eager-units}
+ * in parallel once the deployment is valid.
+ */
+public class EntityManagerFactoryBootstrapExtension implements Extension, Deactivatable
+{
+    private Boolean isActivated = true;
+
+    void beforeBeanDiscovery(@Observes BeforeBeanDiscovery before)
+    {
+        isActivated = ClassDeactivationUtils.isActivated(getClass());
+    }
+
+    void bootstrapEntityManagerFactories(@Observes AfterDeploymentValidation afterDeploymentValidation,
+                                         BeanManager beanManager)
+    {
+        if (!isActivated || !JpaBaseConfig.EntityManagerFactoryCustomization.SHARED)
+        {
+            return;
+        }
+
+        Set<String> unitNames = new LinkedHashSet<String>();
+        for (String unitName : JpaBaseConfig.EntityManagerFactoryCustomization.EAGER_UNITS.split(","))
+        {
+            if (!unitName.trim().isEmpty())
+            {
+                unitNames.add(unitName.trim());
+            }
+        }
+
+        if (unitNames.isEmpty())
+        {
+            return;
+        }
+
+        try
+        {
+            BeanProvider.getContextualReference(beanManager, EntityManagerFactoryRegistry.class, false)
+                    .bootstrap(unitNames);
+        }
+        catch (RuntimeException e)
+        {
+            afterDeploymentValidation.addDeploymentProblem(e);
+        }
+    }
+}
@@ -29,6 +29,7 @@ import jakarta.persistence.Persistence;
 import java.util.Properties;
 import java.util.logging.Logger;
 
+import org.apache.deltaspike.jpa.api.config.base.JpaBaseConfig;
 import org.apache.deltaspike.jpa.spi.entitymanager.PersistenceConfigurationProvider;
 import org.apache.deltaspike.jpa.api.entitymanager.PersistenceUnitName;
 
@@ -39,7 +40,9 @@ import org.apache.deltaspike.jpa.api.entitymanager.PersistenceUnitName;
  * to express the desired persistence unit name.</p>
  *
  * <p>The EntityManagerFactory for the given persistence unit will be produced
- * as &#064;Dependent scoped. It can be used to easily implement own
+ * as &#064;Dependent scoped. Unless {@code deltaspike.jpa.entity-manager-factory.shared} is disabled,
+ * all injection points share the EntityManagerFactory of a persistence unit, which
+ * gets closed on shutdown. It can be used to easily implement own
  * EntityManagerProviders as shown in the following example which provides
  * a producer according to the entitymanager-per-request design pattern:</p>
  * <pre>
@@ -70,6 +73,9 @@ public class EntityManagerFactoryProducer
     @Inject
     private PersistenceConfigurationProvider persistenceConfigurationProvider;
 
+    @Inject
+    private EntityManagerFactoryRegistry entityManagerFactoryRegistry;
+
 
     @Produces
     @Dependent
@@ -89,6 +95,11 @@ public class EntityManagerFactoryProducer
 
         Properties properties = persistenceConfigurationProvider.getEntityManagerFactoryConfiguration(unitName);
 
+        if (JpaBaseConfig.EntityManagerFactoryCustomization.SHARED)
+        {
+            return entityManagerFactoryRegistry.getEntityManagerFactory(unitName, properties);
+        }
+
         EntityManagerFactory emf = Persistence.createEntityManagerFactory(unitName, properties);
 
         return emf;
@@ -97,7 +108,8 @@ public class EntityManagerFactoryProducer
 
     public void disposeEntityManagerFactory(@Disposes @PersistenceUnitName("any") EntityManagerFactory emf)
     {
-        if (emf.isOpen())
+        // shared factories are closed by the registry on shutdown
+        if (emf.isOpen() && !entityManagerFactoryRegistry.contains(emf))
         {
             emf.close();
         }
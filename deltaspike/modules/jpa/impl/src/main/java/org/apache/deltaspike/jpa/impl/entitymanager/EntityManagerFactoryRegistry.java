@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.impl.entitymanager;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.deltaspike.core.util.ExceptionUtils;
+import org.apache.deltaspike.jpa.spi.entitymanager.PersistenceConfigurationProvider;
+
+/**
+ * Creates at most one {@link EntityManagerFactory} per persistence unit name and effective configuration.
+ * The factories are closed on shutdown.
+ */
+@ApplicationScoped
+public class EntityManagerFactoryRegistry
+{
+    private static final Logger LOG = Logger.getLogger(EntityManagerFactoryRegistry.class.getName());
+
+    private final ConcurrentMap<List<Object>, UnitEntry> entries = new ConcurrentHashMap<List<Object>, UnitEntry>();
+
+    private final Map<String, Long> bootstrapTimes = new ConcurrentHashMap<String, Long>();
+
+    @Inject
+    private PersistenceConfigurationProvider persistenceConfigurationProvider;
+
+    public EntityManagerFactory getEntityManagerFactory(String unitName)
+    {
+        return getEntityManagerFactory(unitName,
+                persistenceConfigurationProvider.getEntityManagerFactoryConfiguration(unitName));
+    }
+
+    public EntityManagerFactory getEntityManagerFactory(String unitName, Properties properties)
+    {
+        List<Object> key = Arrays.<Object>asList(unitName, new HashMap<Object, Object>(properties));
+        UnitEntry entry = entries.get(key);
+        if (entry == null)
+        {
+            entry = new UnitEntry(unitName, properties);
+            UnitEntry existing = entries.putIfAbsent(key, entry);
+            if (existing != null)
+            {
+                entry = existing;
+            }
+        }
+        return entry.get();
+    }
+
+    /**
+     * Creates the factories of the given persistence units in parallel and waits until all of them are available.
+     */
+    public void bootstrap(Collection<String> unitNames)
+    {
+        if (unitNames.isEmpty())
+        {
+            return;
+        }
+
+        int threads = Math.min(unitNames.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(Runnable runnable)
+            {
+                Thread thread = new Thread(runnable, "deltaspike-jpa-bootstrap");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        try
+        {
+            List<Future<EntityManagerFactory>> futures = new ArrayList<Future<EntityManagerFactory>>();
+            for (final String unitName : unitNames)
+            {
+                futures.add(executor.submit(new Callable<EntityManagerFactory>()
+                {
+                    @Override
+                    public EntityManagerFactory call()
+                    {
+                        return getEntityManagerFactory(unitName);
+                    }
+                }));
+            }
+
+            for (Future<EntityManagerFactory> future : futures)
+            {
+                future.get();
+            }
+        }
+        catch (ExecutionException e)
+        {
+            throw ExceptionUtils.throwAsRuntimeException(e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw ExceptionUtils.throwAsRuntimeException(e);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return true if the given factory is managed (and will be closed) by this registry
+     */
+    public boolean contains(EntityManagerFactory entityManagerFactory)
+    {
+        for (UnitEntry entry : entries.values())
+        {
+            if (entry.entityManagerFactory == entityManagerFactory)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the time it took to create the factory of a persistence unit in milliseconds, by unit name
+     */
+    public Map<String, Long> getBootstrapTimes()
+    {
+        return Collections.unmodifiableMap(bootstrapTimes);
+    }
+
+    @PreDestroy
+    protected void close()
+    {
+        for (UnitEntry entry : entries.values())
+        {
+            entry.close();
+        }
+        entries.clear();
+    }
+
+    private class UnitEntry
+    {
+        private final String unitName;
+        private final Properties properties;
+
+        private volatile EntityManagerFactory entityManagerFactory;
+
+        UnitEntry(String unitName, Properties properties)
+        {
+            this.unitName = unitName;
+            this.properties = properties;
+        }
+
+        EntityManagerFactory get()
+        {
+            EntityManagerFactory result = entityManagerFactory;
+            if (result != null && result.isOpen())
+            {
+                return result;
+            }
+
+            synchronized (this)
+            {
+                if (entityManagerFactory == null || !entityManagerFactory.isOpen())
+                {
+                    long start = System.nanoTime();
+                    entityManagerFactory = Persistence.createEntityManagerFactory(unitName, properties);
+                    long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+                    bootstrapTimes.put(unitName, duration);
+                    LOG.log(Level.INFO, "Created EntityManagerFactory for persistence unit {0} in {1} ms",
+                            new Object[] { unitName, duration });
+                }
+                return entityManagerFactory;
+            }
+        }
+
+        synchronized void close()
+        {
+            if (entityManagerFactory != null && entityManagerFactory.isOpen())
+            {
+                try
+                {
+                    entityManagerFactory.close();
+                }
+                catch (RuntimeException e)
+                {
+                    LOG.log(Level.WARNING, "Failed to close EntityManagerFactory of persistence unit " + unitName, e);
+                }
+            }
+        }
+    }
+}
@@ -31,9 +31,16 @@ public class EntityManagerRef
     private Class<? extends EntityManagerResolver> entityManagerResolverClass;
     private EntityManagerResolver entityManagerResolver;
     private DependentProvider<? extends EntityManagerResolver> entityManagerResolverDependentProvider;
-        
+
+    private boolean closeEntityManagerOnRelease;
+
     public void release()
     {
+        if (closeEntityManagerOnRelease && entityManager != null && entityManager.isOpen())
+        {
+            entityManager.close();
+        }
+
         if (entityManagerDependentProvider != null)
         {
             entityManagerDependentProvider.destroy();
@@ -96,4 +103,14 @@ public class EntityManagerRef
     {
         this.entityManagerDependentProvider = entityManagerDependentProvider;
     }
+
+    public boolean isCloseEntityManagerOnRelease()
+    {
+        return closeEntityManagerOnRelease;
+    }
+
+    public void setCloseEntityManagerOnRelease(boolean closeEntityManagerOnRelease)
+    {
+        this.closeEntityManagerOnRelease = closeEntityManagerOnRelease;
+    }
 }
@@ -25,11 +25,13 @@ import jakarta.enterprise.inject.spi.Bean;
 import jakarta.enterprise.inject.spi.BeanManager;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import org.apache.deltaspike.core.api.provider.BeanManagerProvider;
 
 import org.apache.deltaspike.core.api.provider.BeanProvider;
 import org.apache.deltaspike.jpa.api.entitymanager.EntityManagerResolver;
 import org.apache.deltaspike.jpa.spi.entitymanager.ActiveEntityManagerHolder;
+import org.apache.deltaspike.jpa.spi.entitymanager.QualifierBackedEntityManagerResolver;
 
 @ApplicationScoped
 public class EntityManagerRefLookup
@@ -40,7 +42,9 @@ public class EntityManagerRefLookup
     private volatile Boolean globalEntityManagerInitialized;
     private boolean globalEntityManagerIsNormalScope;
     private EntityManager globalEntityManager;
-    
+
+    private volatile EntityManagerResolver replicaEntityManagerResolver;
+
     private void lazyInitGlobalEntityManager()
     {
         if (this.globalEntityManagerInitialized == null)
@@ -76,6 +80,15 @@ public class EntityManagerRefLookup
     }
     
     public EntityManagerRef lookupReference(final EntityManagerMetadata entityManagerMetadata)
+    {
+        return lookupReference(entityManagerMetadata, false);
+    }
+
+    /**
+     * @param readOnly if <code>true</code> and no resolver or active EntityManager is given, the read replica
+     *                 gets used (see {@link ReadReplicaRouting}). Within a transaction its pinned decision wins.
+     */
+    public EntityManagerRef lookupReference(final EntityManagerMetadata entityManagerMetadata, boolean readOnly)
     {
         EntityManagerRef ref = new EntityManagerRef();
         EntityManagerResolver unmanagedResolver = entityManagerMetadata.getUnmanagedResolver();
@@ -115,6 +128,10 @@ public class EntityManagerRefLookup
                 // TODO should we really not apply the FlushMode on the active EntityManager?
                 return ref;
             }
+            else if (ReadReplicaRouting.routeToReplica(readOnly))
+            {
+                ref.setEntityManager(getReplicaEntityManagerResolver().resolveEntityManager());
+            }
             else
             {
                 lazyInitGlobalEntityManager();
@@ -139,4 +156,52 @@ public class EntityManagerRefLookup
 
         return ref;
     }
+
+    /**
+     * Creates a new {@link EntityManager} from the factory of the {@link EntityManager} which would be
+     * used by {@link #lookupReference(EntityManagerMetadata)}. It isn't bound to any context or
+     * transaction and can be used by another thread. It gets closed on {@link EntityManagerRef#release()}.
+     */
+    public EntityManagerRef lookupDedicatedReference(final EntityManagerMetadata entityManagerMetadata)
+    {
+        return lookupDedicatedReference(entityManagerMetadata, false);
+    }
+
+    public EntityManagerRef lookupDedicatedReference(final EntityManagerMetadata entityManagerMetadata,
+                                                     boolean readOnly)
+    {
+        EntityManagerFactory entityManagerFactory;
+        EntityManagerRef ref = lookupReference(entityManagerMetadata, readOnly);
+        try
+        {
+            entityManagerFactory = ref.getEntityManager().getEntityManagerFactory();
+        }
+        finally
+        {
+            ref.release();
+        }
+
+        EntityManagerRef dedicatedRef = new EntityManagerRef();
+        dedicatedRef.setEntityManager(entityManagerFactory.createEntityManager());
+        dedicatedRef.setCloseEntityManagerOnRelease(true);
+
+        if (entityManagerMetadata.getEntityManagerFlushMode() != null)
+        {
+            dedicatedRef.getEntityManager().setFlushMode(entityManagerMetadata.getEntityManagerFlushMode());
+        }
+        return dedicatedRef;
+    }
+
+    @SuppressWarnings("unchecked")
+    private EntityManagerResolver getReplicaEntityManagerResolver()
+    {
+        EntityManagerResolver result = replicaEntityManagerResolver;
+        if (result == null)
+        {
+            result = new QualifierBackedEntityManagerResolver(BeanManagerProvider.getInstance().getBeanManager(),
+                    ReadReplicaRouting.getReplicaQualifier());
+            replicaEntityManagerResolver = result;
+        }
+        return result;
+    }
 }
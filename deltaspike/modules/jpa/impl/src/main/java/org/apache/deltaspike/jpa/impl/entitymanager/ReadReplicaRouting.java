@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.impl.entitymanager;
+
+import java.lang.annotation.Annotation;
+
+import org.apache.deltaspike.core.util.ClassUtils;
+import org.apache.deltaspike.jpa.api.config.base.JpaBaseConfig;
+import org.apache.deltaspike.jpa.impl.transaction.context.TransactionBeanStorage;
+
+/**
+ * Routes read-only work to the EntityManager of the replica qualifier configured via
+ * {@link JpaBaseConfig.ReadOnlyTransaction#QUALIFIER}.
+ * Within a transaction the decision of the outermost transactional method is pinned in the
+ * {@link TransactionBeanStorage}, so reads and writes of one transaction always use the same EntityManager.
+ */
+public final class ReadReplicaRouting
+{
+    private static volatile Class<? extends Annotation> replicaQualifier;
+
+    private ReadReplicaRouting()
+    {
+    }
+
+    public static boolean isEnabled()
+    {
+        return !JpaBaseConfig.ReadOnlyTransaction.QUALIFIER.isEmpty();
+    }
+
+    /**
+     * @return the configured replica qualifier or <code>null</code> if routing isn't enabled
+     */
+    public static Class<? extends Annotation> getReplicaQualifier()
+    {
+        if (!isEnabled())
+        {
+            return null;
+        }
+
+        Class<? extends Annotation> result = replicaQualifier;
+        if (result == null)
+        {
+            result = ClassUtils.tryToLoadClassForName(JpaBaseConfig.ReadOnlyTransaction.QUALIFIER);
+            if (result == null)
+            {
+                throw new IllegalStateException("Read-only qualifier " + JpaBaseConfig.ReadOnlyTransaction.QUALIFIER +
+                        " couldn't be loaded");
+            }
+            replicaQualifier = result;
+        }
+        return result;
+    }
+
+    /**
+     * @param readOnly whether the caller only reads, only used if there is no active transaction scope
+     * @return <code>true</code> if the replica EntityManager should be used
+     */
+    public static boolean routeToReplica(boolean readOnly)
+    {
+        if (!isEnabled())
+        {
+            return false;
+        }
+
+        if (TransactionBeanStorage.isOpen() && !TransactionBeanStorage.getInstance().isEmpty())
+        {
+            return TransactionBeanStorage.getInstance().isReadOnly();
+        }
+        return readOnly;
+    }
+}
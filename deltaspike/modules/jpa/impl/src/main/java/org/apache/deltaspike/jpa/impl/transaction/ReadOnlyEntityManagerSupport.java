@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.impl.transaction;
+
+import java.lang.reflect.Method;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+
+/**
+ * Switches an {@link EntityManager} into a read-only mode for the duration of a read-only transaction
+ * and restores the previous settings afterwards.
+ * Besides {@link FlushModeType#COMMIT}, Hibernate sessions are switched to read-only entities via
+ * reflection, which skips the snapshots used for dirty checking.
+ */
+class ReadOnlyEntityManagerSupport
+{
+    private static final Logger LOGGER = Logger.getLogger(ReadOnlyEntityManagerSupport.class.getName());
+
+    private static final String HIBERNATE_SESSION = "org.hibernate.Session";
+
+    private final EntityManager entityManager;
+
+    private FlushModeType previousFlushMode;
+    private Object hibernateSession;
+    private Method setDefaultReadOnly;
+    private boolean previousDefaultReadOnly;
+
+    private ReadOnlyEntityManagerSupport(EntityManager entityManager)
+    {
+        this.entityManager = entityManager;
+    }
+
+    static ReadOnlyEntityManagerSupport enable(EntityManager entityManager)
+    {
+        ReadOnlyEntityManagerSupport support = new ReadOnlyEntityManagerSupport(entityManager);
+        support.previousFlushMode = entityManager.getFlushMode();
+        entityManager.setFlushMode(FlushModeType.COMMIT);
+        support.enableHibernateReadOnly();
+        return support;
+    }
+
+    void restore()
+    {
+        if (!entityManager.isOpen())
+        {
+            return;
+        }
+
+        if (previousFlushMode != null)
+        {
+            entityManager.setFlushMode(previousFlushMode);
+        }
+
+        if (hibernateSession != null)
+        {
+            try
+            {
+                setDefaultReadOnly.invoke(hibernateSession, previousDefaultReadOnly);
+            }
+            catch (Exception e)
+            {
+                LOGGER.log(Level.FINE, "Couldn't reset the read-only default of the Hibernate session", e);
+            }
+        }
+    }
+
+    private void enableHibernateReadOnly()
+    {
+        Class<?> sessionClass = loadHibernateSessionClass();
+        if (sessionClass == null || !sessionClass.isInstance(entityManager.getDelegate()))
+        {
+            return;
+        }
+
+        try
+        {
+            Object session = entityManager.unwrap(sessionClass);
+            Method isDefaultReadOnly = sessionClass.getMethod("isDefaultReadOnly");
+            Method setReadOnly = sessionClass.getMethod("setDefaultReadOnly", boolean.class);
+
+            previousDefaultReadOnly = (Boolean) isDefaultReadOnly.invoke(session);
+            setReadOnly.invoke(session, true);
+
+            hibernateSession = session;
+            setDefaultReadOnly = setReadOnly;
+        }
+        catch (Exception e)
+        {
+            LOGGER.log(Level.FINE, "Couldn't switch the Hibernate session to read-only", e);
+        }
+    }
+
+    private Class<?> loadHibernateSessionClass()
+    {
+        ClassLoader classLoader = entityManager.getDelegate().getClass().getClassLoader();
+        try
+        {
+            return Class.forName(HIBERNATE_SESSION, false, classLoader);
+        }
+        catch (ClassNotFoundException e)
+        {
+            return null;
+        }
+        catch (LinkageError e)
+        {
+            return null;
+        }
+    }
+}
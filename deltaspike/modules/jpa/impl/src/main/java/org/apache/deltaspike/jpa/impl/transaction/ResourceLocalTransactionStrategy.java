@@ -20,8 +20,11 @@ package org.apache.deltaspike.jpa.impl.transaction;
 
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -35,10 +38,13 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityTransaction;
 
 import org.apache.deltaspike.core.util.ProxyUtils;
+import org.apache.deltaspike.jpa.api.config.base.JpaBaseConfig;
 import org.apache.deltaspike.jpa.api.transaction.Transactional;
 import org.apache.deltaspike.jpa.impl.entitymanager.EntityManagerMetadata;
+import org.apache.deltaspike.jpa.impl.entitymanager.ReadReplicaRouting;
 import org.apache.deltaspike.jpa.impl.transaction.context.EntityManagerEntry;
 import org.apache.deltaspike.jpa.impl.transaction.context.TransactionBeanStorage;
+import org.apache.deltaspike.jpa.impl.transaction.context.TransactionTrace;
 import org.apache.deltaspike.jpa.spi.entitymanager.ActiveEntityManagerHolder;
 import org.apache.deltaspike.jpa.spi.entitymanager.QualifierBackedEntityManagerResolver;
 import org.apache.deltaspike.jpa.spi.transaction.TransactionStrategy;
@@ -76,29 +82,97 @@ public class ResourceLocalTransactionStrategy implements TransactionStrategy
     @Inject
     private ActiveEntityManagerHolder emHolder;
 
+    @Inject
+    private TransactionRetryStatistics retryStatistics;
+
+    @Inject
+    private TransactionStatistics transactionStatistics;
+
     @Override
     public Object execute(InvocationContext invocationContext) throws Exception
+    {
+        Transactional transactionalAnnotation = transactionHelper.extractTransactionalAnnotation(invocationContext);
+
+        // retries are only handled by the outermost interceptor
+        if (transactionalAnnotation == null || transactionalAnnotation.maxRetries() <= 0 ||
+                !TransactionBeanStorage.getInstance().isEmpty())
+        {
+            return executeInTransaction(invocationContext);
+        }
+        return executeWithRetries(invocationContext, transactionalAnnotation);
+    }
+
+    /**
+     * Invokes the method again (with a new transaction) as long as it fails with one of the exceptions
+     * listed in {@link Transactional#retryOn()} and {@link Transactional#maxRetries()} isn't reached.
+     */
+    protected Object executeWithRetries(InvocationContext invocationContext, Transactional transactionalAnnotation)
+        throws Exception
+    {
+        Method method = invocationContext.getMethod();
+        long backoff = transactionalAnnotation.backoff();
+
+        for (int attempt = 0; ; attempt++)
+        {
+            TransactionBeanStorage.getInstance().setAttempt(attempt);
+            try
+            {
+                Object result = executeInTransaction(invocationContext);
+                retryStatistics.succeeded(method, attempt);
+                return result;
+            }
+            catch (Exception e)
+            {
+                if (!isRetryable(e, transactionalAnnotation.retryOn()))
+                {
+                    throw e;
+                }
+                if (attempt >= transactionalAnnotation.maxRetries())
+                {
+                    retryStatistics.exhausted(method);
+                    throw e;
+                }
+
+                retryStatistics.retried(method);
+                if (LOGGER.isLoggable(Level.FINE))
+                {
+                    LOGGER.fine("Retrying " + method + " after " + e);
+                }
+
+                if (!sleep(backoff))
+                {
+                    throw e;
+                }
+                backoff *= 2;
+            }
+        }
+    }
+
+    protected Object executeInTransaction(InvocationContext invocationContext) throws Exception
     {
         EntityManagerMetadata metadata = transactionHelper.createEntityManagerMetadata(invocationContext);
         Transactional transactionalAnnotation = transactionHelper.extractTransactionalAnnotation(invocationContext);
 
         Class targetClass = ProxyUtils.getUnproxiedClass(invocationContext.getTarget().getClass()); //see DELTASPIKE-517
 
-        // all the configured qualifier keys
-        Set<Class<? extends Annotation>> emQualifiers = emHolder.isSet() ?
-                new HashSet<Class<? extends Annotation>>(Arrays.asList(Default.class)) :
-                transactionHelper.resolveEntityManagerQualifiers(metadata, targetClass);
-
         TransactionBeanStorage transactionBeanStorage = TransactionBeanStorage.getInstance();
 
         boolean isOutermostInterceptor = transactionBeanStorage.isEmpty();
         boolean startedTransaction = false;
 
+        boolean readOnly = isOutermostInterceptor ? metadata.isReadOnly() : transactionBeanStorage.isReadOnly();
+        List<ReadOnlyEntityManagerSupport> readOnlyEntityManagers = null;
+        // all the configured qualifier keys
+        Set<Class<? extends Annotation>> emQualifiers = resolveEntityManagerQualifiers(metadata, targetClass, readOnly);
+
         if (isOutermostInterceptor)
         {
             // a new Context needs to get started
             transactionBeanStorage.startTransactionScope();
+            transactionBeanStorage.setReadOnly(readOnly);
+            transactionBeanStorage.setTrace(transactionStatistics.startTrace(invocationContext.getMethod()));
         }
+        TransactionTrace trace = transactionBeanStorage.getTrace();
 
         // the 'layer' of the transactional invocation, aka the refCounter
         @SuppressWarnings("UnusedDeclaration")
@@ -119,14 +193,19 @@ public class ResourceLocalTransactionStrategy implements TransactionStrategy
                 if (!transaction.isActive())
                 {
                     beforeBegin(invocationContext, entityManagerEntry, transaction);
+                    long beginStarted = trace.now();
                     transaction.begin();
+                    trace.begun(emQualifier, beginStarted);
                     startedTransaction = true;
+                    readOnlyEntityManagers = prepareEntityManager(readOnlyEntityManagers, entityManager,
+                            transactionBeanStorage.isRetry(), isOutermostInterceptor && readOnly);
                 }
 
                 //don't move it before EntityTransaction#begin() and invoke it in any case
                 beforeProceed(invocationContext, entityManagerEntry, transaction);
             }
 
+            trace.proceeding();
             return invocationContext.proceed();
         }
         catch (Exception e)
@@ -164,8 +243,7 @@ public class ResourceLocalTransactionStrategy implements TransactionStrategy
         finally
         {
             // will get set if we got an Exception while committing
-            // in this case, we rollback all later transactions too.
-            boolean commitFailed = false;
+            Exception commitException = null;
 
             // commit all open transactions in the outermost interceptor!
             // For Resource-local this is a 'JTA for poor men' only, and will not guaranty
@@ -173,105 +251,129 @@ public class ResourceLocalTransactionStrategy implements TransactionStrategy
             // In case of JTA we will just commit the UserTransaction.
             if (isOutermostInterceptor)
             {
-                if (startedTransaction)
+                // We only commit transactions we opened ourselfs.
+                // If the transaction got opened outside of our interceptor chain
+                // we must not handle it.
+                // This e.g. happens if a Stateless EJB invokes a Transactional CDI bean
+                // which uses the BeanManagedUserTransactionStrategy.
+                // Only commit all transactions if we didn't rollback them already.
+                if (startedTransaction && firstException == null)
                 {
-                    // We only commit transactions we opened ourselfs.
-                    // If the transaction got opened outside of our interceptor chain
-                    // we must not handle it.
-                    // This e.g. happens if a Stateless EJB invokes a Transactional CDI bean
-                    // which uses the BeanManagedUserTransactionStrategy.
+                    commitException = commitOrRollbackAllTransactions(invocationContext,
+                            metadata.isReadOnly() || isRollbackOnly(transactionalAnnotation));
+                }
+                restoreReadOnly(readOnlyEntityManagers);
+                transactionStatistics.record(trace);
 
-                    if (firstException == null)
-                    {
-                        // only commit all transactions if we didn't rollback
-                        // them already
-                        Set<EntityManagerEntry> entityManagerEntryList =
-                            transactionBeanStorage.getUsedEntityManagerEntries();
+                // and now we close the open transaction scope
+                transactionBeanStorage.endTransactionScope();
+                onCloseTransactionScope();
+            }
 
-                        boolean rollbackOnly = metadata.isReadOnly() || isRollbackOnly(transactionalAnnotation);
+            transactionBeanStorage.decrementRefCounter();
 
-                        if (!rollbackOnly && entityManagerEntryList.size() > 1)
-                        {
-                            // but first try to flush all the transactions and write the updates to the database
-                            for (EntityManagerEntry currentEntityManagerEntry : entityManagerEntryList)
-                            {
-                                EntityTransaction transaction = getTransaction(currentEntityManagerEntry);
-                                if (transaction != null && transaction.isActive())
-                                {
-                                    try
-                                    {
-                                        if (!commitFailed)
-                                        {
-                                            currentEntityManagerEntry.getEntityManager().flush();
-
-                                            if (!rollbackOnly && transaction.getRollbackOnly())
-                                            {
-                                                // don't set commitFailed to true directly
-                                                // (the order of the entity-managers isn't deterministic
-                                                //  -> tests would break)
-                                                rollbackOnly = true;
-                                            }
-                                        }
-                                    }
-                                    catch (Exception e)
-                                    {
-                                        firstException = e;
-                                        commitFailed = true;
-                                        break;
-                                    }
-                                }
-                            }
-                        }
-                        if (rollbackOnly)
-                        {
-                            commitFailed = true;
-                        }
+            if (commitException != null)
+            {
+                throwException(commitException);
+            }
+        }
+    }
 
-                        // and now either commit or rollback all transactions
-                        for (EntityManagerEntry currentEntityManagerEntry : entityManagerEntryList)
+    /**
+     * Flushes all EntityManagers and commits their transactions. If flushing or committing fails,
+     * then all later transactions get rolled back.
+     *
+     * @return the exception of the failed flush or commit, <code>null</code> if it's just rollback-only
+     */
+    private Exception commitOrRollbackAllTransactions(InvocationContext invocationContext, boolean rollbackOnly)
+    {
+        TransactionTrace trace = TransactionBeanStorage.getInstance().getTrace();
+        trace.completing();
+
+        Set<EntityManagerEntry> entityManagerEntryList =
+            TransactionBeanStorage.getInstance().getUsedEntityManagerEntries();
+
+        Exception firstException = null;
+        // will get set if we got an Exception while committing
+        // in this case, we rollback all later transactions too.
+        boolean commitFailed = false;
+
+        // a traced transaction gets flushed explicitly to separate the flush from the commit time
+        if (!rollbackOnly && (entityManagerEntryList.size() > 1 || trace.isEnabled()))
+        {
+            // but first try to flush all the transactions and write the updates to the database
+            for (EntityManagerEntry currentEntityManagerEntry : entityManagerEntryList)
+            {
+                EntityTransaction transaction = getTransaction(currentEntityManagerEntry);
+                if (transaction != null && transaction.isActive())
+                {
+                    try
+                    {
+                        if (!commitFailed)
                         {
-                            EntityTransaction transaction = getTransaction(currentEntityManagerEntry);
-                            if (transaction != null && transaction.isActive())
+                            long flushStarted = trace.now();
+                            currentEntityManagerEntry.getEntityManager().flush();
+                            trace.flushed(currentEntityManagerEntry.getQualifier(), flushStarted);
+
+                            if (!rollbackOnly && transaction.getRollbackOnly())
                             {
-                                try
-                                {
-                                    // last chance to check it (again)
-                                    if (commitFailed || transaction.getRollbackOnly())
-                                    {
-                                        beforeRollback(invocationContext, currentEntityManagerEntry, transaction);
-                                        transaction.rollback();
-                                    }
-                                    else
-                                    {
-                                        beforeCommit(invocationContext, currentEntityManagerEntry, transaction);
-                                        transaction.commit();
-                                    }
-                                }
-                                catch (Exception e)
-                                {
-                                    firstException = e;
-                                    commitFailed = true;
-                                }
-                                finally
-                                {
-                                    afterProceed(invocationContext,currentEntityManagerEntry, firstException);
-                                }
+                                // don't set commitFailed to true directly
+                                // (the order of the entity-managers isn't deterministic
+                                //  -> tests would break)
+                                rollbackOnly = true;
                             }
                         }
                     }
+                    catch (Exception e)
+                    {
+                        firstException = e;
+                        commitFailed = true;
+                        break;
+                    }
                 }
-                // and now we close the open transaction scope
-                transactionBeanStorage.endTransactionScope();
-                onCloseTransactionScope();
             }
+        }
+        if (rollbackOnly)
+        {
+            commitFailed = true;
+        }
 
-            transactionBeanStorage.decrementRefCounter();
-
-            if (commitFailed && firstException != null /*null if just #getRollbackOnly is true*/)
+        // and now either commit or rollback all transactions
+        for (EntityManagerEntry currentEntityManagerEntry : entityManagerEntryList)
+        {
+            EntityTransaction transaction = getTransaction(currentEntityManagerEntry);
+            if (transaction != null && transaction.isActive())
             {
-                throwException(firstException);
+                long completionStarted = trace.now();
+                boolean rolledBack = true;
+                try
+                {
+                    // last chance to check it (again)
+                    if (commitFailed || transaction.getRollbackOnly())
+                    {
+                        beforeRollback(invocationContext, currentEntityManagerEntry, transaction);
+                        transaction.rollback();
+                    }
+                    else
+                    {
+                        beforeCommit(invocationContext, currentEntityManagerEntry, transaction);
+                        transaction.commit();
+                        rolledBack = false;
+                    }
+                }
+                catch (Exception e)
+                {
+                    firstException = e;
+                    commitFailed = true;
+                }
+                finally
+                {
+                    trace.completed(currentEntityManagerEntry.getQualifier(), completionStarted, rolledBack);
+                    afterProceed(invocationContext, currentEntityManagerEntry, firstException);
+                }
             }
         }
+        return commitFailed ? firstException : null;
     }
 
     protected void beforeBegin(InvocationContext invocationContext,
@@ -329,14 +431,19 @@ public class ResourceLocalTransactionStrategy implements TransactionStrategy
 
     private void rollbackAllTransactions(Set<EntityManagerEntry> entityManagerEntryList)
     {
+        TransactionTrace trace = TransactionBeanStorage.getInstance().getTrace();
+        trace.completing();
+
         for (EntityManagerEntry currentEntityManagerEntry : entityManagerEntryList)
         {
             EntityTransaction transaction = getTransaction(currentEntityManagerEntry);
             if (transaction != null && transaction.isActive())
             {
+                long completionStarted = trace.now();
                 try
                 {
                     transaction.rollback();
+                    trace.completed(currentEntityManagerEntry.getQualifier(), completionStarted, true);
                 }
                 catch (Exception eRollback)
                 {
@@ -368,6 +475,127 @@ public class ResourceLocalTransactionStrategy implements TransactionStrategy
         return entityManagerEntry.getEntityManager().getTransaction();
     }
 
+    private Set<Class<? extends Annotation>> resolveEntityManagerQualifiers(EntityManagerMetadata metadata,
+                                                                            Class targetClass,
+                                                                            boolean readOnly)
+    {
+        if (emHolder.isSet())
+        {
+            return new HashSet<Class<? extends Annotation>>(Arrays.asList(Default.class));
+        }
+
+        Set<Class<? extends Annotation>> emQualifiers =
+                transactionHelper.resolveEntityManagerQualifiers(metadata, targetClass);
+        return readOnly ? routeToReadOnlyQualifier(emQualifiers) : emQualifiers;
+    }
+
+    /**
+     * Clears the EntityManager for a retry and enables the read-only settings for a read-only transaction.
+     */
+    private List<ReadOnlyEntityManagerSupport> prepareEntityManager(
+            List<ReadOnlyEntityManagerSupport> readOnlyEntityManagers,
+            EntityManager entityManager,
+            boolean retry,
+            boolean readOnly)
+    {
+        if (retry)
+        {
+            // entities of the failed attempt must not be reused
+            entityManager.clear();
+        }
+
+        if (!readOnly || !JpaBaseConfig.ReadOnlyTransaction.OPTIMIZE)
+        {
+            return readOnlyEntityManagers;
+        }
+
+        List<ReadOnlyEntityManagerSupport> result = readOnlyEntityManagers;
+        if (result == null)
+        {
+            result = new ArrayList<ReadOnlyEntityManagerSupport>();
+        }
+        result.add(ReadOnlyEntityManagerSupport.enable(entityManager));
+        return result;
+    }
+
+    private void restoreReadOnly(List<ReadOnlyEntityManagerSupport> readOnlyEntityManagers)
+    {
+        if (readOnlyEntityManagers == null)
+        {
+            return;
+        }
+
+        for (ReadOnlyEntityManagerSupport readOnlyEntityManager : readOnlyEntityManagers)
+        {
+            readOnlyEntityManager.restore();
+        }
+    }
+
+    private boolean isRetryable(Exception exception, Class<? extends Throwable>[] retryOn)
+    {
+        Throwable current = exception;
+        while (current != null)
+        {
+            for (Class<? extends Throwable> retryableType : retryOn)
+            {
+                if (retryableType.isInstance(current))
+                {
+                    return true;
+                }
+            }
+            current = current.getCause() == current ? null : current.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * @return <code>false</code> if the thread got interrupted
+     */
+    private boolean sleep(long millis)
+    {
+        if (millis <= 0)
+        {
+            return true;
+        }
+
+        try
+        {
+            Thread.sleep(millis);
+            return true;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Adds the qualifier configured via {@link JpaBaseConfig.ReadOnlyTransaction#QUALIFIER}, if any, to the
+     * {@link Default} one. The transaction gets started for both EntityManagers, so beans which inject the
+     * default EntityManager directly don't run without a transaction.
+     */
+    protected Set<Class<? extends Annotation>> routeToReadOnlyQualifier(Set<Class<? extends Annotation>> emQualifiers)
+    {
+        Class<? extends Annotation> readOnlyQualifier = getReadOnlyQualifier();
+        if (readOnlyQualifier == null || !emQualifiers.contains(Default.class))
+        {
+            return emQualifiers;
+        }
+
+        Set<Class<? extends Annotation>> result = new HashSet<Class<? extends Annotation>>(emQualifiers);
+        result.add(readOnlyQualifier);
+        return result;
+    }
+
+    /**
+     * @return the qualifier of the EntityManager for read-only work or <code>null</code> if there is none
+     */
+    protected Class<? extends Annotation> getReadOnlyQualifier()
+    {
+        return ReadReplicaRouting.getReplicaQualifier();
+    }
+
     private EntityManager resolveEntityManagerForQualifier(Class<? extends Annotation> emQualifier)
     {
         if (emHolder.isSet())
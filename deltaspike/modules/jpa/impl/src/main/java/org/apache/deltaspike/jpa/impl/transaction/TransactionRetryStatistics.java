@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.impl.transaction;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Retry counters per {@link org.apache.deltaspike.jpa.api.transaction.Transactional} method
+ * which declares {@link org.apache.deltaspike.jpa.api.transaction.Transactional#maxRetries()}.
+ */
+@ApplicationScoped
+public class TransactionRetryStatistics
+{
+    private final ConcurrentMap<String, MethodStatistics> statistics =
+            new ConcurrentHashMap<String, MethodStatistics>();
+
+    /**
+     * @return the statistics keyed by <code>declaring class#method name</code>
+     */
+    public Map<String, MethodStatistics> getStatistics()
+    {
+        return Collections.unmodifiableMap(new TreeMap<String, MethodStatistics>(statistics));
+    }
+
+    public void reset()
+    {
+        statistics.clear();
+    }
+
+    void retried(Method method)
+    {
+        getOrCreate(method).retries.incrementAndGet();
+    }
+
+    void succeeded(Method method, int attempt)
+    {
+        if (attempt > 0)
+        {
+            getOrCreate(method).recoveredInvocations.incrementAndGet();
+        }
+    }
+
+    void exhausted(Method method)
+    {
+        getOrCreate(method).exhaustedInvocations.incrementAndGet();
+    }
+
+    private MethodStatistics getOrCreate(Method method)
+    {
+        String key = method.getDeclaringClass().getName() + "#" + method.getName();
+        MethodStatistics result = statistics.get(key);
+        if (result == null)
+        {
+            result = new MethodStatistics();
+            MethodStatistics existing = statistics.putIfAbsent(key, result);
+            if (existing != null)
+            {
+                result = existing;
+            }
+        }
+        return result;
+    }
+
+    public static class MethodStatistics
+    {
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicLong recoveredInvocations = new AtomicLong();
+        private final AtomicLong exhaustedInvocations = new AtomicLong();
+
+        /**
+         * @return number of attempts which got started again
+         */
+        public long getRetries()
+        {
+            return retries.get();
+        }
+
+        /**
+         * @return number of invocations which succeeded after at least one retry
+         */
+        public long getRecoveredInvocations()
+        {
+            return recoveredInvocations.get();
+        }
+
+        /**
+         * @return number of invocations which failed with a retryable exception after the last retry
+         */
+        public long getExhaustedInvocations()
+        {
+            return exhaustedInvocations.get();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "retries=" + getRetries() + ", recovered=" + getRecoveredInvocations() +
+                    ", exhausted=" + getExhaustedInvocations();
+        }
+    }
+}
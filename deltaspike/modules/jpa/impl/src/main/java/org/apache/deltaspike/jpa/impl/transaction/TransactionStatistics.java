@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.impl.transaction;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.apache.deltaspike.core.api.jmx.JmxManaged;
+import org.apache.deltaspike.core.api.jmx.MBean;
+import org.apache.deltaspike.core.api.jmx.Table;
+import org.apache.deltaspike.core.api.provider.BeanProvider;
+import org.apache.deltaspike.jpa.api.config.base.JpaBaseConfig;
+import org.apache.deltaspike.jpa.impl.transaction.context.TransactionTrace;
+import org.apache.deltaspike.jpa.spi.transaction.TransactionListener;
+import org.apache.deltaspike.jpa.spi.transaction.TransactionTimings;
+
+/**
+ * Timings and rollback counters per {@link org.apache.deltaspike.jpa.api.transaction.Transactional} method
+ * and EntityManager qualifier. Only collected if {@link JpaBaseConfig.TransactionMetrics#ENABLED} is set,
+ * a slow-transaction threshold is configured or a {@link TransactionListener} exists.
+ */
+@ApplicationScoped
+@MBean(name = "TransactionStatistics", description = "Timings of @Transactional methods")
+public class TransactionStatistics
+{
+    private static final Logger LOGGER = Logger.getLogger(TransactionStatistics.class.getName());
+
+    @JmxManaged(description = "timings per transactional method and EntityManager qualifier")
+    private Table transactions;
+
+    private final ConcurrentMap<String, MethodStatistics> statistics =
+            new ConcurrentHashMap<String, MethodStatistics>();
+
+    private List<TransactionListener> listeners;
+    private long slowThresholdNanos;
+    private boolean enabled;
+
+    @PostConstruct
+    protected void init()
+    {
+        listeners = BeanProvider.getContextualReferences(TransactionListener.class, true, false);
+        slowThresholdNanos =
+                TimeUnit.MILLISECONDS.toNanos(JpaBaseConfig.TransactionMetrics.SLOW_THRESHOLD_IN_MILLISECONDS);
+        enabled = JpaBaseConfig.TransactionMetrics.ENABLED || slowThresholdNanos > 0 || !listeners.isEmpty();
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * @return a new trace for the given outermost method or {@link TransactionTrace#DISABLED}
+     */
+    public TransactionTrace startTrace(Method method)
+    {
+        return enabled ? new TransactionTrace(method) : TransactionTrace.DISABLED;
+    }
+
+    /**
+     * Aggregates the timings of the completed transaction, logs it if it was slow and notifies the listeners.
+     */
+    public void record(TransactionTrace trace)
+    {
+        if (!trace.isEnabled())
+        {
+            return;
+        }
+
+        List<TransactionTimings> timings = trace.getTimings();
+        if (timings.isEmpty())
+        {
+            return; // the transaction wasn't started by us
+        }
+
+        boolean slow = slowThresholdNanos > 0 && trace.getElapsedNanos() >= slowThresholdNanos;
+        if (slow && LOGGER.isLoggable(Level.WARNING))
+        {
+            LOGGER.warning("Slow transaction " + trace.getMethod() + " took " +
+                    TimeUnit.NANOSECONDS.toMillis(trace.getElapsedNanos()) + "ms " + timings);
+        }
+
+        for (TransactionTimings entityManagerTimings : timings)
+        {
+            getOrCreate(entityManagerTimings.getMethod(), entityManagerTimings.getQualifier())
+                    .add(entityManagerTimings, slow);
+
+            for (TransactionListener listener : listeners)
+            {
+                try
+                {
+                    listener.transactionCompleted(entityManagerTimings);
+                }
+                catch (RuntimeException e)
+                {
+                    LOGGER.log(Level.WARNING, "TransactionListener " + listener + " failed", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the statistics keyed by <code>declaring class#method name [qualifier]</code>
+     */
+    public Map<String, MethodStatistics> getStatistics()
+    {
+        return Collections.unmodifiableMap(new TreeMap<String, MethodStatistics>(statistics));
+    }
+
+    public Table getTransactions()
+    {
+        Table result = new Table().withColumns("method", "transactions", "rollbacks", "rollback rate", "slow",
+                "avg begin ms", "avg business ms", "avg flush ms", "avg commit ms", "max total ms");
+        for (Map.Entry<String, MethodStatistics> entry : getStatistics().entrySet())
+        {
+            MethodStatistics methodStatistics = entry.getValue();
+            result.withLine(entry.getKey(),
+                    String.valueOf(methodStatistics.getTransactions()),
+                    String.valueOf(methodStatistics.getRollbacks()),
+                    String.format("%.2f", methodStatistics.getRollbackRate()),
+                    String.valueOf(methodStatistics.getSlowTransactions()),
+                    toMillis(methodStatistics.getAverageBeginNanos()),
+                    toMillis(methodStatistics.getAverageBusinessNanos()),
+                    toMillis(methodStatistics.getAverageFlushNanos()),
+                    toMillis(methodStatistics.getAverageCommitNanos()),
+                    toMillis(methodStatistics.getMaxTotalNanos()));
+        }
+        return result;
+    }
+
+    @JmxManaged(description = "resets the statistics")
+    public void reset()
+    {
+        statistics.clear();
+    }
+
+    private MethodStatistics getOrCreate(Method method, Class<? extends Annotation> qualifier)
+    {
+        String key = method.getDeclaringClass().getName() + "#" + method.getName() +
+                " [" + qualifier.getSimpleName() + "]";
+        MethodStatistics result = statistics.get(key);
+        if (result == null)
+        {
+            result = new MethodStatistics();
+            MethodStatistics existing = statistics.putIfAbsent(key, result);
+            if (existing != null)
+            {
+                result = existing;
+            }
+        }
+        return result;
+    }
+
+    private static String toMillis(long nanos)
+    {
+        return String.format("%.3f", nanos / 1000000d);
+    }
+
+    public static class MethodStatistics
+    {
+        private final AtomicLong transactions = new AtomicLong();
+        private final AtomicLong rollbacks = new AtomicLong();
+        private final AtomicLong slowTransactions = new AtomicLong();
+        private final AtomicLong beginNanos = new AtomicLong();
+        private final AtomicLong businessNanos = new AtomicLong();
+        private final AtomicLong flushNanos = new AtomicLong();
+        private final AtomicLong commitNanos = new AtomicLong();
+        private final AtomicLong maxTotalNanos = new AtomicLong();
+
+        void add(TransactionTimings timings, boolean slow)
+        {
+            transactions.incrementAndGet();
+            if (timings.isRolledBack())
+            {
+                rollbacks.incrementAndGet();
+            }
+            if (slow)
+            {
+                slowTransactions.incrementAndGet();
+            }
+            beginNanos.addAndGet(timings.getBeginNanos());
+            businessNanos.addAndGet(timings.getBusinessNanos());
+            flushNanos.addAndGet(timings.getFlushNanos());
+            commitNanos.addAndGet(timings.getCommitNanos());
+
+            long total = timings.getTotalNanos();
+            long max = maxTotalNanos.get();
+            while (total > max && !maxTotalNanos.compareAndSet(max, total))
+            {
+                max = maxTotalNanos.get();
+            }
+        }
+
+        public long getTransactions()
+        {
+            return transactions.get();
+        }
+
+        public long getRollbacks()
+        {
+            return rollbacks.get();
+        }
+
+        /**
+         * @return rollbacks / transactions
+         */
+        public double getRollbackRate()
+        {
+            long count = getTransactions();
+            return count == 0 ? 0 : (double) getRollbacks() / count;
+        }
+
+        /**
+         * @return number of transactions which exceeded the slow-transaction threshold
+         */
+        public long getSlowTransactions()
+        {
+            return slowTransactions.get();
+        }
+
+        public long getAverageBeginNanos()
+        {
+            return average(beginNanos);
+        }
+
+        public long getAverageBusinessNanos()
+        {
+            return average(businessNanos);
+        }
+
+        public long getAverageFlushNanos()
+        {
+            return average(flushNanos);
+        }
+
+        public long getAverageCommitNanos()
+        {
+            return average(commitNanos);
+        }
+
+        public long getMaxTotalNanos()
+        {
+            return maxTotalNanos.get();
+        }
+
+        private long average(AtomicLong sum)
+        {
+            long count = getTransactions();
+            return count == 0 ? 0 : sum.get() / count;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "transactions=" + getTransactions() + ", rollbacks=" + getRollbacks() +
+                    ", slow=" + getSlowTransactions();
+        }
+    }
+}
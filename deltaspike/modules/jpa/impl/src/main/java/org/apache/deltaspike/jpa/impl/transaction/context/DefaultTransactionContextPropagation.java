@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.impl.transaction.context;
+
+import java.util.concurrent.Executor;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+import org.apache.deltaspike.jpa.api.transaction.TransactionContextPropagation;
+import org.apache.deltaspike.jpa.api.transaction.TransactionContextSnapshot;
+import org.apache.deltaspike.jpa.spi.entitymanager.ActiveEntityManagerHolder;
+
+@ApplicationScoped
+public class DefaultTransactionContextPropagation implements TransactionContextPropagation
+{
+    @Inject
+    private ActiveEntityManagerHolder activeEntityManagerHolder;
+
+    @Override
+    public TransactionContextSnapshot capture(Mode mode)
+    {
+        if (mode == Mode.ISOLATE)
+        {
+            return new DefaultTransactionContextSnapshot(null, null, activeEntityManagerHolder, false);
+        }
+
+        // joined right away, a later transaction of this thread mustn't leak into the snapshot
+        TransactionBeanStorage currentStorage = TransactionBeanStorage.current();
+        TransactionBeanStorage joinedStorage = currentStorage == null ? null : currentStorage.join();
+        EntityManager activeEntityManager = activeEntityManagerHolder.isSet() ? activeEntityManagerHolder.get() : null;
+
+        return new DefaultTransactionContextSnapshot(joinedStorage, activeEntityManager,
+                activeEntityManagerHolder, false);
+    }
+
+    @Override
+    public Executor wrap(final Executor executor, final Mode mode)
+    {
+        return new Executor()
+        {
+            @Override
+            public void execute(Runnable command)
+            {
+                executor.execute(capture(mode).wrap(command));
+            }
+        };
+    }
+}
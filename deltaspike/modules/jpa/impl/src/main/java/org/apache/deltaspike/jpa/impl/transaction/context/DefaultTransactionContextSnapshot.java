@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.impl.transaction.context;
+
+import java.util.concurrent.Callable;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.deltaspike.jpa.api.transaction.TransactionContextSnapshot;
+import org.apache.deltaspike.jpa.spi.entitymanager.ActiveEntityManagerHolder;
+
+/**
+ * Snapshot of the {@link TransactionBeanStorage} and the active {@link EntityManager} of a thread.
+ */
+class DefaultTransactionContextSnapshot implements TransactionContextSnapshot
+{
+    private final TransactionBeanStorage transactionBeanStorage;
+    private final EntityManager activeEntityManager;
+    private final ActiveEntityManagerHolder activeEntityManagerHolder;
+
+    /**
+     * <code>false</code> for captured snapshots, every restore joins the captured scope with a new storage.
+     * <code>true</code> for the previous state returned by {@link #restore()}, which binds the storage itself
+     * and releases the storage it replaces.
+     */
+    private final boolean previousState;
+
+    DefaultTransactionContextSnapshot(TransactionBeanStorage transactionBeanStorage,
+                                      EntityManager activeEntityManager,
+                                      ActiveEntityManagerHolder activeEntityManagerHolder,
+                                      boolean previousState)
+    {
+        this.transactionBeanStorage = transactionBeanStorage;
+        this.activeEntityManager = activeEntityManager;
+        this.activeEntityManagerHolder = activeEntityManagerHolder;
+        this.previousState = previousState;
+    }
+
+    @Override
+    public TransactionContextSnapshot restore()
+    {
+        TransactionBeanStorage currentStorage = TransactionBeanStorage.current();
+        EntityManager currentEntityManager =
+                activeEntityManagerHolder.isSet() ? activeEntityManagerHolder.get() : null;
+
+        if (previousState)
+        {
+            if (currentStorage != null && currentStorage != transactionBeanStorage)
+            {
+                // a joined storage just gets dropped, a storage created by the task ends its own scopes
+                TransactionBeanStorage.close();
+            }
+            TransactionBeanStorage.bind(transactionBeanStorage);
+        }
+        else
+        {
+            if (transactionBeanStorage != null && transactionBeanStorage.isEnded())
+            {
+                throw new IllegalStateException("The propagated transaction scope already ended. " +
+                        "The thread which started the transaction has to wait for its propagated tasks.");
+            }
+            TransactionBeanStorage.bind(transactionBeanStorage == null ? null : transactionBeanStorage.join());
+        }
+
+        if (activeEntityManager != null)
+        {
+            activeEntityManagerHolder.set(activeEntityManager);
+        }
+        else if (currentEntityManager != null)
+        {
+            activeEntityManagerHolder.dispose();
+        }
+
+        return new DefaultTransactionContextSnapshot(currentStorage, currentEntityManager,
+                activeEntityManagerHolder, true);
+    }
+
+    @Override
+    public Runnable wrap(final Runnable task)
+    {
+        return new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                TransactionContextSnapshot previous = restore();
+                try
+                {
+                    task.run();
+                }
+                finally
+                {
+                    previous.restore();
+                }
+            }
+        };
+    }
+
+    @Override
+    public <T> Callable<T> wrap(final Callable<T> task)
+    {
+        return new Callable<T>()
+        {
+            @Override
+            public T call() throws Exception
+            {
+                TransactionContextSnapshot previous = restore();
+                try
+                {
+                    return task.call();
+                }
+                finally
+                {
+                    previous.restore();
+                }
+            }
+        };
+    }
+}
@@ -19,11 +19,11 @@
 package org.apache.deltaspike.jpa.impl.transaction.context;
 
 import jakarta.enterprise.context.spi.Contextual;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -36,8 +36,9 @@ import java.util.logging.Logger;
  * <p>We use a RequestScoped bean because this way we don't need to take
  * care about cleaning up any ThreadLocals ourselves. This also makes sure that
  * we subsequently destroy any left over TransactionScoped beans (which should not happen,
- * but who knows). We also don't need to do any fancy synchronization stuff since
- * we are sure that we are always in the same Thread.</p>
+ * but who knows). The scope is only shared with other threads if it gets propagated explicitly
+ * via {@link org.apache.deltaspike.jpa.api.transaction.TransactionContextPropagation}, in that case
+ * the other threads join the scope without owning it.</p>
  */
 public class TransactionBeanStorage
 {
@@ -59,14 +60,24 @@ public class TransactionBeanStorage
          *
          */
         private Map<Contextual, TransactionBeanEntry> contextualInstances =
-                new HashMap<Contextual, TransactionBeanEntry>();
+                new ConcurrentHashMap<Contextual, TransactionBeanEntry>();
 
-        private Set<EntityManagerEntry> ems = new HashSet<EntityManagerEntry>();
+        private Set<EntityManagerEntry> ems =
+                Collections.newSetFromMap(new ConcurrentHashMap<EntityManagerEntry, Boolean>());
 
         /**
          * counts the 'depth' of the interceptor invocation.
          */
         private AtomicInteger refCounter = new AtomicInteger(0);
+
+        /**
+         * read-only decision of the outermost interceptor, pinned for the whole scope.
+         */
+        private boolean readOnly;
+
+        private TransactionTrace trace = TransactionTrace.DISABLED;
+
+        private volatile boolean ended;
     }
 
     /**
@@ -80,6 +91,16 @@ public class TransactionBeanStorage
      */
     private TransactionContextInfo currentTci = null;
 
+    /**
+     * <code>true</code> if this storage joined the TransactionScope of another thread.
+     */
+    private boolean joined;
+
+    /**
+     * Attempt of the next outermost transaction, greater than 0 for retries.
+     */
+    private int attempt;
+
     private TransactionBeanStorage()
     {
     }
@@ -103,7 +124,10 @@ public class TransactionBeanStorage
 
         if (currentStorage != null)
         {
-            currentStorage.endAllTransactionScopes();
+            if (!currentStorage.joined)
+            {
+                currentStorage.endAllTransactionScopes();
+            }
             transactionBeanStorage.set(null);
             transactionBeanStorage.remove();
         }
@@ -114,6 +138,74 @@ public class TransactionBeanStorage
         return transactionBeanStorage.get() != null;
     }
 
+    /**
+     * @return the storage of the current thread or <code>null</code>, doesn't create a new storage
+     */
+    static TransactionBeanStorage current()
+    {
+        return transactionBeanStorage.get();
+    }
+
+    /**
+     * Replaces the storage of the current thread.
+     */
+    static void bind(TransactionBeanStorage storage)
+    {
+        if (storage == null)
+        {
+            transactionBeanStorage.remove();
+        }
+        else
+        {
+            transactionBeanStorage.set(storage);
+        }
+    }
+
+    /**
+     * Creates a storage for another thread which shares the current TransactionScope.
+     * The joined storage never ends the shared scope.
+     *
+     * @return the joined storage or <code>null</code> if there is no active TransactionScope
+     */
+    TransactionBeanStorage join()
+    {
+        if (currentTci == null)
+        {
+            return null;
+        }
+
+        TransactionBeanStorage result = new TransactionBeanStorage();
+        result.currentTci = currentTci;
+        result.joined = true;
+        return result;
+    }
+
+    public void setAttempt(int attempt)
+    {
+        this.attempt = attempt;
+    }
+
+    /**
+     * @return <code>true</code> if the outermost transaction is a retry of a failed one
+     */
+    public boolean isRetry()
+    {
+        return attempt > 0;
+    }
+
+    boolean isJoined()
+    {
+        return joined;
+    }
+
+    /**
+     * @return <code>true</code> if the joined TransactionScope got ended by its owner
+     */
+    boolean isEnded()
+    {
+        return currentTci != null && currentTci.ended;
+    }
+
     /**
      * Increment the ref counter and return the old value.
      * Must only be called if the bean storage is not {@link #isEmpty()}.
@@ -181,6 +273,7 @@ public class TransactionBeanStorage
             LOGGER.finer("ending TransactionScope");
         }
 
+        currentTci.ended = true;
         destroyBeans(currentTci.contextualInstances);
 
         if (!oldTci.isEmpty())
@@ -210,6 +303,39 @@ public class TransactionBeanStorage
         currentTci.ems.clear();
     }
 
+    /**
+     * Pins the read-only decision for the current TransactionScope.
+     * Must only be called if the bean storage is not {@link #isEmpty()}.
+     */
+    public void setReadOnly(boolean readOnly)
+    {
+        currentTci.readOnly = readOnly;
+    }
+
+    /**
+     * @return <code>true</code> if the current TransactionScope got started by a read-only transaction
+     */
+    public boolean isReadOnly()
+    {
+        return currentTci != null && currentTci.readOnly;
+    }
+
+    /**
+     * Must only be called if the bean storage is not {@link #isEmpty()}.
+     */
+    public void setTrace(TransactionTrace trace)
+    {
+        currentTci.trace = trace;
+    }
+
+    /**
+     * @return the trace of the current TransactionScope, {@link TransactionTrace#DISABLED} if there is none
+     */
+    public TransactionTrace getTrace()
+    {
+        return currentTci == null ? TransactionTrace.DISABLED : currentTci.trace;
+    }
+
     /**
      * @return the Map which represents the currently active Context content.
      */
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.impl.transaction.context;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.apache.deltaspike.core.spi.future.ContextSnapshot;
+import org.apache.deltaspike.core.spi.future.ContextSnapshotProvider;
+import org.apache.deltaspike.jpa.api.transaction.TransactionContextPropagation;
+import org.apache.deltaspike.jpa.api.transaction.TransactionContextSnapshot;
+
+/**
+ * Starts tasks of {@link org.apache.deltaspike.core.api.future.ContextPropagation} (and therefore
+ * {@link org.apache.deltaspike.core.api.future.Futureable} methods) without the transactional state of the
+ * submitting thread, see {@link TransactionContextPropagation.Mode#ISOLATE}. Joining the transaction is
+ * only safe if the submitting thread waits for the task, since EntityManagers aren't thread-safe, so it
+ * requires {@link TransactionContextPropagation} with {@link TransactionContextPropagation.Mode#PROPAGATE}.
+ */
+@ApplicationScoped
+public class TransactionContextSnapshotProvider implements ContextSnapshotProvider
+{
+    @Inject
+    private TransactionContextPropagation transactionContextPropagation;
+
+    @Override
+    public ContextSnapshot capture()
+    {
+        return new TransactionContextSnapshotAdapter(
+                transactionContextPropagation.capture(TransactionContextPropagation.Mode.ISOLATE));
+    }
+
+    private static class TransactionContextSnapshotAdapter implements ContextSnapshot
+    {
+        private final TransactionContextSnapshot transactionContextSnapshot;
+
+        private TransactionContextSnapshotAdapter(TransactionContextSnapshot transactionContextSnapshot)
+        {
+            this.transactionContextSnapshot = transactionContextSnapshot;
+        }
+
+        @Override
+        public ContextSnapshot restore()
+        {
+            return new TransactionContextSnapshotAdapter(transactionContextSnapshot.restore());
+        }
+    }
+}
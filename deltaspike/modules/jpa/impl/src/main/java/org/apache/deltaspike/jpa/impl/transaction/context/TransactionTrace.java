@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.impl.transaction.context;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.deltaspike.jpa.spi.transaction.TransactionTimings;
+
+/**
+ * Records the timings of one outermost transaction, per EntityManager qualifier.
+ * A {@link #DISABLED} trace ignores all calls, so the strategies don't need to check it.
+ */
+public class TransactionTrace
+{
+    public static final TransactionTrace DISABLED = new TransactionTrace(null);
+
+    private final Method method;
+    private final long started;
+
+    // nested transactional methods might start a transaction in a thread which joined the scope
+    private final ConcurrentMap<Class<? extends Annotation>, EntityManagerTimings> timings =
+            new ConcurrentHashMap<Class<? extends Annotation>, EntityManagerTimings>();
+
+    private volatile long businessStarted;
+    private volatile long businessEnded;
+
+    public TransactionTrace(Method method)
+    {
+        this.method = method;
+        this.started = method == null ? 0 : System.nanoTime();
+    }
+
+    public boolean isEnabled()
+    {
+        return method != null;
+    }
+
+    public Method getMethod()
+    {
+        return method;
+    }
+
+    /**
+     * @return the current time for a later call of one of the recording methods, 0 if the trace is disabled
+     */
+    public long now()
+    {
+        return isEnabled() ? System.nanoTime() : 0;
+    }
+
+    public void begun(Class<? extends Annotation> qualifier, long beginStarted)
+    {
+        if (isEnabled())
+        {
+            getOrCreate(qualifier).beginNanos += System.nanoTime() - beginStarted;
+        }
+    }
+
+    /**
+     * Marks the start of the business code, only the first call counts.
+     */
+    public void proceeding()
+    {
+        if (isEnabled() && businessStarted == 0)
+        {
+            businessStarted = System.nanoTime();
+        }
+    }
+
+    /**
+     * Marks the end of the business code, only the first call counts.
+     */
+    public void completing()
+    {
+        if (isEnabled() && businessEnded == 0)
+        {
+            businessEnded = System.nanoTime();
+        }
+    }
+
+    public void flushed(Class<? extends Annotation> qualifier, long flushStarted)
+    {
+        if (isEnabled())
+        {
+            getOrCreate(qualifier).flushNanos += System.nanoTime() - flushStarted;
+        }
+    }
+
+    public void completed(Class<? extends Annotation> qualifier, long completionStarted, boolean rolledBack)
+    {
+        if (isEnabled())
+        {
+            EntityManagerTimings entityManagerTimings = getOrCreate(qualifier);
+            entityManagerTimings.commitNanos += System.nanoTime() - completionStarted;
+            entityManagerTimings.rolledBack = rolledBack;
+            entityManagerTimings.completed = true;
+        }
+    }
+
+    /**
+     * @return time since the trace got started
+     */
+    public long getElapsedNanos()
+    {
+        return isEnabled() ? System.nanoTime() - started : 0;
+    }
+
+    /**
+     * @return the timings of all EntityManagers which got committed or rolled back
+     */
+    public List<TransactionTimings> getTimings()
+    {
+        List<TransactionTimings> result = new ArrayList<TransactionTimings>(timings.size());
+        for (Map.Entry<Class<? extends Annotation>, EntityManagerTimings> entry : timings.entrySet())
+        {
+            if (entry.getValue().completed)
+            {
+                result.add(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private EntityManagerTimings getOrCreate(Class<? extends Annotation> qualifier)
+    {
+        EntityManagerTimings result = timings.get(qualifier);
+        if (result == null)
+        {
+            result = new EntityManagerTimings(qualifier);
+            EntityManagerTimings existing = timings.putIfAbsent(qualifier, result);
+            if (existing != null)
+            {
+                result = existing;
+            }
+        }
+        return result;
+    }
+
+    private class EntityManagerTimings implements TransactionTimings
+    {
+        private final Class<? extends Annotation> qualifier;
+
+        private volatile long beginNanos;
+        private volatile long flushNanos;
+        private volatile long commitNanos;
+        private volatile boolean rolledBack;
+        private volatile boolean completed;
+
+        private EntityManagerTimings(Class<? extends Annotation> qualifier)
+        {
+            this.qualifier = qualifier;
+        }
+
+        @Override
+        public Method getMethod()
+        {
+            return method;
+        }
+
+        @Override
+        public Class<? extends Annotation> getQualifier()
+        {
+            return qualifier;
+        }
+
+        @Override
+        public long getBeginNanos()
+        {
+            return beginNanos;
+        }
+
+        @Override
+        public long getBusinessNanos()
+        {
+            if (businessStarted == 0 || businessEnded < businessStarted)
+            {
+                return 0;
+            }
+            return businessEnded - businessStarted;
+        }
+
+        @Override
+        public long getFlushNanos()
+        {
+            return flushNanos;
+        }
+
+        @Override
+        public long getCommitNanos()
+        {
+            return commitNanos;
+        }
+
+        @Override
+        public long getTotalNanos()
+        {
+            return beginNanos + getBusinessNanos() + flushNanos + commitNanos;
+        }
+
+        @Override
+        public boolean isRolledBack()
+        {
+            return rolledBack;
+        }
+
+        @Override
+        public String toString()
+        {
+            return qualifier.getSimpleName() + ": begin=" + toMillis(beginNanos) +
+                    "ms, business=" + toMillis(getBusinessNanos()) + "ms, flush=" + toMillis(flushNanos) +
+                    "ms, " + (rolledBack ? "rollback=" : "commit=") + toMillis(commitNanos) + "ms";
+        }
+    }
+
+    private static long toMillis(long nanos)
+    {
+        return nanos / 1000000L;
+    }
+}
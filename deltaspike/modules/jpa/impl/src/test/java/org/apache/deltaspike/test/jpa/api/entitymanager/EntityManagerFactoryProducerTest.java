@@ -20,8 +20,11 @@ package org.apache.deltaspike.test.jpa.api.entitymanager;
 
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.spi.PersistenceProviderResolverHolder;
 
+import org.apache.deltaspike.jpa.api.entitymanager.PersistenceUnitName;
+import org.apache.deltaspike.jpa.impl.entitymanager.EntityManagerFactoryRegistry;
 import org.apache.deltaspike.jpa.spi.entitymanager.PersistenceConfigurationProvider;
 import org.apache.deltaspike.test.category.SeCategory;
 import org.apache.deltaspike.test.jpa.api.shared.TestEntityManager;
@@ -70,6 +73,17 @@ public class EntityManagerFactoryProducerTest
 
     private @Inject PersistenceConfigurationProvider persistenceConfigurationProvider;
 
+    @Inject
+    @PersistenceUnitName("testPersistenceUnit")
+    private EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    @PersistenceUnitName("testPersistenceUnit")
+    private EntityManagerFactory otherEntityManagerFactory;
+
+    @Inject
+    private EntityManagerFactoryRegistry entityManagerFactoryRegistry;
+
     @Test
     public void testUnitDefinitionQualifier() throws Exception
     {
@@ -80,4 +94,12 @@ public class EntityManagerFactoryProducerTest
         TestEntityManager tem = (TestEntityManager) entityManager.getDelegate();
         Assert.assertEquals("testPersistenceUnit", tem.getUnitName());
     }
+
+    @Test
+    public void testEntityManagerFactoryIsShared() throws Exception
+    {
+        Assert.assertSame(entityManagerFactory, otherEntityManagerFactory);
+        Assert.assertTrue(entityManagerFactoryRegistry.contains(entityManagerFactory));
+        Assert.assertTrue(entityManagerFactoryRegistry.getBootstrapTimes().containsKey("testPersistenceUnit"));
+    }
 }
@@ -103,6 +103,7 @@ public class TestPersistenceProviderResolver implements PersistenceProviderResol
     {
         private final String emName;
         private final Map map;
+        private boolean open = true;
 
         public DummyEntityManagerFactory()
         {
@@ -121,6 +122,7 @@ public class TestPersistenceProviderResolver implements PersistenceProviderResol
         @Override
         public void close()
         {
+            open = false;
         }
 
         @Override
@@ -150,7 +152,7 @@ public class TestPersistenceProviderResolver implements PersistenceProviderResol
         @Override
         public boolean isOpen()
         {
-            return false;  
+            return open;
         }
 
         @Override
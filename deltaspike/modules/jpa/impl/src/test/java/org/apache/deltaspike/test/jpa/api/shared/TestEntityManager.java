@@ -43,6 +43,8 @@ public class TestEntityManager implements EntityManager
 
     private boolean open = true;
     private boolean flushed = false;
+    private boolean cleared = false;
+    private FlushModeType flushMode = FlushModeType.AUTO;
     private String unitName = null;
 
     public TestEntityManager()
@@ -116,13 +118,13 @@ public class TestEntityManager implements EntityManager
     @Override
     public void setFlushMode(FlushModeType flushMode)
     {
-        throw new IllegalStateException("not implemented");
+        this.flushMode = flushMode;
     }
 
     @Override
     public FlushModeType getFlushMode()
     {
-        throw new IllegalStateException("not implemented");
+        return flushMode;
     }
 
     @Override
@@ -164,7 +166,7 @@ public class TestEntityManager implements EntityManager
     @Override
     public void clear()
     {
-        throw new IllegalStateException("not implemented");
+        cleared = true;
     }
 
     @Override
@@ -308,6 +310,11 @@ public class TestEntityManager implements EntityManager
         return flushed;
     }
 
+    public boolean isCleared()
+    {
+        return cleared;
+    }
+
     public void setFlushed(boolean flushed) {
         this.flushed = flushed;
     }
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.jpa.api.transactional.metrics;
+
+import org.apache.deltaspike.core.api.projectstage.ProjectStage;
+import org.apache.deltaspike.core.util.ProjectStageProducer;
+import org.apache.deltaspike.jpa.impl.transaction.TransactionStatistics;
+import org.apache.deltaspike.jpa.impl.transaction.context.TransactionBeanStorage;
+import org.apache.deltaspike.jpa.impl.transaction.context.TransactionContextExtension;
+import org.apache.deltaspike.jpa.spi.transaction.TransactionTimings;
+import org.apache.deltaspike.test.category.SeCategory;
+import org.apache.deltaspike.test.jpa.api.shared.TestException;
+import org.apache.deltaspike.test.util.ArchiveUtils;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import jakarta.enterprise.inject.Default;
+import jakarta.enterprise.inject.spi.Extension;
+import jakarta.inject.Inject;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(Arquillian.class)
+@Category(SeCategory.class)
+public class TransactionMetricsTest
+{
+    @Inject
+    private MeteredTransactionalBean meteredBean;
+
+    @Inject
+    private RecordingTransactionListener listener;
+
+    @Inject
+    private TransactionStatistics transactionStatistics;
+
+    @Deployment
+    public static WebArchive deploy()
+    {
+        JavaArchive testJar = ShrinkWrap.create(JavaArchive.class, "transactionMetricsTest.jar")
+                .addPackage(ArchiveUtils.SHARED_PACKAGE)
+                .addPackage(TransactionMetricsTest.class.getPackage().getName())
+                .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml");
+
+        return ShrinkWrap.create(WebArchive.class)
+                .addAsLibraries(ArchiveUtils.getDeltaSpikeCoreAndJpaArchive())
+                .addAsLibraries(testJar)
+                .addAsServiceProvider(Extension.class, TransactionContextExtension.class)
+                .addAsWebInfResource(ArchiveUtils.getBeansXml(), "beans.xml");
+    }
+
+    @Before
+    public void init()
+    {
+        ProjectStageProducer.setProjectStage(ProjectStage.UnitTest);
+        listener.getTimings().clear();
+        transactionStatistics.reset();
+    }
+
+    @Test
+    public void committedTransaction() throws InterruptedException
+    {
+        meteredBean.executeInTransaction();
+
+        Assert.assertEquals(1, listener.getTimings().size());
+        TransactionTimings timings = listener.getTimings().get(0);
+        Assert.assertEquals("executeInTransaction", timings.getMethod().getName());
+        Assert.assertEquals(Default.class, timings.getQualifier());
+        Assert.assertEquals(false, timings.isRolledBack());
+        Assert.assertTrue(timings.getBusinessNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+        Assert.assertTrue(timings.getTotalNanos() >= timings.getBusinessNanos());
+
+        TransactionStatistics.MethodStatistics statistics = transactionStatistics.getStatistics()
+                .get(MeteredTransactionalBean.class.getName() + "#executeInTransaction [Default]");
+        Assert.assertEquals(1, statistics.getTransactions());
+        Assert.assertEquals(0, statistics.getRollbacks());
+        Assert.assertEquals(1, transactionStatistics.getTransactions().getLines().size());
+
+        Assert.assertEquals(false, TransactionBeanStorage.isOpen());
+    }
+
+    @Test
+    public void rolledBackTransaction()
+    {
+        try
+        {
+            meteredBean.failInTransaction();
+            Assert.fail(TestException.class.getName() + " expected!");
+        }
+        catch (TestException e)
+        {
+            //expected
+        }
+
+        Assert.assertEquals(1, listener.getTimings().size());
+        Assert.assertEquals(true, listener.getTimings().get(0).isRolledBack());
+
+        TransactionStatistics.MethodStatistics statistics = transactionStatistics.getStatistics()
+                .get(MeteredTransactionalBean.class.getName() + "#failInTransaction [Default]");
+        Assert.assertEquals(1, statistics.getRollbacks());
+        Assert.assertEquals(1.0, statistics.getRollbackRate(), 0.0);
+
+        Assert.assertEquals(false, TransactionBeanStorage.isOpen());
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.jpa.api.transactional.propagation;
+
+import org.apache.deltaspike.core.api.projectstage.ProjectStage;
+import org.apache.deltaspike.core.util.ProjectStageProducer;
+import org.apache.deltaspike.jpa.impl.transaction.context.TransactionBeanStorage;
+import org.apache.deltaspike.jpa.impl.transaction.context.TransactionContextExtension;
+import org.apache.deltaspike.test.category.SeCategory;
+import org.apache.deltaspike.test.util.ArchiveUtils;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.enterprise.inject.spi.Extension;
+import jakarta.inject.Inject;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@RunWith(Arquillian.class)
+@Category(SeCategory.class)
+public class TransactionContextPropagationTest
+{
+    @Inject
+    private TransactionalBean transactionalBean;
+
+    private ExecutorService executorService;
+
+    @Deployment
+    public static WebArchive deploy()
+    {
+        JavaArchive testJar = ShrinkWrap.create(JavaArchive.class, "transactionContextPropagationTest.jar")
+                .addPackage(ArchiveUtils.SHARED_PACKAGE)
+                .addPackage(TransactionContextPropagationTest.class.getPackage().getName())
+                .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml");
+
+        return ShrinkWrap.create(WebArchive.class)
+                .addAsLibraries(ArchiveUtils.getDeltaSpikeCoreAndJpaArchive())
+                .addAsLibraries(testJar)
+                .addAsServiceProvider(Extension.class, TransactionContextExtension.class)
+                .addAsWebInfResource(ArchiveUtils.getBeansXml(), "beans.xml");
+    }
+
+    @Before
+    public void init()
+    {
+        ProjectStageProducer.setProjectStage(ProjectStage.UnitTest);
+        executorService = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void shutdown()
+    {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void propagatedTaskJoinsTransactionScope() throws Exception
+    {
+        Assert.assertTrue(transactionalBean.isSameEntityManagerInPropagatedTask(executorService));
+        Assert.assertTrue(transactionalBean.isSameEntityManagerInExecutor(executorService));
+
+        Assert.assertEquals(false, TransactionBeanStorage.isOpen());
+        Assert.assertEquals(false, isTransactionBeanStorageOpenInPool());
+    }
+
+    @Test
+    public void isolatedTaskDoesNotSeeTransactionScope() throws Exception
+    {
+        Object result = transactionalBean.lookupEntityManagerInIsolatedTask(executorService);
+
+        Assert.assertTrue(result instanceof ContextNotActiveException);
+        Assert.assertEquals(false, TransactionBeanStorage.isOpen());
+        Assert.assertEquals(false, isTransactionBeanStorageOpenInPool());
+    }
+
+    @Test
+    public void contextPropagationDoesNotJoinTransaction() throws Exception
+    {
+        Object result = transactionalBean.lookupEntityManagerWithContextPropagation(executorService);
+
+        Assert.assertTrue(result instanceof ContextNotActiveException);
+        Assert.assertEquals(false, TransactionBeanStorage.isOpen());
+        Assert.assertEquals(false, isTransactionBeanStorageOpenInPool());
+    }
+
+    private boolean isTransactionBeanStorageOpenInPool() throws Exception
+    {
+        return executorService.submit(new Callable<Boolean>()
+        {
+            @Override
+            public Boolean call()
+            {
+                return TransactionBeanStorage.isOpen();
+            }
+        }).get();
+    }
+}
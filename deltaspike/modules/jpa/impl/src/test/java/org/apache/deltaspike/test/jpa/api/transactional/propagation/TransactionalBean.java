@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.jpa.api.transactional.propagation;
+
+import org.apache.deltaspike.core.api.future.ContextPropagation;
+import org.apache.deltaspike.jpa.api.transaction.TransactionContextPropagation;
+import org.apache.deltaspike.jpa.api.transaction.Transactional;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+
+@ApplicationScoped
+public class TransactionalBean
+{
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private TransactionContextPropagation transactionContextPropagation;
+
+    @Inject
+    private ContextPropagation contextPropagation;
+
+    @Transactional
+    public boolean isSameEntityManagerInPropagatedTask(ExecutorService executorService) throws Exception
+    {
+        Object entityManagerOfTransaction = entityManager.getDelegate();
+
+        Object entityManagerOfTask = executorService.submit(transactionContextPropagation
+                .capture(TransactionContextPropagation.Mode.PROPAGATE)
+                .wrap(new EntityManagerLookup())).get();
+
+        return entityManagerOfTransaction == entityManagerOfTask;
+    }
+
+    @Transactional
+    public boolean isSameEntityManagerInExecutor(ExecutorService executorService) throws Exception
+    {
+        Object entityManagerOfTransaction = entityManager.getDelegate();
+
+        FutureTask<Object> task = new FutureTask<Object>(new EntityManagerLookup());
+        transactionContextPropagation.wrap(executorService, TransactionContextPropagation.Mode.PROPAGATE)
+                .execute(task);
+
+        return entityManagerOfTransaction == task.get();
+    }
+
+    @Transactional
+    public Object lookupEntityManagerInIsolatedTask(ExecutorService executorService) throws Exception
+    {
+        entityManager.getDelegate();
+
+        return executorService.submit(transactionContextPropagation
+                .capture(TransactionContextPropagation.Mode.ISOLATE)
+                .wrap(new EntityManagerLookup())).get();
+    }
+
+    @Transactional
+    public Object lookupEntityManagerWithContextPropagation(ExecutorService executorService) throws Exception
+    {
+        entityManager.getDelegate();
+
+        return executorService.submit(contextPropagation.wrap(new EntityManagerLookup())).get();
+    }
+
+    private class EntityManagerLookup implements Callable<Object>
+    {
+        @Override
+        public Object call()
+        {
+            try
+            {
+                return entityManager.getDelegate();
+            }
+            catch (ContextNotActiveException e)
+            {
+                return e;
+            }
+        }
+    }
+}
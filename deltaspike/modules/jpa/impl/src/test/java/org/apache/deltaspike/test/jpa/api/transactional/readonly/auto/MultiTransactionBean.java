@@ -25,6 +25,7 @@ import org.apache.deltaspike.test.jpa.api.shared.Second;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
 
 @ApplicationScoped
 public class MultiTransactionBean
@@ -38,8 +39,16 @@ public class MultiTransactionBean
     @Inject
     private @Second EntityManager secondEntityManager;
 
+    private FlushModeType flushModeInTransaction;
+
     @Transactional(readOnly = true)
     public void executeInTransaction()
     {
+        flushModeInTransaction = defaultEntityManager.getFlushMode();
+    }
+
+    public FlushModeType getFlushModeInTransaction()
+    {
+        return flushModeInTransaction;
     }
 }
@@ -48,6 +48,9 @@ public class NestedMultiTransactionReadOnlyNoRollbackTest
     @Inject
     private FirstLevelTransactionBean firstLevelTransactionBean;
 
+    @Inject
+    private NestedTransactionBean nestedTransactionBean;
+
     @Inject
     private TestEntityManagerProducer entityManagerProducer;
 
@@ -98,6 +101,9 @@ public class NestedMultiTransactionReadOnlyNoRollbackTest
 
         firstLevelTransactionBean.executeInTransaction();
 
+        // the read-only decision of the outermost transactional method is pinned
+        Assert.assertEquals(false, nestedTransactionBean.isReadOnlyScope());
+
         Assert.assertEquals(true, firstEntityManager.isFlushed());
         Assert.assertEquals(false, firstTransaction.isActive());
         Assert.assertEquals(true, firstTransaction.isStarted());
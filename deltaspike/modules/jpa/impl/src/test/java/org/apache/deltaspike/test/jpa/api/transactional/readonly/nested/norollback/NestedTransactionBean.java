@@ -19,6 +19,7 @@
 package org.apache.deltaspike.test.jpa.api.transactional.readonly.nested.norollback;
 
 import org.apache.deltaspike.jpa.api.transaction.Transactional;
+import org.apache.deltaspike.jpa.impl.transaction.context.TransactionBeanStorage;
 import org.apache.deltaspike.test.jpa.api.shared.Second;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -31,8 +32,16 @@ public class NestedTransactionBean
     @Inject
     private @Second EntityManager secondEntityManager;
 
+    private boolean readOnlyScope;
+
     @Transactional(readOnly = true)
     public void executeInTransaction()
     {
+        readOnlyScope = TransactionBeanStorage.getInstance().isReadOnly();
+    }
+
+    public boolean isReadOnlyScope()
+    {
+        return readOnlyScope;
     }
 }
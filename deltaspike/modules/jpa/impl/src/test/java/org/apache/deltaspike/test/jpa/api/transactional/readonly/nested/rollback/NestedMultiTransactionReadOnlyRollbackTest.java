@@ -48,6 +48,9 @@ public class NestedMultiTransactionReadOnlyRollbackTest
     @Inject
     private FirstLevelTransactionBean firstLevelTransactionBean;
 
+    @Inject
+    private NestedTransactionBean nestedTransactionBean;
+
     @Inject
     private TestEntityManagerProducer entityManagerProducer;
 
@@ -98,6 +101,9 @@ public class NestedMultiTransactionReadOnlyRollbackTest
 
         firstLevelTransactionBean.executeInTransaction();
 
+        // the read-only decision of the outermost transactional method is pinned
+        Assert.assertEquals(true, nestedTransactionBean.isReadOnlyScope());
+
         Assert.assertEquals(false, firstEntityManager.isFlushed());
         Assert.assertEquals(false, firstTransaction.isActive());
         Assert.assertEquals(true, firstTransaction.isStarted());
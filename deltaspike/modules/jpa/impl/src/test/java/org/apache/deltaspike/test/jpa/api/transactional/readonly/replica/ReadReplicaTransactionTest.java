@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.jpa.api.transactional.readonly.replica;
+
+import org.apache.deltaspike.core.api.projectstage.ProjectStage;
+import org.apache.deltaspike.core.util.ProjectStageProducer;
+import org.apache.deltaspike.jpa.impl.transaction.context.TransactionBeanStorage;
+import org.apache.deltaspike.jpa.impl.transaction.context.TransactionContextExtension;
+import org.apache.deltaspike.test.category.SeCategory;
+import org.apache.deltaspike.test.jpa.api.shared.TestEntityTransaction;
+import org.apache.deltaspike.test.util.ArchiveUtils;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import jakarta.enterprise.inject.spi.Extension;
+import jakarta.inject.Inject;
+
+/**
+ * A read-only transaction with a replica qualifier also begins on the default EntityManager,
+ * as beans might inject it directly.
+ */
+@RunWith(Arquillian.class)
+@Category(SeCategory.class)
+public class ReadReplicaTransactionTest
+{
+    private static Asset beansXml = new StringAsset(
+            "<beans>" +
+            "<alternatives>" +
+            "<class>" + ReplicaTransactionStrategy.class.getName() + "</class>" +
+            "</alternatives>" +
+            "</beans>"
+    );
+
+    @Inject
+    private DefaultEntityManagerBean defaultEntityManagerBean;
+
+    @Inject
+    private TestEntityManagerProducer entityManagerProducer;
+
+    @Deployment
+    public static WebArchive deploy()
+    {
+        JavaArchive testJar = ShrinkWrap.create(JavaArchive.class, "readReplicaTransactionTest.jar")
+                .addPackage(ArchiveUtils.SHARED_PACKAGE)
+                .addPackage(ReadReplicaTransactionTest.class.getPackage().getName())
+                .addAsManifestResource(beansXml, "beans.xml");
+
+        return ShrinkWrap.create(WebArchive.class)
+                .addAsLibraries(ArchiveUtils.getDeltaSpikeCoreAndJpaArchive())
+                .addAsLibraries(testJar)
+                .addAsServiceProvider(Extension.class, TransactionContextExtension.class)
+                .addAsWebInfResource(ArchiveUtils.getBeansXml(), "beans.xml");
+    }
+
+    @Before
+    public void init()
+    {
+        ProjectStageProducer.setProjectStage(ProjectStage.UnitTest);
+    }
+
+    @Test
+    public void readOnlyTransactionBeginsOnDefaultAndReplicaEntityManager()
+    {
+        TestEntityTransaction defaultTransaction =
+                (TestEntityTransaction) entityManagerProducer.getDefaultEntityManager().getTransaction();
+        TestEntityTransaction replicaTransaction =
+                (TestEntityTransaction) entityManagerProducer.getReplicaEntityManager().getTransaction();
+
+        defaultEntityManagerBean.executeInTransaction();
+
+        Assert.assertTrue(defaultEntityManagerBean.isTransactionActive());
+
+        Assert.assertEquals(true, defaultTransaction.isStarted());
+        Assert.assertEquals(false, defaultTransaction.isActive());
+        Assert.assertEquals(true, defaultTransaction.isRolledBack());
+
+        Assert.assertEquals(true, replicaTransaction.isStarted());
+        Assert.assertEquals(false, replicaTransaction.isActive());
+        Assert.assertEquals(true, replicaTransaction.isRolledBack());
+
+        Assert.assertEquals(false, TransactionBeanStorage.isOpen());
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.jpa.api.transactional.readonly.replica;
+
+import org.apache.deltaspike.jpa.impl.transaction.ResourceLocalTransactionStrategy;
+import org.apache.deltaspike.test.jpa.api.shared.Second;
+
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.inject.Alternative;
+import java.lang.annotation.Annotation;
+
+/**
+ * Uses the {@link Second} EntityManager as read replica, without configuring it globally.
+ */
+@Dependent
+@Alternative
+public class ReplicaTransactionStrategy extends ResourceLocalTransactionStrategy
+{
+    @Override
+    protected Class<? extends Annotation> getReadOnlyQualifier()
+    {
+        return Second.class;
+    }
+}
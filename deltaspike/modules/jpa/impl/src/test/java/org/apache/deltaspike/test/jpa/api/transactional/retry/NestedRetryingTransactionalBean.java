@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.jpa.api.transactional.retry;
+
+import org.apache.deltaspike.jpa.api.transaction.Transactional;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.OptimisticLockException;
+
+@ApplicationScoped
+public class NestedRetryingTransactionalBean
+{
+    private int invocations;
+
+    @Transactional(maxRetries = 5)
+    public void fail()
+    {
+        invocations++;
+        throw new OptimisticLockException();
+    }
+
+    public int getInvocations()
+    {
+        return invocations;
+    }
+
+    public void reset()
+    {
+        invocations = 0;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.jpa.api.transactional.retry;
+
+import org.apache.deltaspike.jpa.api.transaction.TransactionScoped;
+import org.apache.deltaspike.test.jpa.api.shared.TestEntityManager;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequestScoped
+public class TestEntityManagerProducer
+{
+    private List<TestEntityManager> entityManagers = new ArrayList<TestEntityManager>();
+
+    @Produces
+    @TransactionScoped
+    protected EntityManager entityManager()
+    {
+        TestEntityManager entityManager = new TestEntityManager();
+        entityManagers.add(entityManager);
+        return entityManager;
+    }
+
+    public List<TestEntityManager> getEntityManagers()
+    {
+        return entityManagers;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.jpa.api.transactional.retry;
+
+import org.apache.deltaspike.core.api.projectstage.ProjectStage;
+import org.apache.deltaspike.core.util.ProjectStageProducer;
+import org.apache.deltaspike.jpa.impl.transaction.TransactionRetryStatistics;
+import org.apache.deltaspike.jpa.impl.transaction.context.TransactionBeanStorage;
+import org.apache.deltaspike.jpa.impl.transaction.context.TransactionContextExtension;
+import org.apache.deltaspike.test.category.SeCategory;
+import org.apache.deltaspike.test.jpa.api.shared.TestEntityManager;
+import org.apache.deltaspike.test.jpa.api.shared.TestEntityTransaction;
+import org.apache.deltaspike.test.jpa.api.shared.TestException;
+import org.apache.deltaspike.test.util.ArchiveUtils;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import jakarta.enterprise.inject.spi.Extension;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
+import java.util.List;
+
+@RunWith(Arquillian.class)
+@Category(SeCategory.class)
+public class TransactionRetryTest
+{
+    @Inject
+    private RetryingTransactionalBean retryingBean;
+
+    @Inject
+    private NestedRetryingTransactionalBean nestedBean;
+
+    @Inject
+    private TestEntityManagerProducer entityManagerProducer;
+
+    @Inject
+    private TransactionRetryStatistics retryStatistics;
+
+    @Deployment
+    public static WebArchive deploy()
+    {
+        JavaArchive testJar = ShrinkWrap.create(JavaArchive.class, "transactionRetryTest.jar")
+                .addPackage(ArchiveUtils.SHARED_PACKAGE)
+                .addPackage(TransactionRetryTest.class.getPackage().getName())
+                .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml");
+
+        return ShrinkWrap.create(WebArchive.class)
+                .addAsLibraries(ArchiveUtils.getDeltaSpikeCoreAndJpaArchive())
+                .addAsLibraries(testJar)
+                .addAsServiceProvider(Extension.class, TransactionContextExtension.class)
+                .addAsWebInfResource(ArchiveUtils.getBeansXml(), "beans.xml");
+    }
+
+    @Before
+    public void init()
+    {
+        ProjectStageProducer.setProjectStage(ProjectStage.UnitTest);
+        retryingBean.reset();
+        retryStatistics.reset();
+    }
+
+    @Test
+    public void retryOnOptimisticLockException()
+    {
+        Assert.assertEquals(3, retryingBean.failTwice());
+
+        List<TestEntityManager> entityManagers = entityManagerProducer.getEntityManagers();
+        Assert.assertEquals(3, entityManagers.size());
+        Assert.assertEquals(true, ((TestEntityTransaction) entityManagers.get(0).getTransaction()).isRolledBack());
+        Assert.assertEquals(true, ((TestEntityTransaction) entityManagers.get(1).getTransaction()).isRolledBack());
+        Assert.assertEquals(true, ((TestEntityTransaction) entityManagers.get(2).getTransaction()).isCommitted());
+        Assert.assertEquals(false, entityManagers.get(0).isCleared());
+        Assert.assertEquals(true, entityManagers.get(2).isCleared());
+
+        TransactionRetryStatistics.MethodStatistics statistics = retryStatistics.getStatistics()
+                .get(RetryingTransactionalBean.class.getName() + "#failTwice");
+        Assert.assertEquals(2, statistics.getRetries());
+        Assert.assertEquals(1, statistics.getRecoveredInvocations());
+        Assert.assertEquals(0, statistics.getExhaustedInvocations());
+
+        Assert.assertEquals(false, TransactionBeanStorage.isOpen());
+    }
+
+    @Test
+    public void noRetryForOtherExceptions()
+    {
+        try
+        {
+            retryingBean.failWithOtherException();
+            Assert.fail(TestException.class.getName() + " expected!");
+        }
+        catch (TestException e)
+        {
+            //expected
+        }
+
+        Assert.assertEquals(1, retryingBean.getInvocations());
+        Assert.assertEquals(false, TransactionBeanStorage.isOpen());
+    }
+
+    @Test
+    public void onlyOutermostMethodRetries()
+    {
+        try
+        {
+            retryingBean.failInNestedMethod();
+            Assert.fail(OptimisticLockException.class.getName() + " expected!");
+        }
+        catch (OptimisticLockException e)
+        {
+            //expected
+        }
+
+        Assert.assertEquals(4, retryingBean.getInvocations());
+        Assert.assertEquals(4, nestedBean.getInvocations());
+
+        TransactionRetryStatistics.MethodStatistics statistics = retryStatistics.getStatistics()
+                .get(RetryingTransactionalBean.class.getName() + "#failInNestedMethod");
+        Assert.assertEquals(3, statistics.getRetries());
+        Assert.assertEquals(1, statistics.getExhaustedInvocations());
+
+        Assert.assertEquals(false, TransactionBeanStorage.isOpen());
+    }
+}
@@ -111,4 +111,15 @@ public class EntityMappingsDescriptorParserTest
         Assert.assertEquals("mapped_three_table",
                 descriptor.getEntityDescriptors().get(2).getTableName());
     }
+
+    @Test
+    public void testCachedMappingsCreateNewDescriptors() throws IOException
+    {
+        EntityMappingsDescriptor secondDescriptor
+            = entityMappingsDescriptorParser.readAll(getClass().getResource("/").getPath(), "META-INF/test-orm.xml");
+
+        Assert.assertNotSame(descriptor.getEntityDescriptors().get(0), secondDescriptor.getEntityDescriptors().get(0));
+        Assert.assertEquals(MappedOne.class, secondDescriptor.getEntityDescriptors().get(0).getEntityClass());
+        Assert.assertEquals("version", secondDescriptor.getMappedSuperclassDescriptors().get(1).getVersion());
+    }
 }
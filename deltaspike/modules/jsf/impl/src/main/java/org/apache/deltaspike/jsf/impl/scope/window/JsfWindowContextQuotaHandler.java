@@ -35,6 +35,7 @@ public class JsfWindowContextQuotaHandler extends DefaultWindowContextQuotaHandl
     @PostConstruct
     protected void init()
     {
+        super.init();
         this.maxWindowContextCount = this.clientWindowConfig.getMaxWindowContextCount();
     }
 }
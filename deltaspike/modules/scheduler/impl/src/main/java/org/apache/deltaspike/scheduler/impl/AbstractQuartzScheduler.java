@@ -27,7 +27,6 @@ import org.apache.deltaspike.core.util.ClassUtils;
 import org.apache.deltaspike.core.util.ExceptionUtils;
 import org.apache.deltaspike.core.util.PropertyFileUtils;
 import org.apache.deltaspike.core.util.ProxyUtils;
-import org.apache.deltaspike.core.util.metadata.AnnotationInstanceProvider;
 import org.apache.deltaspike.scheduler.api.Scheduled;
 import org.apache.deltaspike.scheduler.spi.Scheduler;
 import org.quartz.CronScheduleBuilder;
@@ -44,9 +43,12 @@ import org.quartz.Trigger;
 import org.quartz.TriggerBuilder;
 import org.quartz.impl.StdSchedulerFactory;
 
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.context.control.RequestContextController;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
@@ -54,18 +56,28 @@ import java.util.Properties;
 import java.util.ResourceBundle;
 import java.util.Stack;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public abstract class AbstractQuartzScheduler<T> implements Scheduler<T>
 {
     private static final Logger LOG = Logger.getLogger(AbstractQuartzScheduler.class.getName());
-    private static final Scheduled DEFAULT_SCHEDULED_LITERAL = AnnotationInstanceProvider.of(Scheduled.class);
 
     private static ThreadLocal<JobListenerContext> currentJobListenerContext = new ThreadLocal<JobListenerContext>();
 
     protected org.quartz.Scheduler scheduler;
 
+    private final ConcurrentMap<Class<?>, JobExecutionPlan> jobExecutionPlans =
+        new ConcurrentHashMap<Class<?>, JobExecutionPlan>();
+
+    private final ConcurrentMap<JobKey, JobExecutionMetrics> jobExecutionMetrics =
+        new ConcurrentHashMap<JobKey, JobExecutionMetrics>();
+
+    private InjectionAwareJobListener jobListener;
+
     @Override
     public void start()
     {
@@ -131,7 +143,8 @@ public abstract class AbstractQuartzScheduler<T> implements Scheduler<T>
             this.scheduler = schedulerFactory.getScheduler();
             if (SchedulerBaseConfig.LifecycleIntegration.START_SCOPES_PER_JOB)
             {
-                this.scheduler.getListenerManager().addJobListener(new InjectionAwareJobListener());
+                this.jobListener = new InjectionAwareJobListener();
+                this.scheduler.getListenerManager().addJobListener(this.jobListener);
             }
             if (!this.scheduler.isStarted())
             {
@@ -160,6 +173,13 @@ public abstract class AbstractQuartzScheduler<T> implements Scheduler<T>
             {
                 this.scheduler.shutdown(!SchedulerBaseConfig.LifecycleIntegration.FORCE_STOP);
                 this.scheduler = null;
+                this.jobExecutionMetrics.clear();
+
+                if (this.jobListener != null)
+                {
+                    this.jobListener.destroyWorkerContextControls();
+                    this.jobListener = null;
+                }
             }
         }
         catch (SchedulerException e)
@@ -344,7 +364,13 @@ public abstract class AbstractQuartzScheduler<T> implements Scheduler<T>
     {
         try
         {
-            return this.scheduler.deleteJob(createJobKey(jobClass));
+            JobKey jobKey = createJobKey(jobClass);
+            boolean deleted = this.scheduler.deleteJob(jobKey);
+            if (deleted)
+            {
+                this.jobExecutionMetrics.remove(jobKey);
+            }
+            return deleted;
         }
         catch (SchedulerException e)
         {
@@ -431,8 +457,57 @@ public abstract class AbstractQuartzScheduler<T> implements Scheduler<T>
         return jobClass.getSimpleName();
     }
 
+    /**
+     * @return metrics of the jobs executed since the start of the scheduler (without deleted jobs),
+     *         they are only recorded if {@link SchedulerBaseConfig.LifecycleIntegration#START_SCOPES_PER_JOB} is set
+     */
+    public Collection<JobExecutionMetrics> getJobExecutionMetrics()
+    {
+        return Collections.unmodifiableCollection(this.jobExecutionMetrics.values());
+    }
+
+    JobExecutionPlan getJobExecutionPlan(Class<?> jobClass)
+    {
+        JobExecutionPlan jobExecutionPlan = this.jobExecutionPlans.get(jobClass);
+        if (jobExecutionPlan == null)
+        {
+            jobExecutionPlan = new JobExecutionPlan(jobClass);
+            JobExecutionPlan existingPlan = this.jobExecutionPlans.putIfAbsent(jobClass, jobExecutionPlan);
+            if (existingPlan != null)
+            {
+                jobExecutionPlan = existingPlan;
+            }
+        }
+        return jobExecutionPlan;
+    }
+
+    JobExecutionMetrics getJobExecutionMetrics(JobKey jobKey)
+    {
+        JobExecutionMetrics metrics = this.jobExecutionMetrics.get(jobKey);
+        if (metrics == null)
+        {
+            metrics = new JobExecutionMetrics(jobKey.toString());
+            JobExecutionMetrics existingMetrics = this.jobExecutionMetrics.putIfAbsent(jobKey, metrics);
+            if (existingMetrics != null)
+            {
+                metrics = existingMetrics;
+            }
+        }
+        return metrics;
+    }
+
     private class InjectionAwareJobListener implements JobListener
     {
+        // only used with SchedulerBaseConfig.LifecycleIntegration#BOUND_REQUEST_CONTEXT
+        private final ThreadLocal<WorkerContextControl> workerContextControl =
+            new ThreadLocal<WorkerContextControl>();
+
+        // the controls of all worker-threads, destroyed once the scheduler stops
+        private final Collection<WorkerContextControl> workerContextControls =
+            new ConcurrentLinkedQueue<WorkerContextControl>();
+
+        private final boolean boundRequestContext = SchedulerBaseConfig.LifecycleIntegration.BOUND_REQUEST_CONTEXT;
+
         @Override
         public String getName()
         {
@@ -442,23 +517,20 @@ public abstract class AbstractQuartzScheduler<T> implements Scheduler<T>
         @Override
         public void jobToBeExecuted(JobExecutionContext jobExecutionContext)
         {
-            Class<?> jobClass = ProxyUtils.getUnproxiedClass(jobExecutionContext.getJobInstance().getClass());
-            Scheduled scheduled = jobClass.getAnnotation(Scheduled.class);
+            long startTime = System.nanoTime();
 
-            //can happen with manually registered job-instances (via #unwrap)
-            if (scheduled == null && !jobClass.equals(DynamicExpressionObserverJob.class))
-            {
-                scheduled = DEFAULT_SCHEDULED_LITERAL;
-            }
+            Class<?> jobClass = ProxyUtils.getUnproxiedClass(jobExecutionContext.getJobInstance().getClass());
+            JobExecutionPlan jobExecutionPlan = getJobExecutionPlan(jobClass);
 
-            if (scheduled == null)
+            if (!jobExecutionPlan.isContextAware())
             {
                 return;
             }
 
-            JobListenerContext jobListenerContext = new JobListenerContext();
+            JobListenerContext jobListenerContext = new JobListenerContext(jobExecutionPlan,
+                getJobExecutionMetrics(jobExecutionContext.getJobDetail().getKey()), getWorkerContextControl());
             currentJobListenerContext.set(jobListenerContext);
-            jobListenerContext.startContexts(scheduled);
+            jobListenerContext.startContexts();
 
             boolean jobInstanceIsBean;
 
@@ -476,25 +548,57 @@ public abstract class AbstractQuartzScheduler<T> implements Scheduler<T>
             {
                 BeanProvider.injectFields(jobExecutionContext.getJobInstance());
             }
+
+            jobListenerContext.setupFinished(startTime);
         }
 
         @Override
         public void jobExecutionVetoed(JobExecutionContext context)
         {
-            stopStartedScopes();
+            stopStartedScopes(false);
         }
 
         @Override
         public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException)
         {
-            stopStartedScopes();
+            stopStartedScopes(true);
         }
 
-        private void stopStartedScopes()
+        private WorkerContextControl getWorkerContextControl()
+        {
+            if (!this.boundRequestContext)
+            {
+                return null;
+            }
+
+            WorkerContextControl result = this.workerContextControl.get();
+            if (result == null)
+            {
+                result = new WorkerContextControl();
+                this.workerContextControl.set(result);
+                this.workerContextControls.add(result);
+            }
+            return result;
+        }
+
+        void destroyWorkerContextControls()
+        {
+            for (WorkerContextControl workerContextControl : this.workerContextControls)
+            {
+                workerContextControl.destroy();
+            }
+            this.workerContextControls.clear();
+        }
+
+        private void stopStartedScopes(boolean executed)
         {
             JobListenerContext jobListenerContext = currentJobListenerContext.get();
             if (jobListenerContext != null)
             {
+                if (executed)
+                {
+                    jobListenerContext.recordExecution();
+                }
                 jobListenerContext.stopStartedScopes();
                 currentJobListenerContext.set(null);
                 currentJobListenerContext.remove();
@@ -502,38 +606,145 @@ public abstract class AbstractQuartzScheduler<T> implements Scheduler<T>
         }
     }
 
-    private static class JobListenerContext
+    static class JobListenerContext
     {
+        private final JobExecutionPlan jobExecutionPlan;
+        private final JobExecutionMetrics metrics;
+        private final WorkerContextControl workerContextControl;
+
         private Stack<Class<? extends Annotation>> scopes = new Stack<Class<? extends Annotation>>();
         private DependentProvider<ContextControl> contextControl;
+        private long setupTime;
+        private long runStartTime;
 
-        public void startContexts(Scheduled scheduled)
+        // only set if the request-context got activated via the RequestContextController of the worker
+        private RequestContextController activatedRequestContext;
+
+        JobListenerContext(JobExecutionPlan jobExecutionPlan,
+                           JobExecutionMetrics metrics,
+                           WorkerContextControl workerContextControl)
         {
-            Collections.addAll(this.scopes, scheduled.startScopes());
+            this.jobExecutionPlan = jobExecutionPlan;
+            this.metrics = metrics;
+            this.workerContextControl = workerContextControl;
+        }
 
-            if (!this.scopes.isEmpty())
+        public void startContexts()
+        {
+            for (Class<? extends Annotation> scopeAnnotation : this.jobExecutionPlan.getStartScopes())
             {
-                this.contextControl = BeanProvider.getDependent(ContextControl.class);
+                if (this.workerContextControl != null && RequestScoped.class.equals(scopeAnnotation))
+                {
+                    RequestContextController requestContextController =
+                        this.workerContextControl.getRequestContextController();
 
-                for (Class<? extends Annotation> scopeAnnotation : this.scopes)
+                    if (!requestContextController.activate())
+                    {
+                        // active already - e.g. because it got started manually
+                        continue;
+                    }
+                    this.activatedRequestContext = requestContextController;
+                }
+                else
                 {
-                    contextControl.get().startContext(scopeAnnotation);
+                    getContextControl().startContext(scopeAnnotation);
                 }
+                this.scopes.push(scopeAnnotation);
+            }
+        }
+
+        void setupFinished(long startTime)
+        {
+            this.runStartTime = System.nanoTime();
+            this.setupTime = this.runStartTime - startTime;
+        }
+
+        void recordExecution()
+        {
+            if (this.runStartTime != 0)
+            {
+                this.metrics.record(this.setupTime, System.nanoTime() - this.runStartTime);
             }
         }
 
-        private void stopStartedScopes()
+        private ContextControl getContextControl()
         {
+            if (this.workerContextControl != null)
+            {
+                return this.workerContextControl.getContextControl();
+            }
+
             if (this.contextControl == null)
             {
-                return;
+                this.contextControl = BeanProvider.getDependent(ContextControl.class);
             }
+            return this.contextControl.get();
+        }
 
+        void stopStartedScopes()
+        {
             while (!this.scopes.empty())
             {
-                this.contextControl.get().stopContext(this.scopes.pop());
+                Class<? extends Annotation> scopeAnnotation = this.scopes.pop();
+
+                if (this.activatedRequestContext != null && RequestScoped.class.equals(scopeAnnotation))
+                {
+                    this.activatedRequestContext.deactivate();
+                    this.activatedRequestContext = null;
+                }
+                else
+                {
+                    getContextControl().stopContext(scopeAnnotation);
+                }
+            }
+
+            if (this.contextControl != null)
+            {
+                this.contextControl.destroy();
+            }
+        }
+    }
+
+    /**
+     * Context-controls which are kept per worker-thread (and not created per job-execution).
+     * Quartz uses a fixed set of worker-threads which end with the scheduler, so the controls get destroyed
+     * once the scheduler stops.
+     */
+    static class WorkerContextControl
+    {
+        private DependentProvider<RequestContextController> requestContextController;
+        private DependentProvider<ContextControl> contextControl;
+
+        RequestContextController getRequestContextController()
+        {
+            if (this.requestContextController == null)
+            {
+                this.requestContextController = BeanProvider.getDependent(RequestContextController.class);
+            }
+            return this.requestContextController.get();
+        }
+
+        ContextControl getContextControl()
+        {
+            if (this.contextControl == null)
+            {
+                this.contextControl = BeanProvider.getDependent(ContextControl.class);
+            }
+            return this.contextControl.get();
+        }
+
+        void destroy()
+        {
+            if (this.requestContextController != null)
+            {
+                this.requestContextController.destroy();
+                this.requestContextController = null;
+            }
+            if (this.contextControl != null)
+            {
+                this.contextControl.destroy();
+                this.contextControl = null;
             }
-            this.contextControl.destroy();
         }
     }
 
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.scheduler.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executions of a job and the time spent for setting up the contexts and the injection versus
+ * the time spent for running the job itself.
+ */
+public class JobExecutionMetrics
+{
+    private final String jobName;
+
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong setupTimeInNanos = new AtomicLong();
+    private final AtomicLong runTimeInNanos = new AtomicLong();
+    private final AtomicLong maxRunTimeInNanos = new AtomicLong();
+
+    JobExecutionMetrics(String jobName)
+    {
+        this.jobName = jobName;
+    }
+
+    public String getJobName()
+    {
+        return jobName;
+    }
+
+    public long getExecutions()
+    {
+        return executions.get();
+    }
+
+    public long getSetupTimeInNanos()
+    {
+        return setupTimeInNanos.get();
+    }
+
+    public long getRunTimeInNanos()
+    {
+        return runTimeInNanos.get();
+    }
+
+    public long getMaxRunTimeInNanos()
+    {
+        return maxRunTimeInNanos.get();
+    }
+
+    public void reset()
+    {
+        executions.set(0);
+        setupTimeInNanos.set(0);
+        runTimeInNanos.set(0);
+        maxRunTimeInNanos.set(0);
+    }
+
+    void record(long setupTime, long runTime)
+    {
+        executions.incrementAndGet();
+        setupTimeInNanos.addAndGet(setupTime);
+        runTimeInNanos.addAndGet(runTime);
+
+        long maxRunTime = maxRunTimeInNanos.get();
+        while (runTime > maxRunTime && !maxRunTimeInNanos.compareAndSet(maxRunTime, runTime))
+        {
+            maxRunTime = maxRunTimeInNanos.get();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.scheduler.impl;
+
+import org.apache.deltaspike.core.util.metadata.AnnotationInstanceProvider;
+import org.apache.deltaspike.scheduler.api.Scheduled;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Everything which is needed for executing instances of a job-class and doesn't change between the executions,
+ * i.e. the scopes to start.
+ */
+class JobExecutionPlan
+{
+    private static final Scheduled DEFAULT_SCHEDULED_LITERAL = AnnotationInstanceProvider.of(Scheduled.class);
+
+    private final boolean contextAware;
+    private final Class<? extends Annotation>[] startScopes;
+
+    JobExecutionPlan(Class<?> jobClass)
+    {
+        Scheduled scheduled = jobClass.getAnnotation(Scheduled.class);
+
+        //can happen with manually registered job-instances (via #unwrap)
+        if (scheduled == null && !jobClass.equals(DynamicExpressionObserverJob.class))
+        {
+            scheduled = DEFAULT_SCHEDULED_LITERAL;
+        }
+
+        this.contextAware = scheduled != null;
+        this.startScopes = scheduled != null ? scheduled.startScopes() : new Class[0];
+    }
+
+    /**
+     * @return false if the job doesn't need scopes or injection, e.g. {@link DynamicExpressionObserverJob}
+     */
+    boolean isContextAware()
+    {
+        return contextAware;
+    }
+
+    Class<? extends Annotation>[] getStartScopes()
+    {
+        return startScopes;
+    }
+}
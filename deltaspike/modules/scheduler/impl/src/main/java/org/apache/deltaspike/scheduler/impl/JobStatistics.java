@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.scheduler.impl;
+
+import org.apache.deltaspike.core.api.jmx.JmxManaged;
+import org.apache.deltaspike.core.api.jmx.MBean;
+import org.apache.deltaspike.core.api.jmx.Table;
+import org.apache.deltaspike.scheduler.spi.Scheduler;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the {@link JobExecutionMetrics} of the quartz based schedulers.
+ */
+@ApplicationScoped
+@MBean(name = "JobStatistics", description = "Executions of the scheduled jobs")
+public class JobStatistics
+{
+    @JmxManaged(description = "executions, setup- and run-time (in microseconds) per job")
+    private Table jobs;
+
+    @Inject
+    private SchedulerExtension schedulerExtension;
+
+    public Table getJobs()
+    {
+        Table result = new Table().withColumns("job", "executions",
+                "avg setup time", "avg run time", "max run time");
+
+        for (JobExecutionMetrics metrics : getJobExecutionMetrics())
+        {
+            long executions = metrics.getExecutions();
+            result.withLine(metrics.getJobName(),
+                    String.valueOf(executions),
+                    String.valueOf(toMicros(average(metrics.getSetupTimeInNanos(), executions))),
+                    String.valueOf(toMicros(average(metrics.getRunTimeInNanos(), executions))),
+                    String.valueOf(toMicros(metrics.getMaxRunTimeInNanos())));
+        }
+        return result;
+    }
+
+    @JmxManaged(description = "resets the metrics of all jobs")
+    public void reset()
+    {
+        for (JobExecutionMetrics metrics : getJobExecutionMetrics())
+        {
+            metrics.reset();
+        }
+    }
+
+    protected Collection<JobExecutionMetrics> getJobExecutionMetrics()
+    {
+        Scheduler<?> scheduler = schedulerExtension.getScheduler();
+        if (scheduler instanceof AbstractQuartzScheduler)
+        {
+            return ((AbstractQuartzScheduler<?>) scheduler).getJobExecutionMetrics();
+        }
+        return Collections.emptyList();
+    }
+
+    private static long average(long total, long executions)
+    {
+        return executions == 0 ? 0 : total / executions;
+    }
+
+    private static long toMicros(long nanos)
+    {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
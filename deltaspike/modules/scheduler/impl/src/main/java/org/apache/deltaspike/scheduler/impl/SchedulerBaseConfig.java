@@ -77,6 +77,18 @@ public interface SchedulerBaseConfig extends DeltaSpikeBaseConfig
                 .withDefault(Boolean.FALSE)
                 .getValue();
 
+        /**
+         * If enabled, the request-context of jobs gets activated via a {@code RequestContextController} which is
+         * kept per worker-thread (and not via {@code ContextControl}). Other scopes listed in
+         * {@link org.apache.deltaspike.scheduler.api.Scheduled#startScopes()} are still started via
+         * {@code ContextControl}, which is also kept per worker-thread in this mode.
+         */
+        Boolean BOUND_REQUEST_CONTEXT = ConfigResolver.resolve("deltaspike.scheduler.bound_request_context")
+                .as(Boolean.class)
+                .withCurrentProjectStage(true)
+                .withDefault(Boolean.FALSE)
+                .getValue();
+
         Integer DELAYED_START_IN_SECONDS = ConfigResolver.resolve("deltaspike.scheduler.delayed_start_in_seconds")
                 .as(Integer.class)
                 .withCurrentProjectStage(true)
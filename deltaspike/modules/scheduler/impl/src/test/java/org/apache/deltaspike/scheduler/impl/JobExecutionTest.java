@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.scheduler.impl;
+
+import org.apache.deltaspike.cdise.api.ContextControl;
+import org.apache.deltaspike.scheduler.api.Scheduled;
+import org.junit.Assert;
+import org.junit.Test;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.context.SessionScoped;
+import jakarta.enterprise.context.control.RequestContextController;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class JobExecutionTest
+{
+    @Test
+    public void executionPlansAreCachedPerJobClass()
+    {
+        JobQuartzScheduler scheduler = new JobQuartzScheduler();
+
+        JobExecutionPlan jobExecutionPlan = scheduler.getJobExecutionPlan(ScheduledJob.class);
+
+        Assert.assertSame(jobExecutionPlan, scheduler.getJobExecutionPlan(ScheduledJob.class));
+        Assert.assertTrue(jobExecutionPlan.isContextAware());
+        Assert.assertEquals(Arrays.<Class<? extends Annotation>>asList(SessionScoped.class, RequestScoped.class),
+                Arrays.asList(jobExecutionPlan.getStartScopes()));
+
+        Assert.assertFalse(scheduler.getJobExecutionPlan(DynamicExpressionObserverJob.class).isContextAware());
+        //e.g. job-instances which got registered manually
+        Assert.assertEquals(2, scheduler.getJobExecutionPlan(Object.class).getStartScopes().length);
+    }
+
+    @Test
+    public void boundRequestContextIsDeactivatedAfterTheJob()
+    {
+        TestWorkerContextControl workerContextControl = new TestWorkerContextControl(true);
+        AbstractQuartzScheduler.JobListenerContext jobListenerContext = new AbstractQuartzScheduler.JobListenerContext(
+                new JobExecutionPlan(ScheduledJob.class), new JobExecutionMetrics("job"), workerContextControl);
+
+        jobListenerContext.startContexts();
+        Assert.assertEquals(Arrays.asList("start SessionScoped", "activate"), workerContextControl.calls);
+
+        jobListenerContext.stopStartedScopes();
+        Assert.assertEquals(Arrays.asList("start SessionScoped", "activate", "deactivate", "stop SessionScoped"),
+                workerContextControl.calls);
+    }
+
+    @Test
+    public void activeRequestContextIsntDeactivatedAfterTheJob()
+    {
+        //e.g. the request-context got started manually
+        TestWorkerContextControl workerContextControl = new TestWorkerContextControl(false);
+        AbstractQuartzScheduler.JobListenerContext jobListenerContext = new AbstractQuartzScheduler.JobListenerContext(
+                new JobExecutionPlan(ScheduledJob.class), new JobExecutionMetrics("job"), workerContextControl);
+
+        jobListenerContext.startContexts();
+        jobListenerContext.stopStartedScopes();
+
+        Assert.assertEquals(Arrays.asList("start SessionScoped", "activate", "stop SessionScoped"),
+                workerContextControl.calls);
+    }
+
+    @Test
+    public void executionsAreRecordedOnceTheSetupFinished()
+    {
+        JobExecutionMetrics metrics = new JobExecutionMetrics("job");
+        AbstractQuartzScheduler.JobListenerContext jobListenerContext = new AbstractQuartzScheduler.JobListenerContext(
+                new JobExecutionPlan(ScheduledJob.class), metrics, null);
+
+        jobListenerContext.recordExecution();
+        Assert.assertEquals(0, metrics.getExecutions());
+
+        jobListenerContext.setupFinished(System.nanoTime());
+        jobListenerContext.recordExecution();
+        metrics.record(10, 20);
+
+        Assert.assertEquals(2, metrics.getExecutions());
+        Assert.assertTrue(metrics.getSetupTimeInNanos() >= 10);
+        Assert.assertTrue(metrics.getRunTimeInNanos() >= 20);
+        Assert.assertTrue(metrics.getMaxRunTimeInNanos() >= 20);
+
+        metrics.reset();
+        Assert.assertEquals(0, metrics.getExecutions());
+        Assert.assertEquals(0, metrics.getMaxRunTimeInNanos());
+    }
+
+    @Test
+    public void metricsOfDeletedJobsAreDropped()
+    {
+        JobQuartzScheduler scheduler = new JobQuartzScheduler();
+        scheduler.scheduler = createQuartzScheduler();
+
+        scheduler.getJobExecutionMetrics(new JobKey(ScheduledJob.class.getName()));
+        scheduler.getJobExecutionMetrics(new JobKey(OtherScheduledJob.class.getName()));
+        Assert.assertEquals(2, scheduler.getJobExecutionMetrics().size());
+
+        Assert.assertTrue(scheduler.deleteJob(ScheduledJob.class));
+
+        Assert.assertEquals(1, scheduler.getJobExecutionMetrics().size());
+        Assert.assertEquals(new JobKey(OtherScheduledJob.class.getName()).toString(),
+                scheduler.getJobExecutionMetrics().iterator().next().getJobName());
+    }
+
+    private static org.quartz.Scheduler createQuartzScheduler()
+    {
+        return (org.quartz.Scheduler) Proxy.newProxyInstance(JobExecutionTest.class.getClassLoader(),
+                new Class<?>[] { org.quartz.Scheduler.class }, new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args)
+                    {
+                        //only deleteJob is needed
+                        return "deleteJob".equals(method.getName()) ? Boolean.TRUE : null;
+                    }
+                });
+    }
+
+    @Scheduled(cronExpression = "0 0 * * * ?")
+    public static class ScheduledJob implements Job
+    {
+        @Override
+        public void execute(JobExecutionContext context)
+        {
+        }
+    }
+
+    @Scheduled(cronExpression = "0 0 * * * ?")
+    public static class OtherScheduledJob implements Job
+    {
+        @Override
+        public void execute(JobExecutionContext context)
+        {
+        }
+    }
+
+    private static class TestWorkerContextControl extends AbstractQuartzScheduler.WorkerContextControl
+    {
+        private final List<String> calls = new ArrayList<String>();
+        private final boolean requestContextInactive;
+
+        private TestWorkerContextControl(boolean requestContextInactive)
+        {
+            this.requestContextInactive = requestContextInactive;
+        }
+
+        @Override
+        RequestContextController getRequestContextController()
+        {
+            return new RequestContextController()
+            {
+                @Override
+                public boolean activate()
+                {
+                    calls.add("activate");
+                    return requestContextInactive;
+                }
+
+                @Override
+                public void deactivate()
+                {
+                    calls.add("deactivate");
+                }
+            };
+        }
+
+        @Override
+        ContextControl getContextControl()
+        {
+            return new ContextControl()
+            {
+                @Override
+                public void startContexts()
+                {
+                    calls.add("start all");
+                }
+
+                @Override
+                public void stopContexts()
+                {
+                    calls.add("stop all");
+                }
+
+                @Override
+                public void startContext(Class<? extends Annotation> scopeClass)
+                {
+                    calls.add("start " + scopeClass.getSimpleName());
+                }
+
+                @Override
+                public void stopContext(Class<? extends Annotation> scopeClass)
+                {
+                    calls.add("stop " + scopeClass.getSimpleName());
+                }
+            };
+        }
+    }
+}
@@ -41,7 +41,8 @@ public class ArchiveUtils
                 new String[]{"org.apache.deltaspike.core",
                         "org.apache.deltaspike.test.category",
                         "org.apache.deltaspike.scheduler"},
-                null,
+                //unit-test of package-private parts, it mustn't turn the test-classes into a deployed archive
+                new String[]{"org.apache.deltaspike.scheduler.impl.JobExecutionTest"},
                 "ds-core_and_scheduler");
     }
 